@@ -0,0 +1,34 @@
+package org.example.kitchen.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.kitchen.display.KitchenDisplayIndex;
+import org.example.kitchen.display.KitchenDisplayStream;
+import org.example.kitchen.dto.response.KitchenTicketResponse;
+import org.example.kitchen.model.enums.KitchenOrderStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/kitchen/display")
+@RequiredArgsConstructor
+public class KitchenDisplayController {
+
+    private final KitchenDisplayIndex board;
+    private final KitchenDisplayStream stream;
+
+    @GetMapping
+    public ResponseEntity<List<KitchenTicketResponse>> snapshot(
+            @RequestParam(name = "status", required = false) KitchenOrderStatus status,
+            @RequestParam(name = "station", required = false) String station) {
+        return ResponseEntity.ok(board.tickets(status, station == null || station.isBlank() ? null : station.trim()));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(name = "station", required = false) String station) {
+        return stream.subscribe(station);
+    }
+}
@@ -25,22 +25,23 @@ public class KitchenOrderController {
 
     @PostMapping
     public ResponseEntity<KitchenOrderResponse> create(@Valid @RequestBody CreateKitchenOrderRequest req) {
-        KitchenOrder created = service.createOrder(req.getOrderId(), req.getItemsJson());
-        KitchenOrderResponse resp = KitchenOrderMapper.toResponse(created);
+        int priority = req.getPriority() == null ? 0 : req.getPriority();
+        KitchenOrder created = service.createOrder(req.getOrderId(), req.getItemsJson(), priority);
+        KitchenOrderResponse resp = KitchenOrderMapper.toResponse(created, service.estimateReadyAt(created.getId()));
         return ResponseEntity.created(URI.create("/api/kitchen/orders/" + created.getId())).body(resp);
     }
 
     @GetMapping("/by-order/{orderId}")
     public ResponseEntity<List<KitchenOrderResponse>> getByOrder(@PathVariable("orderId") UUID orderId) {
         List<KitchenOrderResponse> list = service.findByOrderId(orderId)
-                .stream().map(KitchenOrderMapper::toResponse).collect(Collectors.toList());
+                .stream().map(this::toResponse).collect(Collectors.toList());
         return ResponseEntity.ok(list);
     }
 
     @PutMapping("/{id}/status")
     public ResponseEntity<KitchenOrderResponse> updateStatus(@PathVariable("id") UUID id, @Valid @RequestBody UpdateStatusRequest req) {
         KitchenOrder updated = service.updateStatus(id, req.getStatus());
-        return ResponseEntity.ok(KitchenOrderMapper.toResponse(updated));
+        return ResponseEntity.ok(toResponse(updated));
     }
 
     @PostMapping("/{id}/cancel")
@@ -54,4 +55,8 @@ public class KitchenOrderController {
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private KitchenOrderResponse toResponse(KitchenOrder o) {
+        return KitchenOrderMapper.toResponse(o, service.estimateReadyAt(o.getId()));
+    }
 }
\ No newline at end of file
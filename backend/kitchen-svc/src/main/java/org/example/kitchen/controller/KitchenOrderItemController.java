@@ -0,0 +1,49 @@
+package org.example.kitchen.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.kitchen.dto.request.BulkItemStatusRequest;
+import org.example.kitchen.dto.request.UpdateStatusRequest;
+import org.example.kitchen.dto.response.KitchenOrderItemResponse;
+import org.example.kitchen.dto.response.MenuItemLoadResponse;
+import org.example.kitchen.mapper.KitchenOrderMapper;
+import org.example.kitchen.service.IKitchenOrderItemService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/kitchen")
+@RequiredArgsConstructor
+public class KitchenOrderItemController {
+
+    private final IKitchenOrderItemService service;
+
+    @GetMapping("/orders/{id}/items")
+    public ResponseEntity<List<KitchenOrderItemResponse>> list(@PathVariable("id") UUID id) {
+        return ResponseEntity.ok(service.findByKitchenOrderId(id)
+                .stream().map(KitchenOrderMapper::toItemResponse).collect(Collectors.toList()));
+    }
+
+    @PutMapping("/orders/{id}/items/{itemId}/status")
+    public ResponseEntity<KitchenOrderItemResponse> updateStatus(@PathVariable("id") UUID id,
+                                                                 @PathVariable("itemId") UUID itemId,
+                                                                 @Valid @RequestBody UpdateStatusRequest req) {
+        return ResponseEntity.ok(KitchenOrderMapper.toItemResponse(service.updateStatus(id, itemId, req.getStatus())));
+    }
+
+    @PutMapping("/items/status")
+    public ResponseEntity<List<KitchenOrderItemResponse>> updateStatuses(@Valid @RequestBody BulkItemStatusRequest req) {
+        return ResponseEntity.ok(service.updateStatuses(req.getItemIds(), req.getStatus())
+                .stream().map(KitchenOrderMapper::toItemResponse).collect(Collectors.toList()));
+    }
+
+    @GetMapping("/items/in-flight")
+    public ResponseEntity<List<MenuItemLoadResponse>> inFlight() {
+        return ResponseEntity.ok(service.inFlightByMenuItem()
+                .stream().map(KitchenOrderMapper::toLoadResponse).collect(Collectors.toList()));
+    }
+}
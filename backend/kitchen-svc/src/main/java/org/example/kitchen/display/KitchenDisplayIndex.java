@@ -0,0 +1,251 @@
+package org.example.kitchen.display;
+
+import org.example.kitchen.dto.response.KitchenTicketResponse;
+import org.example.kitchen.event.KitchenOrderChangedEvent;
+import org.example.kitchen.mapper.KitchenOrderMapper;
+import org.example.kitchen.model.KitchenOrder;
+import org.example.kitchen.model.KitchenOrderItem;
+import org.example.kitchen.model.enums.KitchenOrderStatus;
+import org.example.kitchen.repository.KitchenOrderItemRepository;
+import org.example.kitchen.repository.KitchenOrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory board of the tickets kitchen screens show: every order that is not yet served,
+ * completed or cancelled, with its items, indexed by status and by station.
+ *
+ * Loaded at startup and kept current by {@link KitchenOrderChangedEvent}s, which reload the one
+ * order after its transaction commits. A periodic resync replaces the whole board, which also picks
+ * up changes made by other instances. Every change is handed to the registered listeners (see
+ * {@link KitchenDisplayStream}) as the ticket's new state, or null once it left the board.
+ */
+@Component
+public class KitchenDisplayIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(KitchenDisplayIndex.class);
+
+    static final Set<KitchenOrderStatus> ACTIVE = EnumSet.of(
+            KitchenOrderStatus.NEW, KitchenOrderStatus.PREPARING, KitchenOrderStatus.IN_PROGRESS, KitchenOrderStatus.READY);
+
+    // keeps IN lists well under driver limits
+    static final int LOAD_CHUNK = 500;
+
+    // urgent tickets first, then oldest first
+    static final Comparator<KitchenTicketResponse> TICKET_ORDER = Comparator
+            .comparingInt(KitchenTicketResponse::getPriority).reversed()
+            .thenComparing(KitchenTicketResponse::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final KitchenOrderRepository orderRepository;
+    private final KitchenOrderItemRepository itemRepository;
+    private final List<BiConsumer<UUID, KitchenTicketResponse>> listeners = new CopyOnWriteArrayList<>();
+
+    // written under this; read without locking
+    private final Map<UUID, KitchenTicketResponse> tickets = new ConcurrentHashMap<>();
+    private final Map<KitchenOrderStatus, Set<UUID>> byStatus = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> byStation = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public KitchenDisplayIndex(KitchenOrderRepository orderRepository, KitchenOrderItemRepository itemRepository) {
+        this.orderRepository = orderRepository;
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${kitchen.display.resync-ms:60000}",
+            initialDelayString = "${kitchen.display.resync-ms:60000}")
+    public void resync() {
+        try {
+            rebuild();
+        } catch (Exception ex) {
+            log.error("Kitchen display resync failed", ex);
+        }
+    }
+
+    /**
+     * Replaces the board with the active orders in the database and tells listeners what changed.
+     */
+    public synchronized int rebuild() {
+        List<KitchenOrder> orders = orderRepository.findByStatusIn(ACTIVE);
+        Map<UUID, List<KitchenOrderItem>> itemsByOrder = new HashMap<>();
+        List<UUID> ids = orders.stream().map(KitchenOrder::getId).collect(Collectors.toList());
+        for (int i = 0; i < ids.size(); i += LOAD_CHUNK) {
+            for (KitchenOrderItem item : itemRepository.findByKitchenOrderIdInOrderByLineNo(ids.subList(i, Math.min(ids.size(), i + LOAD_CHUNK)))) {
+                itemsByOrder.computeIfAbsent(item.getKitchenOrderId(), k -> new ArrayList<>()).add(item);
+            }
+        }
+
+        Map<UUID, KitchenTicketResponse> fresh = new HashMap<>();
+        for (KitchenOrder o : orders) {
+            fresh.put(o.getId(), toTicket(o, itemsByOrder.getOrDefault(o.getId(), List.of())));
+        }
+
+        boolean notify = loaded && !listeners.isEmpty();
+        for (UUID id : new ArrayList<>(tickets.keySet())) {
+            if (!fresh.containsKey(id)) {
+                unindex(id);
+                if (notify) notifyListeners(id, null);
+            }
+        }
+        fresh.forEach((id, ticket) -> {
+            KitchenTicketResponse before = put(ticket);
+            if (notify && !ticket.equals(before)) notifyListeners(id, ticket);
+        });
+        loaded = true;
+        log.debug("Kitchen display index loaded {} active tickets", fresh.size());
+        return fresh.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(KitchenOrderChangedEvent event) {
+        if (event.getKitchenOrderId() == null) return;
+        try {
+            refresh(event.getKitchenOrderId());
+        } catch (Exception ex) {
+            // the next resync repairs the board
+            log.warn("Could not refresh kitchen display for {}: {}", event.getKitchenOrderId(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Reloads one order and puts it on the board, or takes it off once it is no longer active.
+     */
+    public synchronized void refresh(UUID kitchenOrderId) {
+        KitchenOrder order = orderRepository.findById(kitchenOrderId).orElse(null);
+        if (order == null || !ACTIVE.contains(order.getStatus())) {
+            if (tickets.containsKey(kitchenOrderId)) {
+                unindex(kitchenOrderId);
+                notifyListeners(kitchenOrderId, null);
+            }
+            return;
+        }
+        KitchenTicketResponse ticket = toTicket(order, itemRepository.findByKitchenOrderIdOrderByLineNo(kitchenOrderId));
+        KitchenTicketResponse before = put(ticket);
+        if (!ticket.equals(before)) notifyListeners(kitchenOrderId, ticket);
+    }
+
+    public void addListener(BiConsumer<UUID, KitchenTicketResponse> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Active tickets, optionally only those in {@code status} and/or with work for {@code station},
+     * most urgent first.
+     */
+    public List<KitchenTicketResponse> tickets(KitchenOrderStatus status, String station) {
+        if (!loaded) rebuild();
+        Collection<UUID> candidates;
+        if (status != null && station != null) {
+            Set<UUID> s = byStatus.getOrDefault(status, Set.of());
+            Set<UUID> t = byStation.getOrDefault(station, Set.of());
+            Set<UUID> small = s.size() <= t.size() ? s : t;
+            Set<UUID> other = small == s ? t : s;
+            candidates = small.stream().filter(other::contains).collect(Collectors.toList());
+        } else if (status != null) {
+            candidates = byStatus.getOrDefault(status, Set.of());
+        } else if (station != null) {
+            candidates = byStation.getOrDefault(station, Set.of());
+        } else {
+            candidates = tickets.keySet();
+        }
+
+        List<KitchenTicketResponse> out = new ArrayList<>(candidates.size());
+        for (UUID id : candidates) {
+            KitchenTicketResponse t = tickets.get(id);
+            if (t != null) out.add(t);
+        }
+        out.sort(TICKET_ORDER);
+        return out;
+    }
+
+    /**
+     * Number of active tickets per status.
+     */
+    public Map<KitchenOrderStatus, Integer> counts() {
+        Map<KitchenOrderStatus, Integer> out = new HashMap<>();
+        byStatus.forEach((status, ids) -> {
+            if (!ids.isEmpty()) out.put(status, ids.size());
+        });
+        return out;
+    }
+
+    public int size() {
+        return tickets.size();
+    }
+
+    private KitchenTicketResponse put(KitchenTicketResponse ticket) {
+        KitchenTicketResponse before = tickets.put(ticket.getId(), ticket);
+        if (before != null) deindex(before);
+        byStatus.computeIfAbsent(ticket.getStatus(), k -> ConcurrentHashMap.newKeySet()).add(ticket.getId());
+        for (String station : ticket.getStations()) {
+            byStation.computeIfAbsent(station, k -> ConcurrentHashMap.newKeySet()).add(ticket.getId());
+        }
+        return before;
+    }
+
+    private void unindex(UUID id) {
+        KitchenTicketResponse before = tickets.remove(id);
+        if (before != null) deindex(before);
+    }
+
+    private void deindex(KitchenTicketResponse ticket) {
+        Set<UUID> s = byStatus.get(ticket.getStatus());
+        if (s != null) s.remove(ticket.getId());
+        for (String station : ticket.getStations()) {
+            Set<UUID> t = byStation.get(station);
+            if (t != null) t.remove(ticket.getId());
+        }
+    }
+
+    private void notifyListeners(UUID id, KitchenTicketResponse ticket) {
+        for (BiConsumer<UUID, KitchenTicketResponse> listener : listeners) {
+            try {
+                listener.accept(id, ticket);
+            } catch (Exception ex) {
+                log.warn("Kitchen display listener failed for {}", id, ex);
+            }
+        }
+    }
+
+    private static KitchenTicketResponse toTicket(KitchenOrder o, List<KitchenOrderItem> items) {
+        Set<String> stations = new TreeSet<>();
+        for (KitchenOrderItem i : items) {
+            if (i.getStation() != null) stations.add(i.getStation());
+        }
+        return KitchenTicketResponse.builder()
+                .id(o.getId())
+                .orderId(o.getOrderId())
+                .status(o.getStatus())
+                .priority(o.getPriority())
+                .createdAt(o.getCreatedAt())
+                .updatedAt(o.getUpdatedAt())
+                .dueAt(o.getDueAt())
+                .stations(List.copyOf(stations))
+                .items(items.stream().map(KitchenOrderMapper::toItemResponse).collect(Collectors.toList()))
+                .build();
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.kitchen.display;
+
+import jakarta.annotation.PreDestroy;
+import org.example.kitchen.dto.response.KitchenTicketResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes ticket changes from {@link KitchenDisplayIndex} to kitchen screens over SSE.
+ *
+ * A new subscriber first gets a "snapshot" event with the active tickets, then one "ticket" event
+ * with the full new state per change and "ticket-removed" once a ticket leaves the board. A screen
+ * subscribed for one station only gets tickets with work for that station. All sends happen on one
+ * thread, so a slow screen never holds up the kitchen and every screen sees the changes in order,
+ * after its snapshot.
+ */
+@Component
+public class KitchenDisplayStream {
+
+    private static final Logger log = LoggerFactory.getLogger(KitchenDisplayStream.class);
+
+    // keeps idle connections from being cut by proxies
+    static final long HEARTBEAT_SECONDS = 25;
+
+    // value for screens that follow every station
+    private static final String ALL = "";
+
+    private final KitchenDisplayIndex board;
+    private final long timeoutMillis;
+    private final Executor sender;
+    private final Map<SseEmitter, String> emitters = new ConcurrentHashMap<>();
+    private ScheduledExecutorService ownExecutor;
+
+    @Autowired
+    public KitchenDisplayStream(KitchenDisplayIndex board,
+                                @Value("${kitchen.display.stream-timeout-ms:1800000}") long timeoutMillis) {
+        this(board, timeoutMillis, newExecutor());
+        this.ownExecutor = (ScheduledExecutorService) sender;
+        ownExecutor.scheduleWithFixedDelay(this::heartbeat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    KitchenDisplayStream(KitchenDisplayIndex board, long timeoutMillis, Executor sender) {
+        this.board = board;
+        this.timeoutMillis = timeoutMillis;
+        this.sender = sender;
+        board.addListener(this::publish);
+    }
+
+    public SseEmitter subscribe(String station) {
+        String filter = station == null || station.isBlank() ? ALL : station.trim();
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(ex -> emitters.remove(emitter));
+        // registered on the sending thread, so no change can reach the screen ahead of its snapshot
+        sender.execute(() -> {
+            List<KitchenTicketResponse> snapshot = board.tickets(null, filter.isEmpty() ? null : filter);
+            if (send(emitter, SseEmitter.event().name("snapshot").data(snapshot))) {
+                emitters.put(emitter, filter);
+            }
+        });
+        return emitter;
+    }
+
+    public int subscribers() {
+        return emitters.size();
+    }
+
+    // always queued: a screen whose snapshot is being sent is only registered once that task is done
+    void publish(UUID ticketId, KitchenTicketResponse ticket) {
+        sender.execute(() -> emitters.forEach((emitter, station) -> {
+            if (ticket == null) {
+                send(emitter, SseEmitter.event().name("ticket-removed").data(Map.of("id", ticketId)));
+            } else if (station.isEmpty() || ticket.getStations().contains(station)) {
+                send(emitter, SseEmitter.event().name("ticket").data(ticket));
+            }
+        }));
+    }
+
+    void heartbeat() {
+        for (SseEmitter emitter : emitters.keySet()) {
+            send(emitter, SseEmitter.event().comment("keep-alive"));
+        }
+    }
+
+    SseEmitter newEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    private boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException ex) {
+            // screen went away; the container completes the emitter
+            emitters.remove(emitter);
+            log.debug("Dropping kitchen display subscriber: {}", ex.getMessage());
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        emitters.keySet().forEach(SseEmitter::complete);
+        emitters.clear();
+        if (ownExecutor != null) ownExecutor.shutdownNow();
+    }
+
+    private static ScheduledExecutorService newExecutor() {
+        return Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "kitchen-display-stream");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
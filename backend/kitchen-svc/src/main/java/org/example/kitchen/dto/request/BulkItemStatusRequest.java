@@ -0,0 +1,18 @@
+package org.example.kitchen.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.example.kitchen.model.enums.KitchenOrderStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class BulkItemStatusRequest {
+    @NotEmpty
+    private List<UUID> itemIds;
+
+    @NotNull
+    private KitchenOrderStatus status;
+}
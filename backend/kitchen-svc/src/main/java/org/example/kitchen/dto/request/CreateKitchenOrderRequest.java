@@ -13,4 +13,7 @@ public class CreateKitchenOrderRequest {
 
     @NotBlank
     private String itemsJson;
+
+    // higher goes first; orders of equal priority are cooked oldest first
+    private Integer priority;
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package org.example.kitchen.dto.response;
+
+import lombok.Data;
+import org.example.kitchen.model.enums.KitchenOrderStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+public class KitchenOrderItemResponse {
+    private UUID id;
+    private UUID kitchenOrderId;
+    private String menuItemId;
+    private String name;
+    private int quantity;
+    private String station;
+    private KitchenOrderStatus status;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant readyAt;
+    private Instant updatedAt;
+}
@@ -12,6 +12,8 @@ public class KitchenOrderResponse {
     private UUID orderId;
     private String itemsJson;
     private KitchenOrderStatus status;
+    private int priority;
+    private Instant estimatedReadyAt;
     private Instant createdAt;
     private Instant updatedAt;
 }
\ No newline at end of file
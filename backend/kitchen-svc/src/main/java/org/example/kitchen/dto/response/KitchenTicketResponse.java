@@ -0,0 +1,30 @@
+package org.example.kitchen.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.kitchen.model.enums.KitchenOrderStatus;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An active order as shown on kitchen screens.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KitchenTicketResponse {
+    private UUID id;
+    private UUID orderId;
+    private KitchenOrderStatus status;
+    private int priority;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Instant dueAt;
+    private List<String> stations;
+    private List<KitchenOrderItemResponse> items;
+}
@@ -0,0 +1,19 @@
+package org.example.kitchen.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.kitchen.model.enums.KitchenOrderStatus;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuItemLoadResponse {
+    private String menuItemId;
+    private String name;
+    private KitchenOrderStatus status;
+    // portions across all open orders
+    private long quantity;
+    // order lines they come from
+    private long lines;
+}
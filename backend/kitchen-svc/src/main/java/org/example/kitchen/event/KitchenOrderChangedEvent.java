@@ -0,0 +1,18 @@
+package org.example.kitchen.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a kitchen order or one of its items is created, changes status or is deleted.
+ * Listeners read the current state themselves.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class KitchenOrderChangedEvent {
+    private final UUID kitchenOrderId;
+}
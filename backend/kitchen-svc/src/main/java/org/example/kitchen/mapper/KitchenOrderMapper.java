@@ -1,21 +1,58 @@
 package org.example.kitchen.mapper;
 
+import org.example.kitchen.dto.response.KitchenOrderItemResponse;
 import org.example.kitchen.dto.response.KitchenOrderResponse;
+import org.example.kitchen.dto.response.MenuItemLoadResponse;
 import org.example.kitchen.model.KitchenOrder;
+import org.example.kitchen.model.KitchenOrderItem;
+import org.example.kitchen.repository.KitchenOrderItemRepository;
+
+import java.time.Instant;
 
 public final class KitchenOrderMapper {
 
     private KitchenOrderMapper() {}
 
     public static KitchenOrderResponse toResponse(KitchenOrder e) {
+        return toResponse(e, null);
+    }
+
+    public static KitchenOrderResponse toResponse(KitchenOrder e, Instant estimatedReadyAt) {
         if (e == null) return null;
         KitchenOrderResponse r = new KitchenOrderResponse();
         r.setId(e.getId());
         r.setOrderId(e.getOrderId());
         r.setItemsJson(e.getItemsJson());
         r.setStatus(e.getStatus());
+        r.setPriority(e.getPriority());
+        // the stored due_at covers orders queued on another instance
+        r.setEstimatedReadyAt(estimatedReadyAt != null ? estimatedReadyAt : e.getDueAt());
         r.setCreatedAt(e.getCreatedAt());
         r.setUpdatedAt(e.getUpdatedAt());
         return r;
     }
-}
\ No newline at end of file
+
+    public static KitchenOrderItemResponse toItemResponse(KitchenOrderItem i) {
+        if (i == null) return null;
+        KitchenOrderItemResponse r = new KitchenOrderItemResponse();
+        r.setId(i.getId());
+        r.setKitchenOrderId(i.getKitchenOrderId());
+        r.setMenuItemId(i.getMenuItemId());
+        r.setName(i.getName());
+        r.setQuantity(i.getQuantity());
+        r.setStation(i.getStation());
+        r.setStatus(i.getStatus());
+        r.setCreatedAt(i.getCreatedAt());
+        r.setStartedAt(i.getStartedAt());
+        r.setReadyAt(i.getReadyAt());
+        r.setUpdatedAt(i.getUpdatedAt());
+        return r;
+    }
+
+    public static MenuItemLoadResponse toLoadResponse(KitchenOrderItemRepository.MenuItemLoad l) {
+        if (l == null) return null;
+        return new MenuItemLoadResponse(l.getMenuItemId(), l.getName(), l.getStatus(),
+                l.getQuantity() == null ? 0 : l.getQuantity(),
+                l.getLines() == null ? 0 : l.getLines());
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.kitchen.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A status notification for main-service that has not been delivered yet. Rows are written in the
+ * same transaction as the status change and deleted once main-service has accepted them; rows that
+ * ran out of attempts keep their failed_at and last_error for inspection.
+ */
+@Entity
+@Table(name = "kitchen_callbacks", indexes = {
+        @Index(name = "idx_kitchen_callbacks_next_attempt", columnList = "next_attempt_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class KitchenCallback {
+
+    @Id
+    @GeneratedValue(generator = "uuid2")
+    @GenericGenerator(name = "uuid2", strategy = "uuid2")
+    @Column(columnDefinition = "uuid", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "kitchen_order_id", nullable = false)
+    private UUID kitchenOrderId;
+
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+
+    @Column(nullable = false, length = 32)
+    private String status;
+
+    @Column(nullable = false, length = 1000)
+    private String destination;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "failed_at")
+    private Instant failedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Version
+    private Long version;
+}
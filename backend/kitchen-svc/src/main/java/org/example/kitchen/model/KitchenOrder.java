@@ -9,7 +9,9 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "kitchen_orders")
+@Table(name = "kitchen_orders", indexes = {
+        @Index(name = "idx_kitchen_orders_due_at", columnList = "due_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,6 +31,11 @@ public class KitchenOrder {
     @Column(name = "items_json", columnDefinition = "text")
     private String itemsJson;
 
+    // the DB default lets ddl-auto add the column to a kitchen_orders table that already has rows
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "integer default 0 not null")
+    private int priority = 0;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private KitchenOrderStatus status;
@@ -38,4 +45,8 @@ public class KitchenOrder {
 
     @Column(name = "updated_at")
     private Instant updatedAt;
+
+    // when the prep timer fires; cleared once the order leaves the kitchen queue
+    @Column(name = "due_at")
+    private Instant dueAt;
 }
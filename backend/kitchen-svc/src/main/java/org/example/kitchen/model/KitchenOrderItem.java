@@ -0,0 +1,66 @@
+package org.example.kitchen.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.example.kitchen.model.enums.KitchenOrderStatus;
+import org.hibernate.annotations.GenericGenerator;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One line of a kitchen order, split out of items_json when the order is created so single items
+ * can be tracked and counted without parsing JSON.
+ */
+@Entity
+@Table(name = "kitchen_order_items", indexes = {
+        @Index(name = "idx_kitchen_order_items_order", columnList = "kitchen_order_id"),
+        @Index(name = "idx_kitchen_order_items_status_menu", columnList = "status, menu_item_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class KitchenOrderItem {
+
+    @Id
+    @GeneratedValue(generator = "uuid2")
+    @GenericGenerator(name = "uuid2", strategy = "uuid2")
+    @Column(columnDefinition = "uuid", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "kitchen_order_id", nullable = false)
+    private UUID kitchenOrderId;
+
+    @Column(name = "line_no", nullable = false)
+    private int lineNo;
+
+    @Column(name = "menu_item_id", length = 64)
+    private String menuItemId;
+
+    @Column(length = 255)
+    private String name;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(length = 64)
+    private String station;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private KitchenOrderStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "ready_at")
+    private Instant readyAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
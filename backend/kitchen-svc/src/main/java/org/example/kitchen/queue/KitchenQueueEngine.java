@@ -0,0 +1,296 @@
+package org.example.kitchen.queue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Work queue for the kitchen. Each ticket's items are split into one job per unit and routed to the
+ * station that cooks them; a station works on as many jobs at once as its parallelism allows and
+ * takes waiting jobs by ticket priority, then ticket age. A job takes its station's prep time, and
+ * a ticket is ready once all of its jobs are done.
+ *
+ * Ready times are predicted by replaying each station's queue against its busy slots, and are
+ * refreshed whenever the queue changes.
+ */
+@Component
+public class KitchenQueueEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(KitchenQueueEngine.class);
+
+    static final String DEFAULT_STATIONS = "grill:2:480:grill|steak|burger|chicken|kebab|salmon|fish,"
+            + "cold:2:180:salad|dessert|cake|ice cream,"
+            + "bar:2:60:lemonade|tea|beer|coffee|juice|wine|cocktail|water|soda,"
+            + "hot:3:360";
+
+    // a runaway quantity should not flood a station with jobs
+    static final int MAX_UNITS_PER_LINE = 50;
+
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final List<Station> stations = new ArrayList<>();
+    private final Station fallback;
+
+    // guarded by this
+    private final Map<UUID, Ticket> tickets = new HashMap<>();
+    private long sequence;
+
+    private volatile Map<UUID, Instant> estimates = Map.of();
+    private volatile Consumer<UUID> readyListener = id -> {};
+
+    @Autowired
+    public KitchenQueueEngine(ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${kitchen.queue.stations:" + DEFAULT_STATIONS + "}") List<String> stations) {
+        this(objectMapper, meterRegistry, stations, Clock.systemUTC());
+    }
+
+    KitchenQueueEngine(ObjectMapper objectMapper, MeterRegistry meterRegistry, List<String> stations, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        Station catchAll = null;
+        for (KitchenStation config : KitchenStation.parse(stations)) {
+            Station s = new Station(config);
+            this.stations.add(s);
+            if (catchAll == null && config.keywords().isEmpty()) catchAll = s;
+            Gauge.builder("kitchen.queue.depth", s, st -> st.waiting.size())
+                    .tag("station", config.name())
+                    .register(meterRegistry);
+        }
+        this.fallback = catchAll != null ? catchAll : this.stations.get(this.stations.size() - 1);
+    }
+
+    /**
+     * Called with the kitchen order id when a ticket's last job finishes, outside the engine's lock.
+     */
+    public void setReadyListener(Consumer<UUID> listener) {
+        this.readyListener = listener == null ? id -> {} : listener;
+    }
+
+    /**
+     * Queues a ticket (no-op if it is already queued) and returns its predicted ready time.
+     */
+    public Instant enqueue(UUID kitchenOrderId, String itemsJson, int priority, Instant createdAt) {
+        List<TicketItem> items = TicketItem.parse(objectMapper, itemsJson);
+        synchronized (this) {
+            if (!tickets.containsKey(kitchenOrderId)) {
+                Ticket t = new Ticket(kitchenOrderId, priority, createdAt == null ? clock.millis() : createdAt.toEpochMilli());
+                for (TicketItem item : items) {
+                    Station s = route(item.name());
+                    for (int i = 0; i < Math.min(item.quantity(), MAX_UNITS_PER_LINE); i++) t.add(s, sequence++);
+                }
+                // an order without readable items still passes through the kitchen once
+                if (t.jobs.isEmpty()) t.add(fallback, sequence++);
+                tickets.put(kitchenOrderId, t);
+                t.jobs.forEach(j -> j.station.waiting.add(j));
+                long now = clock.millis();
+                stations.forEach(s -> s.fillIdleSlots(now));
+                refreshEstimates(now);
+            }
+            return estimates.get(kitchenOrderId);
+        }
+    }
+
+    /**
+     * Drops a ticket that was cancelled or finished by hand, freeing its stations' slots.
+     */
+    public synchronized boolean remove(UUID kitchenOrderId) {
+        Ticket t = tickets.remove(kitchenOrderId);
+        if (t == null) return false;
+        for (Job j : t.jobs) {
+            if (!j.station.release(j)) j.station.waiting.remove(j);
+        }
+        long now = clock.millis();
+        stations.forEach(s -> s.fillIdleSlots(now));
+        refreshEstimates(now);
+        return true;
+    }
+
+    @Nullable
+    public Instant estimateReadyAt(UUID kitchenOrderId) {
+        return estimates.get(kitchenOrderId);
+    }
+
+    /**
+     * Finishes jobs whose prep time has passed, starts waiting ones, and reports completed tickets.
+     */
+    @Scheduled(fixedDelayString = "${kitchen.queue.tick-ms:1000}")
+    public void tick() {
+        List<UUID> ready = new ArrayList<>();
+        synchronized (this) {
+            long now = clock.millis();
+            for (Station s : stations) {
+                for (Job done : s.advance(now)) {
+                    Ticket t = done.ticket;
+                    if (--t.remaining == 0 && tickets.remove(t.id) != null) ready.add(t.id);
+                }
+            }
+            if (!ready.isEmpty() || stations.stream().anyMatch(Station::isBusy)) refreshEstimates(now);
+        }
+        for (UUID id : ready) {
+            try {
+                readyListener.accept(id);
+            } catch (Exception ex) {
+                log.error("Ready handling failed for kitchen order {}: {}", id, ex.getMessage(), ex);
+            }
+        }
+    }
+
+    public synchronized int queueDepth(String station) {
+        return stations.stream().filter(s -> s.config.name().equals(station))
+                .mapToInt(s -> s.waiting.size()).sum();
+    }
+
+    public synchronized int size() {
+        return tickets.size();
+    }
+
+    /**
+     * Name of the station that cooks the given item.
+     */
+    public String stationFor(String itemName) {
+        return route(itemName).config.name();
+    }
+
+    Station route(String itemName) {
+        for (Station s : stations) {
+            if (s.config.accepts(itemName)) return s;
+        }
+        return fallback;
+    }
+
+    private void refreshEstimates(long now) {
+        Map<UUID, Long> latest = new HashMap<>();
+        for (Station s : stations) {
+            PriorityQueue<Long> freeAt = new PriorityQueue<>();
+            for (Job running : s.slots) {
+                if (running == null) {
+                    freeAt.add(now);
+                } else {
+                    long end = Math.max(now, running.finishesAt);
+                    freeAt.add(end);
+                    latest.merge(running.ticket.id, end, Math::max);
+                }
+            }
+            for (Job waiting : s.waiting) {
+                long end = freeAt.poll() + s.prepMillis;
+                freeAt.add(end);
+                latest.merge(waiting.ticket.id, end, Math::max);
+            }
+        }
+        Map<UUID, Instant> out = new HashMap<>(latest.size() * 2);
+        latest.forEach((id, at) -> out.put(id, Instant.ofEpochMilli(at)));
+        estimates = out;
+    }
+
+    private static final Comparator<Job> QUEUE_ORDER = Comparator
+            .comparingInt((Job j) -> -j.ticket.priority)
+            .thenComparingLong(j -> j.ticket.createdAt)
+            .thenComparingLong(j -> j.seq);
+
+    static final class Station {
+        final KitchenStation config;
+        final long prepMillis;
+        final Job[] slots;
+        final TreeSet<Job> waiting = new TreeSet<>(QUEUE_ORDER);
+
+        Station(KitchenStation config) {
+            this.config = config;
+            this.prepMillis = config.prepSeconds() * 1000L;
+            this.slots = new Job[config.parallelism()];
+        }
+
+        // completes due jobs; a freed slot picks up the next job from the moment the last one ended
+        List<Job> advance(long now) {
+            List<Job> done = new ArrayList<>();
+            for (int i = 0; i < slots.length; i++) {
+                while (slots[i] != null && slots[i].finishesAt <= now) {
+                    Job finished = slots[i];
+                    done.add(finished);
+                    slots[i] = start(waiting.pollFirst(), finished.finishesAt);
+                }
+                if (slots[i] == null) slots[i] = start(waiting.pollFirst(), now);
+            }
+            return done;
+        }
+
+        void fillIdleSlots(long now) {
+            for (int i = 0; i < slots.length && !waiting.isEmpty(); i++) {
+                if (slots[i] == null) slots[i] = start(waiting.pollFirst(), now);
+            }
+        }
+
+        boolean release(Job job) {
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] == job) {
+                    slots[i] = null;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isBusy() {
+            for (Job j : slots) {
+                if (j != null) return true;
+            }
+            return false;
+        }
+
+        private Job start(Job job, long at) {
+            if (job != null) job.finishesAt = at + prepMillis;
+            return job;
+        }
+    }
+
+    static final class Ticket {
+        final UUID id;
+        final int priority;
+        final long createdAt;
+        final List<Job> jobs = new ArrayList<>();
+        int remaining;
+
+        Ticket(UUID id, int priority, long createdAt) {
+            this.id = id;
+            this.priority = priority;
+            this.createdAt = createdAt;
+        }
+
+        void add(Station station, long seq) {
+            jobs.add(new Job(this, station, seq));
+            remaining++;
+        }
+    }
+
+    static final class Job {
+        final Ticket ticket;
+        final Station station;
+        final long seq;
+        long finishesAt;
+
+        Job(Ticket ticket, Station station, long seq) {
+            this.ticket = ticket;
+            this.station = station;
+            this.seq = seq;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.kitchen.queue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A kitchen station: how many items it works on at once, how long one item takes, and which menu
+ * items it cooks (matched by name keywords). Configured as
+ * {@code name:parallelism:prepSeconds[:keyword|keyword...]}; a station without keywords takes
+ * every item no other station claims.
+ */
+public record KitchenStation(String name, int parallelism, int prepSeconds, List<String> keywords) {
+
+    public boolean accepts(String itemName) {
+        if (itemName == null) return false;
+        String n = itemName.toLowerCase(Locale.ROOT);
+        for (String k : keywords) {
+            if (n.contains(k)) return true;
+        }
+        return false;
+    }
+
+    public static List<KitchenStation> parse(List<String> specs) {
+        List<KitchenStation> out = new ArrayList<>();
+        if (specs == null) return out;
+        for (String raw : specs) {
+            String spec = raw == null ? "" : raw.trim();
+            if (spec.isEmpty()) continue;
+            String[] parts = spec.split(":", 4);
+            if (parts.length < 3 || parts[0].isBlank()) {
+                throw new IllegalArgumentException("Invalid kitchen station: " + spec);
+            }
+            try {
+                int parallelism = Integer.parseInt(parts[1].trim());
+                int prepSeconds = Integer.parseInt(parts[2].trim());
+                if (parallelism < 1 || prepSeconds < 1) throw new NumberFormatException();
+                List<String> keywords = parts.length < 4 ? List.of() : Arrays.stream(parts[3].split("\\|"))
+                        .map(k -> k.trim().toLowerCase(Locale.ROOT))
+                        .filter(k -> !k.isEmpty())
+                        .toList();
+                out.add(new KitchenStation(parts[0].trim(), parallelism, prepSeconds, keywords));
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid kitchen station: " + spec);
+            }
+        }
+        if (out.isEmpty()) throw new IllegalArgumentException("At least one kitchen station is required");
+        return out;
+    }
+}
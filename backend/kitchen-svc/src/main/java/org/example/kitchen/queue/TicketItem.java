@@ -0,0 +1,43 @@
+package org.example.kitchen.queue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One line of a kitchen order as sent in itemsJson. main-service sends menuItemId, menuItemName and
+ * quantity; the shorter name and qty keys are accepted as well.
+ */
+public record TicketItem(String menuItemId, String name, int quantity) {
+
+    /**
+     * Reads the items array; anything unreadable yields an empty list.
+     */
+    public static List<TicketItem> parse(ObjectMapper objectMapper, String itemsJson) {
+        List<TicketItem> out = new ArrayList<>();
+        if (itemsJson == null || itemsJson.isBlank()) return out;
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(itemsJson);
+        } catch (Exception ex) {
+            return out;
+        }
+        if (root == null || !root.isArray()) return out;
+        for (JsonNode n : root) {
+            if (!n.isObject()) continue;
+            String name = text(n, "menuItemName", "name");
+            int quantity = n.hasNonNull("quantity") ? n.get("quantity").asInt(1)
+                    : n.hasNonNull("qty") ? n.get("qty").asInt(1) : 1;
+            out.add(new TicketItem(text(n, "menuItemId", "id"), name, Math.max(1, quantity)));
+        }
+        return out;
+    }
+
+    private static String text(JsonNode n, String key, String fallbackKey) {
+        if (n.hasNonNull(key)) return n.get(key).asText();
+        if (n.hasNonNull(fallbackKey)) return n.get(fallbackKey).asText();
+        return null;
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.kitchen.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.example.kitchen.model.KitchenCallback;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface KitchenCallbackRepository extends JpaRepository<KitchenCallback, UUID> {
+
+    /**
+     * Locks a page of due callbacks, oldest first. Rows another instance is claiming are skipped.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = KitchenOrderRepository.SKIP_LOCKED))
+    @Query("select c from KitchenCallback c where c.failedAt is null and c.nextAttemptAt <= :now order by c.nextAttemptAt")
+    List<KitchenCallback> claimDue(@Param("now") Instant now, Pageable page);
+}
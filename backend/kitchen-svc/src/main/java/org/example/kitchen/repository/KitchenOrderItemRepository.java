@@ -0,0 +1,37 @@
+package org.example.kitchen.repository;
+
+import org.example.kitchen.model.KitchenOrderItem;
+import org.example.kitchen.model.enums.KitchenOrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface KitchenOrderItemRepository extends JpaRepository<KitchenOrderItem, UUID> {
+
+    List<KitchenOrderItem> findByKitchenOrderIdOrderByLineNo(UUID kitchenOrderId);
+
+    List<KitchenOrderItem> findByKitchenOrderIdInOrderByLineNo(Collection<UUID> kitchenOrderIds);
+
+    @Modifying
+    @Query("delete from KitchenOrderItem i where i.kitchenOrderId = :kitchenOrderId")
+    int deleteByKitchenOrderId(@Param("kitchenOrderId") UUID kitchenOrderId);
+
+    @Query("select i.menuItemId as menuItemId, i.name as name, i.status as status, "
+            + "sum(i.quantity) as quantity, count(i) as lines "
+            + "from KitchenOrderItem i where i.status in :statuses "
+            + "group by i.menuItemId, i.name, i.status order by i.name, i.status")
+    List<MenuItemLoad> summarizeByMenuItem(@Param("statuses") Collection<KitchenOrderStatus> statuses);
+
+    interface MenuItemLoad {
+        String getMenuItemId();
+        String getName();
+        KitchenOrderStatus getStatus();
+        Long getQuantity();
+        Long getLines();
+    }
+}
@@ -1,11 +1,58 @@
 package org.example.kitchen.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.example.kitchen.model.KitchenOrder;
+import org.example.kitchen.model.enums.KitchenOrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface KitchenOrderRepository extends JpaRepository<KitchenOrder, UUID> {
+
+    // lock timeout -2 makes Hibernate render FOR UPDATE SKIP LOCKED, so replicas never wait on each other
+    String SKIP_LOCKED = "-2";
+
     List<KitchenOrder> findByOrderId(UUID orderId);
-}
\ No newline at end of file
+    List<KitchenOrder> findByStatusIn(Collection<KitchenOrderStatus> statuses);
+
+    /**
+     * Locks a page of orders whose prep timer has expired, oldest first. Rows another instance is
+     * already completing are skipped.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("select o from KitchenOrder o where o.dueAt <= :now and o.status in :statuses order by o.dueAt")
+    List<KitchenOrder> claimDue(@Param("now") Instant now,
+                                @Param("statuses") Collection<KitchenOrderStatus> statuses,
+                                Pageable page);
+
+    /**
+     * Locks one order if it is still in one of the given statuses and nobody else holds it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("select o from KitchenOrder o where o.id = :id and o.status in :statuses")
+    Optional<KitchenOrder> claim(@Param("id") UUID id,
+                                 @Param("statuses") Collection<KitchenOrderStatus> statuses);
+
+    @Query("select o.id as id, o.dueAt as dueAt from KitchenOrder o "
+            + "where o.dueAt > :from and o.dueAt <= :to and o.status in :statuses")
+    List<PrepTimer> findTimersBetween(@Param("from") Instant from,
+                                      @Param("to") Instant to,
+                                      @Param("statuses") Collection<KitchenOrderStatus> statuses);
+
+    interface PrepTimer {
+        UUID getId();
+        Instant getDueAt();
+    }
+}
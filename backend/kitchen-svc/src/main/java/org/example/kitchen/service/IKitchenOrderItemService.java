@@ -0,0 +1,19 @@
+package org.example.kitchen.service;
+
+import org.example.kitchen.model.KitchenOrder;
+import org.example.kitchen.model.KitchenOrderItem;
+import org.example.kitchen.model.enums.KitchenOrderStatus;
+import org.example.kitchen.repository.KitchenOrderItemRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface IKitchenOrderItemService {
+    List<KitchenOrderItem> createItems(KitchenOrder order);
+    List<KitchenOrderItem> findByKitchenOrderId(UUID kitchenOrderId);
+    KitchenOrderItem updateStatus(UUID kitchenOrderId, UUID itemId, KitchenOrderStatus status);
+    List<KitchenOrderItem> updateStatuses(List<UUID> itemIds, KitchenOrderStatus status);
+    void applyOrderStatus(UUID kitchenOrderId, KitchenOrderStatus orderStatus);
+    List<KitchenOrderItemRepository.MenuItemLoad> inFlightByMenuItem();
+    void deleteByKitchenOrderId(UUID kitchenOrderId);
+}
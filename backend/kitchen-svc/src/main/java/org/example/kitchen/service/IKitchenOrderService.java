@@ -3,11 +3,13 @@ package org.example.kitchen.service;
 import org.example.kitchen.model.KitchenOrder;
 import org.example.kitchen.model.enums.KitchenOrderStatus;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
 public interface IKitchenOrderService {
-    KitchenOrder createOrder(UUID orderId, String itemsJson);
+    KitchenOrder createOrder(UUID orderId, String itemsJson, int priority);
+    Instant estimateReadyAt(UUID id);
     KitchenOrder updateStatus(UUID id, KitchenOrderStatus status);
     void cancelOrder(UUID id);
     List<KitchenOrder> findByOrderId(UUID orderId);
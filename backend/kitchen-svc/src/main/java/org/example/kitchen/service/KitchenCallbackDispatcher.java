@@ -0,0 +1,333 @@
+package org.example.kitchen.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.kitchen.model.KitchenCallback;
+import org.example.kitchen.model.KitchenOrder;
+import org.example.kitchen.repository.KitchenCallbackRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers kitchen status changes to main-service without holding up kitchen work.
+ *
+ * Callbacks are stored in kitchen_callbacks and sent with HttpClient.sendAsync, at most
+ * {@code max-concurrency} requests at a time. When {@code kitchen.callback.batch-url} is set, due
+ * callbacks for that destination are sent together as one JSON array of up to {@code batch-size}
+ * orders; otherwise each order is posted to its own {@code kitchen.callback.url}. Failures are
+ * retried with exponential backoff until {@code max-attempts} is reached.
+ *
+ * Due rows are claimed with SKIP LOCKED and leased by moving their next_attempt_at forward, so with
+ * several kitchen-svc instances each callback is sent by one of them.
+ */
+@Component
+public class KitchenCallbackDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(KitchenCallbackDispatcher.class);
+
+    // longer than the request timeout, so a claimed row is only picked up again if its sender died
+    static final Duration LEASE = Duration.ofSeconds(30);
+
+    private final KitchenCallbackRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate tx;
+    private final HttpClient httpClient;
+    private final Clock clock;
+
+    private final boolean enabled;
+    private final String callbackUrl;
+    private final String batchUrl;
+    private final String secret;
+    private final int batchSize;
+    private final int maxConcurrency;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+
+    private final Semaphore permits;
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    @Autowired
+    public KitchenCallbackDispatcher(KitchenCallbackRepository repository,
+                                     ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${kitchen.callback.enabled:true}") boolean enabled,
+                                     @Value("${kitchen.callback.url:}") String callbackUrl,
+                                     @Value("${kitchen.callback.batch-url:}") String batchUrl,
+                                     @Value("${kitchen.callback.secret:}") String secret,
+                                     @Value("${kitchen.callback.batch-size:50}") int batchSize,
+                                     @Value("${kitchen.callback.max-concurrency:4}") int maxConcurrency,
+                                     @Value("${kitchen.callback.max-attempts:10}") int maxAttempts,
+                                     @Value("${kitchen.callback.backoff-ms:1000}") long baseBackoffMs,
+                                     @Value("${kitchen.callback.max-backoff-ms:300000}") long maxBackoffMs) {
+        this(repository, objectMapper, transactionManager,
+                HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build(), Clock.systemUTC(),
+                enabled, callbackUrl, batchUrl, secret, batchSize, maxConcurrency, maxAttempts, baseBackoffMs, maxBackoffMs);
+    }
+
+    KitchenCallbackDispatcher(KitchenCallbackRepository repository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              HttpClient httpClient,
+                              Clock clock,
+                              boolean enabled,
+                              String callbackUrl,
+                              String batchUrl,
+                              String secret,
+                              int batchSize,
+                              int maxConcurrency,
+                              int maxAttempts,
+                              long baseBackoffMs,
+                              long maxBackoffMs) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.httpClient = httpClient;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.callbackUrl = callbackUrl == null ? "" : callbackUrl.trim();
+        this.batchUrl = batchUrl == null ? "" : batchUrl.trim();
+        this.secret = secret == null ? "" : secret.trim();
+        this.batchSize = Math.max(1, batchSize);
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoffMs = Math.max(1, baseBackoffMs);
+        this.maxBackoffMs = Math.max(this.baseBackoffMs, maxBackoffMs);
+        this.permits = new Semaphore(this.maxConcurrency);
+    }
+
+    /**
+     * Records a callback for the order. Joins the caller's transaction, and delivery starts once it
+     * commits.
+     */
+    public void enqueue(KitchenOrder order, String status) {
+        if (!enabled) return;
+        String destination = !batchUrl.isEmpty() ? batchUrl : resolve(callbackUrl, order);
+        if (destination.isEmpty()) return;
+
+        Instant now = clock.instant();
+        repository.save(KitchenCallback.builder()
+                .kitchenOrderId(order.getId())
+                .orderId(order.getOrderId())
+                .status(status)
+                .destination(destination)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drain();
+                }
+            });
+        } else {
+            drain();
+        }
+    }
+
+    /**
+     * Sends due callbacks while request slots are free. Also runs on a timer so retries and rows left
+     * over from before a restart are picked up.
+     */
+    @Scheduled(fixedDelayString = "${kitchen.callback.poll-ms:1000}")
+    public void drain() {
+        if (!enabled || !draining.compareAndSet(false, true)) return;
+        try {
+            int free = permits.availablePermits();
+            if (free == 0) return;
+            List<KitchenCallback> due = claim(free * batchSize);
+
+            Map<String, List<KitchenCallback>> byDestination = new LinkedHashMap<>();
+            for (KitchenCallback c : due) {
+                if (!inFlight.contains(c.getId())) {
+                    byDestination.computeIfAbsent(c.getDestination(), d -> new ArrayList<>()).add(c);
+                }
+            }
+
+            List<KitchenCallback> unsent = new ArrayList<>();
+            for (Map.Entry<String, List<KitchenCallback>> e : byDestination.entrySet()) {
+                boolean batched = e.getKey().equals(batchUrl);
+                List<KitchenCallback> pending = e.getValue();
+                int step = batched ? batchSize : 1;
+                for (int i = 0; i < pending.size(); i += step) {
+                    List<KitchenCallback> chunk = pending.subList(i, Math.min(pending.size(), i + step));
+                    if (permits.tryAcquire()) send(e.getKey(), batched, chunk);
+                    else unsent.addAll(chunk);
+                }
+            }
+            if (!unsent.isEmpty()) unclaim(unsent);
+        } catch (Exception ex) {
+            log.warn("Could not dispatch kitchen callbacks: {}", ex.getMessage());
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    /**
+     * Locks due rows and pushes their next attempt out by {@link #LEASE}, in a transaction of its own
+     * so the locks are released before anything is sent.
+     */
+    private List<KitchenCallback> claim(int limit) {
+        List<KitchenCallback> claimed = tx.execute(status -> {
+            Instant now = clock.instant();
+            List<KitchenCallback> due = repository.claimDue(now, PageRequest.of(0, limit));
+            due.forEach(c -> c.setNextAttemptAt(now.plus(LEASE)));
+            repository.saveAll(due);
+            return due;
+        });
+        return claimed == null ? List.of() : claimed;
+    }
+
+    private void unclaim(List<KitchenCallback> callbacks) {
+        Instant now = clock.instant();
+        callbacks.forEach(c -> c.setNextAttemptAt(now));
+        repository.saveAll(callbacks);
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private void send(String destination, boolean batched, List<KitchenCallback> chunk) {
+        List<KitchenCallback> callbacks = List.copyOf(chunk);
+        callbacks.forEach(c -> inFlight.add(c.getId()));
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder()
+                    .uri(URI.create(destination))
+                    .timeout(Duration.ofSeconds(10));
+            if (batched) {
+                builder.header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(payload(callbacks))));
+            } else {
+                builder.POST(HttpRequest.BodyPublishers.noBody());
+            }
+            if (!secret.isEmpty()) {
+                builder.header("X-Callback-Secret", secret);
+            }
+
+            httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((resp, err) -> {
+                        try {
+                            complete(callbacks, batched, resp, err);
+                        } finally {
+                            release(callbacks);
+                        }
+                    });
+        } catch (Exception ex) {
+            try {
+                complete(callbacks, batched, null, ex);
+            } finally {
+                release(callbacks);
+            }
+        }
+    }
+
+    private void release(List<KitchenCallback> callbacks) {
+        callbacks.forEach(c -> inFlight.remove(c.getId()));
+        permits.release();
+    }
+
+    private void complete(List<KitchenCallback> callbacks, boolean batched, HttpResponse<String> resp, Throwable err) {
+        try {
+            if (err == null && resp != null && resp.statusCode() / 100 == 2) {
+                Set<UUID> rejected = batched ? failedOrderIds(resp.body()) : Set.of();
+                List<KitchenCallback> delivered = new ArrayList<>();
+                for (KitchenCallback c : callbacks) {
+                    if (rejected.contains(c.getOrderId())) retryLater(c, "rejected by main-service", true);
+                    else delivered.add(c);
+                }
+                repository.deleteAll(delivered);
+                log.debug("Delivered {} kitchen callback(s) to {}", delivered.size(), callbacks.get(0).getDestination());
+                return;
+            }
+
+            String error = err != null ? String.valueOf(err.getMessage()) : "HTTP " + resp.statusCode();
+            // other client errors will not succeed on retry
+            boolean retryable = err != null || resp.statusCode() >= 500 || resp.statusCode() == 408 || resp.statusCode() == 429;
+            for (KitchenCallback c : callbacks) retryLater(c, error, retryable);
+            log.warn("Kitchen callback to {} failed for {} order(s): {}", callbacks.get(0).getDestination(), callbacks.size(), error);
+        } catch (Exception ex) {
+            log.error("Could not record kitchen callback outcome: {}", ex.getMessage(), ex);
+        }
+    }
+
+    private void retryLater(KitchenCallback c, String error, boolean retryable) {
+        Instant now = clock.instant();
+        c.setAttempts(c.getAttempts() + 1);
+        c.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+        if (!retryable || c.getAttempts() >= maxAttempts) {
+            c.setFailedAt(now);
+            log.error("Giving up on kitchen callback for order {} after {} attempt(s): {}", c.getOrderId(), c.getAttempts(), error);
+        } else {
+            c.setNextAttemptAt(now.plusMillis(backoffMillis(c.getAttempts())));
+        }
+        repository.save(c);
+    }
+
+    long backoffMillis(int attempts) {
+        int shift = Math.min(30, Math.max(0, attempts - 1));
+        return Math.min(maxBackoffMs, baseBackoffMs << shift);
+    }
+
+    private List<Map<String, Object>> payload(List<KitchenCallback> callbacks) {
+        List<Map<String, Object>> out = new ArrayList<>(callbacks.size());
+        for (KitchenCallback c : callbacks) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("orderId", c.getOrderId());
+            m.put("kitchenOrderId", c.getKitchenOrderId());
+            m.put("status", c.getStatus());
+            out.add(m);
+        }
+        return out;
+    }
+
+    private Set<UUID> failedOrderIds(String body) {
+        Set<UUID> out = new HashSet<>();
+        if (body == null || body.isBlank()) return out;
+        try {
+            JsonNode failed = objectMapper.readTree(body).path("failed");
+            for (JsonNode n : failed) out.add(UUID.fromString(n.asText()));
+        } catch (Exception ex) {
+            log.debug("Unreadable kitchen callback response: {}", ex.getMessage());
+        }
+        return out;
+    }
+
+    private static String resolve(String template, KitchenOrder order) {
+        if (template.isEmpty()) return "";
+        return template
+                .replace("{orderId}", order.getOrderId().toString())
+                .replace("{kitchenOrderId}", order.getId().toString());
+    }
+}
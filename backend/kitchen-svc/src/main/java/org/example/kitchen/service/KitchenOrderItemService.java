@@ -0,0 +1,215 @@
+package org.example.kitchen.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.kitchen.event.KitchenOrderChangedEvent;
+import org.example.kitchen.exception.KitchenOrderOperationException;
+import org.example.kitchen.model.KitchenOrder;
+import org.example.kitchen.model.KitchenOrderItem;
+import org.example.kitchen.model.enums.KitchenOrderStatus;
+import org.example.kitchen.queue.KitchenQueueEngine;
+import org.example.kitchen.queue.TicketItem;
+import org.example.kitchen.repository.KitchenOrderItemRepository;
+import org.example.kitchen.repository.KitchenOrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Item-level view of kitchen orders. Items are written once from the order's items_json and then
+ * move through the same statuses as orders, either one by one from the kitchen or together with
+ * their order. Once every item of an order is READY (or SERVED) the order follows them, through
+ * {@link IKitchenOrderService#updateStatus} so main-service is told as well.
+ */
+@Service
+public class KitchenOrderItemService implements IKitchenOrderItemService {
+
+    private static final Logger log = LoggerFactory.getLogger(KitchenOrderItemService.class);
+
+    private static final Set<KitchenOrderStatus> DONE = EnumSet.of(KitchenOrderStatus.READY, KitchenOrderStatus.SERVED);
+
+    private final KitchenOrderItemRepository repository;
+    private final KitchenOrderRepository orderRepository;
+    private final IKitchenOrderService orders;
+    private final KitchenQueueEngine queue;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher events;
+
+    // orders is lazy because KitchenOrderService depends on this service too
+    public KitchenOrderItemService(KitchenOrderItemRepository repository,
+                                   KitchenOrderRepository orderRepository,
+                                   @Lazy IKitchenOrderService orders,
+                                   KitchenQueueEngine queue,
+                                   ObjectMapper objectMapper,
+                                   ApplicationEventPublisher events) {
+        this.repository = repository;
+        this.orderRepository = orderRepository;
+        this.orders = orders;
+        this.queue = queue;
+        this.objectMapper = objectMapper;
+        this.events = events;
+    }
+
+    @Override
+    @Transactional
+    public List<KitchenOrderItem> createItems(KitchenOrder order) {
+        List<TicketItem> parsed = TicketItem.parse(objectMapper, order.getItemsJson());
+        List<KitchenOrderItem> items = new ArrayList<>(parsed.size());
+        int line = 0;
+        for (TicketItem t : parsed) {
+            items.add(KitchenOrderItem.builder()
+                    .kitchenOrderId(order.getId())
+                    .lineNo(line++)
+                    .menuItemId(t.menuItemId())
+                    .name(t.name())
+                    .quantity(t.quantity())
+                    .station(queue.stationFor(t.name()))
+                    .status(order.getStatus())
+                    .createdAt(order.getCreatedAt())
+                    .build());
+        }
+        if (items.isEmpty()) return items;
+        return repository.saveAll(items);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<KitchenOrderItem> findByKitchenOrderId(UUID kitchenOrderId) {
+        return repository.findByKitchenOrderIdOrderByLineNo(kitchenOrderId);
+    }
+
+    @Override
+    @Transactional
+    public KitchenOrderItem updateStatus(UUID kitchenOrderId, UUID itemId, KitchenOrderStatus status) {
+        KitchenOrderItem item = repository.findById(itemId)
+                .filter(i -> i.getKitchenOrderId().equals(kitchenOrderId))
+                .orElseThrow(() -> new KitchenOrderOperationException("Kitchen order item not found: " + itemId));
+        checkTransition(item, status);
+        stamp(item, status, Instant.now());
+        KitchenOrderItem saved = repository.save(item);
+        rollUp(kitchenOrderId);
+        events.publishEvent(new KitchenOrderChangedEvent(kitchenOrderId));
+        return saved;
+    }
+
+    /**
+     * Moves every listed item to {@code status}, or none of them if any item is missing or cannot
+     * make the transition.
+     */
+    @Override
+    @Transactional
+    public List<KitchenOrderItem> updateStatuses(List<UUID> itemIds, KitchenOrderStatus status) {
+        List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(itemIds));
+        Map<UUID, KitchenOrderItem> found = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(KitchenOrderItem::getId, Function.identity()));
+        List<KitchenOrderItem> items = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            KitchenOrderItem item = found.get(id);
+            if (item == null) throw new KitchenOrderOperationException("Kitchen order item not found: " + id);
+            items.add(item);
+        }
+
+        items.forEach(i -> checkTransition(i, status));
+        Instant now = Instant.now();
+        items.forEach(i -> stamp(i, status, now));
+        log.info("Moved {} kitchen order items to {}", items.size(), status);
+        List<KitchenOrderItem> saved = repository.saveAll(items);
+        items.stream().map(KitchenOrderItem::getKitchenOrderId).distinct()
+                .forEach(id -> {
+                    rollUp(id);
+                    events.publishEvent(new KitchenOrderChangedEvent(id));
+                });
+        return saved;
+    }
+
+    /**
+     * Carries an order-level status change down to the items that have not got there on their own.
+     */
+    @Override
+    @Transactional
+    public void applyOrderStatus(UUID kitchenOrderId, KitchenOrderStatus orderStatus) {
+        List<KitchenOrderItem> changed = new ArrayList<>();
+        Instant now = Instant.now();
+        for (KitchenOrderItem item : repository.findByKitchenOrderIdOrderByLineNo(kitchenOrderId)) {
+            if (follows(item.getStatus(), orderStatus)) {
+                stamp(item, orderStatus, now);
+                changed.add(item);
+            }
+        }
+        if (!changed.isEmpty()) repository.saveAll(changed);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<KitchenOrderItemRepository.MenuItemLoad> inFlightByMenuItem() {
+        return repository.summarizeByMenuItem(KitchenOrderService.OPEN);
+    }
+
+    @Override
+    @Transactional
+    public void deleteByKitchenOrderId(UUID kitchenOrderId) {
+        repository.deleteByKitchenOrderId(kitchenOrderId);
+    }
+
+    /**
+     * Moves the order to READY once all its items are done, and on to SERVED once all are served.
+     * The order row is claimed first; if the prep timer holds it, the timer is completing the order
+     * anyway.
+     */
+    private void rollUp(UUID kitchenOrderId) {
+        List<KitchenOrderItem> all = repository.findByKitchenOrderIdOrderByLineNo(kitchenOrderId);
+        if (all.isEmpty() || !all.stream().allMatch(i -> DONE.contains(i.getStatus()))) return;
+
+        if (orderRepository.claim(kitchenOrderId, KitchenOrderService.OPEN).isPresent()) {
+            orders.updateStatus(kitchenOrderId, KitchenOrderStatus.READY);
+        }
+        boolean served = all.stream().allMatch(i -> i.getStatus() == KitchenOrderStatus.SERVED);
+        if (served && orderRepository.claim(kitchenOrderId, EnumSet.of(KitchenOrderStatus.READY)).isPresent()) {
+            orders.updateStatus(kitchenOrderId, KitchenOrderStatus.SERVED);
+        }
+    }
+
+    private static void checkTransition(KitchenOrderItem item, KitchenOrderStatus to) {
+        KitchenOrderStatus from = item.getStatus();
+        if (from == KitchenOrderStatus.CANCELLED) {
+            throw new KitchenOrderOperationException("Kitchen order item " + item.getId() + " is cancelled and cannot be modified.");
+        }
+        if (!KitchenOrderService.isValidTransition(from, to)) {
+            throw new KitchenOrderOperationException("Invalid item status transition from " + from + " to " + to);
+        }
+    }
+
+    private static void stamp(KitchenOrderItem item, KitchenOrderStatus to, Instant now) {
+        item.setStatus(to);
+        item.setUpdatedAt(now);
+        if (to == KitchenOrderStatus.IN_PROGRESS && item.getStartedAt() == null) item.setStartedAt(now);
+        if (to == KitchenOrderStatus.READY && item.getReadyAt() == null) item.setReadyAt(now);
+    }
+
+    // items keep their own progress while the order is open; once it is done they follow it
+    private static boolean follows(KitchenOrderStatus item, KitchenOrderStatus order) {
+        switch (order) {
+            case READY:
+            case CANCELLED:
+                return KitchenOrderService.OPEN.contains(item);
+            case SERVED:
+            case COMPLETED:
+                return KitchenOrderService.OPEN.contains(item) || item == KitchenOrderStatus.READY;
+            default:
+                return false;
+        }
+    }
+}
@@ -1,96 +1,116 @@
     package org.example.kitchen.service;
 
-    import lombok.RequiredArgsConstructor;
+    import org.example.kitchen.event.KitchenOrderChangedEvent;
     import org.example.kitchen.exception.KitchenOrderOperationException;
     import org.example.kitchen.model.KitchenOrder;
     import org.example.kitchen.model.enums.KitchenOrderStatus;
+    import org.example.kitchen.queue.KitchenQueueEngine;
     import org.example.kitchen.repository.KitchenOrderRepository;
     import org.slf4j.Logger;
     import org.slf4j.LoggerFactory;
     import org.springframework.beans.factory.annotation.Value;
+    import org.springframework.boot.context.event.ApplicationReadyEvent;
+    import org.springframework.context.ApplicationEventPublisher;
+    import org.springframework.context.event.EventListener;
     import org.springframework.stereotype.Service;
     import org.springframework.transaction.annotation.Transactional;
 
-    import jakarta.annotation.PreDestroy;
-    import java.net.URI;
-    import java.net.http.HttpClient;
-    import java.net.http.HttpRequest;
-    import java.net.http.HttpResponse;
     import java.time.Instant;
+    import java.util.EnumSet;
     import java.util.List;
-    import java.util.Random;
+    import java.util.Set;
     import java.util.UUID;
-    import java.util.concurrent.Executors;
-    import java.util.concurrent.ScheduledExecutorService;
-    import java.util.concurrent.TimeUnit;
-    import java.util.concurrent.atomic.AtomicInteger;
 
     @Service
     public class KitchenOrderService implements IKitchenOrderService {
 
         private static final Logger log = LoggerFactory.getLogger(KitchenOrderService.class);
 
-        private final KitchenOrderRepository repository;
-
-        private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
-
-        private final int minPrepSeconds;
-        private final int maxPrepSeconds;
+        // orders the kitchen is still working on; anything else leaves the queue
+        static final Set<KitchenOrderStatus> OPEN = EnumSet.of(
+                KitchenOrderStatus.NEW, KitchenOrderStatus.PREPARING, KitchenOrderStatus.IN_PROGRESS);
 
-        private final boolean callbackEnabled;
-        private final String callbackUrl;
-        private final String callbackSecret;
+        private final KitchenOrderRepository repository;
+        private final KitchenQueueEngine queue;
+        private final KitchenPrepTimers timers;
+        private final KitchenCallbackDispatcher callbacks;
+        private final IKitchenOrderItemService items;
+        private final ApplicationEventPublisher events;
 
         private final boolean prepSchedulingEnabled;
 
-        private final Random random = new Random();
-        private final HttpClient httpClient = HttpClient.newHttpClient();
-
-        private final AtomicInteger createCounter = new AtomicInteger(0);
-
         public KitchenOrderService(KitchenOrderRepository repository,
-                                   @Value("${kitchen.prep.min-seconds:5}") int minPrepSeconds,
-                                   @Value("${kitchen.prep.max-seconds:20}") int maxPrepSeconds,
-                                   @Value("${kitchen.callback.enabled:true}") boolean callbackEnabled,
-                                   @Value("${kitchen.callback.url:}") String callbackUrl,
-                                   @Value("${kitchen.callback.secret:}") String callbackSecret,
+                                   KitchenQueueEngine queue,
+                                   KitchenPrepTimers timers,
+                                   KitchenCallbackDispatcher callbacks,
+                                   IKitchenOrderItemService items,
+                                   ApplicationEventPublisher events,
                                    @Value("${kitchen.prep.enabled:true}") boolean prepSchedulingEnabled)
      {
             this.repository = repository;
-            this.minPrepSeconds = Math.max(1, minPrepSeconds);
-            this.maxPrepSeconds = Math.max(this.minPrepSeconds, maxPrepSeconds);
-            this.callbackEnabled = callbackEnabled;
-            this.callbackUrl = callbackUrl == null ? "" : callbackUrl.trim();
-            this.callbackSecret = callbackSecret == null ? "" : callbackSecret.trim();
+            this.queue = queue;
+            this.timers = timers;
+            this.callbacks = callbacks;
+            this.items = items;
+            this.events = events;
             this.prepSchedulingEnabled = prepSchedulingEnabled;
+            if (prepSchedulingEnabled) {
+                queue.setReadyListener(timers::complete);
+            }
+        }
 
+        /**
+         * Puts orders that were still open when the service stopped back on the kitchen queue. Their
+         * stored due_at is kept; orders without one get the queue's estimate.
+         */
+        @EventListener(ApplicationReadyEvent.class)
+        public void restoreQueue() {
+            if (!prepSchedulingEnabled) return;
+            List<KitchenOrder> open = repository.findByStatusIn(OPEN);
+            for (KitchenOrder o : open) {
+                Instant eta = enqueue(o);
+                if (o.getDueAt() == null && eta != null) {
+                    o.setDueAt(eta);
+                    repository.save(o);
+                }
+                timers.schedule(o.getId(), o.getDueAt());
+            }
+            log.info("Restored {} open kitchen orders to the queue", open.size());
         }
 
         @Override
         @Transactional
-        public KitchenOrder createOrder(UUID orderId, String itemsJson) {
+        public KitchenOrder createOrder(UUID orderId, String itemsJson, int priority) {
             KitchenOrder o = KitchenOrder.builder()
                     .orderId(orderId)
                     .itemsJson(itemsJson)
+                    .priority(priority)
                     .status(KitchenOrderStatus.PREPARING)
                     .createdAt(Instant.now())
                     .build();
 
             KitchenOrder saved = repository.save(o);
-            int createdIndex = createCounter.incrementAndGet();
-            boolean shouldSchedule = prepSchedulingEnabled && (createdIndex % 2 == 1);
-
+            items.createItems(saved);
             log.info("Kitchen order created: {} for source order {}", saved.getId(), orderId);
 
-            if ( shouldSchedule ) {
-                scheduleCompletion(saved);
+            if (prepSchedulingEnabled) {
+                Instant eta = enqueue(saved);
+                saved.setDueAt(eta);
+                timers.schedule(saved.getId(), eta);
+                log.info("Kitchen order {} queued, expected ready at {}", saved.getId(), eta);
             } else {
-                log.debug("Prep scheduling disabled; not scheduling completion for kitchen order {}", saved.getId());
+                log.debug("Prep scheduling disabled; not queueing kitchen order {}", saved.getId());
             }
+            events.publishEvent(new KitchenOrderChangedEvent(saved.getId()));
 
             return saved;
         }
 
+        @Override
+        public Instant estimateReadyAt(UUID id) {
+            return queue.estimateReadyAt(id);
+        }
+
         @Override
         @Transactional
         public KitchenOrder updateStatus(UUID id, KitchenOrderStatus newStatus) {
@@ -107,7 +127,19 @@
 
             o.setStatus(newStatus);
             o.setUpdatedAt(Instant.now());
+            if (!OPEN.contains(newStatus)) {
+                o.setDueAt(null);
+            }
             KitchenOrder saved = repository.save(o);
+            items.applyOrderStatus(id, newStatus);
+            if (newStatus == KitchenOrderStatus.READY) {
+                callbacks.enqueue(saved, newStatus.name());
+            }
+            if (!OPEN.contains(newStatus)) {
+                queue.remove(id);
+                timers.cancel(id);
+            }
+            events.publishEvent(new KitchenOrderChangedEvent(id));
             log.info("Kitchen order {} status changed {} -> {}", id, current, newStatus);
             return saved;
         }
@@ -127,11 +159,16 @@
 
             o.setStatus(KitchenOrderStatus.CANCELLED);
             o.setUpdatedAt(Instant.now());
+            o.setDueAt(null);
             repository.save(o);
+            items.applyOrderStatus(id, KitchenOrderStatus.CANCELLED);
+            queue.remove(id);
+            timers.cancel(id);
+            events.publishEvent(new KitchenOrderChangedEvent(id));
             log.info("Kitchen order {} cancelled (was {})", id, current);
         }
 
-        private boolean isValidTransition(KitchenOrderStatus from, KitchenOrderStatus to) {
+        static boolean isValidTransition(KitchenOrderStatus from, KitchenOrderStatus to) {
             if (to == KitchenOrderStatus.CANCELLED) return true;
             switch (from) {
                 case NEW: return to == KitchenOrderStatus.PREPARING || to == KitchenOrderStatus.CANCELLED;
@@ -142,57 +179,8 @@
             }
         }
 
-        private void scheduleCompletion(KitchenOrder ko) {
-            int delay = minPrepSeconds + random.nextInt(maxPrepSeconds - minPrepSeconds + 1);
-            log.info("Scheduling kitchen order {} to become READY in {}s", ko.getId(), delay);
-
-            scheduler.schedule(() -> {
-                try {
-                    KitchenOrder current = repository.findById(ko.getId()).orElse(null);
-                    if (current == null) {
-                        log.warn("Kitchen order {} not found when completing", ko.getId());
-                        return;
-                    }
-
-                    if (current.getStatus() == KitchenOrderStatus.CANCELLED
-                            || current.getStatus() == KitchenOrderStatus.READY
-                            || current.getStatus() == KitchenOrderStatus.COMPLETED
-                            || current.getStatus() == KitchenOrderStatus.SERVED) {
-                        log.info("Kitchen order {} in status {}, skipping completion", ko.getId(), current.getStatus());
-                        return;
-                    }
-
-                    current.setStatus(KitchenOrderStatus.READY);
-                    current.setUpdatedAt(Instant.now());
-                    repository.save(current);
-                    log.info("Kitchen order {} marked READY", current.getId());
-
-                    if (callbackEnabled && callbackUrl != null && !callbackUrl.isBlank()) {
-                        try {
-                            String target = callbackUrl
-                                    .replace("{orderId}", current.getOrderId().toString())
-                                    .replace("{kitchenOrderId}", current.getId().toString());
-                            HttpRequest.Builder builder = HttpRequest.newBuilder()
-                                    .uri(URI.create(target))
-                                    .timeout(java.time.Duration.ofSeconds(10))
-                                    .POST(HttpRequest.BodyPublishers.noBody());
-
-                            if (callbackSecret != null && !callbackSecret.isBlank()) {
-                                builder.header("X-Callback-Secret", callbackSecret);
-                            }
-
-                            HttpRequest req = builder.build();
-                            HttpResponse<String> resp = httpClient.send(req, HttpResponse.BodyHandlers.ofString());
-                            log.info("Callback to main-service returned status {} for kitchenOrder {}", resp.statusCode(), current.getId());
-                        } catch (Exception cbEx) {
-                            log.warn("Callback to main-service failed for kitchenOrder {}: {}", current.getId(), cbEx.getMessage());
-                        }
-                    }
-
-                } catch (Exception e) {
-                    log.error("Error while completing kitchen order {}: {}", ko.getId(), e.getMessage(), e);
-                }
-            }, delay, TimeUnit.SECONDS);
+        private Instant enqueue(KitchenOrder o) {
+            return queue.enqueue(o.getId(), o.getItemsJson(), o.getPriority(), o.getCreatedAt());
         }
 
         @Override
@@ -204,15 +192,10 @@
         @Override
         @Transactional
         public void delete(UUID id) {
+            items.deleteByKitchenOrderId(id);
             repository.deleteById(id);
-        }
-
-        @PreDestroy
-        public void shutdown() {
-            try {
-                scheduler.shutdownNow();
-            } catch (Exception e) {
-                log.warn("Error shutting down kitchen scheduler: {}", e.getMessage());
-            }
+            queue.remove(id);
+            timers.cancel(id);
+            events.publishEvent(new KitchenOrderChangedEvent(id));
         }
     }
\ No newline at end of file
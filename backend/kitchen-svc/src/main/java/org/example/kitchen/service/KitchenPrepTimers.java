@@ -0,0 +1,194 @@
+package org.example.kitchen.service;
+
+import org.example.kitchen.event.KitchenOrderChangedEvent;
+import org.example.kitchen.model.KitchenOrder;
+import org.example.kitchen.model.enums.KitchenOrderStatus;
+import org.example.kitchen.queue.KitchenQueueEngine;
+import org.example.kitchen.repository.KitchenOrderRepository;
+import org.example.main.scheduler.HashedTimerWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Durable prep timers. Every queued order stores its due_at, so a pending completion survives
+ * restarts and is visible to every kitchen-svc instance.
+ *
+ * Completion always goes through a row lock taken with SKIP LOCKED, so however many instances race
+ * for an order exactly one marks it READY and records its callback. A poller claims overdue orders
+ * in batches, oldest due_at first, and loads the timers due within the next {@code horizon-ms}
+ * into a hashed timer wheel, which fires them on time between polls.
+ */
+@Component
+public class KitchenPrepTimers {
+
+    private static final Logger log = LoggerFactory.getLogger(KitchenPrepTimers.class);
+
+    static final int WHEEL_SIZE = 512;
+
+    private final KitchenOrderRepository repository;
+    private final KitchenQueueEngine queue;
+    private final KitchenCallbackDispatcher callbacks;
+    private final IKitchenOrderItemService items;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate tx;
+    private final Clock clock;
+    private final HashedTimerWheel<UUID> wheel;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration horizon;
+
+    @Autowired
+    public KitchenPrepTimers(KitchenOrderRepository repository,
+                             KitchenQueueEngine queue,
+                             KitchenCallbackDispatcher callbacks,
+                             IKitchenOrderItemService items,
+                             ApplicationEventPublisher events,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${kitchen.prep.enabled:true}") boolean enabled,
+                             @Value("${kitchen.timers.batch-size:100}") int batchSize,
+                             @Value("${kitchen.timers.horizon-ms:30000}") long horizonMillis,
+                             @Value("${kitchen.timers.tick-ms:200}") long tickMillis) {
+        this(repository, queue, callbacks, items, events, transactionManager, enabled, batchSize, horizonMillis, tickMillis, Clock.systemUTC());
+    }
+
+    KitchenPrepTimers(KitchenOrderRepository repository,
+                      KitchenQueueEngine queue,
+                      KitchenCallbackDispatcher callbacks,
+                      IKitchenOrderItemService items,
+                      ApplicationEventPublisher events,
+                      PlatformTransactionManager transactionManager,
+                      boolean enabled,
+                      int batchSize,
+                      long horizonMillis,
+                      long tickMillis,
+                      Clock clock) {
+        this.repository = repository;
+        this.queue = queue;
+        this.callbacks = callbacks;
+        this.items = items;
+        this.events = events;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.horizon = Duration.ofMillis(Math.max(0, horizonMillis));
+        this.wheel = new HashedTimerWheel<>(Duration.ofMillis(tickMillis), WHEEL_SIZE, clock::millis);
+    }
+
+    /**
+     * Arms the in-memory timer when the order is due before the next horizon load; later ones are
+     * picked up by the poller.
+     */
+    public void schedule(UUID kitchenOrderId, Instant dueAt) {
+        if (!enabled || kitchenOrderId == null || dueAt == null) return;
+        if (!dueAt.isAfter(clock.instant().plus(horizon))) {
+            wheel.schedule(kitchenOrderId, dueAt.toEpochMilli());
+        }
+    }
+
+    public void cancel(UUID kitchenOrderId) {
+        if (kitchenOrderId != null) wheel.cancel(kitchenOrderId);
+    }
+
+    public int pending() {
+        return wheel.size();
+    }
+
+    /**
+     * Marks the order READY if it is still open and no other instance is completing it.
+     *
+     * @return whether this call completed the order
+     */
+    public boolean complete(UUID kitchenOrderId) {
+        Boolean done = tx.execute(status -> repository.claim(kitchenOrderId, KitchenOrderService.OPEN)
+                .map(o -> {
+                    finish(o);
+                    return true;
+                })
+                .orElse(false));
+        if (!Boolean.TRUE.equals(done)) {
+            log.debug("Kitchen order {} already completed or claimed elsewhere", kitchenOrderId);
+        }
+        return Boolean.TRUE.equals(done);
+    }
+
+    @Scheduled(fixedDelayString = "${kitchen.timers.tick-ms:200}")
+    public void tick() {
+        if (!enabled) return;
+        for (UUID id : wheel.advance()) {
+            try {
+                complete(id);
+            } catch (Exception ex) {
+                log.warn("Prep timer for kitchen order {} failed, the poller will retry: {}", id, ex.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${kitchen.timers.poll-ms:5000}")
+    public void poll() {
+        if (!enabled) return;
+        try {
+            int completed = completeDue();
+            if (completed > 0) log.info("Completed {} overdue kitchen orders", completed);
+            loadUpcoming();
+        } catch (Exception ex) {
+            log.error("Prep timer poll failed", ex);
+        }
+    }
+
+    /**
+     * Completes overdue orders one locked batch at a time until none are left.
+     *
+     * @return number of orders marked READY
+     */
+    int completeDue() {
+        int total = 0;
+        while (true) {
+            Integer n = tx.execute(status -> {
+                List<KitchenOrder> due = repository.claimDue(clock.instant(), KitchenOrderService.OPEN, PageRequest.of(0, batchSize));
+                due.forEach(this::finish);
+                return due.size();
+            });
+            int claimed = n == null ? 0 : n;
+            total += claimed;
+            if (claimed < batchSize) return total;
+        }
+    }
+
+    int loadUpcoming() {
+        Instant now = clock.instant();
+        List<KitchenOrderRepository.PrepTimer> timers = repository.findTimersBetween(now, now.plus(horizon), KitchenOrderService.OPEN);
+        for (KitchenOrderRepository.PrepTimer t : timers) {
+            wheel.schedule(t.getId(), t.getDueAt().toEpochMilli());
+        }
+        return timers.size();
+    }
+
+    private void finish(KitchenOrder o) {
+        o.setStatus(KitchenOrderStatus.READY);
+        o.setUpdatedAt(clock.instant());
+        o.setDueAt(null);
+        repository.save(o);
+        items.applyOrderStatus(o.getId(), KitchenOrderStatus.READY);
+        callbacks.enqueue(o, KitchenOrderStatus.READY.name());
+        wheel.cancel(o.getId());
+        queue.remove(o.getId());
+        events.publishEvent(new KitchenOrderChangedEvent(o.getId()));
+        log.info("Kitchen order {} marked READY", o.getId());
+    }
+}
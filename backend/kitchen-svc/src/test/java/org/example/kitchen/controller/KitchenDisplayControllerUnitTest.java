@@ -0,0 +1,70 @@
+package org.example.kitchen.controller;
+
+import org.example.kitchen.display.KitchenDisplayIndex;
+import org.example.kitchen.display.KitchenDisplayStream;
+import org.example.kitchen.dto.response.KitchenTicketResponse;
+import org.example.kitchen.model.enums.KitchenOrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class KitchenDisplayControllerUnitTest {
+
+    @Mock
+    private KitchenDisplayIndex board;
+
+    @Mock
+    private KitchenDisplayStream stream;
+
+    @InjectMocks
+    private KitchenDisplayController controller;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void snapshot_filtersByStatusAndStation() throws Exception {
+        KitchenTicketResponse t = KitchenTicketResponse.builder().id(UUID.randomUUID())
+                .status(KitchenOrderStatus.PREPARING).stations(List.of("grill")).items(List.of()).build();
+        when(board.tickets(KitchenOrderStatus.PREPARING, "grill")).thenReturn(List.of(t));
+
+        mvc.perform(get("/api/kitchen/display").param("status", "PREPARING").param("station", "grill"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(t.getId().toString()))
+                .andExpect(jsonPath("$[0].stations[0]").value("grill"));
+
+        when(board.tickets(null, null)).thenReturn(List.of());
+        mvc.perform(get("/api/kitchen/display").param("station", " "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void stream_subscribesForTheStation() throws Exception {
+        when(stream.subscribe("bar")).thenReturn(new SseEmitter());
+
+        mvc.perform(get("/api/kitchen/display/stream").param("station", "bar"))
+                .andExpect(request().asyncStarted());
+
+        verify(stream).subscribe("bar");
+    }
+}
@@ -68,10 +68,12 @@ class KitchenOrderControllerUnitTest {
         resp.setItemsJson(req.getItemsJson());
         resp.setStatus(KitchenOrderStatus.PREPARING);
 
-        when(service.createOrder(orderId, req.getItemsJson())).thenReturn(saved);
+        Instant eta = Instant.now().plusSeconds(300);
+        when(service.createOrder(orderId, req.getItemsJson(), 0)).thenReturn(saved);
+        when(service.estimateReadyAt(kitchenOrderId)).thenReturn(eta);
 
         try (MockedStatic<KitchenOrderMapper> mapper = Mockito.mockStatic(KitchenOrderMapper.class)) {
-            mapper.when(() -> KitchenOrderMapper.toResponse(saved)).thenReturn(resp);
+            mapper.when(() -> KitchenOrderMapper.toResponse(saved, eta)).thenReturn(resp);
 
             mvc.perform(post("/api/kitchen/orders")
                             .contentType(MediaType.APPLICATION_JSON)
@@ -102,7 +104,7 @@ class KitchenOrderControllerUnitTest {
 
         when(service.findByOrderId(orderId)).thenReturn(List.of(k1));
         try (MockedStatic<KitchenOrderMapper> mapper = Mockito.mockStatic(KitchenOrderMapper.class)) {
-            mapper.when(() -> KitchenOrderMapper.toResponse(k1)).thenReturn(r1);
+            mapper.when(() -> KitchenOrderMapper.toResponse(k1, null)).thenReturn(r1);
 
             mvc.perform(get("/api/kitchen/orders/by-order/{orderId}", orderId.toString())
                             .accept(MediaType.APPLICATION_JSON))
@@ -133,7 +135,7 @@ class KitchenOrderControllerUnitTest {
         resp.setStatus(after.getStatus());
 
         try (MockedStatic<KitchenOrderMapper> mapper = Mockito.mockStatic(KitchenOrderMapper.class)) {
-            mapper.when(() -> KitchenOrderMapper.toResponse(after)).thenReturn(resp);
+            mapper.when(() -> KitchenOrderMapper.toResponse(after, null)).thenReturn(resp);
 
             mvc.perform(put("/api/kitchen/orders/{id}/status", id.toString())
                             .contentType(MediaType.APPLICATION_JSON)
@@ -0,0 +1,105 @@
+package org.example.kitchen.controller;
+
+import org.example.kitchen.model.KitchenOrderItem;
+import org.example.kitchen.model.enums.KitchenOrderStatus;
+import org.example.kitchen.repository.KitchenOrderItemRepository;
+import org.example.kitchen.service.IKitchenOrderItemService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class KitchenOrderItemControllerUnitTest {
+
+    @Mock
+    private IKitchenOrderItemService service;
+
+    @InjectMocks
+    private KitchenOrderItemController controller;
+
+    private MockMvc mvc;
+    private UUID kitchenOrderId;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+        kitchenOrderId = UUID.randomUUID();
+    }
+
+    private KitchenOrderItem item(KitchenOrderStatus status) {
+        return KitchenOrderItem.builder().id(UUID.randomUUID()).kitchenOrderId(kitchenOrderId)
+                .menuItemId("m1").name("Salmon").quantity(2).station("grill").status(status)
+                .createdAt(Instant.now()).build();
+    }
+
+    @Test
+    void list_returnsItemsOfTheOrder() throws Exception {
+        when(service.findByKitchenOrderId(kitchenOrderId)).thenReturn(List.of(item(KitchenOrderStatus.PREPARING)));
+
+        mvc.perform(get("/api/kitchen/orders/{id}/items", kitchenOrderId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Salmon"))
+                .andExpect(jsonPath("$[0].station").value("grill"))
+                .andExpect(jsonPath("$[0].quantity").value(2));
+    }
+
+    @Test
+    void updateStatus_singleAndBulk() throws Exception {
+        KitchenOrderItem ready = item(KitchenOrderStatus.READY);
+        when(service.updateStatus(kitchenOrderId, ready.getId(), KitchenOrderStatus.READY)).thenReturn(ready);
+
+        mvc.perform(put("/api/kitchen/orders/{id}/items/{itemId}/status", kitchenOrderId, ready.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"READY\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("READY"));
+
+        KitchenOrderItem other = item(KitchenOrderStatus.READY);
+        when(service.updateStatuses(List.of(ready.getId(), other.getId()), KitchenOrderStatus.READY))
+                .thenReturn(List.of(ready, other));
+
+        mvc.perform(put("/api/kitchen/items/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemIds\":[\"" + ready.getId() + "\",\"" + other.getId() + "\"],\"status\":\"READY\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        mvc.perform(put("/api/kitchen/items/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemIds\":[],\"status\":\"READY\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void inFlight_returnsGroupedCounts() throws Exception {
+        KitchenOrderItemRepository.MenuItemLoad load = new KitchenOrderItemRepository.MenuItemLoad() {
+            public String getMenuItemId() { return "m1"; }
+            public String getName() { return "Salmon"; }
+            public KitchenOrderStatus getStatus() { return KitchenOrderStatus.IN_PROGRESS; }
+            public Long getQuantity() { return 7L; }
+            public Long getLines() { return 3L; }
+        };
+        when(service.inFlightByMenuItem()).thenReturn(List.of(load));
+
+        mvc.perform(get("/api/kitchen/items/in-flight"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Salmon"))
+                .andExpect(jsonPath("$[0].status").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$[0].quantity").value(7))
+                .andExpect(jsonPath("$[0].lines").value(3));
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.kitchen.display;
+
+import org.example.kitchen.dto.response.KitchenTicketResponse;
+import org.example.kitchen.event.KitchenOrderChangedEvent;
+import org.example.kitchen.model.KitchenOrder;
+import org.example.kitchen.model.KitchenOrderItem;
+import org.example.kitchen.model.enums.KitchenOrderStatus;
+import org.example.kitchen.repository.KitchenOrderItemRepository;
+import org.example.kitchen.repository.KitchenOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KitchenDisplayIndexTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T12:00:00Z");
+
+    @Mock
+    private KitchenOrderRepository orderRepository;
+
+    @Mock
+    private KitchenOrderItemRepository itemRepository;
+
+    private KitchenDisplayIndex index;
+    private final List<Object[]> changes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        index = new KitchenDisplayIndex(orderRepository, itemRepository);
+        index.addListener((id, ticket) -> changes.add(new Object[]{id, ticket}));
+    }
+
+    private static KitchenOrder order(KitchenOrderStatus status, int priority, long ageSeconds) {
+        return KitchenOrder.builder().id(UUID.randomUUID()).orderId(UUID.randomUUID())
+                .status(status).priority(priority).createdAt(T0.minusSeconds(ageSeconds)).build();
+    }
+
+    private static KitchenOrderItem item(KitchenOrder o, String station) {
+        return KitchenOrderItem.builder().id(UUID.randomUUID()).kitchenOrderId(o.getId())
+                .name(station + " dish").quantity(1).station(station).status(o.getStatus()).createdAt(o.getCreatedAt()).build();
+    }
+
+    @Test
+    void rebuild_indexesActiveTicketsByStatusAndStation() {
+        KitchenOrder grillOld = order(KitchenOrderStatus.PREPARING, 0, 300);
+        KitchenOrder grillUrgent = order(KitchenOrderStatus.PREPARING, 5, 10);
+        KitchenOrder bar = order(KitchenOrderStatus.READY, 0, 200);
+        when(orderRepository.findByStatusIn(KitchenDisplayIndex.ACTIVE)).thenReturn(List.of(grillOld, grillUrgent, bar));
+        when(itemRepository.findByKitchenOrderIdInOrderByLineNo(anyCollection())).thenReturn(List.of(
+                item(grillOld, "grill"), item(grillUrgent, "grill"), item(grillUrgent, "bar"), item(bar, "bar")));
+
+        assertThat(index.rebuild()).isEqualTo(3);
+
+        assertThat(index.tickets(null, null)).extracting(KitchenTicketResponse::getId)
+                .containsExactly(grillUrgent.getId(), grillOld.getId(), bar.getId());
+        assertThat(index.tickets(null, "grill")).extracting(KitchenTicketResponse::getId)
+                .containsExactly(grillUrgent.getId(), grillOld.getId());
+        assertThat(index.tickets(KitchenOrderStatus.READY, "bar")).extracting(KitchenTicketResponse::getId)
+                .containsExactly(bar.getId());
+        assertThat(index.tickets(KitchenOrderStatus.IN_PROGRESS, null)).isEmpty();
+        assertThat(index.tickets(null, "cold")).isEmpty();
+        assertThat(index.tickets(null, null).get(0).getStations()).containsExactly("bar", "grill");
+        assertThat(index.counts()).isEqualTo(Map.of(KitchenOrderStatus.PREPARING, 2, KitchenOrderStatus.READY, 1));
+        // the first load is not a change
+        assertThat(changes).isEmpty();
+    }
+
+    @Test
+    void orderChanges_moveTicketsBetweenBuckets_andDropFinishedOnes() {
+        when(orderRepository.findByStatusIn(anyCollection())).thenReturn(List.of());
+        index.rebuild();
+
+        KitchenOrder o = order(KitchenOrderStatus.PREPARING, 0, 0);
+        KitchenOrderItem grill = item(o, "grill");
+        when(orderRepository.findById(o.getId())).thenReturn(Optional.of(o));
+        when(itemRepository.findByKitchenOrderIdOrderByLineNo(o.getId())).thenReturn(List.of(grill));
+
+        index.onOrderChanged(new KitchenOrderChangedEvent(o.getId()));
+        assertThat(index.tickets(KitchenOrderStatus.PREPARING, "grill")).hasSize(1);
+
+        o.setStatus(KitchenOrderStatus.READY);
+        index.onOrderChanged(new KitchenOrderChangedEvent(o.getId()));
+        assertThat(index.tickets(KitchenOrderStatus.PREPARING, null)).isEmpty();
+        assertThat(index.tickets(KitchenOrderStatus.READY, "grill")).singleElement()
+                .satisfies(t -> assertThat(t.getStatus()).isEqualTo(KitchenOrderStatus.READY));
+
+        // nothing new: no event for screens
+        index.refresh(o.getId());
+        assertThat(changes).hasSize(2);
+
+        o.setStatus(KitchenOrderStatus.SERVED);
+        index.onOrderChanged(new KitchenOrderChangedEvent(o.getId()));
+        assertThat(index.size()).isZero();
+        assertThat(index.tickets(null, "grill")).isEmpty();
+        assertThat(changes).hasSize(3);
+        assertThat(changes.get(2)[1]).isNull();
+
+        // deleted orders that were never on the board are ignored
+        UUID gone = UUID.randomUUID();
+        when(orderRepository.findById(gone)).thenReturn(Optional.empty());
+        index.onOrderChanged(new KitchenOrderChangedEvent(gone));
+        assertThat(changes).hasSize(3);
+    }
+
+    @Test
+    void resync_reportsOnlyDifferences() {
+        KitchenOrder stays = order(KitchenOrderStatus.PREPARING, 0, 60);
+        KitchenOrder leaves = order(KitchenOrderStatus.PREPARING, 0, 30);
+        when(orderRepository.findByStatusIn(anyCollection())).thenReturn(List.of(stays, leaves));
+        index.rebuild();
+
+        KitchenOrder arrives = order(KitchenOrderStatus.NEW, 0, 0);
+        when(orderRepository.findByStatusIn(anyCollection())).thenReturn(List.of(stays, arrives));
+        index.resync();
+
+        assertThat(changes).extracting(c -> c[0]).containsExactlyInAnyOrder(leaves.getId(), arrives.getId());
+        assertThat(index.tickets(null, null)).extracting(KitchenTicketResponse::getId)
+                .containsExactlyInAnyOrder(stays.getId(), arrives.getId());
+    }
+
+    @Test
+    void refreshFailures_areLeftToTheNextResync() {
+        UUID id = UUID.randomUUID();
+        when(orderRepository.findById(id)).thenThrow(new IllegalStateException("db down"));
+
+        assertThatCode(() -> index.onOrderChanged(new KitchenOrderChangedEvent(id))).doesNotThrowAnyException();
+        assertThat(changes).isEmpty();
+    }
+}
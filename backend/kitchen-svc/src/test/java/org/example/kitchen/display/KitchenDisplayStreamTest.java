@@ -0,0 +1,154 @@
+package org.example.kitchen.display;
+
+import org.example.kitchen.dto.response.KitchenTicketResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KitchenDisplayStreamTest {
+
+    @Mock
+    KitchenDisplayIndex board;
+
+    KitchenDisplayStream stream;
+    BiConsumer<UUID, KitchenTicketResponse> listener;
+    List<RecordingEmitter> emitters = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        stream = stream(Runnable::run);
+    }
+
+    @SuppressWarnings("unchecked")
+    private KitchenDisplayStream stream(Executor sender) {
+        KitchenDisplayStream s = new KitchenDisplayStream(board, 60_000, sender) {
+            @Override
+            SseEmitter newEmitter(long timeout) {
+                RecordingEmitter e = new RecordingEmitter();
+                emitters.add(e);
+                return e;
+            }
+        };
+        ArgumentCaptor<BiConsumer<UUID, KitchenTicketResponse>> captor = ArgumentCaptor.forClass(BiConsumer.class);
+        verify(board, atLeastOnce()).addListener(captor.capture());
+        listener = captor.getValue();
+        return s;
+    }
+
+    private static KitchenTicketResponse ticket(String... stations) {
+        return KitchenTicketResponse.builder().id(UUID.randomUUID()).stations(List.of(stations)).items(List.of()).build();
+    }
+
+    @Test
+    void subscribe_sendsSnapshotFirst_thenDeltas() {
+        KitchenTicketResponse t = ticket("grill");
+        when(board.tickets(null, null)).thenReturn(List.of(t));
+
+        stream.subscribe(null);
+        listener.accept(t.getId(), t);
+        listener.accept(t.getId(), null);
+
+        assertThat(stream.subscribers()).isEqualTo(1);
+        assertThat(emitters.get(0).sent).hasSize(3);
+        assertThat(emitters.get(0).text(0)).contains("event:snapshot");
+        assertThat(emitters.get(0).text(1)).contains("event:ticket");
+        assertThat(emitters.get(0).text(2)).contains("event:ticket-removed");
+    }
+
+    @Test
+    void stationScreens_onlyGetTheirTickets() {
+        when(board.tickets(null, "bar")).thenReturn(List.of());
+        when(board.tickets(null, null)).thenReturn(List.of());
+        stream.subscribe(" bar ");
+        stream.subscribe("");
+
+        listener.accept(UUID.randomUUID(), ticket("grill"));
+        listener.accept(UUID.randomUUID(), ticket("bar", "grill"));
+
+        assertThat(emitters.get(0).sent).hasSize(2);
+        assertThat(emitters.get(1).sent).hasSize(3);
+    }
+
+    @Test
+    void failingSubscriber_isDropped() {
+        when(board.tickets(null, null)).thenReturn(List.of());
+        stream.subscribe(null);
+        stream.subscribe(null);
+        emitters.get(0).failing = true;
+
+        listener.accept(UUID.randomUUID(), ticket("hot"));
+
+        assertThat(stream.subscribers()).isEqualTo(1);
+        assertThat(emitters.get(1).sent).hasSize(2);
+    }
+
+    @Test
+    void heartbeat_keepsSubscribersAlive() {
+        when(board.tickets(null, null)).thenReturn(List.of());
+        stream.subscribe(null);
+
+        stream.heartbeat();
+
+        assertThat(emitters.get(0).text(1)).contains(":keep-alive");
+    }
+
+    @Test
+    void changeCommittedWhileTheSnapshotIsSent_stillReachesTheNewScreen() {
+        Deque<Runnable> tasks = new ArrayDeque<>();
+        KitchenDisplayStream queued = stream(tasks::add);
+        KitchenTicketResponse t = ticket("grill");
+        // the change lands after the snapshot was read but before the screen is registered
+        when(board.tickets(null, null)).thenAnswer(inv -> {
+            listener.accept(t.getId(), t);
+            return List.of();
+        });
+
+        queued.subscribe(null);
+        while (!tasks.isEmpty()) tasks.poll().run();
+
+        RecordingEmitter screen = emitters.get(emitters.size() - 1);
+        assertThat(screen.sent).hasSize(2);
+        assertThat(screen.text(0)).contains("event:snapshot");
+        assertThat(screen.text(1)).contains("event:ticket");
+    }
+
+    @Test
+    void changesWithoutSubscribers_areIgnored() {
+        listener.accept(UUID.randomUUID(), ticket("grill"));
+        verify(board, never()).tickets(any(), any());
+    }
+
+    static class RecordingEmitter extends SseEmitter {
+        final List<SseEventBuilder> sent = new ArrayList<>();
+        boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) throw new IOException("broken pipe");
+            sent.add(builder);
+        }
+
+        String text(int i) {
+            StringBuilder sb = new StringBuilder();
+            sent.get(i).build().forEach(d -> sb.append(d.getData()));
+            return sb.toString();
+        }
+    }
+}
@@ -45,4 +45,25 @@ class KitchenOrderMapperTest {
         assertEquals(created, resp.getCreatedAt(), "createdAt should be copied");
         assertEquals(updated, resp.getUpdatedAt(), "updatedAt should be copied");
     }
-}
\ No newline at end of file
+
+    @Test
+    void toResponse_withEstimate_copiesPriorityAndEta() {
+        Instant eta = Instant.now().plusSeconds(120);
+        KitchenOrder entity = KitchenOrder.builder()
+                .id(UUID.randomUUID())
+                .orderId(UUID.randomUUID())
+                .status(KitchenOrderStatus.PREPARING)
+                .priority(4)
+                .createdAt(Instant.now())
+                .build();
+
+        KitchenOrderResponse resp = KitchenOrderMapper.toResponse(entity, eta);
+
+        assertEquals(4, resp.getPriority(), "priority should be copied");
+        assertEquals(eta, resp.getEstimatedReadyAt(), "estimate should be set");
+        assertNull(KitchenOrderMapper.toResponse(entity).getEstimatedReadyAt(), "no estimate without the queue");
+
+        entity.setDueAt(eta);
+        assertEquals(eta, KitchenOrderMapper.toResponse(entity).getEstimatedReadyAt(), "falls back to the stored due_at");
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.kitchen.queue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class KitchenQueueEngineTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T12:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private MutableClock clock;
+    private KitchenQueueEngine engine;
+    private final List<UUID> ready = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START);
+        // grill cooks two things at once in 60s, the bar one drink in 10s, everything else goes to hot
+        engine = new KitchenQueueEngine(objectMapper, registry,
+                List.of("grill:2:60:steak|chicken", "bar:1:10:lemonade", "hot:1:30"), clock);
+        engine.setReadyListener(ready::add);
+    }
+
+    private static String items(String... namesAndQty) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < namesAndQty.length; i += 2) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"menuItemName\":\"").append(namesAndQty[i]).append("\",\"quantity\":").append(namesAndQty[i + 1]).append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    @Test
+    void stationsAndItems_parseFromConfigAndJson() {
+        List<KitchenStation> stations = KitchenStation.parse(List.of("grill:2:60:Steak| chicken", "hot:1:30"));
+        assertThat(stations.get(0).keywords()).containsExactly("steak", "chicken");
+        assertThat(stations.get(0).accepts("Beef Steak with Chimichurri")).isTrue();
+        assertThat(stations.get(1).keywords()).isEmpty();
+        assertThatThrownBy(() -> KitchenStation.parse(List.of("grill:0:60"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KitchenStation.parse(List.of())).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(TicketItem.parse(objectMapper, "[{\"menuItemId\":\"m1\",\"menuItemName\":\"Steak\",\"quantity\":2},{\"name\":\"pasta\",\"qty\":3},{}]"))
+                .containsExactly(new TicketItem("m1", "Steak", 2), new TicketItem(null, "pasta", 3), new TicketItem(null, null, 1));
+        assertThat(TicketItem.parse(objectMapper, "not json")).isEmpty();
+        assertThat(TicketItem.parse(objectMapper, "{}")).isEmpty();
+    }
+
+    @Test
+    void eta_followsStationParallelismAndQueueDepth() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+
+        // three steaks on a two-slot grill take two rounds; the lemonade runs alongside
+        Instant etaA = engine.enqueue(a, items("Steak", "3", "Lemonade", "1"), 0, START);
+        assertThat(etaA).isEqualTo(START.plusSeconds(120));
+
+        // b queues behind a's third steak, which holds one slot until 120s
+        Instant etaB = engine.enqueue(b, items("Grilled Chicken", "1"), 0, START.plusSeconds(1));
+        assertThat(etaB).isEqualTo(START.plusSeconds(120));
+        assertThat(engine.queueDepth("grill")).isEqualTo(2);
+        assertThat(registry.get("kitchen.queue.depth").tag("station", "grill").gauge().value()).isEqualTo(2.0);
+
+        // an unknown item goes to the catch-all station
+        UUID c = UUID.randomUUID();
+        assertThat(engine.enqueue(c, items("Mystery Soup", "1"), 0, START.plusSeconds(2))).isEqualTo(START.plusSeconds(30));
+    }
+
+    @Test
+    void tick_completesTickets_inPriorityThenAgeOrder() {
+        UUID oldTicket = UUID.randomUUID();
+        UUID newTicket = UUID.randomUUID();
+        UUID urgent = UUID.randomUUID();
+        UUID running = UUID.randomUUID();
+
+        engine.enqueue(running, items("Soup", "1"), 0, START);
+        engine.enqueue(newTicket, items("Soup", "1"), 0, START.plusSeconds(5));
+        engine.enqueue(oldTicket, items("Soup", "1"), 0, START.plusSeconds(1));
+        engine.enqueue(urgent, items("Soup", "1"), 5, START.plusSeconds(9));
+
+        assertThat(engine.estimateReadyAt(urgent)).isEqualTo(START.plusSeconds(60));
+        assertThat(engine.estimateReadyAt(oldTicket)).isEqualTo(START.plusSeconds(90));
+        assertThat(engine.estimateReadyAt(newTicket)).isEqualTo(START.plusSeconds(120));
+
+        clock.advance(Duration.ofSeconds(29));
+        engine.tick();
+        assertThat(ready).isEmpty();
+
+        // a late tick still starts the next job when the previous one actually finished
+        clock.advance(Duration.ofSeconds(65));
+        engine.tick();
+        assertThat(ready).containsExactly(running, urgent, oldTicket);
+        assertThat(engine.estimateReadyAt(newTicket)).isEqualTo(START.plusSeconds(120));
+        assertThat(engine.estimateReadyAt(running)).isNull();
+
+        clock.advance(Duration.ofSeconds(30));
+        engine.tick();
+        assertThat(ready).containsExactly(running, urgent, oldTicket, newTicket);
+        assertThat(engine.size()).isZero();
+    }
+
+    @Test
+    void remove_freesSlots_andPullsEstimatesForward() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        engine.enqueue(first, items("Soup", "1"), 0, START);
+        engine.enqueue(second, items("Soup", "1"), 0, START.plusSeconds(1));
+        assertThat(engine.estimateReadyAt(second)).isEqualTo(START.plusSeconds(60));
+
+        clock.advance(Duration.ofSeconds(10));
+        assertThat(engine.remove(first)).isTrue();
+        assertThat(engine.remove(first)).isFalse();
+        assertThat(engine.estimateReadyAt(second)).isEqualTo(START.plusSeconds(40));
+
+        clock.advance(Duration.ofSeconds(30));
+        engine.tick();
+        assertThat(ready).containsExactly(second);
+    }
+
+    @Test
+    void enqueue_isIdempotent_andEmptyOrdersStillPassThroughOnce() {
+        UUID id = UUID.randomUUID();
+        Instant eta = engine.enqueue(id, "[]", 0, START);
+        assertThat(eta).isEqualTo(START.plusSeconds(30));
+        assertThat(engine.enqueue(id, items("Steak", "5"), 0, START)).isEqualTo(eta);
+        assertThat(engine.size()).isEqualTo(1);
+        assertThat(engine.queueDepth("grill")).isZero();
+    }
+
+    @Test
+    void listenerFailures_doNotStopOtherTickets() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        engine.setReadyListener(id -> {
+            if (id.equals(a)) throw new IllegalStateException("boom");
+            ready.add(id);
+        });
+        engine.enqueue(a, items("Steak", "1"), 0, START);
+        engine.enqueue(b, items("Steak", "1"), 0, START);
+
+        clock.advance(Duration.ofSeconds(60));
+        engine.tick();
+        assertThat(ready).containsExactly(b);
+    }
+
+    static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
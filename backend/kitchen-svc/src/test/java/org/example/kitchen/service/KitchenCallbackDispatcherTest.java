@@ -0,0 +1,249 @@
+package org.example.kitchen.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.kitchen.model.KitchenCallback;
+import org.example.kitchen.model.KitchenOrder;
+import org.example.kitchen.repository.KitchenCallbackRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class KitchenCallbackDispatcherTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+    private static final String BATCH_URL = "http://main/api/internal/orders/kitchen-ready";
+    private static final String ORDER_URL = "http://main/api/internal/orders/{orderId}/kitchen-ready";
+
+    @Mock
+    private KitchenCallbackRepository repository;
+
+    @Mock
+    private HttpClient httpClient;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    private KitchenCallbackDispatcher dispatcher(String batchUrl, int batchSize, int maxConcurrency, int maxAttempts) {
+        return new KitchenCallbackDispatcher(repository, objectMapper, transactionManager, httpClient, clock,
+                true, ORDER_URL, batchUrl, "s3cret", batchSize, maxConcurrency, maxAttempts, 1000, 8000);
+    }
+
+    private static KitchenCallback callback(String destination) {
+        return KitchenCallback.builder()
+                .id(UUID.randomUUID())
+                .kitchenOrderId(UUID.randomUUID())
+                .orderId(UUID.randomUUID())
+                .status("READY")
+                .destination(destination)
+                .nextAttemptAt(NOW)
+                .createdAt(NOW)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void respond(int status, String body) {
+        HttpResponse<String> resp = mock(HttpResponse.class);
+        when(resp.statusCode()).thenReturn(status);
+        when(resp.body()).thenReturn(body);
+        when(httpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(CompletableFuture.completedFuture(resp));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<HttpRequest> sentRequests() {
+        ArgumentCaptor<HttpRequest> captor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient, atLeast(0)).sendAsync(captor.capture(), any(HttpResponse.BodyHandler.class));
+        return captor.getAllValues();
+    }
+
+    @Test
+    void enqueue_persistsRowForBatchDestination_andSendsItOutsideATransaction() throws Exception {
+        KitchenCallbackDispatcher d = dispatcher(BATCH_URL, 10, 2, 5);
+        KitchenOrder order = KitchenOrder.builder().id(UUID.randomUUID()).orderId(UUID.randomUUID()).build();
+        List<KitchenCallback> stored = new ArrayList<>();
+        when(repository.save(any(KitchenCallback.class))).thenAnswer(inv -> {
+            KitchenCallback c = inv.getArgument(0);
+            c.setId(UUID.randomUUID());
+            stored.add(c);
+            return c;
+        });
+        when(repository.claimDue(any(), any())).thenAnswer(inv -> List.copyOf(stored));
+        respond(200, "{\"updated\":1,\"failed\":[]}");
+
+        d.enqueue(order, "READY");
+
+        assertThat(stored).singleElement().satisfies(c -> {
+            assertThat(c.getDestination()).isEqualTo(BATCH_URL);
+            assertThat(c.getOrderId()).isEqualTo(order.getOrderId());
+            assertThat(c.getCreatedAt()).isEqualTo(NOW);
+            // claimed by the drain that sent it
+            assertThat(c.getNextAttemptAt()).isEqualTo(NOW.plus(KitchenCallbackDispatcher.LEASE));
+        });
+        HttpRequest req = sentRequests().get(0);
+        assertThat(req.uri().toString()).isEqualTo(BATCH_URL);
+        assertThat(req.headers().firstValue("X-Callback-Secret")).contains("s3cret");
+        assertThat(objectMapper.readTree(body(req)).get(0).get("orderId").asText()).isEqualTo(order.getOrderId().toString());
+        verify(repository).deleteAll(stored);
+        assertThat(d.inFlight()).isZero();
+    }
+
+    @Test
+    void enqueue_withoutBatchUrl_resolvesPerOrderUrl_andDisabledDispatcherDoesNothing() {
+        KitchenCallbackDispatcher d = dispatcher("", 10, 2, 5);
+        KitchenOrder order = KitchenOrder.builder().id(UUID.randomUUID()).orderId(UUID.randomUUID()).build();
+        when(repository.save(any(KitchenCallback.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        d.enqueue(order, "READY");
+
+        ArgumentCaptor<KitchenCallback> saved = ArgumentCaptor.forClass(KitchenCallback.class);
+        verify(repository).save(saved.capture());
+        assertThat(saved.getValue().getDestination())
+                .isEqualTo("http://main/api/internal/orders/" + order.getOrderId() + "/kitchen-ready");
+
+        KitchenCallbackDispatcher off = new KitchenCallbackDispatcher(repository, objectMapper, transactionManager, httpClient, clock,
+                false, ORDER_URL, BATCH_URL, "", 10, 2, 5, 1000, 8000);
+        off.enqueue(order, "READY");
+        off.drain();
+        verify(repository, times(1)).save(any(KitchenCallback.class));
+    }
+
+    @Test
+    void drain_groupsByDestination_chunksBatches_andRespectsConcurrency() {
+        KitchenCallbackDispatcher d = dispatcher(BATCH_URL, 2, 3, 5);
+        List<KitchenCallback> due = new ArrayList<>();
+        for (int i = 0; i < 5; i++) due.add(callback(BATCH_URL));
+        due.add(callback("http://main/single"));
+        when(repository.claimDue(any(), any())).thenReturn(due);
+        // requests never complete, so every slot stays taken
+        when(httpClient.sendAsync(any(HttpRequest.class), any())).thenReturn(new CompletableFuture<>());
+
+        d.drain();
+
+        List<HttpRequest> sent = sentRequests();
+        assertThat(sent).hasSize(3).allSatisfy(r -> assertThat(r.uri().toString()).isEqualTo(BATCH_URL));
+        assertThat(d.inFlight()).isEqualTo(5);
+        // sent rows stay leased, the one that found no free slot is handed back right away
+        assertThat(due.subList(0, 5)).allSatisfy(c ->
+                assertThat(c.getNextAttemptAt()).isEqualTo(NOW.plus(KitchenCallbackDispatcher.LEASE)));
+        assertThat(due.get(5).getNextAttemptAt()).isEqualTo(NOW);
+        verify(repository).saveAll(List.of(due.get(5)));
+
+        // nothing more goes out until a slot frees up
+        d.drain();
+        assertThat(sentRequests()).hasSize(3);
+    }
+
+    @Test
+    void failures_backOffExponentially_andGiveUpOnClientErrorsOrMaxAttempts() {
+        KitchenCallbackDispatcher d = dispatcher("", 10, 4, 3);
+        assertThat(d.backoffMillis(1)).isEqualTo(1000);
+        assertThat(d.backoffMillis(3)).isEqualTo(4000);
+        assertThat(d.backoffMillis(10)).isEqualTo(8000);
+
+        KitchenCallback retry = callback("http://main/a");
+        KitchenCallback last = callback("http://main/b");
+        last.setAttempts(2);
+        when(repository.claimDue(any(), any())).thenReturn(List.of(retry, last));
+        respond(503, "");
+
+        d.drain();
+
+        assertThat(retry.getAttempts()).isEqualTo(1);
+        assertThat(retry.getNextAttemptAt()).isEqualTo(NOW.plusMillis(1000));
+        assertThat(retry.getFailedAt()).isNull();
+        assertThat(retry.getLastError()).isEqualTo("HTTP 503");
+        assertThat(last.getAttempts()).isEqualTo(3);
+        assertThat(last.getFailedAt()).isEqualTo(NOW);
+
+        KitchenCallback rejected = callback("http://main/c");
+        when(repository.claimDue(any(), any())).thenReturn(List.of(rejected));
+        respond(404, "");
+        d.drain();
+        assertThat(rejected.getFailedAt()).isEqualTo(NOW);
+        verify(repository, never()).deleteAll(any());
+    }
+
+    @Test
+    void batchResponse_retriesOnlyTheOrdersMainServiceReportsAsFailed() {
+        KitchenCallbackDispatcher d = dispatcher(BATCH_URL, 10, 1, 5);
+        KitchenCallback ok = callback(BATCH_URL);
+        KitchenCallback bad = callback(BATCH_URL);
+        when(repository.claimDue(any(), any())).thenReturn(List.of(ok, bad));
+        respond(200, "{\"updated\":1,\"failed\":[\"" + bad.getOrderId() + "\"]}");
+
+        d.drain();
+
+        verify(repository).deleteAll(List.of(ok));
+        verify(repository).save(bad);
+        assertThat(bad.getAttempts()).isEqualTo(1);
+        assertThat(bad.getFailedAt()).isNull();
+    }
+
+    @Test
+    void transportErrors_areRetried() {
+        KitchenCallbackDispatcher d = dispatcher("", 10, 1, 5);
+        KitchenCallback c = callback("http://main/a");
+        when(repository.claimDue(any(), any())).thenReturn(List.of(c));
+        when(httpClient.sendAsync(any(HttpRequest.class), any()))
+                .thenReturn(CompletableFuture.failedFuture(new java.io.IOException("connection refused")));
+
+        d.drain();
+
+        assertThat(c.getAttempts()).isEqualTo(1);
+        assertThat(c.getLastError()).contains("connection refused");
+        assertThat(c.getFailedAt()).isNull();
+        assertThat(d.inFlight()).isZero();
+    }
+
+    private static String body(HttpRequest req) {
+        StringBuilder sb = new StringBuilder();
+        req.bodyPublisher().orElseThrow().subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                s.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                sb.append(StandardCharsets.UTF_8.decode(item));
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        return sb.toString();
+    }
+}
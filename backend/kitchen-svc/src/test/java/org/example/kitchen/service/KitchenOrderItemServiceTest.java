@@ -0,0 +1,211 @@
+package org.example.kitchen.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.kitchen.exception.KitchenOrderOperationException;
+import org.example.kitchen.model.KitchenOrder;
+import org.example.kitchen.model.KitchenOrderItem;
+import org.example.kitchen.model.enums.KitchenOrderStatus;
+import org.example.kitchen.queue.KitchenQueueEngine;
+import org.example.kitchen.repository.KitchenOrderItemRepository;
+import org.example.kitchen.repository.KitchenOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KitchenOrderItemServiceTest {
+
+    @Mock
+    private KitchenOrderItemRepository repository;
+
+    @Mock
+    private KitchenOrderRepository orderRepository;
+
+    @Mock
+    private IKitchenOrderService orders;
+
+    @Mock
+    private KitchenQueueEngine queue;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    private KitchenOrderItemService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new KitchenOrderItemService(repository, orderRepository, orders, queue, new ObjectMapper(), events);
+    }
+
+    private static KitchenOrderItem item(UUID kitchenOrderId, KitchenOrderStatus status) {
+        return KitchenOrderItem.builder().id(UUID.randomUUID()).kitchenOrderId(kitchenOrderId)
+                .name("Salmon").quantity(1).status(status).createdAt(Instant.now()).build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createItems_splitsItemsJsonIntoRowsRoutedToStations() {
+        KitchenOrder order = KitchenOrder.builder().id(UUID.randomUUID()).orderId(UUID.randomUUID())
+                .itemsJson("[{\"menuItemId\":\"m1\",\"menuItemName\":\"Grilled Salmon\",\"quantity\":2},{\"name\":\"Lemonade\"}]")
+                .status(KitchenOrderStatus.PREPARING).createdAt(Instant.now()).build();
+        when(queue.stationFor("Grilled Salmon")).thenReturn("grill");
+        when(queue.stationFor("Lemonade")).thenReturn("bar");
+        when(repository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<KitchenOrderItem> items = service.createItems(order);
+
+        assertThat(items).hasSize(2);
+        assertThat(items.get(0)).satisfies(i -> {
+            assertThat(i.getKitchenOrderId()).isEqualTo(order.getId());
+            assertThat(i.getLineNo()).isZero();
+            assertThat(i.getMenuItemId()).isEqualTo("m1");
+            assertThat(i.getQuantity()).isEqualTo(2);
+            assertThat(i.getStation()).isEqualTo("grill");
+            assertThat(i.getStatus()).isEqualTo(KitchenOrderStatus.PREPARING);
+        });
+        assertThat(items.get(1).getQuantity()).isEqualTo(1);
+        assertThat(items.get(1).getStation()).isEqualTo("bar");
+
+        order.setItemsJson("not json");
+        assertThat(service.createItems(order)).isEmpty();
+        verify(repository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void updateStatus_stampsTimes_andRejectsForeignOrInvalidItems() {
+        UUID orderId = UUID.randomUUID();
+        KitchenOrderItem item = item(orderId, KitchenOrderStatus.PREPARING);
+        when(repository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(repository.save(any(KitchenOrderItem.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.updateStatus(orderId, item.getId(), KitchenOrderStatus.IN_PROGRESS);
+        assertThat(item.getStartedAt()).isNotNull();
+        service.updateStatus(orderId, item.getId(), KitchenOrderStatus.READY);
+        assertThat(item.getReadyAt()).isNotNull();
+
+        assertThatThrownBy(() -> service.updateStatus(orderId, item.getId(), KitchenOrderStatus.PREPARING))
+                .isInstanceOf(KitchenOrderOperationException.class)
+                .hasMessageContaining("Invalid item status transition");
+        assertThatThrownBy(() -> service.updateStatus(UUID.randomUUID(), item.getId(), KitchenOrderStatus.SERVED))
+                .isInstanceOf(KitchenOrderOperationException.class)
+                .hasMessageContaining("not found");
+    }
+
+    @Test
+    void updateStatuses_isAllOrNothing() {
+        UUID orderId = UUID.randomUUID();
+        KitchenOrderItem a = item(orderId, KitchenOrderStatus.PREPARING);
+        KitchenOrderItem b = item(orderId, KitchenOrderStatus.IN_PROGRESS);
+        KitchenOrderItem cancelled = item(orderId, KitchenOrderStatus.CANCELLED);
+        when(repository.findAllById(List.of(a.getId(), b.getId()))).thenReturn(List.of(b, a));
+        when(repository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<KitchenOrderItem> updated = service.updateStatuses(List.of(a.getId(), b.getId(), a.getId()), KitchenOrderStatus.READY);
+        assertThat(updated).containsExactly(a, b);
+        assertThat(updated).allSatisfy(i -> assertThat(i.getStatus()).isEqualTo(KitchenOrderStatus.READY));
+        // both items belong to one order, so screens refresh it once
+        verify(events, times(1)).publishEvent(any(Object.class));
+
+        KitchenOrderItem fresh = item(orderId, KitchenOrderStatus.PREPARING);
+        when(repository.findAllById(List.of(fresh.getId(), cancelled.getId()))).thenReturn(List.of(fresh, cancelled));
+        assertThatThrownBy(() -> service.updateStatuses(List.of(fresh.getId(), cancelled.getId()), KitchenOrderStatus.READY))
+                .isInstanceOf(KitchenOrderOperationException.class);
+        assertThat(fresh.getStatus()).isEqualTo(KitchenOrderStatus.PREPARING);
+        UUID missing = UUID.randomUUID();
+        when(repository.findAllById(List.of(missing))).thenReturn(List.of());
+        assertThatThrownBy(() -> service.updateStatuses(List.of(missing), KitchenOrderStatus.READY))
+                .isInstanceOf(KitchenOrderOperationException.class);
+        verify(repository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void lastItemReady_movesTheOrderToReady_andAllServed_movesItOnToServed() {
+        UUID orderId = UUID.randomUUID();
+        KitchenOrderItem done = item(orderId, KitchenOrderStatus.READY);
+        KitchenOrderItem last = item(orderId, KitchenOrderStatus.IN_PROGRESS);
+        KitchenOrder order = KitchenOrder.builder().id(orderId).status(KitchenOrderStatus.IN_PROGRESS).build();
+        when(repository.findById(last.getId())).thenReturn(Optional.of(last));
+        when(repository.save(any(KitchenOrderItem.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(repository.findByKitchenOrderIdOrderByLineNo(orderId)).thenReturn(List.of(done, last));
+        when(orderRepository.claim(eq(orderId), anyCollection())).thenReturn(Optional.of(order));
+
+        service.updateStatus(orderId, last.getId(), KitchenOrderStatus.READY);
+        verify(orders).updateStatus(orderId, KitchenOrderStatus.READY);
+        verify(orders, never()).updateStatus(orderId, KitchenOrderStatus.SERVED);
+
+        when(repository.findAllById(List.of(done.getId(), last.getId()))).thenReturn(List.of(done, last));
+        when(repository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        when(orderRepository.claim(orderId, KitchenOrderService.OPEN)).thenReturn(Optional.empty());
+        service.updateStatuses(List.of(done.getId(), last.getId()), KitchenOrderStatus.SERVED);
+        verify(orders).updateStatus(orderId, KitchenOrderStatus.SERVED);
+    }
+
+    @Test
+    void orderStaysOpen_whileAnyItemIsStillCooking_orWhenTheTimerHoldsIt() {
+        UUID orderId = UUID.randomUUID();
+        KitchenOrderItem cooking = item(orderId, KitchenOrderStatus.IN_PROGRESS);
+        KitchenOrderItem last = item(orderId, KitchenOrderStatus.PREPARING);
+        when(repository.findById(last.getId())).thenReturn(Optional.of(last));
+        when(repository.save(any(KitchenOrderItem.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(repository.findByKitchenOrderIdOrderByLineNo(orderId)).thenReturn(List.of(cooking, last));
+
+        service.updateStatus(orderId, last.getId(), KitchenOrderStatus.READY);
+        verifyNoInteractions(orderRepository, orders);
+
+        cooking.setStatus(KitchenOrderStatus.READY);
+        last.setStatus(KitchenOrderStatus.PREPARING);
+        when(orderRepository.claim(eq(orderId), anyCollection())).thenReturn(Optional.empty());
+        service.updateStatus(orderId, last.getId(), KitchenOrderStatus.READY);
+        verifyNoInteractions(orders);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void applyOrderStatus_movesOnlyItemsThatHaveNotGotThereYet() {
+        UUID orderId = UUID.randomUUID();
+        KitchenOrderItem cooking = item(orderId, KitchenOrderStatus.IN_PROGRESS);
+        KitchenOrderItem done = item(orderId, KitchenOrderStatus.READY);
+        Instant readyAt = Instant.now().minusSeconds(60);
+        done.setReadyAt(readyAt);
+        when(repository.findByKitchenOrderIdOrderByLineNo(orderId)).thenReturn(List.of(cooking, done));
+
+        service.applyOrderStatus(orderId, KitchenOrderStatus.READY);
+
+        ArgumentCaptor<List<KitchenOrderItem>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(saved.capture());
+        assertThat(saved.getValue()).containsExactly(cooking);
+        assertThat(cooking.getStatus()).isEqualTo(KitchenOrderStatus.READY);
+        assertThat(done.getReadyAt()).isEqualTo(readyAt);
+
+        service.applyOrderStatus(orderId, KitchenOrderStatus.IN_PROGRESS);
+        verify(repository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void inFlight_and_delete_delegateToRepository() {
+        service.inFlightByMenuItem();
+        verify(repository).summarizeByMenuItem(KitchenOrderService.OPEN);
+
+        UUID id = UUID.randomUUID();
+        service.deleteByKitchenOrderId(id);
+        verify(repository).deleteByKitchenOrderId(id);
+        verify(queue, never()).stationFor(anyString());
+    }
+}
@@ -1,27 +1,30 @@
 package org.example.kitchen.service;
 
+import org.example.kitchen.event.KitchenOrderChangedEvent;
 import org.example.kitchen.exception.KitchenOrderOperationException;
 import org.example.kitchen.model.KitchenOrder;
 import org.example.kitchen.model.enums.KitchenOrderStatus;
+import org.example.kitchen.queue.KitchenQueueEngine;
 import org.example.kitchen.repository.KitchenOrderRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,108 +34,65 @@ class KitchenOrderServiceUnitTest {
     private KitchenOrderRepository repository;
 
     @Mock
-    private HttpClient mockHttpClient;
-
-    private static void setField(Object target, String name, Object value) throws Exception {
-        Field f = target.getClass().getDeclaredField(name);
-        f.setAccessible(true);
-        try {
-            Field modifiersField = Field.class.getDeclaredField("modifiers");
-            modifiersField.setAccessible(true);
-            modifiersField.setInt(f, f.getModifiers() & ~java.lang.reflect.Modifier.FINAL);
-        } catch (NoSuchFieldException ignored) { }
-        f.set(target, value);
-    }
+    private KitchenQueueEngine queue;
 
-    private static final class ImmediateScheduledExecutor implements ScheduledExecutorService {
-        private volatile boolean shutdown = false;
+    @Mock
+    private KitchenPrepTimers timers;
 
-        @Override
-        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
-            command.run();
-            return new ImmediateScheduledFuture<>();
-        }
+    @Mock
+    private KitchenCallbackDispatcher callbacks;
 
-        @Override
-        public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
-            try {
-                callable.call();
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-            return new ImmediateScheduledFuture<>();
-        }
-
-        private static final class ImmediateScheduledFuture<V> implements ScheduledFuture<V> {
-            @Override public long getDelay(TimeUnit unit) { return 0; }
-            @Override public int compareTo(Delayed o) { return 0; }
-            @Override public boolean cancel(boolean mayInterruptIfRunning) { return false; }
-            @Override public boolean isCancelled() { return false; }
-            @Override public boolean isDone() { return true; }
-            @Override public V get() { return null; }
-            @Override public V get(long timeout, TimeUnit unit) { return null; }
-        }
-
-        @Override public void shutdown() { shutdown = true; }
-        @Override public List<Runnable> shutdownNow() { shutdown = true; return Collections.emptyList(); }
-        @Override public boolean isShutdown() { return shutdown; }
-        @Override public boolean isTerminated() { return shutdown; }
-        @Override public boolean awaitTermination(long timeout, TimeUnit unit) { return true; }
-        @Override public <T> Future<T> submit(Callable<T> task) { throw new UnsupportedOperationException(); }
-        @Override public <T> Future<T> submit(Runnable task, T result) { throw new UnsupportedOperationException(); }
-        @Override public Future<?> submit(Runnable task) { throw new UnsupportedOperationException(); }
-        @Override public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) { throw new UnsupportedOperationException(); }
-        @Override public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) { throw new UnsupportedOperationException(); }
-        @Override public <T> T invokeAny(Collection<? extends Callable<T>> tasks) { throw new UnsupportedOperationException(); }
-        @Override public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) { throw new UnsupportedOperationException(); }
-        @Override public void execute(Runnable command) { command.run(); }
-        @Override public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) { throw new UnsupportedOperationException(); }
-        @Override public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) { throw new UnsupportedOperationException(); }
-    }
+    @Mock
+    private IKitchenOrderItemService items;
 
-    @Test
-    void createOrder_withSchedulingAndCallback_runsScheduledTask_andCallbackInvoked() throws Exception {
-        KitchenOrderService svc = new KitchenOrderService(repository,
-                1, 1,
-                true,
-                "http://localhost/cb?orderId={orderId}&kitchenOrderId={kitchenOrderId}",
-                "secret-123",
-                true);
-
-        setField(svc, "scheduler", new ImmediateScheduledExecutor());
-        setField(svc, "httpClient", mockHttpClient);
-
-        @SuppressWarnings("unchecked")
-        HttpResponse<String> httpResp = (HttpResponse<String>) mock(HttpResponse.class);
-        when(httpResp.statusCode()).thenReturn(200);
-        when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(httpResp);
+    @Mock
+    private ApplicationEventPublisher events;
 
-        AtomicReference<KitchenOrder> savedRef = new AtomicReference<>();
+    private KitchenOrderService service(boolean prepSchedulingEnabled) {
+        return new KitchenOrderService(repository, queue, timers, callbacks, items, events, prepSchedulingEnabled);
+    }
+
+    private void stubSaveAssigningIds(AtomicReference<KitchenOrder> savedRef) {
         when(repository.save(any(KitchenOrder.class))).thenAnswer(inv -> {
             KitchenOrder o = inv.getArgument(0);
             if (o.getId() == null) o.setId(UUID.randomUUID());
             savedRef.set(o);
             return o;
         });
-        when(repository.findById(any(UUID.class))).thenAnswer(inv -> Optional.ofNullable(savedRef.get()));
-
-        UUID orderId = UUID.randomUUID();
-        KitchenOrder created = svc.createOrder(orderId, "[{\"name\":\"X\"}]");
-
-        verify(repository, atLeastOnce()).save(any(KitchenOrder.class));
+    }
 
-        KitchenOrder after = savedRef.get();
-        assertThat(after).isNotNull();
-        assertThat(after.getStatus()).isEqualTo(KitchenOrderStatus.READY);
+    @Test
+    @SuppressWarnings("unchecked")
+    void createOrder_queuesTicketWithPriority_andArmsDurableTimer() {
+        KitchenOrderService svc = service(true);
+        ArgumentCaptor<Consumer<UUID>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(queue).setReadyListener(listener.capture());
 
-        verify(mockHttpClient, atLeastOnce()).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        AtomicReference<KitchenOrder> savedRef = new AtomicReference<>();
+        stubSaveAssigningIds(savedRef);
+        Instant eta = Instant.now().plusSeconds(300);
+        when(queue.enqueue(any(UUID.class), eq("[{\"name\":\"X\"}]"), eq(3), any(Instant.class))).thenReturn(eta);
+        when(queue.estimateReadyAt(any(UUID.class))).thenReturn(eta);
+
+        KitchenOrder created = svc.createOrder(UUID.randomUUID(), "[{\"name\":\"X\"}]", 3);
+
+        assertThat(created.getStatus()).isEqualTo(KitchenOrderStatus.PREPARING);
+        assertThat(created.getPriority()).isEqualTo(3);
+        verify(queue).enqueue(created.getId(), "[{\"name\":\"X\"}]", 3, created.getCreatedAt());
+        assertThat(svc.estimateReadyAt(created.getId())).isEqualTo(eta);
+        assertThat(created.getDueAt()).isEqualTo(eta);
+        verify(items).createItems(created);
+        verify(events).publishEvent(any(KitchenOrderChangedEvent.class));
+        verify(timers).schedule(created.getId(), eta);
+
+        // the queue finishing a ticket goes through the same locked completion as the timers
+        listener.getValue().accept(created.getId());
+        verify(timers).complete(created.getId());
     }
 
     @Test
-    void createOrder_whenPrepSchedulingDisabled_doesNotSchedule() {
-        KitchenOrderService svc = new KitchenOrderService(repository,
-                1, 2,
-                false, "", "", false);
+    void createOrder_whenPrepSchedulingDisabled_doesNotQueue() {
+        KitchenOrderService svc = service(false);
 
         when(repository.save(any(KitchenOrder.class))).thenAnswer(inv -> {
             KitchenOrder o = inv.getArgument(0);
@@ -140,56 +100,39 @@ class KitchenOrderServiceUnitTest {
             return o;
         });
 
-        svc.createOrder(UUID.randomUUID(), "[]");
+        svc.createOrder(UUID.randomUUID(), "[]", 0);
 
         verify(repository, times(1)).save(any(KitchenOrder.class));
+        verify(queue, never()).enqueue(any(), any(), anyInt(), any());
+        verify(queue, never()).setReadyListener(any());
+        verifyNoInteractions(timers);
     }
 
     @Test
-    void scheduleCompletion_skips_whenOrderNotFound_and_whenTerminalState() throws Exception {
-        KitchenOrderService svc = new KitchenOrderService(repository,1,1,false,"","",true);
-        setField(svc, "scheduler", new ImmediateScheduledExecutor());
-
-        when(repository.findById(any(UUID.class))).thenReturn(Optional.empty());
-        KitchenOrder ko = KitchenOrder.builder().id(UUID.randomUUID()).orderId(UUID.randomUUID()).status(KitchenOrderStatus.PREPARING).createdAt(Instant.now()).build();
-        var method = KitchenOrderService.class.getDeclaredMethod("scheduleCompletion", KitchenOrder.class);
-        method.setAccessible(true);
-        method.invoke(svc, ko);
-        verify(repository, never()).save(any(KitchenOrder.class));
-
-        KitchenOrder term = KitchenOrder.builder().id(UUID.randomUUID()).orderId(UUID.randomUUID()).status(KitchenOrderStatus.CANCELLED).createdAt(Instant.now()).build();
-        when(repository.findById(term.getId())).thenReturn(Optional.of(term));
-        method.invoke(svc, term);
-        verify(repository, never()).save(term);
-    }
-
-    @Test
-    void scheduleCompletion_swallowCallbackExceptions_and_markReady() throws Exception {
-        KitchenOrderService svc = new KitchenOrderService(repository,
-                1,1,
-                true,
-                "http://example/cb?orderId={orderId}&kitchenOrderId={kitchenOrderId}",
-                "", true);
-        setField(svc, "scheduler", new ImmediateScheduledExecutor());
-        setField(svc, "httpClient", mockHttpClient);
-
-        when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenThrow(new RuntimeException("cb-fail"));
-
-        AtomicReference<KitchenOrder> savedRef = new AtomicReference<>();
-        when(repository.save(any(KitchenOrder.class))).thenAnswer(inv -> {
-            KitchenOrder o = inv.getArgument(0);
-            if (o.getId() == null) o.setId(UUID.randomUUID());
-            savedRef.set(o);
-            return o;
-        });
-        when(repository.findById(any(UUID.class))).thenAnswer(inv -> Optional.ofNullable(savedRef.get()));
-
-        svc.createOrder(UUID.randomUUID(), "[]");
-
-        KitchenOrder after = savedRef.get();
-        assertThat(after).isNotNull();
-        assertThat(after.getStatus()).isEqualTo(KitchenOrderStatus.READY);
-        verify(mockHttpClient, atLeastOnce()).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    void restoreQueue_requeuesOpenOrders_keepingStoredDueAt() {
+        KitchenOrderService svc = service(true);
+        Instant stored = Instant.now().plusSeconds(60);
+        Instant eta = Instant.now().plusSeconds(90);
+        KitchenOrder open = KitchenOrder.builder().id(UUID.randomUUID()).orderId(UUID.randomUUID())
+                .itemsJson("[]").priority(2).status(KitchenOrderStatus.IN_PROGRESS).createdAt(Instant.now()).dueAt(stored).build();
+        KitchenOrder legacy = KitchenOrder.builder().id(UUID.randomUUID()).orderId(UUID.randomUUID())
+                .itemsJson("[]").status(KitchenOrderStatus.PREPARING).createdAt(Instant.now()).build();
+        when(repository.findByStatusIn(anyCollection())).thenReturn(List.of(open, legacy));
+        when(queue.enqueue(any(UUID.class), any(), anyInt(), any())).thenReturn(eta);
+
+        svc.restoreQueue();
+
+        verify(queue).enqueue(open.getId(), "[]", 2, open.getCreatedAt());
+        verify(timers).schedule(open.getId(), stored);
+        verify(repository, never()).save(open);
+        assertThat(legacy.getDueAt()).isEqualTo(eta);
+        verify(repository).save(legacy);
+        verify(timers).schedule(legacy.getId(), eta);
+        verify(repository).findByStatusIn(EnumSet.of(KitchenOrderStatus.NEW, KitchenOrderStatus.PREPARING, KitchenOrderStatus.IN_PROGRESS));
+
+        KitchenOrderService manual = service(false);
+        manual.restoreQueue();
+        verify(repository, times(1)).findByStatusIn(anyCollection());
     }
 
     @Test
@@ -205,10 +148,21 @@ class KitchenOrderServiceUnitTest {
         when(repository.findById(id)).thenReturn(Optional.of(current));
         when(repository.save(any(KitchenOrder.class))).thenAnswer(inv -> inv.getArgument(0));
 
-        KitchenOrderService svc = new KitchenOrderService(repository,1,2,false,"","",false);
+        KitchenOrderService svc = service(false);
         KitchenOrder saved = svc.updateStatus(id, KitchenOrderStatus.IN_PROGRESS);
         assertThat(saved.getStatus()).isEqualTo(KitchenOrderStatus.IN_PROGRESS);
         verify(repository).save(any(KitchenOrder.class));
+        verify(queue, never()).remove(id);
+        verifyNoInteractions(callbacks);
+
+        current.setDueAt(Instant.now());
+        svc.updateStatus(id, KitchenOrderStatus.READY);
+        verify(callbacks).enqueue(current, "READY");
+        verify(queue).remove(id);
+        verify(timers).cancel(id);
+        assertThat(current.getDueAt()).isNull();
+        verify(items).applyOrderStatus(id, KitchenOrderStatus.IN_PROGRESS);
+        verify(items).applyOrderStatus(id, KitchenOrderStatus.READY);
 
         KitchenOrder completed = KitchenOrder.builder()
                 .id(UUID.randomUUID())
@@ -245,12 +199,19 @@ class KitchenOrderServiceUnitTest {
         when(repository.findById(id)).thenReturn(Optional.of(preparing));
         when(repository.save(any(KitchenOrder.class))).thenAnswer(inv -> inv.getArgument(0));
 
-        KitchenOrderService svc = new KitchenOrderService(repository,1,2,false,"","",false);
+        KitchenOrderService svc = service(false);
         svc.cancelOrder(id);
 
         ArgumentCaptor<KitchenOrder> captor = ArgumentCaptor.forClass(KitchenOrder.class);
         verify(repository).save(captor.capture());
         assertThat(captor.getValue().getStatus()).isEqualTo(KitchenOrderStatus.CANCELLED);
+        assertThat(captor.getValue().getDueAt()).isNull();
+        verify(queue).remove(id);
+        verify(timers).cancel(id);
+        verify(items).applyOrderStatus(id, KitchenOrderStatus.CANCELLED);
+        ArgumentCaptor<KitchenOrderChangedEvent> event = ArgumentCaptor.forClass(KitchenOrderChangedEvent.class);
+        verify(events).publishEvent(event.capture());
+        assertThat(event.getValue().getKitchenOrderId()).isEqualTo(id);
 
         UUID id2 = UUID.randomUUID();
         KitchenOrder ready = KitchenOrder.builder().id(id2).orderId(UUID.randomUUID()).status(KitchenOrderStatus.READY).createdAt(Instant.now()).build();
@@ -264,31 +225,21 @@ class KitchenOrderServiceUnitTest {
         List<KitchenOrder> resp = List.of(KitchenOrder.builder().id(UUID.randomUUID()).orderId(orderId).status(KitchenOrderStatus.NEW).createdAt(Instant.now()).build());
         when(repository.findByOrderId(orderId)).thenReturn(resp);
 
-        KitchenOrderService svc = new KitchenOrderService(repository,1,2,false,"","",false);
+        KitchenOrderService svc = service(false);
         List<KitchenOrder> found = svc.findByOrderId(orderId);
         assertThat(found).isSameAs(resp);
 
         UUID id = UUID.randomUUID();
         svc.delete(id);
+        verify(items).deleteByKitchenOrderId(id);
         verify(repository).deleteById(id);
+        verify(queue).remove(id);
+        verify(timers).cancel(id);
     }
 
-    @Test
-    void shutdown_handlesSchedulerExceptions() throws Exception {
-        ScheduledExecutorService badScheduler = mock(ScheduledExecutorService.class);
-        when(badScheduler.shutdownNow()).thenThrow(new RuntimeException("boom"));
-
-        KitchenOrderService svc = new KitchenOrderService(repository,1,2,false,"","",false);
-        setField(svc, "scheduler", badScheduler);
-
-        svc.shutdown();
-        verify(badScheduler).shutdownNow();
-    }
-
-
     @Test
     void isValidTransition_matrix_checksManyCombinations() throws Exception {
-        KitchenOrderService svc = new KitchenOrderService(repository,1,2,false,"","",false);
+        KitchenOrderService svc = service(false);
         Method m = KitchenOrderService.class.getDeclaredMethod("isValidTransition", KitchenOrderStatus.class, KitchenOrderStatus.class);
         m.setAccessible(true);
 
@@ -299,7 +250,7 @@ class KitchenOrderServiceUnitTest {
                 throw new RuntimeException(e);
             }
         };
-        
+
         assertThat(call.apply(KitchenOrderStatus.NEW, KitchenOrderStatus.PREPARING)).isTrue();
         assertThat(call.apply(KitchenOrderStatus.NEW, KitchenOrderStatus.CANCELLED)).isTrue();
         assertThat(call.apply(KitchenOrderStatus.PREPARING, KitchenOrderStatus.IN_PROGRESS)).isTrue();
@@ -307,43 +258,11 @@ class KitchenOrderServiceUnitTest {
         assertThat(call.apply(KitchenOrderStatus.IN_PROGRESS, KitchenOrderStatus.READY)).isTrue();
         assertThat(call.apply(KitchenOrderStatus.READY, KitchenOrderStatus.SERVED)).isTrue();
         assertThat(call.apply(KitchenOrderStatus.READY, KitchenOrderStatus.COMPLETED)).isTrue();
-        
+
         assertThat(call.apply(KitchenOrderStatus.PREPARING, KitchenOrderStatus.NEW)).isFalse();
         assertThat(call.apply(KitchenOrderStatus.IN_PROGRESS, KitchenOrderStatus.PREPARING)).isFalse();
         assertThat(call.apply(KitchenOrderStatus.READY, KitchenOrderStatus.PREPARING)).isFalse();
-        
-        assertThat(call.apply(KitchenOrderStatus.IN_PROGRESS, KitchenOrderStatus.CANCELLED)).isTrue();
-    }
-
-    @Test
-    void createOrder_schedulingParity_firstIsScheduled_secondIsNot() throws Exception {
-        KitchenOrderService svc = new KitchenOrderService(repository,
-                1,1,
-                false,
-                "", "", true);
-
-        
-        setField(svc, "scheduler", new ImmediateScheduledExecutor());
-
-        List<KitchenOrder> savedList = new ArrayList<>();
-        when(repository.save(any(KitchenOrder.class))).thenAnswer(inv -> {
-            KitchenOrder o = inv.getArgument(0);
-            if (o.getId() == null) o.setId(UUID.randomUUID());
-            savedList.add(o);
-            return o;
-        });
-        when(repository.findById(any(UUID.class))).thenAnswer(inv -> {
-            UUID id = inv.getArgument(0);
-            return savedList.stream().filter(s -> s.getId() != null && s.getId().equals(id)).findFirst();
-        });
-
-        
-        UUID o1 = UUID.randomUUID();
-        UUID o2 = UUID.randomUUID();
-        svc.createOrder(o1, "[]");
-        svc.createOrder(o2, "[]");
 
-        boolean anyReady = savedList.stream().anyMatch(s -> s.getStatus() == KitchenOrderStatus.READY);
-        assertThat(anyReady).isTrue();
+        assertThat(call.apply(KitchenOrderStatus.IN_PROGRESS, KitchenOrderStatus.CANCELLED)).isTrue();
     }
-}
\ No newline at end of file
+}
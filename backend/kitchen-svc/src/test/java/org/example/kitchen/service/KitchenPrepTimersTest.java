@@ -0,0 +1,185 @@
+package org.example.kitchen.service;
+
+import org.example.kitchen.model.KitchenOrder;
+import org.example.kitchen.model.enums.KitchenOrderStatus;
+import org.example.kitchen.queue.KitchenQueueEngine;
+import org.example.kitchen.repository.KitchenOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KitchenPrepTimersTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T12:00:00Z");
+
+    @Mock
+    private KitchenOrderRepository repository;
+
+    @Mock
+    private KitchenQueueEngine queue;
+
+    @Mock
+    private KitchenCallbackDispatcher callbacks;
+
+    @Mock
+    private IKitchenOrderItemService items;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MutableClock clock = new MutableClock(START);
+
+    private KitchenPrepTimers timers(boolean enabled, int batchSize) {
+        return new KitchenPrepTimers(repository, queue, callbacks, items, events, transactionManager, enabled, batchSize, 30_000, 100, clock);
+    }
+
+    private static KitchenOrder open(Instant dueAt) {
+        return KitchenOrder.builder().id(UUID.randomUUID()).orderId(UUID.randomUUID())
+                .status(KitchenOrderStatus.PREPARING).createdAt(START).dueAt(dueAt).build();
+    }
+
+    private static KitchenOrderRepository.PrepTimer timer(UUID id, Instant dueAt) {
+        return new KitchenOrderRepository.PrepTimer() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public Instant getDueAt() {
+                return dueAt;
+            }
+        };
+    }
+
+    @Test
+    void complete_marksClaimedOrderReady_andQueuesCallbackOnce() {
+        KitchenPrepTimers t = timers(true, 10);
+        KitchenOrder o = open(START);
+        when(repository.claim(eq(o.getId()), anyCollection())).thenReturn(Optional.of(o)).thenReturn(Optional.empty());
+
+        assertThat(t.complete(o.getId())).isTrue();
+
+        assertThat(o.getStatus()).isEqualTo(KitchenOrderStatus.READY);
+        assertThat(o.getDueAt()).isNull();
+        assertThat(o.getUpdatedAt()).isEqualTo(START);
+        verify(repository).save(o);
+        verify(items).applyOrderStatus(o.getId(), KitchenOrderStatus.READY);
+        verify(callbacks).enqueue(o, "READY");
+        verify(queue).remove(o.getId());
+        verify(events).publishEvent(any(Object.class));
+        verify(transactionManager).commit(any());
+
+        // already done, or held by another instance
+        assertThat(t.complete(o.getId())).isFalse();
+        verify(callbacks, times(1)).enqueue(any(), any());
+    }
+
+    @Test
+    void completeDue_claimsOverdueRowsInBatchesUntilDrained() {
+        KitchenPrepTimers t = timers(true, 2);
+        KitchenOrder a = open(START.minusSeconds(30));
+        KitchenOrder b = open(START.minusSeconds(20));
+        KitchenOrder c = open(START.minusSeconds(10));
+        when(repository.claimDue(eq(START), anyCollection(), any(Pageable.class)))
+                .thenReturn(List.of(a, b))
+                .thenReturn(List.of(c));
+
+        assertThat(t.completeDue()).isEqualTo(3);
+
+        assertThat(List.of(a, b, c)).allSatisfy(o -> assertThat(o.getStatus()).isEqualTo(KitchenOrderStatus.READY));
+        verify(repository, times(2)).claimDue(eq(START), anyCollection(), any(Pageable.class));
+        verify(transactionManager, times(2)).commit(any());
+        verify(callbacks, times(3)).enqueue(any(), eq("READY"));
+    }
+
+    @Test
+    void wheel_firesNearTermTimersOnTime_andLeavesFarOnesToThePoller() {
+        KitchenPrepTimers t = timers(true, 10);
+        KitchenOrder soon = open(START.plusSeconds(5));
+        UUID far = UUID.randomUUID();
+        UUID loaded = UUID.randomUUID();
+
+        t.schedule(soon.getId(), soon.getDueAt());
+        t.schedule(far, START.plusSeconds(600));
+        when(repository.findTimersBetween(START, START.plusSeconds(30), KitchenOrderService.OPEN))
+                .thenReturn(List.of(timer(loaded, START.plusSeconds(20))));
+        assertThat(t.loadUpcoming()).isEqualTo(1);
+        assertThat(t.pending()).isEqualTo(2);
+
+        clock.advance(Duration.ofSeconds(4));
+        t.tick();
+        verify(repository, never()).claim(any(), anyCollection());
+
+        when(repository.claim(eq(soon.getId()), anyCollection())).thenReturn(Optional.of(soon));
+        clock.advance(Duration.ofSeconds(1));
+        t.tick();
+        assertThat(soon.getStatus()).isEqualTo(KitchenOrderStatus.READY);
+        assertThat(t.pending()).isEqualTo(1);
+
+        t.cancel(loaded);
+        assertThat(t.pending()).isZero();
+    }
+
+    @Test
+    void disabled_timersNeverTouchTheDatabase() {
+        KitchenPrepTimers t = timers(false, 10);
+        t.schedule(UUID.randomUUID(), START);
+        clock.advance(Duration.ofSeconds(1));
+        t.tick();
+        t.poll();
+
+        assertThat(t.pending()).isZero();
+        verifyNoInteractions(repository, callbacks, queue, items, events);
+    }
+
+    static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
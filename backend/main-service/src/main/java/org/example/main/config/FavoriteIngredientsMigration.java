@@ -0,0 +1,52 @@
+package org.example.main.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-off copy of the legacy comma-joined favorite_recommendations.ingredients text column
+ * into the jsonb ingredients_json array. Idempotent: only rows without a json value are touched,
+ * and nothing happens on databases created after the switch (no legacy column).
+ */
+@Component
+@Profile("!test")
+public class FavoriteIngredientsMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(FavoriteIngredientsMigration.class);
+
+    static final String LEGACY_COLUMN_SQL =
+            "SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = current_schema() " +
+            "AND table_name = 'favorite_recommendations' AND column_name = 'ingredients'";
+
+    static final String BACKFILL_SQL =
+            "UPDATE favorite_recommendations SET ingredients_json = " +
+            "(SELECT COALESCE(jsonb_agg(btrim(x)), '[]'::jsonb) FROM unnest(string_to_array(ingredients, ',')) AS x WHERE btrim(x) <> '') " +
+            "WHERE ingredients_json IS NULL AND ingredients IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FavoriteIngredientsMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            Integer cols = jdbcTemplate.queryForObject(LEGACY_COLUMN_SQL, Integer.class);
+            if (cols == null || cols == 0) {
+                return;
+            }
+            int updated = jdbcTemplate.update(BACKFILL_SQL);
+            if (updated > 0) {
+                log.info("FavoriteIngredientsMigration: copied ingredients of {} favorites into jsonb", updated);
+            }
+        } catch (Exception ex) {
+            log.warn("FavoriteIngredientsMigration: skipped: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package org.example.main.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets for the routes listed in {@code app.rate-limit.routes}.
+ *
+ * Each route entry reads {@code [METHOD ]pattern=capacity[/refillPerMinute]}, e.g.
+ * {@code GET /api/orders/**=60/60}; the first matching entry applies and requests on other routes
+ * are not limited. A bucket is kept per route and client as a single "theoretical arrival time"
+ * updated by compare-and-set, so concurrent requests never block each other. Buckets that have
+ * refilled completely carry no state worth keeping and are swept out periodically.
+ *
+ * With {@code app.rate-limit.redis-enabled} the same bucket lives in Redis and is shared by all
+ * replicas; if Redis cannot be reached the local bucket is used instead.
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    static final String DEFAULT_ROUTES = "GET /api/orders/**=60/60,POST /api/ai/recommendations=10/10";
+    static final String REDIS_PREFIX = "ratelimit:";
+
+    // a swept bucket; a request still holding it fetches the replacement instead
+    private static final long RETIRED = Long.MAX_VALUE;
+
+    // returns {allowed, ms until the bucket is full again}; time comes from Redis so replicas agree
+    private static final RedisScript<List> REDIS_SCRIPT = new DefaultRedisScript<>(
+            "local t = redis.call('TIME')\n"
+                    + "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)\n"
+                    + "local interval = tonumber(ARGV[1])\n"
+                    + "local burst = tonumber(ARGV[2])\n"
+                    + "local tat = tonumber(redis.call('GET', KEYS[1]) or now)\n"
+                    + "if tat < now then tat = now end\n"
+                    + "if tat + interval - now > burst then return {0, tat - now} end\n"
+                    + "tat = tat + interval\n"
+                    + "redis.call('SET', KEYS[1], tat, 'PX', tat - now)\n"
+                    + "return {1, tat - now}\n",
+            List.class);
+
+    private final List<Route> routes;
+    private final LongSupplier nanoClock;
+    private final StringRedisTemplate redisTemplate;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> rejected = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public RateLimiter(MeterRegistry meterRegistry,
+                       @Nullable StringRedisTemplate redisTemplate,
+                       @Value("${app.rate-limit.routes:" + DEFAULT_ROUTES + "}") List<String> routes,
+                       @Value("${app.rate-limit.redis-enabled:false}") boolean redisEnabled) {
+        this(meterRegistry, redisEnabled ? redisTemplate : null, routes, System::nanoTime);
+    }
+
+    RateLimiter(MeterRegistry meterRegistry,
+                @Nullable StringRedisTemplate redisTemplate,
+                List<String> routes,
+                LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.redisTemplate = redisTemplate;
+        this.routes = parseRoutes(routes);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * The route limiting this request, or null when it is not rate limited.
+     */
+    @Nullable
+    public Route match(String method, String path) {
+        for (Route r : routes) {
+            if ((r.method() == null || r.method().equalsIgnoreCase(method)) && matcher.match(r.pattern(), path)) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes a token from the client's bucket for the route.
+     */
+    public Decision tryAcquire(Route route, String client) {
+        String key = route.id() + "|" + client;
+        if (redisTemplate != null) {
+            Decision d = tryAcquireShared(route, key);
+            if (d != null) return countRejection(route, d);
+        }
+        return countRejection(route, tryAcquireLocal(route, key));
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-ms:60000}")
+    public void sweep() {
+        long now = nanoClock.getAsLong();
+        for (Map.Entry<String, AtomicLong> e : buckets.entrySet()) {
+            AtomicLong tat = e.getValue();
+            long current = tat.get();
+            // retired by CAS first, so a token taken concurrently is never lost with the removed bucket
+            if (current <= now && tat.compareAndSet(current, RETIRED)) {
+                buckets.remove(e.getKey(), tat);
+            }
+        }
+    }
+
+    int trackedBuckets() {
+        return buckets.size();
+    }
+
+    private Decision tryAcquireLocal(Route route, String key) {
+        long interval = route.intervalNanos();
+        long burst = route.burstNanos();
+        AtomicLong tat = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = tat.get();
+            if (current == RETIRED) {
+                buckets.remove(key, tat);
+                tat = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+                continue;
+            }
+            long debt = current == Long.MIN_VALUE ? 0 : Math.max(0, current - now);
+            if (debt + interval > burst) {
+                return route.decision(false, debt, debt + interval - burst, TimeUnit.NANOSECONDS);
+            }
+            if (tat.compareAndSet(current, now + debt + interval)) {
+                return route.decision(true, debt + interval, 0, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    @Nullable
+    private Decision tryAcquireShared(Route route, String key) {
+        long interval = TimeUnit.NANOSECONDS.toMillis(route.intervalNanos());
+        long burst = TimeUnit.NANOSECONDS.toMillis(route.burstNanos());
+        try {
+            List<?> out = redisTemplate.execute(REDIS_SCRIPT, List.of(REDIS_PREFIX + key),
+                    Long.toString(Math.max(1, interval)), Long.toString(burst));
+            if (out == null || out.size() != 2) return null;
+            boolean allowed = ((Number) out.get(0)).longValue() == 1L;
+            long debt = ((Number) out.get(1)).longValue();
+            return allowed
+                    ? route.decision(true, debt, 0, TimeUnit.MILLISECONDS)
+                    : route.decision(false, debt, debt + interval - burst, TimeUnit.MILLISECONDS);
+        } catch (Exception ex) {
+            log.debug("Shared rate limit unavailable, using the local bucket: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private Decision countRejection(Route route, Decision d) {
+        if (!d.allowed()) {
+            rejected.computeIfAbsent(route.id(), id -> Counter.builder("http.ratelimit.rejected")
+                    .tag("route", id)
+                    .register(meterRegistry)).increment();
+        }
+        return d;
+    }
+
+    static List<Route> parseRoutes(List<String> specs) {
+        List<Route> out = new ArrayList<>();
+        if (specs == null) return out;
+        for (String raw : specs) {
+            String spec = raw == null ? "" : raw.trim();
+            if (spec.isEmpty()) continue;
+            int eq = spec.lastIndexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Invalid rate limit route: " + spec);
+
+            String target = spec.substring(0, eq).trim();
+            String method = null;
+            int space = target.indexOf(' ');
+            if (space > 0) {
+                method = target.substring(0, space).toUpperCase(Locale.ROOT);
+                target = target.substring(space + 1).trim();
+            }
+
+            String[] limit = spec.substring(eq + 1).trim().split("/");
+            try {
+                int capacity = Integer.parseInt(limit[0].trim());
+                int refill = limit.length > 1 ? Integer.parseInt(limit[1].trim()) : capacity;
+                if (capacity < 1 || refill < 1) throw new NumberFormatException();
+                out.add(new Route(method, target, capacity, refill));
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid rate limit route: " + spec);
+            }
+        }
+        return out;
+    }
+
+    public record Route(@Nullable String method, String pattern, int capacity, int refillPerMinute) {
+
+        String id() {
+            return method == null ? pattern : method + " " + pattern;
+        }
+
+        long intervalNanos() {
+            return TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+        }
+
+        long burstNanos() {
+            return intervalNanos() * capacity;
+        }
+
+        // debt: how far the bucket is from full; wait: how long until the next token when rejected
+        Decision decision(boolean allowed, long debt, long wait, TimeUnit unit) {
+            long debtNanos = unit.toNanos(debt);
+            int remaining = (int) Math.max(0, (burstNanos() - debtNanos) / intervalNanos());
+            return new Decision(allowed, capacity, remaining, ceilSeconds(debtNanos), ceilSeconds(unit.toNanos(wait)));
+        }
+
+        private static long ceilSeconds(long nanos) {
+            long s = TimeUnit.SECONDS.toNanos(1);
+            return nanos <= 0 ? 0 : (nanos + s - 1) / s;
+        }
+    }
+
+    /**
+     * Outcome of one request against its bucket; resetSeconds is the time until the bucket is full.
+     */
+    public record Decision(boolean allowed, int limit, int remaining, long resetSeconds, long retryAfterSeconds) {
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.main.config;
+
+import org.example.main.service.table.ReservationConflicts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Schema objects for table_reservations that JPA cannot declare. Every statement is idempotent and
+ * runs on each startup after Hibernate has created or updated the table, including under the test
+ * profile so integration tests book against the real exclusion constraint.
+ *
+ * Before the constraint is first created, existing active reservations that overlap an earlier
+ * booked one on the same table are looked up, since they would make it fail. By default startup
+ * stops and lists them so they can be cancelled by hand; with
+ * {@code app.reservations.cancel-overlapping-on-startup=true} they are cancelled here instead (the
+ * earliest booked reservation of each clash is kept).
+ */
+@Component
+public class ReservationSchemaMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationSchemaMigration.class);
+
+    static final String ACTIVE_RANGE_INDEX_SQL =
+            "CREATE INDEX IF NOT EXISTS idx_reservations_active_start_end " +
+            "ON table_reservations (start_time, end_time) WHERE is_deleted = false";
+
+    static final String BTREE_GIST_SQL = "CREATE EXTENSION IF NOT EXISTS btree_gist";
+
+    static final String PERIOD_COLUMN_SQL =
+            "ALTER TABLE table_reservations ADD COLUMN IF NOT EXISTS period tstzrange " +
+            "GENERATED ALWAYS AS (tstzrange(start_time, end_time, '[)')) STORED";
+
+    static final String NO_OVERLAP_CONSTRAINT_SQL =
+            "DO $$ BEGIN " +
+            "IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = '" + ReservationConflicts.OVERLAP_CONSTRAINT + "') THEN " +
+            "ALTER TABLE table_reservations ADD CONSTRAINT " + ReservationConflicts.OVERLAP_CONSTRAINT + " " +
+            "EXCLUDE USING gist (table_id WITH =, period WITH &&) WHERE (NOT is_deleted); " +
+            "END IF; END $$";
+
+    static final String CONSTRAINT_EXISTS_SQL = "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ?)";
+
+    // active reservations sharing time on the same table with another active one, oldest booking first
+    static final String OVERLAPPING_SQL =
+            "SELECT r.id, r.table_id, r.start_time, r.end_time FROM table_reservations r " +
+            "WHERE NOT r.is_deleted AND EXISTS (SELECT 1 FROM table_reservations o " +
+            "WHERE o.table_id = r.table_id AND o.id <> r.id AND NOT o.is_deleted AND o.period && r.period) " +
+            "ORDER BY r.created_at, r.id";
+
+    static final String CANCEL_SQL =
+            "UPDATE table_reservations SET status = 'CANCELLED', is_deleted = true, updated_at = now() WHERE id = ?";
+
+    private static final int MAX_LISTED = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean cancelOverlapping;
+
+    public ReservationSchemaMigration(JdbcTemplate jdbcTemplate,
+                                      @Value("${app.reservations.cancel-overlapping-on-startup:false}") boolean cancelOverlapping) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cancelOverlapping = cancelOverlapping;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            jdbcTemplate.execute(ACTIVE_RANGE_INDEX_SQL);
+        } catch (Exception ex) {
+            log.warn("ReservationSchemaMigration: skipped '{}': {}", ACTIVE_RANGE_INDEX_SQL, ex.getMessage());
+        }
+        // bookings rely on the constraint alone to reject overlaps, so the application must not start without it
+        try {
+            jdbcTemplate.execute(BTREE_GIST_SQL);
+            jdbcTemplate.execute(PERIOD_COLUMN_SQL);
+        } catch (Exception ex) {
+            throw cannotCreate(ex);
+        }
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(CONSTRAINT_EXISTS_SQL, Boolean.class,
+                ReservationConflicts.OVERLAP_CONSTRAINT))) {
+            resolveOverlaps();
+        }
+        try {
+            jdbcTemplate.execute(NO_OVERLAP_CONSTRAINT_SQL);
+        } catch (Exception ex) {
+            throw cannotCreate(ex);
+        }
+    }
+
+    private void resolveOverlaps() {
+        List<Booking> overlapping = jdbcTemplate.query(OVERLAPPING_SQL, (rs, n) -> new Booking(
+                rs.getObject("id", UUID.class),
+                rs.getObject("table_id", UUID.class),
+                rs.getObject("start_time", OffsetDateTime.class),
+                rs.getObject("end_time", OffsetDateTime.class)));
+        List<UUID> clashing = laterClashes(overlapping);
+        if (clashing.isEmpty()) return;
+
+        String listed = clashing.stream().limit(MAX_LISTED).map(UUID::toString).collect(Collectors.joining(", "))
+                + (clashing.size() > MAX_LISTED ? ", ..." : "");
+        if (!cancelOverlapping) {
+            throw new IllegalStateException(clashing.size() + " active reservation(s) overlap an earlier booking on the same table: "
+                    + listed + ". Cancel them, or set app.reservations.cancel-overlapping-on-startup=true to cancel them on startup, "
+                    + "before " + ReservationConflicts.OVERLAP_CONSTRAINT + " can be created");
+        }
+        jdbcTemplate.batchUpdate(CANCEL_SQL, clashing.stream().map(id -> new Object[]{id}).collect(Collectors.toList()));
+        log.warn("ReservationSchemaMigration: cancelled {} reservation(s) overlapping an earlier booking: {}", clashing.size(), listed);
+    }
+
+    /**
+     * Walks the bookings oldest first and returns those that overlap one already kept on their table.
+     */
+    static List<UUID> laterClashes(List<Booking> oldestFirst) {
+        Map<UUID, List<Booking>> kept = new HashMap<>();
+        List<UUID> clashing = new ArrayList<>();
+        for (Booking b : oldestFirst) {
+            List<Booking> onTable = kept.computeIfAbsent(b.tableId(), t -> new ArrayList<>());
+            if (onTable.stream().anyMatch(b::overlaps)) clashing.add(b.id());
+            else onTable.add(b);
+        }
+        return clashing;
+    }
+
+    private static IllegalStateException cannotCreate(Exception cause) {
+        return new IllegalStateException("Cannot create reservation overlap constraint "
+                + ReservationConflicts.OVERLAP_CONSTRAINT + "; overlapping reservations would not be rejected", cause);
+    }
+
+    record Booking(UUID id, UUID tableId, OffsetDateTime start, OffsetDateTime end) {
+        // half-open like the period column
+        boolean overlaps(Booking other) {
+            return start.isBefore(other.end) && other.start.isBefore(end);
+        }
+    }
+}
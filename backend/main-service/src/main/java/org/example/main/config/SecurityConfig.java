@@ -2,7 +2,11 @@ package org.example.main.config;
 
 import org.example.main.security.JwtAuthenticationFilter;
 import org.example.main.security.JwtUtils;
+import org.example.main.security.KitchenCallbackAuthenticationFilter;
+import org.example.main.security.TokenRevocationList;
+import org.example.main.security.VerifiedTokenCache;
 import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -47,9 +51,13 @@ public class SecurityConfig {
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http,
                                                    JwtUtils jwtUtils,
-                                                   UserDetailsService userDetailsService,
-                                                   PasswordEncoder passwordEncoder) throws Exception {
-        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter(jwtUtils, userDetailsService);
+                                                   VerifiedTokenCache verifiedTokenCache,
+                                                   TokenRevocationList tokenRevocationList,
+                                                   RateLimiter rateLimiter,
+                                                   PasswordEncoder passwordEncoder,
+                                                   @Value("${kitchen.callback.secret:}") String kitchenCallbackSecret) throws Exception {
+        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter(jwtUtils, verifiedTokenCache, tokenRevocationList);
+        KitchenCallbackAuthenticationFilter callbackFilter = new KitchenCallbackAuthenticationFilter(kitchenCallbackSecret);
 
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -62,21 +70,26 @@ public class SecurityConfig {
                         .requestMatchers(EndpointRequest.toAnyEndpoint()).permitAll()
                         .requestMatchers("/api/public/health").permitAll()
                         .requestMatchers("/api/kitchen/notifications").permitAll()
-                        .requestMatchers("/api/internal/orders/*/kitchen-ready").permitAll()
+                        // kitchen-svc callbacks carry the shared secret instead of a user token
+                        .requestMatchers(HttpMethod.POST, KitchenCallbackAuthenticationFilter.PATHS)
+                        .hasAuthority(KitchenCallbackAuthenticationFilter.ROLE)
                         .requestMatchers("/api/internal/**").hasAnyRole("EMPLOYEE", "ADMIN")
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 // register JWT filter before username/password auth filter
-                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(callbackFilter, JwtAuthenticationFilter.class)
+                // rate limits run once the caller is known so they can be keyed by user
+                .addFilterAfter(new RateLimitFilter(rateLimiter), JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
     @Bean
     @ConditionalOnMissingBean(PasswordEncoder.class)
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
 
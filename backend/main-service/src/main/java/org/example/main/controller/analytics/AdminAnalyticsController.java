@@ -0,0 +1,27 @@
+package org.example.main.controller.analytics;
+
+import lombok.RequiredArgsConstructor;
+import org.example.main.dto.response.analytics.LiveAnalyticsResponseDto;
+import org.example.main.service.analytics.LiveSalesAnalytics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/analytics")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminAnalyticsController {
+
+    private final LiveSalesAnalytics liveSalesAnalytics;
+
+    /**
+     * Orders/revenue per minute and top items over the last 15, 60 and 240 minutes (in-memory, this instance only).
+     */
+    @GetMapping("/live")
+    public ResponseEntity<LiveAnalyticsResponseDto> live() {
+        return ResponseEntity.ok(liveSalesAnalytics.snapshot());
+    }
+}
@@ -6,17 +6,25 @@ import org.example.main.feign.KitchenClient;
 import org.example.main.model.order.OrderEntity;
 import org.example.main.repository.order.OrderRepository;
 import org.example.main.service.order.OrderService;
+import org.example.main.dto.kitchen.KitchenReadyNotificationDto;
 import org.example.main.dto.kitchen.KitchenStatusDto;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -27,6 +35,9 @@ public class InternalKitchenController {
 
     private static final Logger log = LoggerFactory.getLogger(InternalKitchenController.class);
 
+    // what kitchen-svc reports through its callbacks; anything else would let a caller drive orders
+    static final Set<String> KITCHEN_REPORTED_STATUSES = Set.of("READY");
+
     private final OrderService orderService;
     private final KitchenClient kitchenClient;
     private final OrderRepository orderRepository;
@@ -45,6 +56,47 @@ public class InternalKitchenController {
         }
     }
 
+    /**
+     * Batched form of the kitchen-ready callback. A status kitchen-svc does not report rejects the
+     * whole batch with 400. Orders that no longer exist are skipped; the ids of orders that could
+     * not be updated are returned under "failed" so kitchen-svc retries only those.
+     */
+    @PostMapping("/orders/kitchen-ready")
+    public ResponseEntity<Map<String, Object>> kitchenReadyBatch(
+            @RequestBody List<@Valid KitchenReadyNotificationDto> notifications) {
+        log.info("Received {} batched kitchen callbacks", notifications.size());
+        List<String> statuses = new ArrayList<>(notifications.size());
+        for (KitchenReadyNotificationDto n : notifications) {
+            String status = n.getStatus() == null || n.getStatus().isBlank()
+                    ? "READY" : n.getStatus().trim().toUpperCase(Locale.ROOT);
+            if (!KITCHEN_REPORTED_STATUSES.contains(status)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported kitchen status: " + n.getStatus());
+            }
+            statuses.add(status);
+        }
+        int updated = 0;
+        List<UUID> failed = new ArrayList<>();
+        for (int i = 0; i < notifications.size(); i++) {
+            KitchenReadyNotificationDto n = notifications.get(i);
+            String status = statuses.get(i);
+            try {
+                orderService.updateKitchenStatus(n.getOrderId(), status, n.getKitchenOrderId());
+                updated++;
+            } catch (ResponseStatusException ex) {
+                if (ex.getStatusCode() == HttpStatus.NOT_FOUND) {
+                    log.warn("Skipping kitchen callback for unknown order {}", n.getOrderId());
+                } else {
+                    log.error("Failed to update kitchen status for order {}: {}", n.getOrderId(), ex.getMessage());
+                    failed.add(n.getOrderId());
+                }
+            } catch (Exception ex) {
+                log.error("Failed to update kitchen status for order {}: {}", n.getOrderId(), ex.getMessage(), ex);
+                failed.add(n.getOrderId());
+            }
+        }
+        return ResponseEntity.ok(Map.of("updated", updated, "failed", failed));
+    }
+
     @PutMapping("/orders/{kitchenOrderId}/status")
     @PreAuthorize("hasAnyRole('EMPLOYEE','ADMIN')")
     public ResponseEntity<?> updateKitchenOrderStatus(
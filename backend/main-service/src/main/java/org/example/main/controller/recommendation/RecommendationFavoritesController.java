@@ -1,40 +1,59 @@
 package org.example.main.controller.recommendation;
 
 import lombok.RequiredArgsConstructor;
+import org.example.main.dto.response.recommendation.FavoriteIngredientCountResponseDto;
+import org.example.main.dto.response.recommendation.FavoriteRecommendationPageResponseDto;
 import org.example.main.dto.response.recommendation.FavoriteRecommendationResponseDto;
 import org.example.main.model.recommendation.FavoriteRecommendation;
+import org.example.main.model.user.User;
 import org.example.main.repository.recommendation.FavoriteRecommendationRepository;
+import org.example.main.repository.user.UserRepository;
+import org.example.main.security.JwtPrincipal;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import jakarta.validation.Valid;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
+import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
- * Simple controller to persist favorite recommendations.
+ * Persists favorite recommendations for the authenticated user.
  *
  * Endpoints:
- *  - GET  /api/recommendations/favorites           -> list all favorites (optionally ?mine=true)
- *  - POST /api/recommendations/favorites           -> add favorite (request body uses FavoriteRecommendationResponseDto-ish payload)
- *  - DELETE /api/recommendations/favorites/{id}    -> remove favorite by id
+ *  - GET  /api/recommendations/favorites               -> current user's favorites, newest first (?cursor=&limit=)
+ *  - GET  /api/recommendations/favorites/ingredients   -> ingredient counts across the current user's favorites
+ *  - POST /api/recommendations/favorites               -> add favorite (request body uses FavoriteRecommendationResponseDto-ish payload)
+ *  - DELETE /api/recommendations/favorites/{id}        -> remove one of the current user's favorites by id
  *
- * Note: authentication integration (resolving current user) is left minimal — adapt to your security setup.
+ * Listing is keyset-paginated on (created_at, id) so deep pages cost the same as the first one.
  */
 @RestController
 @RequestMapping("/api/recommendations/favorites")
 @RequiredArgsConstructor
 public class RecommendationFavoritesController {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
     private final FavoriteRecommendationRepository repository;
+    private final UserRepository userRepository;
 
-    
     private FavoriteRecommendationResponseDto toDto(FavoriteRecommendation e) {
         return FavoriteRecommendationResponseDto.builder()
                 .id(e.getId())
-                .ingredients(e.getIngredients() != null ? List.of(e.getIngredients().split(",")) : null)
+                .ingredients(e.getIngredients())
                 .description(e.getDescription())
                 .menuItemId(e.getMenuItemId())
                 .menuItemName(e.getMenuItemName())
@@ -47,25 +66,78 @@ public class RecommendationFavoritesController {
                 .build();
     }
 
+    private UUID currentUserId(Authentication authentication) {
+        if (authentication == null || authentication.getName() == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required");
+        }
+        if (authentication.getPrincipal() instanceof JwtPrincipal jwt && jwt.getUserId() != null) {
+            return jwt.getUserId();
+        }
+        return userRepository.findByUsername(authentication.getName())
+                .map(User::getId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unknown user"));
+    }
+
     @GetMapping
-    public ResponseEntity<List<FavoriteRecommendationResponseDto>> listFavorites(@RequestParam(name = "mine", required = false) Boolean mine) {
-        List<FavoriteRecommendation> list = repository.findAll();
-        List<FavoriteRecommendationResponseDto> dtos = list.stream().map(this::toDto).collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<FavoriteRecommendationPageResponseDto> listFavorites(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            Authentication authentication) {
+        UUID userId = currentUserId(authentication);
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // one extra row tells us whether another page exists without a count query
+        Pageable page = PageRequest.of(0, size + 1, NEWEST_FIRST);
+
+        List<FavoriteRecommendation> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = repository.findByCreatedBy(userId, page);
+        } else {
+            Cursor c = Cursor.decode(cursor);
+            rows = repository.findByCreatedByBefore(userId, c.createdAt(), c.id(), page);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            FavoriteRecommendation last = rows.get(size - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        List<FavoriteRecommendationResponseDto> dtos = rows.stream().map(this::toDto).collect(Collectors.toList());
+        return ResponseEntity.ok(FavoriteRecommendationPageResponseDto.builder()
+                .items(dtos)
+                .nextCursor(nextCursor)
+                .build());
+    }
+
+    @GetMapping("/ingredients")
+    public ResponseEntity<List<FavoriteIngredientCountResponseDto>> ingredientCounts(
+            @RequestParam(name = "limit", required = false) Integer limit,
+            Authentication authentication) {
+        UUID userId = currentUserId(authentication);
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<FavoriteIngredientCountResponseDto> out = repository.countIngredientsByCreatedBy(userId, size).stream()
+                .map(row -> FavoriteIngredientCountResponseDto.builder()
+                        .ingredient((String) row[0])
+                        .count(((Number) row[1]).longValue())
+                        .build())
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(out);
     }
 
     @PostMapping
-    public ResponseEntity<FavoriteRecommendationResponseDto> addFavorite(@Valid @RequestBody FavoriteRecommendationResponseDto req) {
+    public ResponseEntity<FavoriteRecommendationResponseDto> addFavorite(@Valid @RequestBody FavoriteRecommendationResponseDto req,
+                                                                         Authentication authentication) {
         FavoriteRecommendation e = FavoriteRecommendation.builder()
                 .menuItemId(req.getMenuItemId())
                 .menuItemName(req.getMenuItemName())
                 .description(req.getDescription())
-                .ingredients(req.getIngredients() != null ? String.join(",", req.getIngredients()) : null)
+                .ingredients(req.getIngredients() != null ? List.copyOf(req.getIngredients()) : null)
                 .calories(req.getCalories())
                 .protein(req.getProtein())
                 .fats(req.getFats())
                 .carbs(req.getCarbs())
-                .createdBy(null)
+                .createdBy(currentUserId(authentication))
                 .createdAt(OffsetDateTime.now())
                 .build();
         repository.save(e);
@@ -73,11 +145,32 @@ public class RecommendationFavoritesController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteFavorite(@PathVariable("id") UUID id) {
-        if (!repository.existsById(id)) {
+    public ResponseEntity<?> deleteFavorite(@PathVariable("id") UUID id, Authentication authentication) {
+        // another user's favorite is indistinguishable from a missing one
+        if (repository.deleteByIdAndCreatedBy(id, currentUserId(authentication)) == 0) {
             return ResponseEntity.notFound().build();
         }
-        repository.deleteById(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Position of the last row handed out, encoded as base64url("createdAt|id").
+     */
+    record Cursor(OffsetDateTime createdAt, UUID id) {
+
+        String encode() {
+            String raw = createdAt.toString() + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int sep = raw.lastIndexOf('|');
+                return new Cursor(OffsetDateTime.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+            } catch (RuntimeException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+    }
+}
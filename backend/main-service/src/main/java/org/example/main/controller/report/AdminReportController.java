@@ -0,0 +1,51 @@
+package org.example.main.controller.report;
+
+import lombok.RequiredArgsConstructor;
+import org.example.main.service.report.IRecommendationReportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/admin/reports")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminReportController {
+
+    private final IRecommendationReportService recommendationReportService;
+
+    /**
+     * Streams the AI recommendations CSV straight to the client. Does not move the scheduled
+     * export's watermark.
+     */
+    @GetMapping("/recommendations")
+    public ResponseEntity<StreamingResponseBody> downloadRecommendations(
+            @RequestParam(name = "since", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime since,
+            @RequestParam(name = "gzip", defaultValue = "false") boolean gzip) {
+        String filename = "ai_recommendations_" + LocalDate.now() + (gzip ? ".csv.gz" : ".csv");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream zipped = new GZIPOutputStream(out, 64 * 1024);
+                recommendationReportService.writeCsv(zipped, since);
+                zipped.finish();
+            } else {
+                recommendationReportService.writeCsv(out, since);
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .body(body);
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.main.controller.report;
+
+import lombok.RequiredArgsConstructor;
+import org.example.main.dto.response.report.SalesSummaryResponseDto;
+import org.example.main.dto.response.report.TopItemResponseDto;
+import org.example.main.service.report.ISalesRollupService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Sales figures served from the daily rollups. Date ranges are inclusive (yyyy-MM-dd).
+ */
+@RestController
+@RequestMapping("/api/admin/sales")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminSalesController {
+
+    private final ISalesRollupService salesRollupService;
+
+    @GetMapping("/summary")
+    public ResponseEntity<SalesSummaryResponseDto> summary(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesRollupService.summary(from, to));
+    }
+
+    @GetMapping("/top-items")
+    public ResponseEntity<List<TopItemResponseDto>> topItems(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(salesRollupService.topItems(from, to, limit));
+    }
+
+    /**
+     * Recomputes the rollups for the range from raw orders (backfill / repair).
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        salesRollupService.rebuild(from, to);
+        return ResponseEntity.noContent().build();
+    }
+}
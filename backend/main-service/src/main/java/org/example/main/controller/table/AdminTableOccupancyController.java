@@ -0,0 +1,63 @@
+package org.example.main.controller.table;
+
+import lombok.RequiredArgsConstructor;
+import org.example.main.dto.response.table.TableOccupancyResponseDto;
+import org.example.main.dto.response.table.TableOpenOrdersResponseDto;
+import org.example.main.model.table.RestaurantTable;
+import org.example.main.repository.table.RestaurantTableRepository;
+import org.example.main.service.order.OpenOrderCounter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Open orders per table, served from the live in-memory counter.
+ */
+@RestController
+@RequestMapping("/api/admin/tables")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminTableOccupancyController {
+
+    private final OpenOrderCounter openOrderCounter;
+    private final RestaurantTableRepository tableRepository;
+
+    @GetMapping("/open-orders")
+    public ResponseEntity<TableOccupancyResponseDto> openOrders() {
+        Map<UUID, Long> counts = openOrderCounter.snapshot();
+        Map<UUID, RestaurantTable> tables = counts.isEmpty()
+                ? Map.of()
+                : tableRepository.findAllById(counts.keySet()).stream()
+                        .collect(Collectors.toMap(RestaurantTable::getId, Function.identity()));
+
+        List<TableOpenOrdersResponseDto> rows = counts.entrySet().stream()
+                .map(e -> {
+                    RestaurantTable t = tables.get(e.getKey());
+                    return TableOpenOrdersResponseDto.builder()
+                            .tableId(e.getKey())
+                            .tableNumber(t != null ? t.getTableNumber() : null)
+                            .code(t != null ? t.getCode() : null)
+                            .openOrders(e.getValue())
+                            .build();
+                })
+                .sorted(Comparator.comparing(TableOpenOrdersResponseDto::getTableNumber,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(TableOccupancyResponseDto.builder()
+                .tables(rows)
+                .activeTables(rows.size())
+                .openOrders(rows.stream().mapToLong(TableOpenOrdersResponseDto::getOpenOrders).sum())
+                .reconciledAt(openOrderCounter.getLastReconciledAt())
+                .build());
+    }
+}
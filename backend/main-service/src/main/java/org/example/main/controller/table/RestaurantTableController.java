@@ -2,16 +2,23 @@ package org.example.main.controller.table;
 
 import org.example.main.dto.request.table.ReservationRequestDto;
 import org.example.main.dto.request.table.OccupyRequest;
+import org.example.main.dto.response.table.TableAvailabilityResponseDto;
+import org.example.main.dto.response.table.TableStateResponseDto;
 import org.example.main.model.table.RestaurantTable;
 import org.example.main.model.table.TableReservationEntity;
 import org.example.main.service.table.RestaurantTableService;
+import org.example.main.service.table.TableStateStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.net.URI;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,17 +28,33 @@ public class RestaurantTableController {
 
     private static final Logger log = LoggerFactory.getLogger(RestaurantTableController.class);
     private final RestaurantTableService service;
+    private final TableStateStream stateStream;
 
-    public RestaurantTableController(RestaurantTableService service) {
+    public RestaurantTableController(RestaurantTableService service, TableStateStream stateStream) {
         this.service = service;
+        this.stateStream = stateStream;
     }
 
     @GetMapping()
-    public ResponseEntity<List<RestaurantTable>> getTables() {
-        List<RestaurantTable> list = service.findAll();
+    public ResponseEntity<List<TableStateResponseDto>> getTables() {
+        List<TableStateResponseDto> list = service.findAllStates();
         return ResponseEntity.ok(list);
     }
 
+    // snapshot, then one event per table change
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTables() {
+        return stateStream.subscribe();
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<List<TableAvailabilityResponseDto>> getAvailability(
+            @RequestParam(name = "seats", required = false) Integer seats,
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        return ResponseEntity.ok(service.findAvailability(seats, from, to));
+    }
+
     @GetMapping("/{tableId}")
     public ResponseEntity<RestaurantTable> getTable(@PathVariable UUID tableId) {
         RestaurantTable t = service.findById(tableId);
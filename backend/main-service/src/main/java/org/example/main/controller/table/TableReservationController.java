@@ -2,15 +2,21 @@ package org.example.main.controller.table;
 
 import org.example.main.dto.request.table.CancelReservationRequestDto;
 import org.example.main.dto.request.table.ReservationRequestDto;
+import org.example.main.dto.response.table.ReservationCalendarResponseDto;
 import org.example.main.dto.response.table.TableReservationResponseDto;
 import org.example.main.mapper.table.ReservationMapper;
 import org.example.main.model.table.TableReservationEntity;
+import org.example.main.service.table.CalendarView;
 import org.example.main.service.table.ITableReservationService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import jakarta.validation.Valid;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -64,4 +70,21 @@ public class TableReservationController {
                 .stream().map(mapper::toResponse).collect(Collectors.toList());
         return ResponseEntity.ok(dto);
     }
-}
\ No newline at end of file
+
+    /**
+     * All tables' non-deleted reservations for the week (Monday-based) or month containing {@code date}, in one query.
+     */
+    @GetMapping("/calendar")
+    public ResponseEntity<ReservationCalendarResponseDto> getCalendar(
+            @RequestParam(name = "date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(name = "view", defaultValue = "week") String view) {
+        LocalDate d = date == null ? LocalDate.now(ZoneOffset.UTC) : date;
+        CalendarView calendarView;
+        try {
+            calendarView = CalendarView.valueOf(view.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "view must be week or month");
+        }
+        return ResponseEntity.ok(reservationService.calendar(d, calendarView));
+    }
+}
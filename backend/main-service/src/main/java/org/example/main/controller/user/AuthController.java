@@ -1,10 +1,15 @@
 package org.example.main.controller.user;
 
-import jakarta.servlet.http.HttpSession;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.example.main.dto.request.user.LoginRequestDto;
 import org.example.main.dto.request.user.RegisterRequestDto;
 import org.example.main.dto.response.user.AuthResponseDto;
+import org.example.main.exception.ResourceNotFoundException;
 import org.example.main.security.JwtUtils;
+import org.example.main.security.LoginThrottle;
+import org.example.main.security.TokenRevocationList;
 import org.example.main.service.user.IUserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,17 +28,24 @@ import java.util.Map;
 public class AuthController {
     private final IUserService userService;
     private final JwtUtils jwtUtils;
+    private final TokenRevocationList tokenRevocations;
+    private final LoginThrottle loginThrottle;
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
-    public AuthController(IUserService userService, JwtUtils jwtUtils) {
+    public AuthController(IUserService userService,
+                          JwtUtils jwtUtils,
+                          TokenRevocationList tokenRevocations,
+                          LoginThrottle loginThrottle) {
         this.userService = userService;
         this.jwtUtils = jwtUtils;
+        this.tokenRevocations = tokenRevocations;
+        this.loginThrottle = loginThrottle;
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> me(Authentication authentication, HttpSession session) {
+    public ResponseEntity<?> me(Authentication authentication) {
         try {
-            Map<String, Object> dto = userService.me(authentication, session);
+            Map<String, Object> dto = userService.me(authentication);
             return ResponseEntity.ok(dto);
         } catch (IllegalArgumentException ex) {
             return ResponseEntity.status(401).body(Map.of("message", "Unauthenticated"));
@@ -44,8 +56,17 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponseDto> login(@Valid @RequestBody LoginRequestDto dto, HttpSession session) {
-        AuthResponseDto resp = (AuthResponseDto) userService.login(dto, session);
+    public ResponseEntity<AuthResponseDto> login(@Valid @RequestBody LoginRequestDto dto,
+                                                 HttpServletRequest request) {
+        // the client address; behind a trusted proxy it is resolved from X-Forwarded-For (server.forward-headers-strategy)
+        loginThrottle.checkAttempt(request.getRemoteAddr(), dto.getUsername());
+        AuthResponseDto resp;
+        try {
+            resp = userService.login(dto);
+        } catch (ResourceNotFoundException ex) {
+            loginThrottle.recordFailure(dto.getUsername());
+            throw ex;
+        }
 
         long maxAgeSeconds = Math.max(1, jwtUtils.getJwtExpirationMs() / 1000L);
 
@@ -63,7 +84,8 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout() {
+    public ResponseEntity<Void> logout(HttpServletRequest request) {
+        revokePresentedToken(request);
         ResponseCookie cookie = ResponseCookie.from("access_token", "")
                 .httpOnly(true)
                 .secure(false) 
@@ -77,8 +99,22 @@ public class AuthController {
                 .build();
     }
 
+    private void revokePresentedToken(HttpServletRequest request) {
+        String token = jwtUtils.getTokenFromRequest(request);
+        if (token == null) return;
+        try {
+            Claims claims = jwtUtils.parseClaims(token);
+            if (claims.getId() != null && claims.getExpiration() != null) {
+                tokenRevocations.revokeToken(claims.getId(), claims.getExpiration().getTime());
+            }
+        } catch (JwtException | IllegalArgumentException ex) {
+            logger.debug("Logout with an unusable token: {}", ex.getMessage());
+        }
+    }
+
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody @Valid RegisterRequestDto req) {
+    public ResponseEntity<?> register(@RequestBody @Valid RegisterRequestDto req, HttpServletRequest request) {
+        loginThrottle.checkAttempt(request.getRemoteAddr(), null);
         AuthResponseDto resp = (AuthResponseDto) userService.register(req);
         return ResponseEntity.ok(resp);
     }
@@ -15,6 +15,10 @@ import org.springframework.web.server.ResponseStatusException;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
 /**
  * Endpoints for authenticated users to view and edit their own profile.
  * - GET /api/users/me
@@ -31,13 +35,21 @@ public class UserProfileController {
 
     @GetMapping("/me")
     public ResponseEntity<?> me(Authentication authentication) {
-        return ResponseEntity.ok(userService.me(authentication, null));
+        // this page edits the name and username, so show the stored values rather than the token's
+        Map<String, Object> dto = new LinkedHashMap<>(userService.me(authentication));
+        Object uid = dto.get("userId");
+        if (uid != null) {
+            User u = userService.findById(uid instanceof UUID ? (UUID) uid : UUID.fromString(uid.toString()));
+            dto.put("username", u.getUsername());
+            dto.put("fullName", u.getFullName());
+        }
+        return ResponseEntity.ok(dto);
     }
 
     @PutMapping("/me")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> updateMe(Authentication authentication, @Valid @RequestBody UpdateProfileRequestDto req) {
-        var dto = userService.me(authentication, null);
+        var dto = userService.me(authentication);
         Object uid = dto.get("userId");
         if (uid == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User id missing");
@@ -55,7 +67,7 @@ public class UserProfileController {
     @PutMapping("/me/password")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> changePassword(Authentication authentication, @Valid @RequestBody ChangePasswordRequestDto req) {
-        var dto = userService.me(authentication, null);
+        var dto = userService.me(authentication);
         Object uid = dto.get("userId");
         if (uid == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User id missing");
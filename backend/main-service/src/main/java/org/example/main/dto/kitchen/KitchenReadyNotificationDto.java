@@ -0,0 +1,25 @@
+package org.example.main.dto.kitchen;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * One entry of a batched status callback from kitchen-svc.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class KitchenReadyNotificationDto {
+    @NotNull(message = "orderId is required")
+    private UUID orderId;
+
+    private UUID kitchenOrderId;
+
+    private String status;
+}
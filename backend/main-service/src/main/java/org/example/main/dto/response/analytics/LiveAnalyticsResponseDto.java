@@ -0,0 +1,22 @@
+package org.example.main.dto.response.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LiveAnalyticsResponseDto {
+    private OffsetDateTime generatedAt;
+    /** Oldest first, one entry per minute for the shortest window. */
+    private List<Long> ordersPerMinuteSeries;
+    private List<BigDecimal> revenuePerMinuteSeries;
+    private List<SalesWindowResponseDto> windows;
+}
@@ -0,0 +1,23 @@
+package org.example.main.dto.response.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.main.dto.response.report.TopItemResponseDto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesWindowResponseDto {
+    private int minutes;
+    private long orders;
+    private BigDecimal revenue;
+    private BigDecimal ordersPerMinute;
+    private BigDecimal revenuePerMinute;
+    private List<TopItemResponseDto> topItems;
+}
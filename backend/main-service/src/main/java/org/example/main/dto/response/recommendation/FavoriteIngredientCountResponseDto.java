@@ -0,0 +1,18 @@
+package org.example.main.dto.response.recommendation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How many of the user's favorites list an ingredient.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FavoriteIngredientCountResponseDto {
+    private String ingredient;
+    private long count;
+}
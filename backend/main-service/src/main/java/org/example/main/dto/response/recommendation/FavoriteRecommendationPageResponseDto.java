@@ -0,0 +1,20 @@
+package org.example.main.dto.response.recommendation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of favorites. nextCursor is opaque; pass it back as ?cursor= to continue, null when exhausted.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FavoriteRecommendationPageResponseDto {
+    private List<FavoriteRecommendationResponseDto> items;
+    private String nextCursor;
+}
@@ -0,0 +1,19 @@
+package org.example.main.dto.response.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailySalesResponseDto {
+    private LocalDate date;
+    private long orderCount;
+    private BigDecimal revenue;
+}
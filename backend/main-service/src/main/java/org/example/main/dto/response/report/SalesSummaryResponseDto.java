@@ -0,0 +1,23 @@
+package org.example.main.dto.response.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesSummaryResponseDto {
+    private LocalDate from;
+    private LocalDate to;
+    private long orderCount;
+    private BigDecimal revenue;
+    private BigDecimal averageTicket;
+    private List<DailySalesResponseDto> days;
+}
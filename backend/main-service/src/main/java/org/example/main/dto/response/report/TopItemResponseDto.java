@@ -0,0 +1,20 @@
+package org.example.main.dto.response.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TopItemResponseDto {
+    private UUID menuItemId;
+    private String menuItemName;
+    private long quantity;
+    private BigDecimal revenue;
+}
@@ -0,0 +1,21 @@
+package org.example.main.dto.response.table;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationCalendarResponseDto {
+    private String view;
+    /** First day of the range (inclusive, UTC). */
+    private LocalDate from;
+    /** Day after the range (exclusive, UTC). */
+    private LocalDate to;
+    private int reservationCount;
+    /** Only tables with at least one reservation in the range, ordered by their first reservation. */
+    private List<TableCalendarResponseDto> tables;
+}
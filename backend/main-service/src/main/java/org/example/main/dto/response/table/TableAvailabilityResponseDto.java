@@ -0,0 +1,30 @@
+package org.example.main.dto.response.table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.main.model.enums.TableStatus;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * One table in an availability search. nextFreeFrom / nextFreeTo are the earliest slot of the
+ * requested length when the requested one is taken, or null if it is free or nothing opens up
+ * within the search horizon.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TableAvailabilityResponseDto {
+    private UUID tableId;
+    private Integer tableNumber;
+    private String code;
+    private Integer seats;
+    private TableStatus status;
+    private boolean available;
+    private OffsetDateTime nextFreeFrom;
+    private OffsetDateTime nextFreeTo;
+}
@@ -0,0 +1,15 @@
+package org.example.main.dto.response.table;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TableCalendarResponseDto {
+    private UUID tableId;
+    private List<TableReservationResponseDto> reservations;
+}
@@ -0,0 +1,20 @@
+package org.example.main.dto.response.table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TableOccupancyResponseDto {
+    private List<TableOpenOrdersResponseDto> tables;
+    private int activeTables;
+    private long openOrders;
+    private OffsetDateTime reconciledAt;
+}
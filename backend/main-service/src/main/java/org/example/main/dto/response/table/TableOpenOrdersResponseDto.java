@@ -0,0 +1,19 @@
+package org.example.main.dto.response.table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TableOpenOrdersResponseDto {
+    private UUID tableId;
+    private Integer tableNumber;
+    private String code;
+    private long openOrders;
+}
@@ -0,0 +1,32 @@
+package org.example.main.dto.response.table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.main.model.enums.TableStatus;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Live state of one table as served by GET /api/tables and pushed over /api/tables/stream.
+ * Carries the same fields as the table itself plus the current or next active reservation.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TableStateResponseDto {
+    private UUID id;
+    private String code;
+    private Integer seats;
+    private Integer currentOccupancy;
+    private TableStatus status;
+    private String pinCode;
+    private Integer tableNumber;
+    private OffsetDateTime occupiedUntil;
+    private UUID nextReservationId;
+    private OffsetDateTime nextReservationStart;
+    private OffsetDateTime nextReservationEnd;
+}
@@ -0,0 +1,23 @@
+package org.example.main.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.example.main.model.order.OrderItem;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published by the order service when lines are submitted, either with a new order
+ * ({@code newOrder} true) or appended to the customer's open order. Consumed after commit.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class OrderItemsAddedEvent {
+    private final UUID orderId;
+    private final boolean newOrder;
+    @ToString.Exclude
+    private final List<OrderItem> items;
+}
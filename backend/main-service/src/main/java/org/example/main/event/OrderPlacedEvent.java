@@ -0,0 +1,22 @@
+package org.example.main.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Published when a new order is created. Consumers that touch other tables (e.g. table occupancy)
+ * react after the order has committed, outside the order transaction.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class OrderPlacedEvent {
+    private final UUID orderId;
+    private final UUID tableId;
+    private final Integer tableNumber;
+    private final OffsetDateTime placedAt;
+}
@@ -0,0 +1,34 @@
+package org.example.main.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.example.main.model.enums.OrderStatus;
+
+import java.util.UUID;
+
+/**
+ * Published by the order service whenever an order is created or its status changes.
+ * previousStatus is null for a newly created order.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class OrderStatusChangedEvent {
+    private final UUID orderId;
+    private final UUID tableId;
+    private final OrderStatus previousStatus;
+    private final OrderStatus newStatus;
+
+    public boolean becameActive() {
+        return isActive(newStatus) && !isActive(previousStatus);
+    }
+
+    public boolean becameInactive() {
+        return isActive(previousStatus) && !isActive(newStatus);
+    }
+
+    private static boolean isActive(OrderStatus status) {
+        return status != null && status.isActive();
+    }
+}
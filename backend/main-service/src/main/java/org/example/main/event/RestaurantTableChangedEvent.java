@@ -0,0 +1,25 @@
+package org.example.main.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.example.main.model.table.RestaurantTable;
+
+import java.util.UUID;
+
+/**
+ * Published when a table is created, updated or deleted. table holds the saved row, or is null once
+ * the table is deleted. In-memory views apply it after the write has committed.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class RestaurantTableChangedEvent {
+    private final UUID tableId;
+    @ToString.Exclude
+    private final RestaurantTable table;
+
+    public boolean isDeleted() {
+        return table == null;
+    }
+}
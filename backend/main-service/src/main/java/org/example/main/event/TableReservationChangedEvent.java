@@ -0,0 +1,22 @@
+package org.example.main.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Published when a reservation is created (active) or cancelled (not active).
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class TableReservationChangedEvent {
+    private final UUID reservationId;
+    private final UUID tableId;
+    private final OffsetDateTime startTime;
+    private final OffsetDateTime endTime;
+    private final boolean active;
+}
@@ -0,0 +1,24 @@
+package org.example.main.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.example.main.model.enums.TableStatus;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Published when a table is occupied (or its occupancy extended) and when an expired occupancy is
+ * released. occupiedUntil is null once the table is available again.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class TableStateChangedEvent {
+    private final UUID tableId;
+    private final Integer tableNumber;
+    private final TableStatus previousStatus;
+    private final TableStatus newStatus;
+    private final OffsetDateTime occupiedUntil;
+}
@@ -0,0 +1,10 @@
+package org.example.main.exception;
+
+/**
+ * A write guarded by a job lease's fencing token was refused because a newer lease holder already made it.
+ */
+public class StaleFencingTokenException extends RuntimeException {
+    public StaleFencingTokenException(String resource, long fencingToken) {
+        super("Fencing token " + fencingToken + " is stale for " + resource);
+    }
+}
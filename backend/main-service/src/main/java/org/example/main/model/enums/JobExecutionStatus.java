@@ -0,0 +1,8 @@
+package org.example.main.model.enums;
+
+public enum JobExecutionStatus {
+    SUCCEEDED,
+    FAILED,
+    /** The job finished but its lease had expired (and may have been taken over) before it did. */
+    LEASE_LOST
+}
@@ -0,0 +1,57 @@
+package org.example.main.model.job;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.example.main.model.enums.JobExecutionStatus;
+import org.hibernate.annotations.GenericGenerator;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * One run of a scheduled job on the node that held its lease.
+ */
+@Entity
+@Table(name = "job_executions", indexes = {
+        @Index(name = "idx_job_executions_job_started", columnList = "job_name, started_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobExecution {
+
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    private UUID id;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Column(nullable = false, length = 200)
+    private String owner;
+
+    @Column(name = "fencing_token", nullable = false)
+    private long fencingToken;
+
+    @Column(name = "started_at", nullable = false)
+    private OffsetDateTime startedAt;
+
+    @Column(name = "finished_at", nullable = false)
+    private OffsetDateTime finishedAt;
+
+    @Column(name = "duration_ms", nullable = false)
+    private long durationMs;
+
+    @Column(name = "rows_processed", nullable = false)
+    private long rowsProcessed;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobExecutionStatus status;
+
+    @Column(length = 1000)
+    private String error;
+}
@@ -0,0 +1,36 @@
+package org.example.main.model.job;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Cluster-wide lease for a scheduled job. A node may run the job only while it holds an unexpired
+ * lease; every acquisition bumps the fencing token so a stale holder can be told apart.
+ */
+@Entity
+@Table(name = "scheduled_job_leases")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScheduledJobLease {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(nullable = false, length = 200)
+    private String owner;
+
+    @Column(name = "fencing_token", nullable = false)
+    private long fencingToken;
+
+    @Column(name = "locked_at", nullable = false)
+    private OffsetDateTime lockedAt;
+
+    @Column(name = "lease_until", nullable = false)
+    private OffsetDateTime leaseUntil;
+}
@@ -14,7 +14,8 @@ import org.hibernate.annotations.GenericGenerator;
 @Entity
 @Table(name = "orders", indexes = {
         @Index(name = "idx_orders_table_id", columnList = "table_id"),
-        @Index(name = "idx_orders_created_at", columnList = "created_at")
+        @Index(name = "idx_orders_created_at", columnList = "created_at"),
+        @Index(name = "idx_orders_status_table_id", columnList = "status, table_id")
 })
 @Getter
 @Setter
@@ -58,6 +59,10 @@ public class OrderEntity {
     @Column(name = "kitchen_status")
     private String kitchenStatus;
 
+    /** Set once the order has been added to the daily sales rollup, so it is never counted twice. */
+    @Column(name = "sales_recorded_at")
+    private OffsetDateTime salesRecordedAt;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<OrderItem> items = new ArrayList<>();
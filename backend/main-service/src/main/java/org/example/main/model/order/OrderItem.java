@@ -11,7 +11,9 @@ import org.example.main.model.menu.MenuItem;
 import org.hibernate.annotations.GenericGenerator;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_order_id", columnList = "order_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -3,14 +3,19 @@ package org.example.main.model.recommendation;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
 @Table(name = "favorite_recommendations", indexes = {
         @Index(name = "idx_favrec_menu_item_id", columnList = "menu_item_id"),
-        @Index(name = "idx_favrec_created_by", columnList = "created_by")
+        @Index(name = "idx_favrec_created_by", columnList = "created_by"),
+        @Index(name = "idx_favrec_created_by_created_at", columnList = "created_by, created_at, id"),
+        @Index(name = "idx_favrec_created_at", columnList = "created_at")
 })
 @Getter
 @Setter
@@ -33,8 +38,9 @@ public class FavoriteRecommendation {
     @Column(columnDefinition = "text")
     private String description;
 
-    @Column(columnDefinition = "text")
-    private String ingredients;
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "ingredients_json", columnDefinition = "jsonb")
+    private List<String> ingredients;
 
     private Integer calories;
     private Integer protein;
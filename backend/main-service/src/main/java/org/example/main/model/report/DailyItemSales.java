@@ -0,0 +1,34 @@
+package org.example.main.model.report;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Per-day, per-menu-item sales of completed orders, priced from the OrderItem snapshot.
+ */
+@Entity
+@Table(name = "daily_item_sales")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyItemSales {
+
+    public static final UUID UNKNOWN_MENU_ITEM = new UUID(0L, 0L);
+
+    @EmbeddedId
+    private DailyItemSalesId id;
+
+    @Column(name = "menu_item_name", nullable = false)
+    private String menuItemName;
+
+    @Column(nullable = false)
+    private long quantity;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+}
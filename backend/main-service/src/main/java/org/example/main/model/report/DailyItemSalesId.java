@@ -0,0 +1,25 @@
+package org.example.main.model.report;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class DailyItemSalesId implements Serializable {
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    /** Items without a menu item reference are rolled up under {@link DailyItemSales#UNKNOWN_MENU_ITEM}. */
+    @Column(name = "menu_item_id", columnDefinition = "uuid", nullable = false)
+    private UUID menuItemId;
+}
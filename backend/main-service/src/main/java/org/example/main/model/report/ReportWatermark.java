@@ -0,0 +1,38 @@
+package org.example.main.model.report;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Position of the last row an incremental export has written, as a (created_at, id) cursor.
+ * Kept in the database so every replica continues from the same place.
+ */
+@Entity
+@Table(name = "report_watermarks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportWatermark {
+
+    @Id
+    @Column(name = "report_name", length = 100)
+    private String reportName;
+
+    @Column(name = "last_created_at", nullable = false)
+    private OffsetDateTime lastCreatedAt;
+
+    @Column(name = "last_id", nullable = false)
+    private UUID lastId;
+
+    // fencing token of the job lease that last moved the watermark
+    @Column(name = "fencing_token", nullable = false)
+    private long fencingToken;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+}
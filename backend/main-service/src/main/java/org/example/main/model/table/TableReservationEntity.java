@@ -8,7 +8,9 @@ import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "table_reservations")
+@Table(name = "table_reservations", indexes = {
+        @Index(name = "idx_reservations_table_start_end", columnList = "table_id, start_time, end_time")
+})
 @Data
 @Builder
 @NoArgsConstructor
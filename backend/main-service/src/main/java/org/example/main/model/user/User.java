@@ -37,9 +37,6 @@ public class User {
     @JoinColumn(name = "role_id")
     private Role role;
 
-    @Column(name = "session_table_number")
-    private Integer sessionTableNumber;
-
     @Column(name = "is_blocked", nullable = false)
     @Builder.Default
     private Boolean blocked = false;
@@ -0,0 +1,12 @@
+package org.example.main.repository.job;
+
+import org.example.main.model.job.JobExecution;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface JobExecutionRepository extends JpaRepository<JobExecution, UUID> {
+
+    List<JobExecution> findTop20ByJobNameOrderByStartedAtDesc(String jobName);
+}
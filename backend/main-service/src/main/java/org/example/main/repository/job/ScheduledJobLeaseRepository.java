@@ -0,0 +1,49 @@
+package org.example.main.repository.job;
+
+import org.example.main.model.job.ScheduledJobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ScheduledJobLeaseRepository extends JpaRepository<ScheduledJobLease, String> {
+
+    /**
+     * Takes the lease when it is free or expired and returns the new fencing token; returns nothing
+     * while another owner's lease is still valid. Times come from the database clock.
+     */
+    @Query(value = "INSERT INTO scheduled_job_leases (job_name, owner, fencing_token, locked_at, lease_until) " +
+            "VALUES (:jobName, :owner, 1, now(), now() + (:leaseMillis * interval '1 millisecond')) " +
+            "ON CONFLICT (job_name) DO UPDATE SET " +
+            "owner = EXCLUDED.owner, " +
+            "fencing_token = scheduled_job_leases.fencing_token + 1, " +
+            "locked_at = EXCLUDED.locked_at, " +
+            "lease_until = EXCLUDED.lease_until " +
+            "WHERE scheduled_job_leases.lease_until <= now() " +
+            "RETURNING fencing_token", nativeQuery = true)
+    List<Long> tryAcquire(@Param("jobName") String jobName,
+                          @Param("owner") String owner,
+                          @Param("leaseMillis") long leaseMillis);
+
+    /**
+     * Ends a lease early, but never before {@code locked_at + holdMillis}, so replicas that fire a
+     * little later skip the same run. No-op when the token no longer matches.
+     */
+    @Modifying
+    @Query(value = "UPDATE scheduled_job_leases " +
+            "SET lease_until = GREATEST(now(), locked_at + (:holdMillis * interval '1 millisecond')) " +
+            "WHERE job_name = :jobName AND owner = :owner AND fencing_token = :token", nativeQuery = true)
+    int release(@Param("jobName") String jobName,
+                @Param("owner") String owner,
+                @Param("token") long token,
+                @Param("holdMillis") long holdMillis);
+
+    @Query(value = "SELECT COUNT(*) FROM scheduled_job_leases " +
+            "WHERE job_name = :jobName AND owner = :owner AND fencing_token = :token AND lease_until > now()",
+            nativeQuery = true)
+    long countValid(@Param("jobName") String jobName,
+                    @Param("owner") String owner,
+                    @Param("token") long token);
+}
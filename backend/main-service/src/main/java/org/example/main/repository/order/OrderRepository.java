@@ -4,16 +4,23 @@ import org.example.main.model.menu.MenuItem;
 import org.example.main.model.order.OrderEntity;
 import org.example.main.model.enums.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface OrderRepository extends JpaRepository<OrderEntity, UUID> {
 
+    interface TableOrderCount {
+        UUID getTableId();
+        Long getOrderCount();
+    }
+
     List<OrderEntity> findByCreatedAtBetween(OffsetDateTime from, OffsetDateTime to);
 
     @Query("select distinct o from OrderEntity o " +
@@ -33,6 +40,11 @@ public interface OrderRepository extends JpaRepository<OrderEntity, UUID> {
 
     List<OrderEntity> findByStatusIn(List<OrderStatus> statuses);
 
+    @Query("select o.tableId as tableId, count(o) as orderCount from OrderEntity o " +
+            "where o.status in :statuses and o.tableId is not null " +
+            "group by o.tableId")
+    List<TableOrderCount> countByTableAndStatusIn(@Param("statuses") Collection<OrderStatus> statuses);
+
     @Query("select distinct o from OrderEntity o " +
             "left join fetch o.items oi " +
             "where o.customerId = :userId")
@@ -44,4 +56,22 @@ public interface OrderRepository extends JpaRepository<OrderEntity, UUID> {
     List<OrderEntity> findWithItemsByWaiterUserId(@Param("userId") UUID userId);
 
     Optional<OrderEntity> findByKitchenOrderId(UUID kitchenOrderId);
-}
\ No newline at end of file
+
+    /**
+     * Marks one order as added to the sales rollup unless someone already did; 1 means this caller
+     * won and must add it.
+     */
+    @Modifying
+    @Query(value = "UPDATE orders SET sales_recorded_at = :now WHERE id = :id AND sales_recorded_at IS NULL",
+            nativeQuery = true)
+    int claimSalesRecording(@Param("id") UUID id, @Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Query(value = "UPDATE orders SET sales_recorded_at = :now " +
+            "WHERE status IN (:statuses) AND created_at >= :fromTs AND created_at < :toTs " +
+            "AND sales_recorded_at IS NULL", nativeQuery = true)
+    int markSalesRecorded(@Param("statuses") Collection<Integer> statuses,
+                          @Param("fromTs") OffsetDateTime fromTs,
+                          @Param("toTs") OffsetDateTime toTs,
+                          @Param("now") OffsetDateTime now);
+}
@@ -1,12 +1,83 @@
 package org.example.main.repository.recommendation;
 
 import org.example.main.model.recommendation.FavoriteRecommendation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
+
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface FavoriteRecommendationRepository extends JpaRepository<FavoriteRecommendation, UUID> {
     List<FavoriteRecommendation> findByCreatedBy(UUID createdBy);
     List<FavoriteRecommendation> findByMenuItemId(UUID menuItemId);
-}
\ No newline at end of file
+
+    /**
+     * First page of a user's favorites; callers pass a Pageable sorted by createdAt desc, id desc.
+     */
+    List<FavoriteRecommendation> findByCreatedBy(UUID createdBy, Pageable pageable);
+
+    /**
+     * Keyset continuation: favorites strictly older than the (createdAt, id) cursor.
+     */
+    @Query("select f from FavoriteRecommendation f " +
+            "where f.createdBy = :createdBy " +
+            "and (f.createdAt < :createdAt or (f.createdAt = :createdAt and f.id < :id))")
+    List<FavoriteRecommendation> findByCreatedByBefore(@Param("createdBy") UUID createdBy,
+                                                       @Param("createdAt") OffsetDateTime createdAt,
+                                                       @Param("id") UUID id,
+                                                       Pageable pageable);
+
+    /**
+     * Deletes the favorite only when it belongs to {@code createdBy}; returns the number of rows removed.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from FavoriteRecommendation f where f.id = :id and f.createdBy = :createdBy")
+    int deleteByIdAndCreatedBy(@Param("id") UUID id, @Param("createdBy") UUID createdBy);
+
+    /**
+     * Ingredient frequency across a user's favorites, computed from the jsonb array.
+     * Each row is [ingredient (String), count (Number)].
+     */
+    @Query(value = "SELECT ing AS ingredient, COUNT(*) AS cnt " +
+            "FROM favorite_recommendations f " +
+            "CROSS JOIN LATERAL jsonb_array_elements_text(f.ingredients_json) AS ing " +
+            "WHERE f.created_by = :createdBy " +
+            "GROUP BY ing ORDER BY cnt DESC, ing LIMIT :limit", nativeQuery = true)
+    List<Object[]> countIngredientsByCreatedBy(@Param("createdBy") UUID createdBy, @Param("limit") int limit);
+
+    /**
+     * Forward-only read for exports, oldest first. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select f from FavoriteRecommendation f where f.createdAt > :since order by f.createdAt, f.id")
+    Stream<FavoriteRecommendation> streamCreatedAfter(@Param("since") OffsetDateTime since);
+
+    /**
+     * Keyset variant of {@link #streamCreatedAfter} for incremental exports: rows strictly after the
+     * (createdAt, id) cursor, so rows sharing the cursor's timestamp are neither repeated nor lost.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select f from FavoriteRecommendation f " +
+            "where f.createdAt > :createdAt or (f.createdAt = :createdAt and f.id > :id) " +
+            "order by f.createdAt, f.id")
+    Stream<FavoriteRecommendation> streamAfter(@Param("createdAt") OffsetDateTime createdAt, @Param("id") UUID id);
+}
@@ -0,0 +1,66 @@
+package org.example.main.repository.report;
+
+import org.example.main.model.report.DailyItemSales;
+import org.example.main.model.report.DailyItemSalesId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface DailyItemSalesRepository extends JpaRepository<DailyItemSales, DailyItemSalesId> {
+
+    interface ItemTotals {
+        UUID getMenuItemId();
+        String getMenuItemName();
+        Long getQuantity();
+        BigDecimal getRevenue();
+    }
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_item_sales (sales_date, menu_item_id, menu_item_name, quantity, revenue) " +
+            "VALUES (:salesDate, :menuItemId, :menuItemName, :quantity, :revenue) " +
+            "ON CONFLICT (sales_date, menu_item_id) DO UPDATE SET " +
+            "quantity = daily_item_sales.quantity + EXCLUDED.quantity, " +
+            "revenue = daily_item_sales.revenue + EXCLUDED.revenue, " +
+            "menu_item_name = EXCLUDED.menu_item_name", nativeQuery = true)
+    int upsertAdd(@Param("salesDate") LocalDate salesDate,
+                  @Param("menuItemId") UUID menuItemId,
+                  @Param("menuItemName") String menuItemName,
+                  @Param("quantity") long quantity,
+                  @Param("revenue") BigDecimal revenue);
+
+    @Query("select d.id.menuItemId as menuItemId, max(d.menuItemName) as menuItemName, " +
+            "sum(d.quantity) as quantity, sum(d.revenue) as revenue " +
+            "from DailyItemSales d where d.id.salesDate between :from and :to " +
+            "group by d.id.menuItemId order by sum(d.quantity) desc, sum(d.revenue) desc")
+    List<ItemTotals> findTopItems(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+    @Modifying
+    @Query("delete from DailyItemSales d where d.id.salesDate between :from and :to")
+    int deleteBySalesDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Rebuilds item rows for orders created in [fromTs, toTs) straight from order_items, grouped in SQL.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_item_sales (sales_date, menu_item_id, menu_item_name, quantity, revenue) " +
+            "SELECT CAST(o.created_at AT TIME ZONE :zone AS date), " +
+            "COALESCE(oi.menu_item_id, CAST('00000000-0000-0000-0000-000000000000' AS uuid)), " +
+            "MAX(oi.menu_item_name), SUM(oi.quantity), SUM(oi.price * oi.quantity) " +
+            "FROM orders o JOIN order_items oi ON oi.order_id = o.id " +
+            "WHERE o.status IN (:statuses) AND oi.status <> 'CANCELLED' " +
+            "AND o.created_at >= :fromTs AND o.created_at < :toTs " +
+            "GROUP BY 1, 2", nativeQuery = true)
+    int rebuildFromOrders(@Param("zone") String zone,
+                          @Param("statuses") Collection<Integer> statuses,
+                          @Param("fromTs") OffsetDateTime fromTs,
+                          @Param("toTs") OffsetDateTime toTs);
+}
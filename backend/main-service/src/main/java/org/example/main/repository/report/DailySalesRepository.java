@@ -0,0 +1,55 @@
+package org.example.main.repository.report;
+
+import org.example.main.model.report.DailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface DailySalesRepository extends JpaRepository<DailySales, LocalDate> {
+
+    interface Totals {
+        Long getOrderCount();
+        BigDecimal getRevenue();
+    }
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_sales (sales_date, order_count, revenue) " +
+            "VALUES (:salesDate, :orderCount, :revenue) " +
+            "ON CONFLICT (sales_date) DO UPDATE SET " +
+            "order_count = daily_sales.order_count + EXCLUDED.order_count, " +
+            "revenue = daily_sales.revenue + EXCLUDED.revenue", nativeQuery = true)
+    int upsertAdd(@Param("salesDate") LocalDate salesDate,
+                  @Param("orderCount") long orderCount,
+                  @Param("revenue") BigDecimal revenue);
+
+    @Query("select coalesce(sum(d.orderCount), 0) as orderCount, coalesce(sum(d.revenue), 0) as revenue " +
+            "from DailySales d where d.salesDate between :from and :to")
+    Totals sumBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    List<DailySales> findBySalesDateBetweenOrderBySalesDate(LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("delete from DailySales d where d.salesDate between :from and :to")
+    int deleteBySalesDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_sales (sales_date, order_count, revenue) " +
+            "SELECT x.sales_date, COUNT(*), SUM(x.revenue) FROM (" +
+            "  SELECT CAST(o.created_at AT TIME ZONE :zone AS date) AS sales_date, " +
+            "  COALESCE(SUM(oi.price * oi.quantity) FILTER (WHERE oi.status <> 'CANCELLED'), 0) AS revenue " +
+            "  FROM orders o LEFT JOIN order_items oi ON oi.order_id = o.id " +
+            "  WHERE o.status IN (:statuses) AND o.created_at >= :fromTs AND o.created_at < :toTs " +
+            "  GROUP BY o.id, 1" +
+            ") x GROUP BY x.sales_date", nativeQuery = true)
+    int rebuildFromOrders(@Param("zone") String zone,
+                          @Param("statuses") Collection<Integer> statuses,
+                          @Param("fromTs") OffsetDateTime fromTs,
+                          @Param("toTs") OffsetDateTime toTs);
+}
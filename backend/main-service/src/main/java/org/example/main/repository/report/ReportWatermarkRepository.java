@@ -0,0 +1,30 @@
+package org.example.main.repository.report;
+
+import org.example.main.model.report.ReportWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public interface ReportWatermarkRepository extends JpaRepository<ReportWatermark, String> {
+
+    /**
+     * Moves the watermark unless a holder with a newer fencing token already did; returns 0 then.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO report_watermarks (report_name, last_created_at, last_id, fencing_token, updated_at) " +
+            "VALUES (:reportName, :lastCreatedAt, :lastId, :token, now()) " +
+            "ON CONFLICT (report_name) DO UPDATE SET " +
+            "last_created_at = EXCLUDED.last_created_at, " +
+            "last_id = EXCLUDED.last_id, " +
+            "fencing_token = EXCLUDED.fencing_token, " +
+            "updated_at = EXCLUDED.updated_at " +
+            "WHERE report_watermarks.fencing_token <= EXCLUDED.fencing_token", nativeQuery = true)
+    int upsert(@Param("reportName") String reportName,
+               @Param("lastCreatedAt") OffsetDateTime lastCreatedAt,
+               @Param("lastId") UUID lastId,
+               @Param("token") long token);
+}
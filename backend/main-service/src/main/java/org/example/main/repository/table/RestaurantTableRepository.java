@@ -1,11 +1,44 @@
 package org.example.main.repository.table;
 
+import org.example.main.model.enums.TableStatus;
 import org.example.main.model.table.RestaurantTable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface RestaurantTableRepository extends JpaRepository<RestaurantTable, UUID> {
+
+    interface TableDeadline {
+        UUID getId();
+        Integer getTableNumber();
+        OffsetDateTime getOccupiedUntil();
+    }
+
     Optional<RestaurantTable> findByCode(String code);
     Optional<RestaurantTable> findByTableNumber(Integer tableNumber);
-}
\ No newline at end of file
+    boolean existsByTableNumber(Integer tableNumber);
+
+    @Query("select t.tableNumber from RestaurantTable t")
+    List<Integer> findAllTableNumbers();
+
+    @Query("select t.id as id, t.tableNumber as tableNumber, t.occupiedUntil as occupiedUntil " +
+            "from RestaurantTable t where t.status = :status and t.occupiedUntil is not null")
+    List<TableDeadline> findDeadlinesByStatus(@Param("status") TableStatus status);
+
+    /**
+     * Flips the given tables back to AVAILABLE if they are still occupied and their occupancy has
+     * run out, and returns the ones that changed. Tables extended in the meantime are left alone.
+     */
+    @Transactional
+    @Query(value = "UPDATE restaurant_tables SET status = 'AVAILABLE', occupied_until = NULL " +
+            "WHERE id IN (:ids) AND status = 'OCCUPIED' AND occupied_until <= now() " +
+            "RETURNING id, table_number AS \"tableNumber\", occupied_until AS \"occupiedUntil\"", nativeQuery = true)
+    List<TableDeadline> releaseExpired(@Param("ids") Collection<UUID> ids);
+}
@@ -2,6 +2,8 @@ package org.example.main.repository.table;
 
 import org.example.main.model.table.TableReservationEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -9,6 +11,26 @@ import java.util.UUID;
 
 public interface TableReservationRepository extends JpaRepository<TableReservationEntity, UUID> {
     List<TableReservationEntity> findByTableId(UUID tableId);
-    List<TableReservationEntity> findByTableIdAndEndTimeAfterAndStartTimeBefore(UUID tableId, OffsetDateTime endTime, OffsetDateTime startTime);
     List<TableReservationEntity> findByTableIdAndDeletedFalse(UUID tableId);
-}
\ No newline at end of file
+    List<TableReservationEntity> findByDeletedFalseAndEndTimeAfter(OffsetDateTime endTime);
+
+    /**
+     * Non-deleted reservations of all tables overlapping [from, to), ordered by start time.
+     * Served by the partial index on (start_time, end_time) WHERE NOT is_deleted.
+     */
+    @Query("select r from TableReservationEntity r " +
+            "where r.deleted = false and r.startTime < :to and r.endTime > :from " +
+            "order by r.startTime, r.tableId")
+    List<TableReservationEntity> findActiveOverlapping(@Param("from") OffsetDateTime from,
+                                                       @Param("to") OffsetDateTime to);
+
+    /**
+     * Non-deleted reservations of one table overlapping [from, to); uses (table_id, start_time, end_time).
+     */
+    @Query("select r from TableReservationEntity r " +
+            "where r.tableId = :tableId and r.deleted = false and r.startTime < :to and r.endTime > :from " +
+            "order by r.startTime")
+    List<TableReservationEntity> findActiveOverlappingForTable(@Param("tableId") UUID tableId,
+                                                               @Param("from") OffsetDateTime from,
+                                                               @Param("to") OffsetDateTime to);
+}
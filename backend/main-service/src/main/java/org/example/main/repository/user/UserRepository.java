@@ -5,10 +5,15 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByUsername(String username);
     @Query("select u.role from User u where u.id = :userId")
-    String findRoleByUserId(@Param("userId") UUID userId);}
\ No newline at end of file
+    String findRoleByUserId(@Param("userId") UUID userId);
+
+    @Query("select u.username from User u where u.blocked = true")
+    List<String> findBlockedUsernames();
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package org.example.main.scheduler;
+
+import org.example.main.model.enums.JobExecutionStatus;
+import org.example.main.model.job.JobExecution;
+import org.example.main.service.job.IJobLeaseService;
+import org.example.main.service.job.JobLease;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Runs a scheduled job on at most one replica at a time.
+ *
+ * The job's row in scheduled_job_leases is taken with a single conditional upsert; replicas that
+ * lose the race skip the run. The lease expires on its own after {@code lockAtMostFor} if the
+ * holder dies, and is kept for at least {@code lockAtLeastFor} so replicas whose timers fire a bit
+ * later do not repeat the same run. Each run that actually executes is written to job_executions.
+ */
+@Component
+public class ClusterJobRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterJobRunner.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @FunctionalInterface
+    public interface Job {
+        /**
+         * @param lease the lease this run holds; writes that must not come from a stale holder pass
+         *              its fencing token down and reject tokens older than the last one they saw
+         * @return number of rows processed, recorded in the execution history
+         */
+        long run(JobLease lease) throws Exception;
+    }
+
+    private final IJobLeaseService jobLeaseService;
+    private final String nodeId;
+
+    public ClusterJobRunner(IJobLeaseService jobLeaseService,
+                            @Value("${app.scheduled.node-id:}") String nodeId) {
+        this.jobLeaseService = jobLeaseService;
+        this.nodeId = nodeId == null || nodeId.isBlank()
+                ? ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8)
+                : nodeId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Runs {@code job} if this node wins its lease. Failures are logged and recorded, never thrown.
+     *
+     * @return true when the job ran here
+     */
+    public boolean runExclusively(String jobName, Duration lockAtMostFor, Duration lockAtLeastFor, Job job) {
+        Optional<JobLease> acquired;
+        try {
+            acquired = jobLeaseService.tryAcquire(jobName, nodeId, lockAtMostFor);
+        } catch (Exception ex) {
+            log.error("{}: could not acquire job lease, skipping run", jobName, ex);
+            return false;
+        }
+        if (acquired.isEmpty()) {
+            log.debug("{}: lease held by another node, skipping run", jobName);
+            return false;
+        }
+
+        JobLease lease = acquired.get();
+        OffsetDateTime startedAt = OffsetDateTime.now();
+        long t0 = System.nanoTime();
+        long rows = 0;
+        JobExecutionStatus status = JobExecutionStatus.SUCCEEDED;
+        String error = null;
+        try {
+            rows = job.run(lease);
+        } catch (Exception ex) {
+            status = JobExecutionStatus.FAILED;
+            error = truncate(ex.getClass().getSimpleName() + ": " + ex.getMessage());
+            log.error("{}: failed (fencingToken={})", jobName, lease.fencingToken(), ex);
+        }
+        long durationMs = (System.nanoTime() - t0) / 1_000_000L;
+
+        try {
+            if (status == JobExecutionStatus.SUCCEEDED && !jobLeaseService.isHeld(lease)) {
+                status = JobExecutionStatus.LEASE_LOST;
+                log.warn("{}: lease (fencingToken={}) expired after {} ms, another node may have run concurrently",
+                        jobName, lease.fencingToken(), durationMs);
+            }
+            jobLeaseService.recordExecution(JobExecution.builder()
+                    .jobName(jobName)
+                    .owner(nodeId)
+                    .fencingToken(lease.fencingToken())
+                    .startedAt(startedAt)
+                    .finishedAt(OffsetDateTime.now())
+                    .durationMs(durationMs)
+                    .rowsProcessed(rows)
+                    .status(status)
+                    .error(error)
+                    .build());
+            jobLeaseService.release(lease, lockAtLeastFor);
+        } catch (Exception ex) {
+            log.warn("{}: could not record execution or release lease (it will expire on its own): {}", jobName, ex.getMessage());
+        }
+        return true;
+    }
+
+    private static String truncate(String s) {
+        return s.length() <= MAX_ERROR_LENGTH ? s : s.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.main.scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed timer wheel keyed by an id, for large numbers of coarse deadlines.
+ *
+ * A key lives in the bucket of its deadline tick; {@link #advance()} walks the buckets between the
+ * last processed tick and now and returns the keys whose deadline has passed. The deadline map is
+ * the source of truth: rescheduling just overwrites it and leaves a stale bucket entry behind that
+ * is dropped when its bucket comes round, so schedule and cancel are O(1) and never scan.
+ * Deadlines further out than one revolution simply stay in their bucket until due.
+ */
+public class HashedTimerWheel<K> {
+
+    private final long tickMillis;
+    private final Set<K>[] buckets;
+    private final Map<K, Long> deadlines = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private volatile long lastTick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(Duration tick, int wheelSize, LongSupplier clockMillis) {
+        if (tick.toMillis() <= 0 || wheelSize <= 0) throw new IllegalArgumentException("tick and wheelSize must be positive");
+        this.tickMillis = tick.toMillis();
+        this.buckets = new Set[wheelSize];
+        for (int i = 0; i < wheelSize; i++) buckets[i] = ConcurrentHashMap.newKeySet();
+        this.clock = clockMillis;
+        this.lastTick = clockMillis.getAsLong() / tickMillis - 1;
+    }
+
+    /**
+     * Schedules (or moves) {@code key} to fire at {@code deadlineMillis}. Past deadlines fire on the next advance.
+     */
+    public void schedule(K key, long deadlineMillis) {
+        deadlines.put(key, deadlineMillis);
+        long tick = Math.max(deadlineMillis / tickMillis, lastTick + 1);
+        buckets[index(tick)].add(key);
+    }
+
+    public boolean cancel(K key) {
+        return deadlines.remove(key) != null;
+    }
+
+    public Long deadlineOf(K key) {
+        return deadlines.get(key);
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Processes every tick up to now and returns the keys that expired, each at most once.
+     * Meant to be called from a single thread.
+     */
+    public List<K> advance() {
+        long now = clock.getAsLong();
+        long nowTick = now / tickMillis;
+        long from = lastTick + 1;
+        if (nowTick < from) return List.of();
+        // after a long pause one pass over all buckets is enough
+        long to = Math.min(nowTick, from + buckets.length - 1);
+
+        List<K> expired = new ArrayList<>();
+        for (long tick = from; tick <= to; tick++) {
+            int idx = index(tick);
+            Iterator<K> it = buckets[idx].iterator();
+            while (it.hasNext()) {
+                K key = it.next();
+                Long deadline = deadlines.get(key);
+                if (deadline == null) {
+                    it.remove();
+                } else if (deadline <= now) {
+                    it.remove();
+                    if (deadlines.remove(key, deadline)) expired.add(key);
+                } else if (index(deadline / tickMillis) != idx) {
+                    // rescheduled into another bucket; that entry is the live one
+                    it.remove();
+                }
+                // otherwise due in a later revolution: leave it here
+            }
+        }
+        lastTick = nowTick;
+        return expired;
+    }
+
+    private int index(long tick) {
+        return (int) Math.floorMod(tick, (long) buckets.length);
+    }
+}
@@ -5,27 +5,39 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.example.main.security.VerifiedTokenCache.VerifiedToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.io.PrintWriter;
 
+/**
+ * Authenticates requests from the JWT alone: the token is verified once, its subject and roles
+ * claim become the principal, and the result is cached until exp so repeat requests with the same
+ * token skip signature verification. No user lookup happens here; blocked users and logged-out
+ * tokens are rejected through the in-memory {@link TokenRevocationList}.
+ */
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     private final JwtUtils jwtUtils;
-    private final UserDetailsService userDetailsService;
+    private final VerifiedTokenCache tokenCache;
+    private final TokenRevocationList revocations;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
 
-    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtils jwtUtils, VerifiedTokenCache tokenCache, TokenRevocationList revocations) {
         this.jwtUtils = jwtUtils;
-        this.userDetailsService = userDetailsService;
+        this.tokenCache = tokenCache;
+        this.revocations = revocations;
     }
 
     @Override
@@ -45,18 +57,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = jwtUtils.getTokenFromRequest(request);
 
             if (StringUtils.hasText(jwt)) {
-                
-                if (!jwtUtils.validateToken(jwt)) {
-                    log.debug("JWT present but invalid/expired for request {}: {}", path, jwt);
+                VerifiedToken verified = verify(jwt);
+                if (verified == null) {
+                    log.debug("JWT present but invalid/expired for request {}", path);
                     handleAuthFailure(request, response, "invalid_or_expired_token");
                     return;
                 }
+                if (revocations.isRevoked(verified.principal().getUsername(), verified.tokenId(), verified.issuedAtMillis())) {
+                    log.debug("Revoked JWT for user {} on request {}", verified.principal().getUsername(), path);
+                    handleAuthFailure(request, response, "token_revoked");
+                    return;
+                }
 
-                String username = jwtUtils.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                var auth = jwtUtils.buildAuthentication(userDetails, request);
+                var auth = new UsernamePasswordAuthenticationToken(
+                        verified.principal(), null, verified.principal().getAuthorities());
+                auth.setDetails(detailsSource.buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(auth);
-                log.debug("JWT authentication succeeded for user {}", username);
+                log.debug("JWT authentication succeeded for user {}", verified.principal().getUsername());
             } else {
                 log.trace("No JWT found in request {}", path);
             }
@@ -68,6 +85,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
+    private VerifiedToken verify(String jwt) {
+        VerifiedToken cached = tokenCache.get(jwt);
+        if (cached != null) return cached;
+
+        Claims claims;
+        try {
+            claims = jwtUtils.parseClaims(jwt);
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
+        if (!StringUtils.hasText(claims.getSubject())) return null;
+
+        // a token without exp is accepted as before but never cached
+        long expiresAt = claims.getExpiration() == null ? 0L : claims.getExpiration().getTime();
+        long issuedAt = JwtUtils.issuedAtMillis(claims);
+        VerifiedToken verified = new VerifiedToken(JwtPrincipal.from(claims, JwtUtils.authoritiesFrom(claims)),
+                claims.getId(), issuedAt, expiresAt);
+        tokenCache.put(jwt, verified);
+        return verified;
+    }
+
     private void handleAuthFailure(HttpServletRequest request, HttpServletResponse response, String reason) throws IOException {
         SecurityContextHolder.clearContext();
         try {
@@ -0,0 +1,66 @@
+package org.example.main.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Principal built from a verified JWT. Besides the username and authorities it carries the
+ * account and table context signed into the token at login, so handlers can use them without
+ * loading the user. The extra fields are null for tokens issued without them.
+ */
+@Getter
+public class JwtPrincipal extends User {
+
+    public static final String USER_ID = "userId";
+    public static final String ROLE = "role";
+    public static final String FULL_NAME = "fullName";
+    public static final String TABLE_NUMBER = "tableNumber";
+    public static final String TABLE_ID = "tableId";
+
+    private final UUID userId;
+    private final String role;
+    private final String fullName;
+    private final Integer tableNumber;
+    private final UUID tableId;
+
+    public JwtPrincipal(String username,
+                        Collection<? extends GrantedAuthority> authorities,
+                        UUID userId,
+                        String role,
+                        String fullName,
+                        Integer tableNumber,
+                        UUID tableId) {
+        super(username, "", authorities);
+        this.userId = userId;
+        this.role = role;
+        this.fullName = fullName;
+        this.tableNumber = tableNumber;
+        this.tableId = tableId;
+    }
+
+    public static JwtPrincipal from(Claims claims, Collection<? extends GrantedAuthority> authorities) {
+        Object tableNumber = claims.get(TABLE_NUMBER);
+        return new JwtPrincipal(
+                claims.getSubject(),
+                authorities,
+                uuid(claims.get(USER_ID)),
+                claims.get(ROLE, String.class),
+                claims.get(FULL_NAME, String.class),
+                tableNumber instanceof Number n ? n.intValue() : null,
+                uuid(claims.get(TABLE_ID)));
+    }
+
+    private static UUID uuid(Object value) {
+        if (value == null) return null;
+        try {
+            return UUID.fromString(value.toString());
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
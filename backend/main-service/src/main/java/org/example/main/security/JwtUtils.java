@@ -5,11 +5,7 @@ import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
@@ -17,11 +13,17 @@ import java.security.Key;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
 
+    // iat has whole seconds only; revocation cut-offs need the exact issue time
+    static final String ISSUED_AT_MS_CLAIM = "iat_ms";
+
     private final Key signingKey;
+    private final JwtParser parser;
     private final long jwtExpirationMs;
 
     public JwtUtils(
@@ -39,21 +41,35 @@ public class JwtUtils {
         }
 
         this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
         this.jwtExpirationMs = jwtExpirationMs;
     }
 
     public String generateToken(String username, List<String> roles) {
+        return generateToken(username, roles, Map.of());
+    }
+
+    /**
+     * Token with additional claims (see JwtPrincipal for the ones the API reads back). Null values
+     * are left out.
+     */
+    public String generateToken(String username, List<String> roles, Map<String, ?> extraClaims) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + jwtExpirationMs);
         JwtBuilder builder = Jwts.builder()
                 .setSubject(username)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(now)
+                .claim(ISSUED_AT_MS_CLAIM, now.getTime())
                 .setExpiration(expiry)
                 .signWith(signingKey, SignatureAlgorithm.HS256);
 
         if (roles != null && !roles.isEmpty()) {
             builder.claim("roles", roles);
         }
+        extraClaims.forEach((name, value) -> {
+            if (value != null) builder.claim(name, value instanceof UUID ? value.toString() : value);
+        });
 
         return builder.compact();
     }
@@ -62,28 +78,46 @@ public class JwtUtils {
         return generateToken(username, List.of());
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = parseClaims(token);
-        return claims.getSubject();
+    /**
+     * Verifies the signature and expiry and returns the claims. Throws JwtException (or
+     * IllegalArgumentException for a blank token) when the token is not acceptable.
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    public boolean validateToken(String token) {
-        try {
-            parseClaims(token);
-            return true;
-        } catch (ExpiredJwtException ex) {
-            return false;
-        } catch (JwtException | IllegalArgumentException ex) {
-            return false;
+    /**
+     * Authorities from the "roles" claim, either a list or a comma-separated string. Names are
+     * upper-cased and prefixed with ROLE_ the same way CustomUserDetailsService does it.
+     */
+    public static List<SimpleGrantedAuthority> authoritiesFrom(Claims claims) {
+        List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+        Object rolesClaim = claims.get("roles");
+        if (rolesClaim instanceof List<?>) {
+            for (Object r : (List<?>) rolesClaim) {
+                if (r != null && !r.toString().isBlank()) authorities.add(authority(r.toString()));
+            }
+        } else if (rolesClaim instanceof String) {
+            for (String p : ((String) rolesClaim).split(",")) {
+                if (!p.isBlank()) authorities.add(authority(p));
+            }
         }
+        return authorities;
+    }
+
+    /**
+     * When the token was issued, in epoch ms: the iat_ms claim, else the start of the iat second, else
+     * the epoch.
+     */
+    public static long issuedAtMillis(Claims claims) {
+        Object exact = claims.get(ISSUED_AT_MS_CLAIM);
+        if (exact instanceof Number n) return n.longValue();
+        return claims.getIssuedAt() == null ? 0L : claims.getIssuedAt().getTime();
     }
 
-    private Claims parseClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static SimpleGrantedAuthority authority(String role) {
+        String name = role.trim().toUpperCase();
+        return new SimpleGrantedAuthority(name.startsWith("ROLE_") ? name : "ROLE_" + name);
     }
 
     /**
@@ -140,39 +174,6 @@ public class JwtUtils {
         return null;
     }
 
-    public Authentication buildAuthentication(UserDetails userDetails, HttpServletRequest request) {
-        if (userDetails == null) return null;
-
-        List<SimpleGrantedAuthority> authorities = new ArrayList<>();
-        try {
-            String token = getTokenFromRequest(request);
-            if (token != null && !token.isBlank() && validateToken(token)) {
-                Claims claims = parseClaims(token);
-                Object rolesClaim = claims.get("roles");
-                if (rolesClaim instanceof List<?>) {
-                    for (Object r : (List<?>) rolesClaim) {
-                        if (r != null) authorities.add(new SimpleGrantedAuthority(r.toString()));
-                    }
-                } else if (rolesClaim instanceof String) {
-                    for (String p : ((String) rolesClaim).split(",")) {
-                        if (!p.isBlank()) authorities.add(new SimpleGrantedAuthority(p.trim()));
-                    }
-                }
-            }
-        } catch (Exception ignored) {
-        }
-
-        if (authorities.isEmpty()) {
-            userDetails.getAuthorities().forEach(a -> authorities.add(new SimpleGrantedAuthority(a.getAuthority())));
-        }
-
-        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
-        if (request != null) {
-            auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-        }
-        return auth;
-    }
-
     public long getJwtExpirationMs() {
         return jwtExpirationMs;
     }
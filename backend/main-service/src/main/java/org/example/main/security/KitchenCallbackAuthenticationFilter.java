@@ -0,0 +1,65 @@
+package org.example.main.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Authenticates kitchen-svc on its status callbacks by the shared secret it sends in
+ * {@code X-Callback-Secret} ({@code kitchen.callback.secret} on both services). A matching request
+ * runs as {@link #ROLE}; anything else is left unauthenticated and rejected by the security rules.
+ * With no secret configured the callbacks cannot be authenticated at all.
+ */
+public class KitchenCallbackAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(KitchenCallbackAuthenticationFilter.class);
+
+    public static final String HEADER = "X-Callback-Secret";
+    public static final String ROLE = "ROLE_KITCHEN_CALLBACK";
+    public static final String[] PATHS = {"/api/internal/orders/*/kitchen-ready", "/api/internal/orders/kitchen-ready"};
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final byte[] secret;
+
+    public KitchenCallbackAuthenticationFilter(String secret) {
+        this.secret = secret == null ? new byte[0] : secret.trim().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equalsIgnoreCase(request.getMethod())) return true;
+        String path = request.getRequestURI();
+        for (String pattern : PATHS) {
+            if (path != null && matcher.match(pattern, path)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String presented = request.getHeader(HEADER);
+        if (secret.length > 0 && presented != null
+                && MessageDigest.isEqual(secret, presented.trim().getBytes(StandardCharsets.UTF_8))) {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    "kitchen-svc", null, List.of(new SimpleGrantedAuthority(ROLE))));
+        } else {
+            log.warn("Kitchen callback {} without a valid {} header", request.getRequestURI(), HEADER);
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.main.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket throttles in front of password checks on /api/auth.
+ *
+ * Every attempt from a client IP takes a token from that IP's bucket. Failed logins take a token
+ * from the username's bucket, and an empty username bucket blocks further attempts for that
+ * account, so guessing one account's password is slowed down while shared accounts that log in
+ * successfully are not. Throttled attempts fail with 429 before any hashing happens. Buckets that
+ * have refilled completely are dropped periodically.
+ */
+@Component
+public class LoginThrottle {
+
+    private final int ipCapacity;
+    private final int ipRefillPerMinute;
+    private final int usernameCapacity;
+    private final int usernameRefillPerMinute;
+    private final LongSupplier nanoClock;
+
+    private final Map<String, TokenBucket> byIp = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> byUsername = new ConcurrentHashMap<>();
+
+    private final Counter ipThrottled;
+    private final Counter usernameThrottled;
+
+    @Autowired
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${app.security.login.ip-capacity:20}") int ipCapacity,
+                         @Value("${app.security.login.ip-refill-per-minute:20}") int ipRefillPerMinute,
+                         @Value("${app.security.login.username-capacity:5}") int usernameCapacity,
+                         @Value("${app.security.login.username-refill-per-minute:5}") int usernameRefillPerMinute) {
+        this(meterRegistry, ipCapacity, ipRefillPerMinute, usernameCapacity, usernameRefillPerMinute, System::nanoTime);
+    }
+
+    LoginThrottle(MeterRegistry meterRegistry,
+                  int ipCapacity,
+                  int ipRefillPerMinute,
+                  int usernameCapacity,
+                  int usernameRefillPerMinute,
+                  LongSupplier nanoClock) {
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerMinute = ipRefillPerMinute;
+        this.usernameCapacity = usernameCapacity;
+        this.usernameRefillPerMinute = usernameRefillPerMinute;
+        this.nanoClock = nanoClock;
+        this.ipThrottled = Counter.builder("auth.login.throttled").tag("by", "ip").register(meterRegistry);
+        this.usernameThrottled = Counter.builder("auth.login.throttled").tag("by", "username").register(meterRegistry);
+    }
+
+    /**
+     * Takes a token for the client IP and checks that the username (may be null) is not locked out.
+     */
+    public void checkAttempt(String clientIp, String username) {
+        if (clientIp != null && !consume(byIp, clientIp, ipCapacity, ipRefillPerMinute)) {
+            ipThrottled.increment();
+            throw tooMany();
+        }
+        if (username != null) {
+            // a retired bucket was full, so reading it is still right
+            TokenBucket user = byUsername.get(key(username));
+            if (user != null && !user.hasTokens(nanoClock.getAsLong())) {
+                usernameThrottled.increment();
+                throw tooMany();
+            }
+        }
+    }
+
+    public void recordFailure(String username) {
+        if (username == null) return;
+        consume(byUsername, key(username), usernameCapacity, usernameRefillPerMinute);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.login.sweep-ms:60000}")
+    public void sweep() {
+        long now = nanoClock.getAsLong();
+        sweep(byIp, now);
+        sweep(byUsername, now);
+    }
+
+    private boolean consume(Map<String, TokenBucket> buckets, String key, int capacity, int refillPerMinute) {
+        while (true) {
+            TokenBucket bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPerMinute, nanoClock.getAsLong()));
+            long now = nanoClock.getAsLong();
+            synchronized (bucket) {
+                if (!bucket.isRetired()) return bucket.tryConsume(now);
+            }
+            buckets.remove(key, bucket);
+        }
+    }
+
+    // retired under the bucket's lock first, so a token taken concurrently is never lost with the removed bucket
+    private static void sweep(Map<String, TokenBucket> buckets, long now) {
+        buckets.forEach((key, bucket) -> {
+            if (bucket.retireIfFull(now)) buckets.remove(key, bucket);
+        });
+    }
+
+    int trackedBuckets() {
+        return byIp.size() + byUsername.size();
+    }
+
+    private static String key(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static ResponseStatusException tooMany() {
+        return new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many sign-in attempts, please try again later");
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.main.security;
+
+/**
+ * Classic token bucket: holds up to {@code capacity} tokens and regains {@code refillPerMinute}
+ * per minute, continuously. Times are System.nanoTime() readings supplied by the caller.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long refilledAt;
+    private boolean retired;
+
+    TokenBucket(int capacity, int refillPerMinute, long now) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerMinute / 60_000_000_000.0;
+        this.tokens = capacity;
+        this.refilledAt = now;
+    }
+
+    synchronized boolean tryConsume(long now) {
+        refill(now);
+        if (tokens < 1.0) return false;
+        tokens -= 1.0;
+        return true;
+    }
+
+    synchronized boolean hasTokens(long now) {
+        refill(now);
+        return tokens >= 1.0;
+    }
+
+    synchronized boolean isFull(long now) {
+        refill(now);
+        return tokens >= capacity;
+    }
+
+    /**
+     * Marks a full bucket as dropped. Callers holding it take a fresh bucket instead of consuming
+     * from this one.
+     */
+    synchronized boolean retireIfFull(long now) {
+        if (!retired && isFull(now)) retired = true;
+        return retired;
+    }
+
+    synchronized boolean isRetired() {
+        return retired;
+    }
+
+    private void refill(long now) {
+        long elapsed = now - refilledAt;
+        if (elapsed <= 0) return;
+        tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+        refilledAt = now;
+    }
+}
@@ -0,0 +1,249 @@
+package org.example.main.security;
+
+import jakarta.annotation.PreDestroy;
+import org.example.main.model.user.TokenRevocation;
+import org.example.main.repository.user.TokenRevocationRepository;
+import org.example.main.repository.user.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tokens that must stop working before their exp: every token of a subject issued before a cut-off
+ * (blocked, deleted or re-roled users) and single tokens by jti (logout).
+ *
+ * Tokens are compared by their issue time in milliseconds (see JwtUtils#issuedAtMillis), and one
+ * issued at the cut-off counts as revoked. Tokens that only carry the second-precision iat are
+ * therefore revoked for the whole second the revocation happened in.
+ *
+ * Checked by JwtAuthenticationFilter on every request with two map lookups. Revocations are stored
+ * in token_revocations and loaded from there (plus currently blocked users) at startup, and are
+ * broadcast to the other replicas over Redis pub/sub. A periodic refresh re-reads the table, which
+ * covers messages missed while Redis was unavailable, and drops entries whose tokens have expired.
+ */
+@Component
+public class TokenRevocationList implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    static final String CHANNEL = "auth:token-revocations";
+
+    private final TokenRevocationRepository repository;
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final long tokenLifetimeMs;
+    private final Clock clock;
+
+    // subject -> tokens issued up to this instant (epoch ms) are revoked
+    private final Map<String, Long> revokedSubjects = new ConcurrentHashMap<>();
+    // jti -> the token's exp (epoch ms)
+    private final Map<String, Long> revokedTokenIds = new ConcurrentHashMap<>();
+
+    private RedisMessageListenerContainer container;
+
+    @Autowired
+    public TokenRevocationList(TokenRevocationRepository repository,
+                               UserRepository userRepository,
+                               JwtUtils jwtUtils,
+                               @Nullable StringRedisTemplate redisTemplate,
+                               @Value("${app.security.revocation.redis-enabled:true}") boolean redisEnabled) {
+        this(repository, userRepository, redisEnabled ? redisTemplate : null, jwtUtils.getJwtExpirationMs(), Clock.systemUTC());
+    }
+
+    TokenRevocationList(TokenRevocationRepository repository,
+                        UserRepository userRepository,
+                        @Nullable StringRedisTemplate redisTemplate,
+                        long tokenLifetimeMs,
+                        Clock clock) {
+        this.repository = repository;
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+        this.tokenLifetimeMs = tokenLifetimeMs;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            refresh();
+            long now = clock.millis();
+            userRepository.findBlockedUsernames().forEach(u -> applySubject(u, now));
+            log.info("Token revocation list loaded: {} subjects, {} tokens", revokedSubjects.size(), revokedTokenIds.size());
+        } catch (Exception ex) {
+            log.warn("Could not load token revocations: {}", ex.getMessage());
+        }
+        subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (container != null) {
+            try {
+                container.destroy();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
+    /**
+     * True when the token was revoked by id or was issued at or before its subject's cut-off.
+     * Tokens without iat are treated as issued at the epoch.
+     */
+    public boolean isRevoked(String subject, @Nullable String tokenId, long issuedAtMillis) {
+        if (tokenId != null && revokedTokenIds.containsKey(tokenId)) return true;
+        Long cutoff = revokedSubjects.get(subject);
+        return cutoff != null && issuedAtMillis <= cutoff;
+    }
+
+    /**
+     * Revokes every token issued to the subject so far. New tokens issued afterwards are unaffected.
+     */
+    public void revokeSubject(String subject) {
+        long now = clock.millis();
+        repository.save(TokenRevocation.builder()
+                .subject(subject)
+                .revokedAt(toOffset(now))
+                .expiresAt(toOffset(now + tokenLifetimeMs))
+                .build());
+        afterCommit(() -> {
+            applySubject(subject, now);
+            publish("S:" + now + ":" + subject);
+        });
+    }
+
+    public void revokeToken(String tokenId, long expiresAtMillis) {
+        long now = clock.millis();
+        if (expiresAtMillis <= now) return;
+        repository.save(TokenRevocation.builder()
+                .tokenId(tokenId)
+                .revokedAt(toOffset(now))
+                .expiresAt(toOffset(expiresAtMillis))
+                .build());
+        afterCommit(() -> {
+            applyToken(tokenId, expiresAtMillis);
+            publish("T:" + expiresAtMillis + ":" + tokenId);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-ms:60000}",
+            initialDelayString = "${app.security.revocation.refresh-ms:60000}")
+    public void refresh() {
+        prune();
+        OffsetDateTime now = toOffset(clock.millis());
+        for (TokenRevocation r : repository.findByExpiresAtAfter(now)) {
+            long expiresAt = r.getExpiresAt().toInstant().toEpochMilli();
+            if (r.getTokenId() != null) {
+                applyToken(r.getTokenId(), expiresAt);
+            } else if (r.getSubject() != null) {
+                applySubject(r.getSubject(), r.getRevokedAt().toInstant().toEpochMilli());
+            }
+        }
+        repository.deleteExpired(now);
+    }
+
+    /**
+     * Drops entries that can no longer match a live token.
+     */
+    void prune() {
+        long now = clock.millis();
+        revokedTokenIds.values().removeIf(exp -> exp <= now);
+        revokedSubjects.values().removeIf(cutoff -> cutoff + tokenLifetimeMs <= now);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        handle(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    void handle(String payload) {
+        String[] parts = payload.split(":", 3);
+        if (parts.length != 3) {
+            log.debug("Ignoring malformed revocation message {}", payload);
+            return;
+        }
+        try {
+            long at = Long.parseLong(parts[1]);
+            switch (parts[0]) {
+                case "S" -> applySubject(parts[2], at);
+                case "T" -> applyToken(parts[2], at);
+                default -> log.debug("Ignoring unknown revocation message {}", payload);
+            }
+        } catch (NumberFormatException ex) {
+            log.debug("Ignoring malformed revocation message {}", payload);
+        }
+    }
+
+    int size() {
+        return revokedSubjects.size() + revokedTokenIds.size();
+    }
+
+    private void applySubject(String subject, long revokedAtMillis) {
+        if (revokedAtMillis + tokenLifetimeMs > clock.millis()) revokedSubjects.merge(subject, revokedAtMillis, Math::max);
+    }
+
+    private void applyToken(String tokenId, long expiresAt) {
+        if (expiresAt > clock.millis()) revokedTokenIds.put(tokenId, expiresAt);
+    }
+
+    private void publish(String payload) {
+        if (redisTemplate == null) return;
+        try {
+            redisTemplate.convertAndSend(CHANNEL, payload);
+        } catch (Exception ex) {
+            log.warn("Could not broadcast token revocation, other replicas pick it up on refresh: {}", ex.getMessage());
+        }
+    }
+
+    private void subscribe() {
+        if (redisTemplate == null || redisTemplate.getConnectionFactory() == null) return;
+        try {
+            RedisMessageListenerContainer c = new RedisMessageListenerContainer();
+            c.setConnectionFactory(redisTemplate.getConnectionFactory());
+            c.addMessageListener(this, new ChannelTopic(CHANNEL));
+            c.afterPropertiesSet();
+            c.start();
+            container = c;
+        } catch (Exception ex) {
+            log.warn("Could not subscribe to token revocations, relying on periodic refresh: {}", ex.getMessage());
+        }
+    }
+
+    // the local view and the broadcast follow the caller's commit, so a rolled-back block revokes nothing
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static OffsetDateTime toOffset(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atOffset(ZoneOffset.UTC);
+    }
+}
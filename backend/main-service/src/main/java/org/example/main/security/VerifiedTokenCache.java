@@ -0,0 +1,90 @@
+package org.example.main.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified, so a token is parsed once and
+ * not on every request it is sent with.
+ *
+ * Entries are keyed by the SHA-256 of the token (the raw bearer token is not kept) and live until
+ * the token's exp. When full, expired entries are dropped first and then an arbitrary tenth.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    /**
+     * What the filter needs from a verified token: the principal with its authorities, and the jti
+     * and iat used for the revocation check.
+     */
+    public record VerifiedToken(JwtPrincipal principal, String tokenId, long issuedAtMillis, long expiresAtMillis) {
+    }
+
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+
+    public VerifiedTokenCache(@Value("${app.security.token-cache-size:10000}") int maxEntries) {
+        this(maxEntries, System::currentTimeMillis);
+    }
+
+    VerifiedTokenCache(int maxEntries, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    public VerifiedToken get(String token) {
+        if (maxEntries <= 0) return null;
+        String key = hash(token);
+        VerifiedToken v = entries.get(key);
+        if (v == null) return null;
+        if (v.expiresAtMillis() <= clock.getAsLong()) {
+            entries.remove(key, v);
+            return null;
+        }
+        return v;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (maxEntries <= 0 || verified.expiresAtMillis() <= clock.getAsLong()) return;
+        if (entries.size() >= maxEntries) makeRoom();
+        entries.put(hash(token), verified);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void makeRoom() {
+        long now = clock.getAsLong();
+        entries.values().removeIf(v -> v.expiresAtMillis() <= now);
+        int excess = entries.size() - (maxEntries - Math.max(1, maxEntries / 10));
+        Iterator<String> it = entries.keySet().iterator();
+        while (excess-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
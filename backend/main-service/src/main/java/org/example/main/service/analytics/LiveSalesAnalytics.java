@@ -0,0 +1,196 @@
+package org.example.main.service.analytics;
+
+import org.example.main.dto.response.analytics.LiveAnalyticsResponseDto;
+import org.example.main.dto.response.analytics.SalesWindowResponseDto;
+import org.example.main.dto.response.report.TopItemResponseDto;
+import org.example.main.event.OrderItemsAddedEvent;
+import org.example.main.model.order.OrderItem;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-memory, process-local sales telemetry for the last few hours.
+ *
+ * Every order line the order service commits lands in per-minute ring buffers (one global,
+ * one per menu item) and in that minute's space-saving sketch. Window queries merge the sketches
+ * to find the heavy hitters and read exact quantities back from the per-item rings; nothing here
+ * touches the database. Counts restart empty when the process restarts.
+ */
+@Component
+public class LiveSalesAnalytics {
+
+    static final int[] WINDOWS_MINUTES = {15, 60, 240};
+    static final int TOP_ITEMS = 10;
+    static final int RING_MINUTES = 256;
+    static final int SKETCH_CAPACITY = 64;
+
+    private static final int ORDERS = 0;
+    private static final int REVENUE_CENTS = 1;
+    private static final int QUANTITY = 0;
+
+    private final Clock clock;
+    private final MinuteRing totals = new MinuteRing(RING_MINUTES, 2);
+    private final Map<UUID, MinuteRing> itemRings = new ConcurrentHashMap<>();
+    private final Map<UUID, String> itemNames = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<MinuteSketch> sketches = new AtomicReferenceArray<>(RING_MINUTES);
+
+    public LiveSalesAnalytics() {
+        this(Clock.systemUTC());
+    }
+
+    LiveSalesAnalytics(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Counts committed lines only: a rolled-back order never shows up, and lines appended to an open
+     * order add quantity and revenue without counting as another order.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderItemsAdded(OrderItemsAddedEvent event) {
+        if (event.isNewOrder()) {
+            recordOrder(event.getItems());
+        } else {
+            recordItems(event.getItems());
+        }
+    }
+
+    /**
+     * Records one new order and its lines.
+     */
+    public void recordOrder(Collection<OrderItem> lines) {
+        record(lines, 1);
+    }
+
+    /**
+     * Records lines added to an order that was already counted.
+     */
+    public void recordItems(Collection<OrderItem> lines) {
+        record(lines, 0);
+    }
+
+    private void record(Collection<OrderItem> lines, int orders) {
+        if (lines == null || lines.isEmpty()) return;
+        long minute = currentMinute();
+        long orderCents = 0;
+        MinuteSketch sketch = sketchFor(minute);
+        for (OrderItem line : lines) {
+            if (line == null || line.getQuantity() <= 0) continue;
+            UUID menuItemId = line.getMenuItemId();
+            long cents = toCents(line.getPrice(), line.getQuantity());
+            orderCents += cents;
+            if (menuItemId == null) continue;
+            if (line.getMenuItemName() != null) itemNames.putIfAbsent(menuItemId, line.getMenuItemName());
+            itemRings.computeIfAbsent(menuItemId, k -> new MinuteRing(RING_MINUTES, 2))
+                    .addAll(minute, line.getQuantity(), cents);
+            sketch.sketch.offer(menuItemId, line.getQuantity());
+        }
+        totals.addAll(minute, orders, orderCents);
+    }
+
+    public LiveAnalyticsResponseDto snapshot() {
+        long now = currentMinute();
+        List<SalesWindowResponseDto> windows = new ArrayList<>(WINDOWS_MINUTES.length);
+        for (int minutes : WINDOWS_MINUTES) {
+            windows.add(window(now, minutes));
+        }
+
+        int seriesLength = WINDOWS_MINUTES[0];
+        List<Long> ordersSeries = new ArrayList<>(seriesLength);
+        List<BigDecimal> revenueSeries = new ArrayList<>(seriesLength);
+        for (long m = now - seriesLength + 1; m <= now; m++) {
+            ordersSeries.add(totals.valueAt(m, ORDERS));
+            revenueSeries.add(fromCents(totals.valueAt(m, REVENUE_CENTS)));
+        }
+
+        return LiveAnalyticsResponseDto.builder()
+                .generatedAt(OffsetDateTime.ofInstant(Instant.ofEpochSecond(now * 60), ZoneOffset.UTC))
+                .ordersPerMinuteSeries(ordersSeries)
+                .revenuePerMinuteSeries(revenueSeries)
+                .windows(windows)
+                .build();
+    }
+
+    SalesWindowResponseDto window(long now, int minutes) {
+        long orders = totals.sum(now, minutes, ORDERS);
+        long cents = totals.sum(now, minutes, REVENUE_CENTS);
+
+        SpaceSavingSketch<UUID> merged = new SpaceSavingSketch<>(SKETCH_CAPACITY);
+        for (int i = 0; i < sketches.length(); i++) {
+            MinuteSketch s = sketches.get(i);
+            if (s != null && s.minute > now - minutes && s.minute <= now) merged.mergeFrom(s.sketch);
+        }
+
+        List<TopItemResponseDto> top = new ArrayList<>(TOP_ITEMS);
+        for (SpaceSavingSketch.Entry<UUID> e : merged.top(TOP_ITEMS)) {
+            MinuteRing ring = itemRings.get(e.key);
+            long quantity = ring != null ? ring.sum(now, minutes, QUANTITY) : e.count;
+            long itemCents = ring != null ? ring.sum(now, minutes, REVENUE_CENTS) : 0L;
+            top.add(TopItemResponseDto.builder()
+                    .menuItemId(e.key)
+                    .menuItemName(itemNames.get(e.key))
+                    .quantity(quantity)
+                    .revenue(fromCents(itemCents))
+                    .build());
+        }
+        top.sort((a, b) -> Long.compare(b.getQuantity(), a.getQuantity()));
+
+        BigDecimal revenue = fromCents(cents);
+        return SalesWindowResponseDto.builder()
+                .minutes(minutes)
+                .orders(orders)
+                .revenue(revenue)
+                .ordersPerMinute(BigDecimal.valueOf(orders).divide(BigDecimal.valueOf(minutes), 2, RoundingMode.HALF_UP))
+                .revenuePerMinute(revenue.divide(BigDecimal.valueOf(minutes), 2, RoundingMode.HALF_UP))
+                .topItems(top)
+                .build();
+    }
+
+    private MinuteSketch sketchFor(long minute) {
+        int idx = (int) Math.floorMod(minute, (long) RING_MINUTES);
+        while (true) {
+            MinuteSketch current = sketches.get(idx);
+            if (current != null && current.minute == minute) return current;
+            if (current != null && current.minute > minute) return new MinuteSketch(minute);
+            MinuteSketch fresh = new MinuteSketch(minute);
+            if (sketches.compareAndSet(idx, current, fresh)) return fresh;
+        }
+    }
+
+    private long currentMinute() {
+        return Math.floorDiv(clock.millis(), 60_000L);
+    }
+
+    private static long toCents(BigDecimal price, int quantity) {
+        if (price == null) return 0L;
+        return price.multiply(BigDecimal.valueOf(quantity)).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static final class MinuteSketch {
+        final long minute;
+        final SpaceSavingSketch<UUID> sketch = new SpaceSavingSketch<>(SKETCH_CAPACITY);
+
+        MinuteSketch(long minute) {
+            this.minute = minute;
+        }
+    }
+}
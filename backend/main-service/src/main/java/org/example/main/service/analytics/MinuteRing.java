@@ -0,0 +1,77 @@
+package org.example.main.service.analytics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed ring of per-minute counter slots. Each slot is stamped with the epoch minute it belongs to;
+ * a writer landing on a stale slot swaps in a fresh one with a CAS, so recording never blocks.
+ * Reads sum the slots whose stamp falls inside the requested window.
+ */
+final class MinuteRing {
+
+    static final class Slot {
+        final long minute;
+        final LongAdder[] counters;
+
+        Slot(long minute, int width) {
+            this.minute = minute;
+            this.counters = new LongAdder[width];
+            for (int i = 0; i < width; i++) counters[i] = new LongAdder();
+        }
+    }
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final int width;
+
+    MinuteRing(int size, int width) {
+        this.slots = new AtomicReferenceArray<>(size);
+        this.width = width;
+    }
+
+    void add(long minute, int counter, long delta) {
+        slotFor(minute).counters[counter].add(delta);
+    }
+
+    void addAll(long minute, long... deltas) {
+        Slot s = slotFor(minute);
+        for (int i = 0; i < deltas.length; i++) s.counters[i].add(deltas[i]);
+    }
+
+    /**
+     * Sums counter over the minutes (nowMinute - minutes, nowMinute].
+     */
+    long sum(long nowMinute, int minutes, int counter) {
+        long total = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            Slot s = slots.get(i);
+            if (s != null && s.minute > nowMinute - minutes && s.minute <= nowMinute) {
+                total += s.counters[counter].sum();
+            }
+        }
+        return total;
+    }
+
+    long valueAt(long minute, int counter) {
+        Slot s = slots.get(index(minute));
+        return s != null && s.minute == minute ? s.counters[counter].sum() : 0L;
+    }
+
+    private Slot slotFor(long minute) {
+        int idx = index(minute);
+        while (true) {
+            Slot current = slots.get(idx);
+            if (current != null && current.minute == minute) return current;
+            if (current != null && current.minute > minute) {
+                // late write for a minute that has already rotated out of the ring; drop it
+                return new Slot(minute, width);
+            }
+            Slot fresh = new Slot(minute, width);
+            if (slots.compareAndSet(idx, current, fresh)) return fresh;
+        }
+    }
+
+    private int index(long minute) {
+        return (int) Math.floorMod(minute, (long) slots.length());
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.main.service.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-saving heavy-hitters summary (Metwally et al.). Tracks at most {@code capacity} keys; when full,
+ * the minimum counter is evicted and its count inherited as the newcomer's error bound. Any key whose
+ * true weight exceeds total/capacity is guaranteed to be present. Sketches are mergeable, which is how
+ * per-minute sketches are combined into a window.
+ */
+final class SpaceSavingSketch<K> {
+
+    static final class Entry<K> {
+        final K key;
+        long count;
+        long error;
+
+        Entry(K key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    private final int capacity;
+    private final Map<K, Entry<K>> entries;
+
+    SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+        this.entries = new HashMap<>(capacity * 2);
+    }
+
+    synchronized void offer(K key, long weight) {
+        offerUnsynchronized(key, weight, 0L);
+    }
+
+    private void offerUnsynchronized(K key, long weight, long error) {
+        Entry<K> e = entries.get(key);
+        if (e != null) {
+            e.count += weight;
+            e.error += error;
+            return;
+        }
+        if (entries.size() < capacity) {
+            entries.put(key, new Entry<>(key, weight, error));
+            return;
+        }
+        Entry<K> min = null;
+        for (Entry<K> candidate : entries.values()) {
+            if (min == null || candidate.count < min.count) min = candidate;
+        }
+        entries.remove(min.key);
+        entries.put(key, new Entry<>(key, min.count + weight, min.count + error));
+    }
+
+    /**
+     * Adds another sketch's counters into this one.
+     */
+    void mergeFrom(SpaceSavingSketch<K> other) {
+        List<Entry<K>> copy;
+        synchronized (other) {
+            copy = new ArrayList<>(other.entries.size());
+            for (Entry<K> e : other.entries.values()) copy.add(new Entry<>(e.key, e.count, e.error));
+        }
+        synchronized (this) {
+            for (Entry<K> e : copy) offerUnsynchronized(e.key, e.count, e.error);
+        }
+    }
+
+    synchronized List<Entry<K>> top(int n) {
+        List<Entry<K>> all = new ArrayList<>(entries.size());
+        for (Entry<K> e : entries.values()) all.add(new Entry<>(e.key, e.count, e.error));
+        all.sort(Comparator.comparingLong((Entry<K> e) -> e.count).reversed());
+        return all.size() > n ? new ArrayList<>(all.subList(0, n)) : all;
+    }
+}
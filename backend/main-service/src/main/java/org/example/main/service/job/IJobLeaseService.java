@@ -0,0 +1,26 @@
+package org.example.main.service.job;
+
+import org.example.main.model.job.JobExecution;
+
+import java.time.Duration;
+import java.util.Optional;
+
+public interface IJobLeaseService {
+
+    /**
+     * Acquires the job's lease for at most {@code lockAtMostFor}; empty while another node holds it.
+     */
+    Optional<JobLease> tryAcquire(String jobName, String owner, Duration lockAtMostFor);
+
+    /**
+     * Gives the lease back, keeping it for at least {@code lockAtLeastFor} after acquisition.
+     */
+    void release(JobLease lease, Duration lockAtLeastFor);
+
+    /**
+     * True while {@code lease} is still the current, unexpired lease of its job.
+     */
+    boolean isHeld(JobLease lease);
+
+    void recordExecution(JobExecution execution);
+}
@@ -0,0 +1,6 @@
+package org.example.main.service.job;
+
+/**
+ * A lease held by this node. {@code fencingToken} grows with every acquisition of the same job.
+ */
+public record JobLease(String jobName, String owner, long fencingToken) {}
@@ -0,0 +1,49 @@
+package org.example.main.service.job;
+
+import org.example.main.model.job.JobExecution;
+import org.example.main.repository.job.JobExecutionRepository;
+import org.example.main.repository.job.ScheduledJobLeaseRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class JobLeaseService implements IJobLeaseService {
+
+    private final ScheduledJobLeaseRepository leaseRepository;
+    private final JobExecutionRepository executionRepository;
+
+    public JobLeaseService(ScheduledJobLeaseRepository leaseRepository, JobExecutionRepository executionRepository) {
+        this.leaseRepository = leaseRepository;
+        this.executionRepository = executionRepository;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<JobLease> tryAcquire(String jobName, String owner, Duration lockAtMostFor) {
+        List<Long> token = leaseRepository.tryAcquire(jobName, owner, lockAtMostFor.toMillis());
+        return token.isEmpty() ? Optional.empty() : Optional.of(new JobLease(jobName, owner, token.get(0)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(JobLease lease, Duration lockAtLeastFor) {
+        leaseRepository.release(lease.jobName(), lease.owner(), lease.fencingToken(), lockAtLeastFor.toMillis());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public boolean isHeld(JobLease lease) {
+        return leaseRepository.countValid(lease.jobName(), lease.owner(), lease.fencingToken()) > 0;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordExecution(JobExecution execution) {
+        executionRepository.save(execution);
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.main.service.order;
+
+import org.example.main.event.OrderStatusChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live count of active (NEW / PROCESSING / READY) orders per table.
+ *
+ * Adjusted after commit by order lifecycle events; periodically replaced by the grouped count from
+ * the database so missed events or changes made outside the service cannot drift for long.
+ */
+@Component
+public class OpenOrderCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenOrderCounter.class);
+
+    private final ConcurrentHashMap<UUID, Long> openByTable = new ConcurrentHashMap<>();
+    private volatile OffsetDateTime lastReconciledAt;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.getTableId() == null) return;
+        if (event.becameActive()) {
+            openByTable.merge(event.getTableId(), 1L, Long::sum);
+        } else if (event.becameInactive()) {
+            // drop the entry at zero so the map only holds tables with open orders
+            openByTable.computeIfPresent(event.getTableId(), (k, v) -> v > 1 ? v - 1 : null);
+        }
+    }
+
+    /**
+     * Replaces the live counts with authoritative ones and returns how many tables disagreed.
+     */
+    public int reconcile(Map<UUID, Long> authoritative) {
+        int drift = 0;
+        for (Map.Entry<UUID, Long> e : authoritative.entrySet()) {
+            Long live = openByTable.get(e.getKey());
+            if (live == null || !live.equals(e.getValue())) drift++;
+        }
+        for (UUID tableId : openByTable.keySet()) {
+            if (!authoritative.containsKey(tableId)) drift++;
+        }
+        openByTable.keySet().retainAll(authoritative.keySet());
+        authoritative.forEach((tableId, count) -> {
+            if (count != null && count > 0) openByTable.put(tableId, count);
+            else openByTable.remove(tableId);
+        });
+        lastReconciledAt = OffsetDateTime.now();
+        if (drift > 0) {
+            log.info("OpenOrderCounter: reconciled, {} table counts corrected", drift);
+        }
+        return drift;
+    }
+
+    public long openOrders(UUID tableId) {
+        return openByTable.getOrDefault(tableId, 0L);
+    }
+
+    public Map<UUID, Long> snapshot() {
+        return Collections.unmodifiableMap(new HashMap<>(openByTable));
+    }
+
+    public OffsetDateTime getLastReconciledAt() {
+        return lastReconciledAt;
+    }
+}
@@ -4,6 +4,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
 import org.example.main.dto.kitchen.KitchenInfoDto;
+import org.example.main.event.OrderItemsAddedEvent;
+import org.example.main.event.OrderPlacedEvent;
+import org.example.main.event.OrderStatusChangedEvent;
 import org.example.main.dto.request.order.OrderRequestDto;
 import org.example.main.dto.request.order.OrderRequestDto.OrderItemRequest;
 import org.example.main.dto.response.order.OrderDetailsResponseDto;
@@ -25,7 +28,8 @@ import org.example.main.repository.order.OrderItemRepository;
 import org.example.main.repository.order.OrderRepository;
 import org.example.main.repository.role.RoleRepository;
 import org.example.main.repository.user.UserRepository;
-import org.example.main.service.table.RestaurantTableService;
+import org.example.main.service.report.ISalesRollupService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -46,24 +50,27 @@ public class OrderService implements IOrderService {
     private final MenuItemRepository menuItemRepository;
     private final UserRepository userRepository;
     private final KitchenClient kitchenClient;
-    private final RestaurantTableService restaurantTableService;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final RoleRepository roleRepository;
+    private final ISalesRollupService salesRollupService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public OrderService(OrderRepository orderRepository,
                         MenuItemRepository menuItemRepository,
                         UserRepository userRepository,
                         KitchenClient kitchenClient,
-                        RestaurantTableService restaurantTableService,
                         RoleRepository roleRepository,
-                        OrderItemRepository orderItemRepository) {
+                        OrderItemRepository orderItemRepository,
+                        ISalesRollupService salesRollupService,
+                        ApplicationEventPublisher eventPublisher) {
         this.orderRepository = orderRepository;
         this.menuItemRepository = menuItemRepository;
         this.userRepository = userRepository;
         this.kitchenClient = kitchenClient;
-        this.restaurantTableService = restaurantTableService;
         this.roleRepository = roleRepository;
         this.orderItemRepository = orderItemRepository;
+        this.salesRollupService = salesRollupService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -129,10 +136,13 @@ public class OrderService implements IOrderService {
             existing.setTotalAmount(existing.getTotalAmount() == null ? newItemsTotal : existing.getTotalAmount().add(newItemsTotal));
             existing.setUpdatedAt(OffsetDateTime.now());
 
-            
+            OrderStatus previousStatus = existing.getStatus();
             existing.setStatus(OrderStatus.PROCESSING);
 
             OrderEntity saved = orderRepository.save(existing);
+            publishStatusChange(existing, previousStatus);
+            // live analytics are recorded after commit by LiveSalesAnalytics
+            eventPublisher.publishEvent(new OrderItemsAddedEvent(saved.getId(), false, List.copyOf(newItems)));
             log.info("Merged {} new items into existing active order {} for customer={}", newItems.size(), saved.getId(), customerId);
 
             List<OrderItem> kitchenItems = newItems.stream()
@@ -171,14 +181,10 @@ public class OrderService implements IOrderService {
 
         OrderEntity saved = orderRepository.save(order);
         log.info("Order created: {} total={} by customer={}", saved.getId(), saved.getTotalAmount(), saved.getCustomerId());
-
-        try {
-            if (saved.getTableNumber() != null) {
-                restaurantTableService.occupyTable(saved.getTableNumber(), 60);
-            }
-        } catch (Exception ex) {
-            log.warn("Failed to mark table {} occupied: {}", saved.getTableNumber(), ex.getMessage());
-        }
+        publishStatusChange(saved, null);
+        // table occupancy is applied after commit by OrderTableOccupancy
+        eventPublisher.publishEvent(new OrderPlacedEvent(saved.getId(), saved.getTableId(), saved.getTableNumber(), saved.getCreatedAt()));
+        eventPublisher.publishEvent(new OrderItemsAddedEvent(saved.getId(), true, List.copyOf(newItems)));
 
         try {
             List<OrderItem> allSavedItems = saved.getItems() == null ? Collections.emptyList() : saved.getItems();
@@ -356,9 +362,11 @@ public class OrderService implements IOrderService {
         OrderEntity o = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
 
+        OrderStatus previousStatus = o.getStatus();
         o.setStatus(OrderStatus.CANCELLED);
         o.setUpdatedAt(OffsetDateTime.now());
         orderRepository.save(o);
+        publishStatusChange(o, previousStatus);
 
         UUID kitchenOrderId = o.getKitchenOrderId();
         if (kitchenOrderId != null) {
@@ -386,8 +394,11 @@ public class OrderService implements IOrderService {
     public void updateStatus(UUID orderId, OrderStatus status) {
         OrderEntity o = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
+        OrderStatus previousStatus = o.getStatus();
         o.setStatus(status);
+        salesRollupService.recordCompletedOrder(o);
         orderRepository.save(o);
+        publishStatusChange(o, previousStatus);
     }
 
     @Override
@@ -492,6 +503,7 @@ public class OrderService implements IOrderService {
         OrderEntity order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
 
+        OrderStatus previousStatus = order.getStatus();
         order.setKitchenStatus(kitchenStatus);
         if (kitchenOrderId != null) {
             order.setKitchenOrderId(kitchenOrderId);
@@ -536,11 +548,18 @@ public class OrderService implements IOrderService {
             order.setStatus(OrderStatus.COMPLETED);
         }
 
+        salesRollupService.recordCompletedOrder(order);
         orderRepository.save(order);
+        publishStatusChange(order, previousStatus);
         log.info("Order {} kitchenStatus updated to {} (kitchenOrderId={})", orderId, kitchenStatus, kitchenOrderId);
 
     }
 
+    private void publishStatusChange(OrderEntity order, OrderStatus previousStatus) {
+        if (order == null || order.getStatus() == previousStatus) return;
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId(), order.getTableId(), previousStatus, order.getStatus()));
+    }
+
     private void notifyKitchen(OrderEntity saved, List<OrderItem> kitchenItems) {
         kitchenItems.forEach(it -> log.info("KitchenItem - menuItemId={}, name={}, quantity={}",
                 it.getMenuItemId(), it.getMenuItemName(), it.getQuantity()));
@@ -613,10 +632,12 @@ public class OrderService implements IOrderService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
 
         if (o.getWaiterId() == null) {
+            OrderStatus previousStatus = o.getStatus();
             o.setWaiterId(waiterId);
             o.setStatus(org.example.main.model.enums.OrderStatus.PROCESSING);
             o.setUpdatedAt(OffsetDateTime.now());
             orderRepository.save(o);
+            publishStatusChange(o, previousStatus);
             return true;
         }
         return false;
@@ -747,12 +768,14 @@ public class OrderService implements IOrderService {
             }
         }
 
-        
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(newStatus);
         order.setUpdatedAt(OffsetDateTime.now());
+        salesRollupService.recordCompletedOrder(order);
 
         
         orderRepository.save(order);
+        publishStatusChange(order, previousStatus);
 
         log.info("Order {} status updated -> {}", orderId, newStatus);
     }
@@ -39,7 +39,7 @@ public class LocalModelRecommendationService {
         this.cliPath = cliPath;
         this.cliTimeoutMs = cliTimeoutMs;
         this.webClient = webClientBuilder.build();
-        this.httpUrl = httpUrl;
+        this.httpUrl = resolveGenerateUrl(httpUrl);
         this.httpTimeout = Duration.ofMillis(httpTimeoutMs);
         this.objectMapper = objectMapper;
     }
@@ -89,7 +89,7 @@ public class LocalModelRecommendationService {
         );
 
         return webClient.post()
-                .uri("http://localhost:11434/api/generate")
+                .uri(httpUrl)
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(body)
                 .retrieve()
@@ -107,6 +107,13 @@ public class LocalModelRecommendationService {
     }
 
 
+    private static String resolveGenerateUrl(String url) {
+        if (url == null || url.isBlank()) return "http://localhost:11434/api/generate";
+        String trimmed = url.trim();
+        if (trimmed.endsWith("/api/generate")) return trimmed;
+        return trimmed.replaceAll("/+$", "") + "/api/generate";
+    }
+
     private String normalizeOutput(String raw) {
 
         if (raw == null) return "";
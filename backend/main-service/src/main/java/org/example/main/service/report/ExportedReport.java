@@ -0,0 +1,8 @@
+package org.example.main.service.report;
+
+import java.nio.file.Path;
+
+/**
+ * A report file written by a scheduled export and the number of data rows it contains.
+ */
+public record ExportedReport(Path path, long rows) {}
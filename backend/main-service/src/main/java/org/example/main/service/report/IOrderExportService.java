@@ -0,0 +1,16 @@
+package org.example.main.service.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.OffsetDateTime;
+
+public interface IOrderExportService {
+
+    /**
+     * Streams one row per order line for orders created in [from, to) into {@code out}, oldest first.
+     * Orders without lines are written once with empty item columns. The stream is flushed but not closed.
+     *
+     * @return number of rows written
+     */
+    long export(OutputStream out, OffsetDateTime from, OffsetDateTime to, OrderExportFormat format) throws IOException;
+}
@@ -0,0 +1,27 @@
+package org.example.main.service.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+public interface IRecommendationReportService {
+
+    /**
+     * Streams favorites created after {@code since} (all when null) as CSV into {@code out}.
+     * The stream is flushed but not closed.
+     *
+     * @return number of data rows written
+     */
+    long writeCsv(OutputStream out, OffsetDateTime since) throws IOException;
+
+    /**
+     * Exports favorites created since the previous successful export into a new file in the
+     * configured report directory and advances the watermark. Returns empty when nothing is new.
+     *
+     * @param fencingToken token of the job lease the caller holds; the watermark is only moved when
+     *                     no newer holder has moved it already, otherwise the run fails with
+     *                     {@link org.example.main.exception.StaleFencingTokenException} and leaves no file behind
+     */
+    Optional<ExportedReport> exportIncremental(long fencingToken) throws IOException;
+}
@@ -0,0 +1,32 @@
+package org.example.main.service.report;
+
+import org.example.main.dto.response.report.SalesSummaryResponseDto;
+import org.example.main.dto.response.report.TopItemResponseDto;
+import org.example.main.model.order.OrderEntity;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+public interface ISalesRollupService {
+
+    /**
+     * Adds a completed (or paid) order to the daily rollups unless it was already counted.
+     * Must run inside the transaction that changes the order's status.
+     */
+    void recordCompletedOrder(OrderEntity order);
+
+    /**
+     * Recomputes the rollups for the inclusive date range from orders/order_items with SQL GROUP BY.
+     */
+    void rebuild(LocalDate from, LocalDate to);
+
+    SalesSummaryResponseDto summary(LocalDate from, LocalDate to);
+
+    List<TopItemResponseDto> topItems(LocalDate from, LocalDate to, int limit);
+
+    /**
+     * Zone the rollups bucket days in (app.reports.zone).
+     */
+    ZoneId zone();
+}
@@ -0,0 +1,153 @@
+package org.example.main.service.report;
+
+import jakarta.persistence.EntityManager;
+import org.example.main.exception.StaleFencingTokenException;
+import org.example.main.model.recommendation.FavoriteRecommendation;
+import org.example.main.model.report.ReportWatermark;
+import org.example.main.repository.recommendation.FavoriteRecommendationRepository;
+import org.example.main.repository.report.ReportWatermarkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CSV export of favorite recommendations.
+ *
+ * Rows are read through a forward-only JPA stream and detached as soon as they are written, so
+ * memory stays flat regardless of table size. Scheduled runs are incremental: the (created_at, id)
+ * of the last exported row is kept in report_watermarks, so any replica picks up where the last
+ * run left off.
+ */
+@Service
+public class RecommendationReportService implements IRecommendationReportService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationReportService.class);
+
+    static final String[] HEADER = {
+            "id", "menu_item_id", "menu_item_name", "description", "ingredients",
+            "calories", "protein", "fats", "carbs", "created_by", "created_at"
+    };
+    static final String WATERMARK = "ai_recommendations";
+    private static final OffsetDateTime BEGINNING = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final UUID LOWEST_ID = new UUID(0L, 0L);
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd_HHmmss");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FavoriteRecommendationRepository favoriteRepository;
+    private final ReportWatermarkRepository watermarkRepository;
+    private final EntityManager entityManager;
+    private final Path reportDir;
+    private final boolean gzip;
+
+    public RecommendationReportService(FavoriteRecommendationRepository favoriteRepository,
+                                       ReportWatermarkRepository watermarkRepository,
+                                       EntityManager entityManager,
+                                       @Value("${app.reports.dir:reports}") String reportDir,
+                                       @Value("${app.reports.gzip:true}") boolean gzip) {
+        this.favoriteRepository = favoriteRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.entityManager = entityManager;
+        this.reportDir = Paths.get(reportDir);
+        this.gzip = gzip;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long writeCsv(OutputStream out, OffsetDateTime since) throws IOException {
+        return write(out, favoriteRepository.streamCreatedAfter(since != null ? since : BEGINNING)).rows();
+    }
+
+    @Override
+    @Transactional
+    public Optional<ExportedReport> exportIncremental(long fencingToken) throws IOException {
+        Files.createDirectories(reportDir);
+        ReportWatermark mark = watermarkRepository.findById(WATERMARK).orElse(null);
+        OffsetDateTime since = mark != null ? mark.getLastCreatedAt() : BEGINNING;
+        UUID afterId = mark != null ? mark.getLastId() : LOWEST_ID;
+
+        String name = "daily_ai_recommendations_" + LocalDateTime.now().format(FILE_STAMP) + (gzip ? ".csv.gz" : ".csv");
+        Path target = reportDir.resolve(name);
+        Path tmp = reportDir.resolve(name + ".part");
+
+        Result result;
+        try (OutputStream file = Files.newOutputStream(tmp);
+             OutputStream out = gzip ? new GZIPOutputStream(file, BUFFER_SIZE) : file) {
+            result = write(out, favoriteRepository.streamAfter(since, afterId));
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        }
+
+        if (result.rows() == 0) {
+            Files.deleteIfExists(tmp);
+            log.info("exportIncremental: no AI recommendations created since {}", since);
+            return Optional.empty();
+        }
+
+        // claim the rows before publishing the file; a failed move rolls the watermark back
+        if (watermarkRepository.upsert(WATERMARK, result.lastCreatedAt(), result.lastId(), fencingToken) == 0) {
+            Files.deleteIfExists(tmp);
+            throw new StaleFencingTokenException(WATERMARK, fencingToken);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("exportIncremental: {} recommendations since {} -> {}", result.rows(), since, target);
+        return Optional.of(new ExportedReport(target, result.rows()));
+    }
+
+    private Result write(OutputStream out, Stream<FavoriteRecommendation> rows) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRow((Object[]) HEADER);
+
+        long count = 0;
+        FavoriteRecommendation last = null;
+        try (Stream<FavoriteRecommendation> stream = rows) {
+            Iterator<FavoriteRecommendation> it = stream.iterator();
+            while (it.hasNext()) {
+                FavoriteRecommendation fav = it.next();
+                csv.writeRow(
+                        fav.getId(),
+                        fav.getMenuItemId(),
+                        fav.getMenuItemName(),
+                        fav.getDescription(),
+                        fav.getIngredients() != null ? String.join(",", fav.getIngredients()) : null,
+                        fav.getCalories(),
+                        fav.getProtein(),
+                        fav.getFats(),
+                        fav.getCarbs(),
+                        fav.getCreatedBy(),
+                        fav.getCreatedAt());
+                last = fav;
+                count++;
+                entityManager.detach(fav);
+            }
+        }
+        writer.flush();
+        return last == null
+                ? new Result(0, null, null)
+                : new Result(count, last.getCreatedAt(), last.getId());
+    }
+
+    private record Result(long rows, OffsetDateTime lastCreatedAt, UUID lastId) {}
+}
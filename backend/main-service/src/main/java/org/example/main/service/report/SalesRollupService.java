@@ -0,0 +1,191 @@
+package org.example.main.service.report;
+
+import org.example.main.dto.response.report.DailySalesResponseDto;
+import org.example.main.dto.response.report.SalesSummaryResponseDto;
+import org.example.main.dto.response.report.TopItemResponseDto;
+import org.example.main.model.enums.OrderItemStatus;
+import org.example.main.model.enums.OrderStatus;
+import org.example.main.model.order.OrderEntity;
+import org.example.main.model.order.OrderItem;
+import org.example.main.model.report.DailyItemSales;
+import org.example.main.repository.order.OrderRepository;
+import org.example.main.repository.report.DailyItemSalesRepository;
+import org.example.main.repository.report.DailySalesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the daily_sales / daily_item_sales rollups and answers sales questions from them.
+ *
+ * Orders are added once, when they first reach COMPLETED or PAID: orders.sales_recorded_at is set
+ * with a conditional update first, and only the transaction that set it adds the order. Revenue always uses the OrderItem price snapshot, never the current
+ * menu price. Days are bucketed by order creation time in app.reports.zone.
+ */
+@Service
+public class SalesRollupService implements ISalesRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesRollupService.class);
+
+    static final Set<OrderStatus> SOLD_STATUSES = EnumSet.of(OrderStatus.COMPLETED, OrderStatus.PAID);
+    static final int MAX_RANGE_DAYS = 366 * 5;
+
+    private final DailySalesRepository dailySalesRepository;
+    private final DailyItemSalesRepository dailyItemSalesRepository;
+    private final OrderRepository orderRepository;
+    private final ZoneId zone;
+
+    public SalesRollupService(DailySalesRepository dailySalesRepository,
+                              DailyItemSalesRepository dailyItemSalesRepository,
+                              OrderRepository orderRepository,
+                              @Value("${app.reports.zone:}") String zone) {
+        this.dailySalesRepository = dailySalesRepository;
+        this.dailyItemSalesRepository = dailyItemSalesRepository;
+        this.orderRepository = orderRepository;
+        this.zone = (zone == null || zone.isBlank()) ? ZoneId.systemDefault() : ZoneId.of(zone);
+    }
+
+    @Override
+    @Transactional
+    public void recordCompletedOrder(OrderEntity order) {
+        if (order == null || order.getSalesRecordedAt() != null || !SOLD_STATUSES.contains(order.getStatus())) {
+            return;
+        }
+        // the entity is kept in step either way, so flushing it later cannot write the column back to null
+        OffsetDateTime recordedAt = OffsetDateTime.now();
+        if (orderRepository.claimSalesRecording(order.getId(), recordedAt) != 1) {
+            log.debug("recordCompletedOrder: order={} already recorded", order.getId());
+            order.setSalesRecordedAt(recordedAt);
+            return;
+        }
+        order.setSalesRecordedAt(recordedAt);
+
+        OffsetDateTime createdAt = order.getCreatedAt() != null ? order.getCreatedAt() : OffsetDateTime.now();
+        LocalDate day = createdAt.atZoneSameInstant(zone).toLocalDate();
+
+        Map<UUID, ItemLine> lines = new LinkedHashMap<>();
+        BigDecimal orderRevenue = BigDecimal.ZERO;
+        if (order.getItems() != null) {
+            for (OrderItem oi : order.getItems()) {
+                if (oi == null || oi.getStatus() == OrderItemStatus.CANCELLED || oi.getQuantity() <= 0) continue;
+                UUID menuItemId = oi.getMenuItemId() != null ? oi.getMenuItemId() : DailyItemSales.UNKNOWN_MENU_ITEM;
+                BigDecimal price = oi.getPrice() != null ? oi.getPrice() : BigDecimal.ZERO;
+                BigDecimal revenue = price.multiply(BigDecimal.valueOf(oi.getQuantity()));
+                ItemLine line = lines.computeIfAbsent(menuItemId, k -> new ItemLine(oi.getMenuItemName()));
+                line.quantity += oi.getQuantity();
+                line.revenue = line.revenue.add(revenue);
+                orderRevenue = orderRevenue.add(revenue);
+            }
+        }
+
+        dailySalesRepository.upsertAdd(day, 1, orderRevenue);
+        lines.forEach((menuItemId, line) ->
+                dailyItemSalesRepository.upsertAdd(day, menuItemId, line.name, line.quantity, line.revenue));
+        log.debug("recordCompletedOrder: order={} day={} items={} revenue={}", order.getId(), day, lines.size(), orderRevenue);
+    }
+
+    @Override
+    public ZoneId zone() {
+        return zone;
+    }
+
+    @Override
+    @Transactional
+    public void rebuild(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        OffsetDateTime fromTs = from.atStartOfDay(zone).toOffsetDateTime();
+        OffsetDateTime toTs = to.plusDays(1).atStartOfDay(zone).toOffsetDateTime();
+        List<Integer> statuses = SOLD_STATUSES.stream().map(Enum::ordinal).collect(Collectors.toList());
+
+        dailyItemSalesRepository.deleteBySalesDateBetween(from, to);
+        dailySalesRepository.deleteBySalesDateBetween(from, to);
+        int days = dailySalesRepository.rebuildFromOrders(zone.getId(), statuses, fromTs, toTs);
+        int items = dailyItemSalesRepository.rebuildFromOrders(zone.getId(), statuses, fromTs, toTs);
+        int marked = orderRepository.markSalesRecorded(statuses, fromTs, toTs, OffsetDateTime.now());
+        log.info("rebuild: {}..{} days={} itemRows={} newlyMarkedOrders={}", from, to, days, items, marked);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SalesSummaryResponseDto summary(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        DailySalesRepository.Totals totals = dailySalesRepository.sumBetween(from, to);
+        long orderCount = totals != null && totals.getOrderCount() != null ? totals.getOrderCount() : 0L;
+        BigDecimal revenue = totals != null && totals.getRevenue() != null ? totals.getRevenue() : BigDecimal.ZERO;
+        BigDecimal avg = orderCount == 0
+                ? BigDecimal.ZERO
+                : revenue.divide(BigDecimal.valueOf(orderCount), 2, RoundingMode.HALF_UP);
+
+        List<DailySalesResponseDto> days = dailySalesRepository.findBySalesDateBetweenOrderBySalesDate(from, to).stream()
+                .map(d -> DailySalesResponseDto.builder()
+                        .date(d.getSalesDate())
+                        .orderCount(d.getOrderCount())
+                        .revenue(d.getRevenue())
+                        .build())
+                .collect(Collectors.toList());
+
+        return SalesSummaryResponseDto.builder()
+                .from(from)
+                .to(to)
+                .orderCount(orderCount)
+                .revenue(revenue)
+                .averageTicket(avg)
+                .days(days)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TopItemResponseDto> topItems(LocalDate from, LocalDate to, int limit) {
+        validateRange(from, to);
+        int size = Math.max(1, Math.min(limit, 100));
+        return dailyItemSalesRepository.findTopItems(from, to, PageRequest.of(0, size)).stream()
+                .map(t -> TopItemResponseDto.builder()
+                        .menuItemId(DailyItemSales.UNKNOWN_MENU_ITEM.equals(t.getMenuItemId()) ? null : t.getMenuItemId())
+                        .menuItemName(t.getMenuItemName())
+                        .quantity(t.getQuantity() != null ? t.getQuantity() : 0L)
+                        .revenue(t.getRevenue() != null ? t.getRevenue() : BigDecimal.ZERO)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from and to are required");
+        }
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "to must not be before from");
+        }
+        if (from.plusDays(MAX_RANGE_DAYS).isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "date range too large");
+        }
+    }
+
+    private static final class ItemLine {
+        final String name;
+        long quantity;
+        BigDecimal revenue = BigDecimal.ZERO;
+
+        ItemLine(String name) {
+            this.name = name != null ? name : "";
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package org.example.main.service.table;
+
+public enum CalendarView {
+    WEEK,
+    MONTH
+}
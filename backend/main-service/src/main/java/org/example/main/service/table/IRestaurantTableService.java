@@ -1,14 +1,19 @@
 package org.example.main.service.table;
 
+import org.example.main.dto.response.table.TableAvailabilityResponseDto;
+import org.example.main.dto.response.table.TableStateResponseDto;
 import org.example.main.model.table.RestaurantTable;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
 public interface IRestaurantTableService {
     List<RestaurantTable> findAll();
+    List<TableStateResponseDto> findAllStates();
     RestaurantTable findById(UUID id);
     RestaurantTable create(RestaurantTable table);
     RestaurantTable update(UUID id, RestaurantTable changes);
     void delete(UUID id);
+    List<TableAvailabilityResponseDto> findAvailability(Integer seats, OffsetDateTime from, OffsetDateTime to);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package org.example.main.service.table;
 
+import org.example.main.dto.response.table.ReservationCalendarResponseDto;
 import org.example.main.model.table.TableReservationEntity;
 
 import java.time.LocalDate;
@@ -13,4 +14,6 @@ public interface ITableReservationService {
     List<TableReservationEntity> findActiveReservationsForTable(UUID tableId);
     List<TableReservationEntity> findReservationHistoryForTable(UUID tableId);
     List<TableReservationEntity> findReservationsByDate(LocalDate date);
+    List<TableReservationEntity> findReservationsBetween(OffsetDateTime from, OffsetDateTime to);
+    ReservationCalendarResponseDto calendar(LocalDate date, CalendarView view);
 }
\ No newline at end of file
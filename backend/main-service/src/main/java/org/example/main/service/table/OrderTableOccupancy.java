@@ -0,0 +1,87 @@
+package org.example.main.service.table;
+
+import jakarta.annotation.PreDestroy;
+import org.example.main.event.OrderPlacedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Marks a table occupied when an order is placed at it, off the order's thread and transaction.
+ *
+ * Orders placed at the same table within the coalescing window (a party ordering one by one) cost
+ * a single {@link RestaurantTableService#occupyTable} call at the end of the window.
+ */
+@Component
+public class OrderTableOccupancy {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderTableOccupancy.class);
+
+    private final RestaurantTableService tableService;
+    private final long coalesceMillis;
+    private final int occupancyMinutes;
+    private final ScheduledExecutorService executor;
+    private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public OrderTableOccupancy(RestaurantTableService tableService,
+                               @Value("${app.tables.occupancy-coalesce-ms:500}") long coalesceMillis,
+                               @Value("${app.tables.order-occupancy-minutes:60}") int occupancyMinutes) {
+        this(tableService, coalesceMillis, occupancyMinutes, Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "table-occupancy");
+            t.setDaemon(true);
+            return t;
+        }));
+    }
+
+    OrderTableOccupancy(RestaurantTableService tableService, long coalesceMillis, int occupancyMinutes,
+                        ScheduledExecutorService executor) {
+        this.tableService = tableService;
+        this.coalesceMillis = coalesceMillis;
+        this.occupancyMinutes = occupancyMinutes;
+        this.executor = executor;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        Integer tableNumber = event.getTableNumber();
+        if (tableNumber == null) return;
+        // the first order opens the window, the rest ride along
+        if (pending.add(tableNumber)) {
+            executor.schedule(() -> occupy(tableNumber), coalesceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    int pending() {
+        return pending.size();
+    }
+
+    void occupy(Integer tableNumber) {
+        // removed first: an order arriving while this runs opens a new window rather than being lost
+        pending.remove(tableNumber);
+        try {
+            tableService.occupyTable(tableNumber, occupancyMinutes);
+        } catch (Exception ex) {
+            log.warn("Failed to mark table {} occupied: {}", tableNumber, ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        // tables still inside their window are occupied now rather than dropped with the queued tasks
+        for (Integer tableNumber : List.copyOf(pending)) {
+            occupy(tableNumber);
+        }
+        executor.shutdownNow();
+    }
+}
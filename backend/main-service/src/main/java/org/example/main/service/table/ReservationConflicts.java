@@ -0,0 +1,36 @@
+package org.example.main.service.table;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.SQLException;
+
+/**
+ * Recognises the table_reservations exclusion constraint firing on insert, which is how an
+ * overlapping booking is detected.
+ */
+public final class ReservationConflicts {
+
+    public static final String OVERLAP_CONSTRAINT = "table_reservations_no_overlap";
+    static final String EXCLUSION_VIOLATION_SQLSTATE = "23P01";
+    static final String CONFLICT_MESSAGE = "Table already reserved for this time";
+
+    private ReservationConflicts() {}
+
+    public static boolean isOverlap(DataIntegrityViolationException ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && EXCLUSION_VIOLATION_SQLSTATE.equals(sql.getSQLState())) return true;
+            if (t.getMessage() != null && t.getMessage().contains(OVERLAP_CONSTRAINT)) return true;
+            if (t.getCause() == t) break;
+        }
+        return false;
+    }
+
+    /**
+     * 409 for an overlap, otherwise the original exception.
+     */
+    static RuntimeException translate(DataIntegrityViolationException ex) {
+        return isOverlap(ex) ? new ResponseStatusException(HttpStatus.CONFLICT, CONFLICT_MESSAGE, ex) : ex;
+    }
+}
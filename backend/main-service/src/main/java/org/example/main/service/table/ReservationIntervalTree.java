@@ -0,0 +1,167 @@
+package org.example.main.service.table;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Interval tree of one table's reservations, as half-open [start, end) epoch-millis ranges.
+ *
+ * A treap ordered by (start, id) where every node carries the largest end in its subtree, so an
+ * overlap query skips any subtree that ends before the window and stops at the first start past it.
+ * Not thread-safe; {@link TableAvailabilityIndex} guards each tree with its table's lock.
+ */
+final class ReservationIntervalTree {
+
+    record Interval(UUID id, long start, long end) {}
+
+    private static final class Node {
+        final Interval interval;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        long maxEnd;
+        Node left;
+        Node right;
+
+        Node(Interval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.end();
+        }
+    }
+
+    private final Map<UUID, Interval> byId = new HashMap<>();
+    private Node root;
+
+    /**
+     * Adds the reservation, replacing any interval previously stored under the same id.
+     */
+    void put(UUID id, long start, long end) {
+        remove(id);
+        Interval interval = new Interval(id, start, end);
+        byId.put(id, interval);
+        Node[] parts = split(root, interval);
+        root = merge(merge(parts[0], new Node(interval)), parts[1]);
+    }
+
+    boolean remove(UUID id) {
+        Interval interval = byId.remove(id);
+        if (interval == null) return false;
+        root = delete(root, interval);
+        return true;
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    boolean overlaps(long from, long to) {
+        return firstOverlap(root, from, to) != null;
+    }
+
+    /**
+     * Intervals overlapping [from, to), ordered by start.
+     */
+    List<Interval> overlapping(long from, long to) {
+        List<Interval> out = new ArrayList<>();
+        collect(root, from, to, out);
+        return out;
+    }
+
+    /**
+     * The running or, failing that, the earliest upcoming interval at {@code at}, or null.
+     */
+    Interval firstEndingAfter(long at) {
+        return firstOverlap(root, at, Long.MAX_VALUE);
+    }
+
+    /**
+     * Earliest start at or after {@code from} of a free gap at least {@code duration} long, or -1 if
+     * none starts before {@code horizon}.
+     */
+    long nextFree(long from, long duration, long horizon) {
+        long candidate = from;
+        while (candidate <= horizon) {
+            Interval blocking = firstOverlap(root, candidate, candidate + duration);
+            if (blocking == null) return candidate;
+            // every overlap found pushes the candidate strictly forward, so this ends after at most size() steps
+            candidate = Math.max(candidate + 1, blocking.end());
+        }
+        return -1;
+    }
+
+    private static Interval firstOverlap(Node n, long from, long to) {
+        while (n != null && n.maxEnd > from) {
+            // prefer the left subtree, it holds the earlier starts
+            if (n.left != null && n.left.maxEnd > from) {
+                Interval left = firstOverlap(n.left, from, to);
+                if (left != null) return left;
+            }
+            if (n.interval.start() >= to) return null;
+            if (n.interval.end() > from) return n.interval;
+            n = n.right;
+        }
+        return null;
+    }
+
+    private static void collect(Node n, long from, long to, List<Interval> out) {
+        if (n == null || n.maxEnd <= from) return;
+        collect(n.left, from, to, out);
+        if (n.interval.start() >= to) return;
+        if (n.interval.end() > from) out.add(n.interval);
+        collect(n.right, from, to, out);
+    }
+
+    private static int compare(Interval a, Interval b) {
+        int c = Long.compare(a.start(), b.start());
+        return c != 0 ? c : a.id().compareTo(b.id());
+    }
+
+    /**
+     * Splits into nodes ordered before {@code key} and the rest.
+     */
+    private static Node[] split(Node n, Interval key) {
+        if (n == null) return new Node[]{null, null};
+        if (compare(n.interval, key) < 0) {
+            Node[] parts = split(n.right, key);
+            n.right = parts[0];
+            update(n);
+            return new Node[]{n, parts[1]};
+        }
+        Node[] parts = split(n.left, key);
+        n.left = parts[1];
+        update(n);
+        return new Node[]{parts[0], n};
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private static Node delete(Node n, Interval key) {
+        if (n == null) return null;
+        int c = compare(key, n.interval);
+        if (c == 0) return merge(n.left, n.right);
+        if (c < 0) n.left = delete(n.left, key);
+        else n.right = delete(n.right, key);
+        update(n);
+        return n;
+    }
+
+    private static void update(Node n) {
+        long max = n.interval.end();
+        if (n.left != null) max = Math.max(max, n.left.maxEnd);
+        if (n.right != null) max = Math.max(max, n.right.maxEnd);
+        n.maxEnd = max;
+    }
+}
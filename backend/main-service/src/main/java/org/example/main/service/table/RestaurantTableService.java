@@ -1,13 +1,20 @@
 package org.example.main.service.table;
 
+import org.example.main.dto.response.table.TableAvailabilityResponseDto;
+import org.example.main.dto.response.table.TableStateResponseDto;
+import org.example.main.event.RestaurantTableChangedEvent;
+import org.example.main.event.TableReservationChangedEvent;
+import org.example.main.event.TableStateChangedEvent;
 import org.example.main.exception.ResourceNotFoundException;
 import org.example.main.model.table.RestaurantTable;
 import org.example.main.model.table.TableReservationEntity;
 import org.example.main.model.enums.TableStatus;
 import org.example.main.repository.table.RestaurantTableRepository;
 import org.example.main.repository.table.TableReservationRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
@@ -25,13 +32,25 @@ public class RestaurantTableService implements IRestaurantTableService {
 
     private static final Pattern CODE_TABLE_NUMBER = Pattern.compile("^T(\\d+)$", Pattern.CASE_INSENSITIVE);
 
+    // auto-allocated numbers found taken by another replica before the allocator is given up on
+    static final int NUMBER_ALLOCATION_ATTEMPTS = 3;
+
     private final RestaurantTableRepository tableRepository;
     private final TableReservationRepository reservationRepository;
+    private final TableAvailabilityIndex availabilityIndex;
+    private final TableNumberAllocator numberAllocator;
+    private final ApplicationEventPublisher eventPublisher;
 
     public RestaurantTableService(RestaurantTableRepository tableRepository,
-                                  TableReservationRepository reservationRepository) {
+                                  TableReservationRepository reservationRepository,
+                                  TableAvailabilityIndex availabilityIndex,
+                                  TableNumberAllocator numberAllocator,
+                                  ApplicationEventPublisher eventPublisher) {
         this.tableRepository = tableRepository;
         this.reservationRepository = reservationRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.numberAllocator = numberAllocator;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -40,6 +59,13 @@ public class RestaurantTableService implements IRestaurantTableService {
         return tableRepository.findAll();
     }
 
+    @Override
+    // served from the in-memory board, like findAvailability
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<TableStateResponseDto> findAllStates() {
+        return availabilityIndex.states();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public RestaurantTable findById(UUID id) {
@@ -57,32 +83,8 @@ public class RestaurantTableService implements IRestaurantTableService {
         }
 
         // If code encodes a table number (e.g. T12) set the tableNumber accordingly
-        if (table.getCode() != null) {
-            Matcher m = CODE_TABLE_NUMBER.matcher(table.getCode());
-            if (m.matches()) {
-                try {
-                    int parsedNumber = Integer.parseInt(m.group(1));
-                    table.setTableNumber(parsedNumber);
-                } catch (NumberFormatException ignored) {
-                }
-            }
-        }
-
-        // If tableNumber present, ensure uniqueness (no other table has same number)
-        if (table.getTableNumber() != null) {
-            Optional<RestaurantTable> byNumber = tableRepository.findByTableNumber(table.getTableNumber());
-            if (byNumber.isPresent()) {
-                throw new ResponseStatusException(HttpStatus.CONFLICT, "Table number already exists: " + table.getTableNumber());
-            }
-        }
-
-        // If code present, ensure uniqueness
-        if (table.getCode() != null) {
-            Optional<RestaurantTable> byCode = tableRepository.findByCode(table.getCode());
-            if (byCode.isPresent()) {
-                throw new ResponseStatusException(HttpStatus.CONFLICT, "Table code already exists: " + table.getCode());
-            }
-        }
+        Integer fromCode = parseTableNumber(table.getCode());
+        if (fromCode != null) table.setTableNumber(fromCode);
 
         // Pin handling (string of digits, max length 4)
         if (table.getPinCode() == null || table.getPinCode().trim().isEmpty()) {
@@ -104,56 +106,46 @@ public class RestaurantTableService implements IRestaurantTableService {
         if (table.getCurrentOccupancy() == null) table.setCurrentOccupancy(0);
         if (table.getStatus() == null) table.setStatus(TableStatus.AVAILABLE);
 
+        // Number: the requested one if free, otherwise the lowest free; the code follows it if missing
+        if (table.getTableNumber() == null) {
+            table.setTableNumber(allocateFreeNumber());
+        } else if (!numberAllocator.claim(table.getTableNumber())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Table number already exists: " + table.getTableNumber());
+        }
+        if (table.getCode() == null) {
+            table.setCode(RestaurantTableUtils.formatCode(table.getTableNumber()));
+        }
+
+        // uniqueness of code and number is left to the unique constraints
+        RestaurantTable saved;
         try {
-            return tableRepository.save(table);
+            saved = tableRepository.saveAndFlush(table);
         } catch (DataIntegrityViolationException dive) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Cannot create table due to constraint violation");
+            throw uniqueViolation(dive, table, table.getTableNumber(), "Cannot create table due to constraint violation");
         }
+        eventPublisher.publishEvent(new RestaurantTableChangedEvent(saved.getId(), saved));
+        return saved;
     }
 
     @Override
     public RestaurantTable update(UUID id, RestaurantTable changes) {
         RestaurantTable existing = findById(id);
+        Integer previousNumber = existing.getTableNumber();
+        Integer newNumber = previousNumber;
 
         // If code is being changed, normalize and possibly derive tableNumber
         if (changes.getCode() != null) {
             String newCode = changes.getCode().trim().toUpperCase();
-            // check for duplicate code (exclude current)
-            Optional<RestaurantTable> byCode = tableRepository.findByCode(newCode);
-            if (byCode.isPresent() && !byCode.get().getId().equals(id)) {
-                throw new ResponseStatusException(HttpStatus.CONFLICT, "Table code already exists: " + newCode);
-            }
             existing.setCode(newCode);
-
-            // If new code encodes a table number, use it (and check uniqueness)
-            Matcher m = CODE_TABLE_NUMBER.matcher(newCode);
-            if (m.matches()) {
-                try {
-                    int parsedNumber = Integer.parseInt(m.group(1));
-                    if (existing.getTableNumber() == null || existing.getTableNumber() != parsedNumber) {
-                        Optional<RestaurantTable> byNumber = tableRepository.findByTableNumber(parsedNumber);
-                        if (byNumber.isPresent() && !byNumber.get().getId().equals(id)) {
-                            throw new ResponseStatusException(HttpStatus.CONFLICT, "Table number already exists: " + parsedNumber);
-                        }
-                        existing.setTableNumber(parsedNumber);
-                    }
-                } catch (NumberFormatException ignored) {
-                }
-            }
+            Integer fromCode = parseTableNumber(newCode);
+            if (fromCode != null) newNumber = fromCode;
         }
 
         if (changes.getSeats() != null && changes.getSeats() != 0) existing.setSeats(changes.getSeats());
 
-        // If tableNumber explicitly provided in payload, validate uniqueness and set it
+        // If tableNumber explicitly provided in payload, it wins over the one derived from the code
         if (changes.getTableNumber() != null) {
-            Integer newNumber = changes.getTableNumber();
-            if (!newNumber.equals(existing.getTableNumber())) {
-                Optional<RestaurantTable> byNumber = tableRepository.findByTableNumber(newNumber);
-                if (byNumber.isPresent() && !byNumber.get().getId().equals(id)) {
-                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Table number already exists: " + newNumber);
-                }
-                existing.setTableNumber(newNumber);
-            }
+            newNumber = changes.getTableNumber();
         }
 
         // If pin provided update it, else if null leave existing; validate format
@@ -168,11 +160,23 @@ public class RestaurantTableService implements IRestaurantTableService {
             existing.setPinCode(RestaurantTableUtils.generatePinCode());
         }
 
+        boolean renumbered = newNumber != null && !newNumber.equals(previousNumber);
+        if (renumbered) {
+            if (!numberAllocator.claim(newNumber)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Table number already exists: " + newNumber);
+            }
+            existing.setTableNumber(newNumber);
+        }
+
+        RestaurantTable saved;
         try {
-            return tableRepository.save(existing);
+            saved = tableRepository.saveAndFlush(existing);
         } catch (DataIntegrityViolationException dive) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Cannot update table due to constraint violation");
+            throw uniqueViolation(dive, existing, renumbered ? newNumber : null, "Cannot update table due to constraint violation");
         }
+        if (renumbered) numberAllocator.release(previousNumber);
+        eventPublisher.publishEvent(new RestaurantTableChangedEvent(saved.getId(), saved));
+        return saved;
     }
 
     @Override
@@ -205,6 +209,22 @@ public class RestaurantTableService implements IRestaurantTableService {
         } catch (DataIntegrityViolationException dive) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Cannot delete table with existing relations");
         }
+        numberAllocator.release(table.getTableNumber());
+        // the availability index and the expiry timer drop the table after commit
+        eventPublisher.publishEvent(new RestaurantTableChangedEvent(id, null));
+    }
+
+    @Override
+    // answered from memory; no transaction (and so no connection) is needed
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<TableAvailabilityResponseDto> findAvailability(Integer seats, OffsetDateTime from, OffsetDateTime to) {
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid availability window");
+        }
+        if (seats != null && seats < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "seats must be at least 1");
+        }
+        return availabilityIndex.search(seats == null ? 1 : seats, from, to);
     }
 
     @Transactional
@@ -234,23 +254,39 @@ public class RestaurantTableService implements IRestaurantTableService {
             }
         }
 
-        table.setOccupiedUntil(OffsetDateTime.now().plusMinutes(forMinutes));
+        // a new order extends the occupancy, it never shortens one that runs longer
+        OffsetDateTime until = OffsetDateTime.now().plusMinutes(forMinutes);
+        if (table.getStatus() == TableStatus.OCCUPIED && table.getOccupiedUntil() != null
+                && table.getOccupiedUntil().isAfter(until)) {
+            until = table.getOccupiedUntil();
+        }
+        TableStatus previousStatus = table.getStatus();
+        table.setOccupiedUntil(until);
         table.setStatus(TableStatus.OCCUPIED);
 
+        RestaurantTable saved;
         try {
-            tableRepository.save(table);
+            saved = tableRepository.save(table);
         } catch (DataIntegrityViolationException dive) {
             Optional<RestaurantTable> existing = tableRepository.findByCode(code);
             if (existing.isPresent()) {
                 RestaurantTable e = existing.get();
+                previousStatus = e.getStatus();
                 if (e.getTableNumber() == null) e.setTableNumber(tableNumber);
-                e.setOccupiedUntil(table.getOccupiedUntil());
+                e.setOccupiedUntil(until);
                 e.setStatus(TableStatus.OCCUPIED);
-                tableRepository.save(e);
+                saved = tableRepository.save(e);
+                if (saved == null) saved = e;
             } else {
                 throw dive;
             }
         }
+        if (saved == null) saved = table;
+
+        numberAllocator.markUsed(saved.getTableNumber());
+        // the expiry timer and the availability index follow this event after commit
+        eventPublisher.publishEvent(new TableStateChangedEvent(
+                saved.getId(), saved.getTableNumber(), previousStatus, TableStatus.OCCUPIED, until));
     }
 
     @Transactional
@@ -258,10 +294,6 @@ public class RestaurantTableService implements IRestaurantTableService {
         if (from == null || to == null || !to.isAfter(from)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid reservation window");
         }
-        List<TableReservationEntity> conflicts = reservationRepository.findByTableIdAndEndTimeAfterAndStartTimeBefore(tableId, from, to);
-        if (!conflicts.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Table already reserved for this time");
-        }
         TableReservationEntity r = TableReservationEntity.builder()
                 .tableId(tableId)
                 .userId(userId)
@@ -269,7 +301,58 @@ public class RestaurantTableService implements IRestaurantTableService {
                 .endTime(to)
                 .createdBy(requestedBy)
                 .build();
-        return reservationRepository.save(r);
+        TableReservationEntity saved;
+        try {
+            saved = reservationRepository.saveAndFlush(r);
+        } catch (DataIntegrityViolationException ex) {
+            throw ReservationConflicts.translate(ex);
+        }
+        if (saved != null) {
+            eventPublisher.publishEvent(new TableReservationChangedEvent(
+                    saved.getId(), saved.getTableId(), saved.getStartTime(), saved.getEndTime(), true));
+        }
+        return saved;
+    }
+
+    private static Integer parseTableNumber(String code) {
+        if (code == null) return null;
+        Matcher m = CODE_TABLE_NUMBER.matcher(code);
+        if (!m.matches()) return null;
+        try {
+            return Integer.parseInt(m.group(1));
+        } catch (NumberFormatException ignored) {
+            return null;
+        }
+    }
+
+    // checked before the insert, since a failed insert aborts the Postgres transaction; a hit reloads the allocator
+    private int allocateFreeNumber() {
+        for (int attempt = 0; attempt < NUMBER_ALLOCATION_ATTEMPTS; attempt++) {
+            int number = numberAllocator.allocate();
+            if (!tableRepository.existsByTableNumber(number)) return number;
+            numberAllocator.invalidate();
+        }
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "No available table numbers");
+    }
+
+    /**
+     * Maps a unique violation on code or table_number to a 409 naming the clash. A number claimed
+     * for this write is kept as used if the database says it is taken, and released otherwise.
+     */
+    private ResponseStatusException uniqueViolation(DataIntegrityViolationException dive, RestaurantTable table,
+                                                    Integer claimedNumber, String fallback) {
+        String detail = String.valueOf(dive.getMostSpecificCause().getMessage());
+        boolean numberTaken = detail.contains("(table_number)");
+        if (claimedNumber != null && !numberTaken) numberAllocator.release(claimedNumber);
+        if (numberTaken) {
+            // the number stays marked used; the rest of this replica's view is reloaded on next use
+            numberAllocator.invalidate();
+            return new ResponseStatusException(HttpStatus.CONFLICT, "Table number already exists: " + table.getTableNumber());
+        }
+        if (detail.contains("(code)")) {
+            return new ResponseStatusException(HttpStatus.CONFLICT, "Table code already exists: " + table.getCode());
+        }
+        return new ResponseStatusException(HttpStatus.CONFLICT, fallback);
     }
 
     public Optional<RestaurantTable> findByTableNumber(Integer tableNumber) {
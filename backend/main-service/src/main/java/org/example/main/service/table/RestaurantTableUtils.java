@@ -1,30 +1,11 @@
 package org.example.main.service.table;
 
-import org.example.main.model.table.RestaurantTable;
-import org.example.main.repository.table.RestaurantTableRepository;
-import org.springframework.web.server.ResponseStatusException;
-import org.springframework.http.HttpStatus;
-
 import java.util.concurrent.ThreadLocalRandom;
 
 public final class RestaurantTableUtils {
 
     private RestaurantTableUtils() {}
 
-    public static int ensureTableNumber(RestaurantTable table, RestaurantTableRepository repository) {
-        if (table.getTableNumber() != null) return table.getTableNumber();
-
-        int candidate = 1;
-        while (repository.findByTableNumber(candidate).isPresent()) {
-            candidate++;
-            if (candidate > 99999) {
-                throw new ResponseStatusException(HttpStatus.CONFLICT, "No available table numbers");
-            }
-        }
-        table.setTableNumber(candidate);
-        return candidate;
-    }
-
     public static String formatCode(int tableNumber) {
         return "T" + tableNumber;
     }
@@ -0,0 +1,349 @@
+package org.example.main.service.table;
+
+import org.example.main.dto.response.table.TableAvailabilityResponseDto;
+import org.example.main.dto.response.table.TableStateResponseDto;
+import org.example.main.event.RestaurantTableChangedEvent;
+import org.example.main.event.TableReservationChangedEvent;
+import org.example.main.event.TableStateChangedEvent;
+import org.example.main.model.enums.TableStatus;
+import org.example.main.model.table.RestaurantTable;
+import org.example.main.model.table.TableReservationEntity;
+import org.example.main.repository.table.RestaurantTableRepository;
+import org.example.main.repository.table.TableReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * In-memory board of every table's state, occupancy and active reservations. It is the read source
+ * for the table list and for availability searches, neither of which touches the database.
+ *
+ * Loaded at startup, then kept current by table, reservation and table-state events, each applied
+ * after the write that published it has committed. A periodic resync replaces the whole view from
+ * the database, which also drops finished reservations and picks up changes made by other replicas.
+ * Every change is handed to the registered listeners (see {@link TableStateStream}) as the table's
+ * new state, or null once the table is gone.
+ */
+@Component
+public class TableAvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TableAvailabilityIndex.class);
+
+    // how far past the requested start the next free slot is searched for
+    static final Duration NEXT_SLOT_HORIZON = Duration.ofDays(14);
+
+    private static final Comparator<TableAvailabilityResponseDto> RESULT_ORDER = Comparator
+            .comparing((TableAvailabilityResponseDto t) -> !t.isAvailable())
+            .thenComparing(TableAvailabilityResponseDto::getSeats, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(TableAvailabilityResponseDto::getTableNumber, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final RestaurantTableRepository tableRepository;
+    private final TableReservationRepository reservationRepository;
+    private final Clock clock;
+    private final List<BiConsumer<UUID, TableStateResponseDto>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile Map<UUID, TableEntry> tables = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @Autowired
+    public TableAvailabilityIndex(RestaurantTableRepository tableRepository,
+                                  TableReservationRepository reservationRepository) {
+        this(tableRepository, reservationRepository, Clock.systemUTC());
+    }
+
+    TableAvailabilityIndex(RestaurantTableRepository tableRepository,
+                           TableReservationRepository reservationRepository,
+                           Clock clock) {
+        this.tableRepository = tableRepository;
+        this.reservationRepository = reservationRepository;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.tables.availability-resync-ms:300000}",
+            initialDelayString = "${app.tables.availability-resync-ms:300000}")
+    public void resync() {
+        try {
+            rebuild();
+        } catch (Exception ex) {
+            log.error("Table availability resync failed", ex);
+        }
+    }
+
+    /**
+     * Replaces the view with the tables and the not yet finished reservations from the database.
+     * Event handlers wait for it, so a change committed while it runs is applied on top afterwards.
+     */
+    public synchronized int rebuild() {
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        Map<UUID, TableStateResponseDto> before = loaded && !listeners.isEmpty() ? statesById(tables, now) : Map.of();
+        Map<UUID, TableEntry> fresh = new ConcurrentHashMap<>();
+        for (RestaurantTable t : tableRepository.findAll()) {
+            TableEntry e = new TableEntry(t.getId());
+            e.apply(t);
+            fresh.put(t.getId(), e);
+        }
+        int reservations = 0;
+        for (TableReservationEntity r : reservationRepository.findByDeletedFalseAndEndTimeAfter(now)) {
+            TableEntry e = fresh.get(r.getTableId());
+            if (e == null) continue;
+            e.reservations.put(r.getId(), millis(r.getStartTime()), millis(r.getEndTime()));
+            reservations++;
+        }
+        tables = fresh;
+        loaded = true;
+        if (!before.isEmpty()) publishDifferences(before, statesById(fresh, now));
+        log.debug("Table availability index loaded {} tables, {} reservations", fresh.size(), reservations);
+        return fresh.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(TableReservationChangedEvent event) {
+        if (event.getReservationId() == null || event.getTableId() == null) return;
+        RestaurantTable unseen = event.isActive() ? loadIfUnseen(event.getTableId()) : null;
+        synchronized (this) {
+            TableEntry e = entryFor(event.getTableId(), unseen);
+            if (e == null) return;
+            synchronized (e) {
+                if (event.isActive()) {
+                    e.reservations.put(event.getReservationId(), millis(event.getStartTime()), millis(event.getEndTime()));
+                } else {
+                    e.reservations.remove(event.getReservationId());
+                }
+            }
+            changed(e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableStateChanged(TableStateChangedEvent event) {
+        if (event.getTableId() == null) return;
+        RestaurantTable unseen = loadIfUnseen(event.getTableId());
+        synchronized (this) {
+            TableEntry e = entryFor(event.getTableId(), unseen);
+            if (e == null) return;
+            synchronized (e) {
+                e.status = event.getNewStatus();
+                e.occupiedUntil = event.getOccupiedUntil();
+            }
+            changed(e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableChanged(RestaurantTableChangedEvent event) {
+        if (event.isDeleted()) {
+            removeTable(event.getTableId());
+        } else {
+            upsertTable(event.getTable());
+        }
+    }
+
+    public synchronized void upsertTable(RestaurantTable table) {
+        if (table == null || table.getId() == null) return;
+        TableEntry e = tables.computeIfAbsent(table.getId(), TableEntry::new);
+        synchronized (e) {
+            e.apply(table);
+        }
+        changed(e);
+    }
+
+    public synchronized void removeTable(UUID tableId) {
+        if (tableId != null && tables.remove(tableId) != null) notifyListeners(tableId, null);
+    }
+
+    public void addListener(BiConsumer<UUID, TableStateResponseDto> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Every table's live state, ordered by table number.
+     */
+    public List<TableStateResponseDto> states() {
+        if (!loaded) rebuild();
+        long now = clock.millis();
+        List<TableStateResponseDto> out = new ArrayList<>(tables.size());
+        for (TableEntry e : tables.values()) out.add(e.state(now));
+        out.sort(Comparator.comparing(TableStateResponseDto::getTableNumber, Comparator.nullsLast(Comparator.naturalOrder())));
+        return out;
+    }
+
+    public Optional<TableStateResponseDto> state(UUID tableId) {
+        if (!loaded) rebuild();
+        TableEntry e = tables.get(tableId);
+        return e == null ? Optional.empty() : Optional.of(e.state(clock.millis()));
+    }
+
+    /**
+     * Tables with at least {@code seats} seats, free ones first (smallest fitting table first), each
+     * with the next free slot of the same length when [from, to) is taken.
+     */
+    public List<TableAvailabilityResponseDto> search(int seats, OffsetDateTime from, OffsetDateTime to) {
+        if (!loaded) rebuild();
+        long start = millis(from);
+        long duration = millis(to) - start;
+        long horizon = start + NEXT_SLOT_HORIZON.toMillis();
+        ZoneOffset offset = from.getOffset();
+
+        List<TableAvailabilityResponseDto> out = new ArrayList<>();
+        for (TableEntry e : tables.values()) {
+            TableAvailabilityResponseDto.TableAvailabilityResponseDtoBuilder row;
+            long next;
+            synchronized (e) {
+                if (e.seats == null || e.seats < seats) continue;
+                row = TableAvailabilityResponseDto.builder()
+                        .tableId(e.id)
+                        .tableNumber(e.tableNumber)
+                        .code(e.code)
+                        .seats(e.seats)
+                        .status(e.status);
+                long blockedUntil = e.blockedUntil();
+                if (start >= blockedUntil && !e.reservations.overlaps(start, start + duration)) {
+                    out.add(row.available(true).build());
+                    continue;
+                }
+                next = blockedUntil == Long.MAX_VALUE ? -1
+                        : e.reservations.nextFree(Math.max(start, blockedUntil), duration, horizon);
+            }
+            if (next >= 0) {
+                row.nextFreeFrom(Instant.ofEpochMilli(next).atOffset(offset))
+                        .nextFreeTo(Instant.ofEpochMilli(next + duration).atOffset(offset));
+            }
+            out.add(row.available(false).build());
+        }
+        out.sort(RESULT_ORDER);
+        return out;
+    }
+
+    int reservationCount(UUID tableId) {
+        TableEntry e = tables.get(tableId);
+        if (e == null) return 0;
+        synchronized (e) {
+            return e.reservations.size();
+        }
+    }
+
+    private void changed(TableEntry e) {
+        if (!listeners.isEmpty()) notifyListeners(e.id, e.state(clock.millis()));
+    }
+
+    private void notifyListeners(UUID tableId, TableStateResponseDto state) {
+        for (BiConsumer<UUID, TableStateResponseDto> listener : listeners) {
+            try {
+                listener.accept(tableId, state);
+            } catch (Exception ex) {
+                log.warn("Table state listener failed for {}", tableId, ex);
+            }
+        }
+    }
+
+    private static Map<UUID, TableStateResponseDto> statesById(Map<UUID, TableEntry> entries, OffsetDateTime now) {
+        long at = millis(now);
+        Map<UUID, TableStateResponseDto> out = new HashMap<>();
+        entries.forEach((id, e) -> out.put(id, e.state(at)));
+        return out;
+    }
+
+    private void publishDifferences(Map<UUID, TableStateResponseDto> before, Map<UUID, TableStateResponseDto> after) {
+        after.forEach((id, state) -> {
+            if (!state.equals(before.get(id))) notifyListeners(id, state);
+        });
+        before.keySet().forEach(id -> {
+            if (!after.containsKey(id)) notifyListeners(id, null);
+        });
+    }
+
+    // a table first seen through an event (e.g. created on another replica) is read without holding
+    // the index lock, so readers and other events never wait on the database
+    private RestaurantTable loadIfUnseen(UUID tableId) {
+        if (tables.containsKey(tableId)) return null;
+        return tableRepository.findById(tableId).orElse(null);
+    }
+
+    private TableEntry entryFor(UUID tableId, RestaurantTable unseen) {
+        TableEntry e = tables.get(tableId);
+        if (e != null || unseen == null) return e;
+        TableEntry created = new TableEntry(tableId);
+        created.apply(unseen);
+        tables.put(tableId, created);
+        return created;
+    }
+
+    private static long millis(OffsetDateTime t) {
+        return t.toInstant().toEpochMilli();
+    }
+
+    private static final class TableEntry {
+        final UUID id;
+        final ReservationIntervalTree reservations = new ReservationIntervalTree();
+        Integer tableNumber;
+        String code;
+        Integer seats;
+        Integer currentOccupancy;
+        TableStatus status;
+        String pinCode;
+        OffsetDateTime occupiedUntil;
+
+        TableEntry(UUID id) {
+            this.id = id;
+        }
+
+        void apply(RestaurantTable t) {
+            tableNumber = t.getTableNumber();
+            code = t.getCode();
+            seats = t.getSeats();
+            currentOccupancy = t.getCurrentOccupancy();
+            status = t.getStatus();
+            pinCode = t.getPinCode();
+            occupiedUntil = t.getOccupiedUntil();
+        }
+
+        synchronized TableStateResponseDto state(long now) {
+            ReservationIntervalTree.Interval next = reservations.firstEndingAfter(now);
+            return TableStateResponseDto.builder()
+                    .id(id)
+                    .code(code)
+                    .seats(seats)
+                    .currentOccupancy(currentOccupancy)
+                    .status(status)
+                    .pinCode(pinCode)
+                    .tableNumber(tableNumber)
+                    .occupiedUntil(occupiedUntil)
+                    .nextReservationId(next == null ? null : next.id())
+                    .nextReservationStart(next == null ? null : Instant.ofEpochMilli(next.start()).atOffset(ZoneOffset.UTC))
+                    .nextReservationEnd(next == null ? null : Instant.ofEpochMilli(next.end()).atOffset(ZoneOffset.UTC))
+                    .build();
+        }
+
+        // an occupied table is taken until its occupancy runs out; without a deadline, indefinitely
+        long blockedUntil() {
+            if (status != TableStatus.OCCUPIED) return Long.MIN_VALUE;
+            return occupiedUntil == null ? Long.MAX_VALUE : millis(occupiedUntil);
+        }
+    }
+}
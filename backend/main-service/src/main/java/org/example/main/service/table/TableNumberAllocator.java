@@ -0,0 +1,156 @@
+package org.example.main.service.table;
+
+import org.example.main.repository.table.RestaurantTableRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+
+/**
+ * Tracks which table numbers are taken and hands out the lowest free one.
+ *
+ * Free numbers are bits in a three-level bitset: one bit per number, one bit per 64-number word
+ * that still has a free bit, and one bit per such group of words. The lowest free number is three
+ * trailing-zero counts away, whatever the fill level. Loaded with a single query; the service keeps
+ * it current on create, update and delete, and a periodic resync picks up numbers taken or freed by
+ * other replicas. The unique constraint on table_number still decides: a number found taken behind
+ * this replica's back stays marked as used and the bitset is reloaded on its next use.
+ */
+@Component
+public class TableNumberAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(TableNumberAllocator.class);
+
+    static final int MAX_TABLE_NUMBER = 99_999;
+
+    private final RestaurantTableRepository tableRepository;
+
+    // bit n of level0 is set while number n is free; a set bit above means "something free below"
+    private final long[] level0 = new long[(MAX_TABLE_NUMBER >>> 6) + 1];
+    private final long[] level1 = new long[(level0.length >>> 6) + 1];
+    private long level2;
+    private boolean loaded;
+
+    public TableNumberAllocator(RestaurantTableRepository tableRepository) {
+        this.tableRepository = tableRepository;
+    }
+
+    @Scheduled(fixedDelayString = "${app.tables.number-resync-ms:300000}",
+            initialDelayString = "${app.tables.number-resync-ms:300000}")
+    public void resync() {
+        try {
+            load();
+        } catch (Exception ex) {
+            log.error("Table number allocator resync failed", ex);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized int load() {
+        Arrays.fill(level0, 0L);
+        Arrays.fill(level1, 0L);
+        level2 = 0L;
+        for (int n = 1; n <= MAX_TABLE_NUMBER; n++) setFree(n);
+        int used = 0;
+        for (Integer n : tableRepository.findAllTableNumbers()) {
+            if (n != null && inRange(n)) {
+                setUsed(n);
+                used++;
+            }
+        }
+        loaded = true;
+        log.debug("Table number allocator loaded {} used numbers", used);
+        return used;
+    }
+
+    /**
+     * Takes the lowest free number.
+     */
+    public synchronized int allocate() {
+        ensureLoaded();
+        if (level2 == 0L) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "No available table numbers");
+        }
+        int w1 = Long.numberOfTrailingZeros(level2);
+        int w0 = (w1 << 6) + Long.numberOfTrailingZeros(level1[w1]);
+        int n = (w0 << 6) + Long.numberOfTrailingZeros(level0[w0]);
+        setUsed(n);
+        return n;
+    }
+
+    /**
+     * Takes the given number if it is free. Numbers outside 1..MAX_TABLE_NUMBER are not tracked and
+     * left to the database.
+     *
+     * @return false if the number is already taken
+     */
+    public synchronized boolean claim(int number) {
+        ensureLoaded();
+        if (!inRange(number)) return true;
+        if (!isFree(number)) return false;
+        setUsed(number);
+        return true;
+    }
+
+    /**
+     * Marks a number as taken regardless of its current state, e.g. after the database reported it.
+     */
+    public synchronized void markUsed(Integer number) {
+        if (number == null) return;
+        ensureLoaded();
+        if (inRange(number)) setUsed(number);
+    }
+
+    public synchronized void release(Integer number) {
+        if (number == null) return;
+        ensureLoaded();
+        if (inRange(number)) setFree(number);
+    }
+
+    /**
+     * Drops the loaded state after this replica's view was found stale; the next call reloads it.
+     */
+    public synchronized void invalidate() {
+        loaded = false;
+    }
+
+    public synchronized boolean isUsed(int number) {
+        ensureLoaded();
+        return inRange(number) && !isFree(number);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) load();
+    }
+
+    private static boolean inRange(int n) {
+        return n >= 1 && n <= MAX_TABLE_NUMBER;
+    }
+
+    private boolean isFree(int n) {
+        return (level0[n >>> 6] & (1L << n)) != 0;
+    }
+
+    private void setFree(int n) {
+        int w0 = n >>> 6;
+        int w1 = w0 >>> 6;
+        level0[w0] |= 1L << n;
+        level1[w1] |= 1L << w0;
+        level2 |= 1L << w1;
+    }
+
+    private void setUsed(int n) {
+        int w0 = n >>> 6;
+        level0[w0] &= ~(1L << n);
+        if (level0[w0] != 0L) return;
+        int w1 = w0 >>> 6;
+        level1[w1] &= ~(1L << w0);
+        if (level1[w1] == 0L) level2 &= ~(1L << w1);
+    }
+}
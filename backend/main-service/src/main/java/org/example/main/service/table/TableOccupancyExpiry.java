@@ -0,0 +1,177 @@
+package org.example.main.service.table;
+
+import jakarta.annotation.PreDestroy;
+import org.example.main.event.RestaurantTableChangedEvent;
+import org.example.main.event.TableStateChangedEvent;
+import org.example.main.model.enums.TableStatus;
+import org.example.main.model.table.RestaurantTable;
+import org.example.main.repository.table.RestaurantTableRepository;
+import org.example.main.scheduler.HashedTimerWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Releases tables whose occupancy has run out.
+ *
+ * Every occupied table's occupied_until sits in a hashed timer wheel, loaded from the database at
+ * startup and kept current by the {@link TableStateChangedEvent}s that
+ * {@link RestaurantTableService#occupyTable} publishes, once they have committed. A single thread advances
+ * the wheel once per tick and flips the expired tables back to AVAILABLE in batched conditional
+ * updates, then publishes a {@link TableStateChangedEvent} per released table.
+ */
+@Component
+public class TableOccupancyExpiry {
+
+    private static final Logger log = LoggerFactory.getLogger(TableOccupancyExpiry.class);
+
+    static final int WHEEL_SIZE = 512;
+    static final int BATCH_SIZE = 200;
+
+    private final RestaurantTableRepository tableRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HashedTimerWheel<UUID> wheel;
+    private final Duration tick;
+    private ScheduledExecutorService executor;
+
+    public TableOccupancyExpiry(RestaurantTableRepository tableRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${app.tables.expiry-tick-ms:1000}") long tickMillis) {
+        this.tableRepository = tableRepository;
+        this.eventPublisher = eventPublisher;
+        this.tick = Duration.ofMillis(tickMillis);
+        this.wheel = new HashedTimerWheel<>(tick, WHEEL_SIZE, System::currentTimeMillis);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (executor != null) return;
+        rebuild();
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "table-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::expireSafely, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Loads every occupied table's deadline. Already expired ones are released on the next tick.
+     */
+    public int rebuild() {
+        List<RestaurantTableRepository.TableDeadline> occupied = tableRepository.findDeadlinesByStatus(TableStatus.OCCUPIED);
+        for (RestaurantTableRepository.TableDeadline t : occupied) {
+            schedule(t.getId(), t.getOccupiedUntil());
+        }
+        log.info("Table expiry wheel loaded {} occupied tables", occupied.size());
+        return occupied.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableStateChanged(TableStateChangedEvent event) {
+        if (event.getNewStatus() == TableStatus.OCCUPIED) {
+            schedule(event.getTableId(), event.getOccupiedUntil());
+        } else {
+            cancel(event.getTableId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableChanged(RestaurantTableChangedEvent event) {
+        if (event.isDeleted()) cancel(event.getTableId());
+    }
+
+    public void schedule(UUID tableId, OffsetDateTime occupiedUntil) {
+        if (tableId == null) return;
+        if (occupiedUntil == null) {
+            wheel.cancel(tableId);
+        } else {
+            wheel.schedule(tableId, occupiedUntil.toInstant().toEpochMilli());
+        }
+    }
+
+    public void cancel(UUID tableId) {
+        if (tableId != null) wheel.cancel(tableId);
+    }
+
+    public int pending() {
+        return wheel.size();
+    }
+
+    private void expireSafely() {
+        try {
+            expireDue();
+        } catch (Exception ex) {
+            log.error("Table expiry tick failed", ex);
+        }
+    }
+
+    /**
+     * Releases everything that is due now.
+     *
+     * @return number of tables flipped to AVAILABLE
+     */
+    int expireDue() {
+        List<UUID> due = wheel.advance();
+        int released = 0;
+        for (int i = 0; i < due.size(); i += BATCH_SIZE) {
+            released += releaseBatch(due.subList(i, Math.min(due.size(), i + BATCH_SIZE)));
+        }
+        return released;
+    }
+
+    private int releaseBatch(List<UUID> batch) {
+        List<RestaurantTableRepository.TableDeadline> released;
+        try {
+            released = tableRepository.releaseExpired(batch);
+        } catch (Exception ex) {
+            // put them back so the next tick retries
+            long retryAt = System.currentTimeMillis() + tick.toMillis();
+            batch.forEach(id -> wheel.schedule(id, retryAt));
+            throw ex;
+        }
+
+        Set<UUID> releasedIds = new HashSet<>();
+        for (RestaurantTableRepository.TableDeadline t : released) {
+            releasedIds.add(t.getId());
+            eventPublisher.publishEvent(new TableStateChangedEvent(
+                    t.getId(), t.getTableNumber(), TableStatus.OCCUPIED, TableStatus.AVAILABLE, null));
+        }
+
+        // the rest were extended or changed elsewhere (e.g. by another replica); follow the stored deadline
+        if (releasedIds.size() < batch.size()) {
+            List<UUID> skipped = new ArrayList<>();
+            for (UUID id : batch) if (!releasedIds.contains(id)) skipped.add(id);
+            for (RestaurantTable t : tableRepository.findAllById(skipped)) {
+                if (t.getStatus() == TableStatus.OCCUPIED) schedule(t.getId(), t.getOccupiedUntil());
+            }
+        }
+
+        if (!released.isEmpty()) log.info("Released {} expired tables", released.size());
+        return released.size();
+    }
+}
@@ -1,21 +1,31 @@
 package org.example.main.service.table;
 
+import org.example.main.dto.response.table.ReservationCalendarResponseDto;
+import org.example.main.dto.response.table.TableCalendarResponseDto;
+import org.example.main.dto.response.table.TableReservationResponseDto;
+import org.example.main.event.TableReservationChangedEvent;
 import org.example.main.exception.ResourceNotFoundException;
+import org.example.main.mapper.table.ReservationMapper;
 import org.example.main.model.table.TableReservationEntity;
 import org.example.main.model.enums.ReservationStatus;
 import org.example.main.repository.table.TableReservationRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
-import java.util.Comparator;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -23,10 +33,19 @@ import java.util.stream.Collectors;
 @Transactional
 public class TableReservationService implements ITableReservationService {
 
+    // calendar days are UTC days, as the reservations list by date has always used
+    private static final ZoneId CALENDAR_ZONE = ZoneOffset.UTC;
+
     private final TableReservationRepository reservationRepository;
+    private final ReservationMapper reservationMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public TableReservationService(TableReservationRepository reservationRepository) {
+    public TableReservationService(TableReservationRepository reservationRepository,
+                                   ReservationMapper reservationMapper,
+                                   ApplicationEventPublisher eventPublisher) {
         this.reservationRepository = reservationRepository;
+        this.reservationMapper = reservationMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -34,10 +53,6 @@ public class TableReservationService implements ITableReservationService {
         if (from == null || to == null || !to.isAfter(from)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid reservation window");
         }
-        List<TableReservationEntity> conflicts = reservationRepository.findByTableIdAndEndTimeAfterAndStartTimeBefore(tableId, from, to);
-        if (!conflicts.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Table already reserved for this time");
-        }
         TableReservationEntity r = new TableReservationEntity();
         r.setTableId(tableId);
         r.setUserId(userId);
@@ -45,7 +60,15 @@ public class TableReservationService implements ITableReservationService {
         r.setEndTime(to);
         r.setCreatedBy(requestedBy);
         r.setStatus(ReservationStatus.ACTIVE);
-        return reservationRepository.save(r);
+        // overlap is rejected atomically by the table_reservations_no_overlap exclusion constraint
+        TableReservationEntity saved;
+        try {
+            saved = reservationRepository.saveAndFlush(r);
+        } catch (DataIntegrityViolationException ex) {
+            throw ReservationConflicts.translate(ex);
+        }
+        publish(saved, true);
+        return saved;
     }
 
     @Override
@@ -55,7 +78,15 @@ public class TableReservationService implements ITableReservationService {
         r.setStatus(ReservationStatus.CANCELLED);
         r.setDeleted(true);
         r.setUpdatedAt(OffsetDateTime.now());
-        return reservationRepository.save(r);
+        TableReservationEntity saved = reservationRepository.save(r);
+        publish(r, false);
+        return saved;
+    }
+
+    private void publish(TableReservationEntity r, boolean active) {
+        if (r == null) return;
+        eventPublisher.publishEvent(new TableReservationChangedEvent(
+                r.getId(), r.getTableId(), r.getStartTime(), r.getEndTime(), active));
     }
 
     @Override
@@ -72,27 +103,53 @@ public class TableReservationService implements ITableReservationService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TableReservationEntity> findReservationsByDate(LocalDate date) {
         if (date == null) {
             return List.of();
         }
+        return findReservationsBetween(date.atStartOfDay(CALENDAR_ZONE).toOffsetDateTime(),
+                date.plusDays(1).atStartOfDay(CALENDAR_ZONE).toOffsetDateTime());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TableReservationEntity> findReservationsBetween(OffsetDateTime from, OffsetDateTime to) {
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid reservation range");
+        }
+        return reservationRepository.findActiveOverlapping(from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReservationCalendarResponseDto calendar(LocalDate date, CalendarView view) {
+        if (date == null || view == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "date and view are required");
+        }
+        LocalDate start = view == CalendarView.WEEK
+                ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : date.withDayOfMonth(1);
+        LocalDate end = view == CalendarView.WEEK ? start.plusWeeks(1) : start.plusMonths(1);
+
+        List<TableReservationEntity> reservations = findReservationsBetween(
+                start.atStartOfDay(CALENDAR_ZONE).toOffsetDateTime(),
+                end.atStartOfDay(CALENDAR_ZONE).toOffsetDateTime());
 
-        ZoneId zone = ZoneOffset.UTC;
-        OffsetDateTime dayStart = date.atStartOfDay(zone).toOffsetDateTime();
-        OffsetDateTime dayEnd = date.plusDays(1).atStartOfDay(zone).toOffsetDateTime();
-
-        return reservationRepository.findAll().stream()
-                .filter(Objects::nonNull)
-                .filter(r -> {
-                    OffsetDateTime from = r.getStartTime();
-                    OffsetDateTime to = r.getEndTime();
-                    if (from == null) return false;
-                    if (to == null) {
-                        return from.isBefore(dayEnd) && (from.isAfter(dayStart) || from.isEqual(dayStart));
-                    }
-                    return from.isBefore(dayEnd) && to.isAfter(dayStart);
-                })
-                .sorted(Comparator.comparing(TableReservationEntity::getStartTime))
+        Map<UUID, List<TableReservationResponseDto>> byTable = new LinkedHashMap<>();
+        for (TableReservationEntity r : reservations) {
+            byTable.computeIfAbsent(r.getTableId(), k -> new ArrayList<>()).add(reservationMapper.toResponse(r));
+        }
+        List<TableCalendarResponseDto> tables = byTable.entrySet().stream()
+                .map(e -> new TableCalendarResponseDto(e.getKey(), e.getValue()))
                 .collect(Collectors.toList());
+
+        return ReservationCalendarResponseDto.builder()
+                .view(view.name())
+                .from(start)
+                .to(end)
+                .reservationCount(reservations.size())
+                .tables(tables)
+                .build();
     }
-}
\ No newline at end of file
+}
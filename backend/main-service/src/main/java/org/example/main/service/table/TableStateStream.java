@@ -0,0 +1,125 @@
+package org.example.main.service.table;
+
+import jakarta.annotation.PreDestroy;
+import org.example.main.dto.response.table.TableStateResponseDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes table state changes from {@link TableAvailabilityIndex} to connected clients over SSE.
+ *
+ * A new subscriber first gets a "snapshot" event with every table, then one "table" event with the
+ * full new state per change and "table-removed" when a table is deleted. All sends happen on one
+ * thread, so a slow client never holds up the transaction that caused the change and every client
+ * sees the changes in order, after its snapshot.
+ */
+@Component
+public class TableStateStream {
+
+    private static final Logger log = LoggerFactory.getLogger(TableStateStream.class);
+
+    // keeps idle connections from being cut by proxies
+    static final long HEARTBEAT_SECONDS = 25;
+
+    private final TableAvailabilityIndex board;
+    private final long timeoutMillis;
+    private final Executor sender;
+    private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService ownExecutor;
+
+    @Autowired
+    public TableStateStream(TableAvailabilityIndex board,
+                            @Value("${app.tables.stream-timeout-ms:1800000}") long timeoutMillis) {
+        this(board, timeoutMillis, newExecutor());
+        this.ownExecutor = (ScheduledExecutorService) sender;
+        ownExecutor.scheduleWithFixedDelay(this::heartbeat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    TableStateStream(TableAvailabilityIndex board, long timeoutMillis, Executor sender) {
+        this.board = board;
+        this.timeoutMillis = timeoutMillis;
+        this.sender = sender;
+        board.addListener(this::publish);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(ex -> emitters.remove(emitter));
+        // registered on the sending thread, so no change can reach the client ahead of its snapshot
+        sender.execute(() -> {
+            if (send(emitter, SseEmitter.event().name("snapshot").data(board.states()))) {
+                emitters.add(emitter);
+            }
+        });
+        return emitter;
+    }
+
+    public int subscribers() {
+        return emitters.size();
+    }
+
+    void publish(UUID tableId, TableStateResponseDto state) {
+        if (emitters.isEmpty()) return;
+        sender.execute(() -> {
+            for (SseEmitter emitter : emitters) {
+                SseEmitter.SseEventBuilder event = state == null
+                        ? SseEmitter.event().name("table-removed").data(Map.of("id", tableId))
+                        : SseEmitter.event().name("table").data(state);
+                send(emitter, event);
+            }
+        });
+    }
+
+    void heartbeat() {
+        for (SseEmitter emitter : emitters) {
+            send(emitter, SseEmitter.event().comment("keep-alive"));
+        }
+    }
+
+    SseEmitter newEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    private boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException ex) {
+            // client went away; the container completes the emitter
+            emitters.remove(emitter);
+            log.debug("Dropping table stream subscriber: {}", ex.getMessage());
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        emitters.forEach(SseEmitter::complete);
+        emitters.clear();
+        if (ownExecutor != null) ownExecutor.shutdownNow();
+    }
+
+    private static ScheduledExecutorService newExecutor() {
+        return Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "table-stream");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
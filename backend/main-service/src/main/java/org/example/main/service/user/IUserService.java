@@ -1,6 +1,5 @@
 package org.example.main.service.user;
 
-import jakarta.servlet.http.HttpSession;
 import org.example.main.dto.request.user.LoginRequestDto;
 import org.example.main.dto.request.user.RegisterRequestDto;
 import org.example.main.dto.response.user.AuthResponseDto;
@@ -21,8 +20,8 @@ public interface IUserService {
     void delete(UUID id);
     User assignRole(UUID userId, String roleName);
     AuthResponseDto register(RegisterRequestDto req);
-    AuthResponseDto login(LoginRequestDto dto, HttpSession session);
-    Map<String, Object> me(Authentication authentication, HttpSession session);
+    AuthResponseDto login(LoginRequestDto dto);
+    Map<String, Object> me(Authentication authentication);
     boolean verifyPassword(User user, String rawPassword);
     void setPassword(UUID userId, String newRawPassword);
     User block(UUID userId, boolean blocked);
@@ -1,6 +1,5 @@
 package org.example.main.service.user;
 
-import jakarta.servlet.http.HttpSession;
 import org.example.main.dto.request.user.LoginRequestDto;
 import org.example.main.dto.request.user.RegisterRequestDto;
 import org.example.main.dto.response.user.AuthResponseDto;
@@ -11,13 +10,15 @@ import org.example.main.model.user.User;
 import org.example.main.repository.table.RestaurantTableRepository;
 import org.example.main.repository.role.RoleRepository;
 import org.example.main.repository.user.UserRepository;
+import org.example.main.security.JwtPrincipal;
 import org.example.main.security.JwtUtils;
+import org.example.main.security.PasswordHasher;
+import org.example.main.security.TokenRevocationList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,20 +34,23 @@ public class UserService implements IUserService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtils jwtUtils;
     private final RestaurantTableRepository restaurantTableRepository;
+    private final TokenRevocationList tokenRevocations;
 
     public UserService(UserRepository userRepository,
                        RoleRepository roleRepository,
-                       PasswordEncoder passwordEncoder,
+                       PasswordHasher passwordHasher,
                        JwtUtils jwtUtils,
-                       RestaurantTableRepository restaurantTableRepository) {
+                       RestaurantTableRepository restaurantTableRepository,
+                       TokenRevocationList tokenRevocations) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.jwtUtils = jwtUtils;
         this.restaurantTableRepository = restaurantTableRepository;
+        this.tokenRevocations = tokenRevocations;
     }
 
     @Override
@@ -74,7 +78,7 @@ public class UserService implements IUserService {
 
     @Override
     public User create(User user, String rawPassword) {
-        user.setPasswordHash(passwordEncoder.encode(rawPassword));
+        user.setPasswordHash(passwordHasher.encode(rawPassword));
 
         if (user.getRole() == null) {
             Role defaultRole = roleRepository.findByName("ROLE_USER")
@@ -101,6 +105,8 @@ public class UserService implements IUserService {
     @Override
     public User update(UUID id, User changes) {
         User existing = findById(id);
+        String previousUsername = existing.getUsername();
+        String previousRole = roleName(existing);
         if (changes.getFullName() != null) existing.setFullName(changes.getFullName());
         if (changes.getUsername() != null) existing.setUsername(changes.getUsername());
         // Allow role update via Role entity if provided
@@ -111,13 +117,21 @@ public class UserService implements IUserService {
         }
         // allow admin to toggle blocked state via update as well (optional)
         if (changes.getBlocked() != null) existing.setBlocked(changes.getBlocked());
-        return userRepository.save(existing);
+        User saved = userRepository.save(existing);
+        // tokens carry the username and role, so they must not outlive a change to either
+        if (Boolean.TRUE.equals(changes.getBlocked())
+                || !Objects.equals(previousUsername, saved.getUsername())
+                || !Objects.equals(previousRole, roleName(saved))) {
+            tokenRevocations.revokeSubject(previousUsername);
+        }
+        return saved;
     }
 
     @Override
     public void delete(UUID id) {
-        if (!userRepository.existsById(id)) throw new ResourceNotFoundException("User not found: " + id);
+        User user = findById(id);
         userRepository.deleteById(id);
+        tokenRevocations.revokeSubject(user.getUsername());
     }
 
     @Override
@@ -129,20 +143,26 @@ public class UserService implements IUserService {
                     r.setName(roleName);
                     return roleRepository.save(r);
                 });
+        String previousRole = roleName(user);
         user.setRole(role);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        if (!Objects.equals(previousRole, roleName(saved))) tokenRevocations.revokeSubject(saved.getUsername());
+        return saved;
+    }
+
+    private static String roleName(User user) {
+        return user.getRole() == null ? null : user.getRole().getName();
     }
 
     @Override
-    public AuthResponseDto login(LoginRequestDto dto, HttpSession session) {
+    public AuthResponseDto login(LoginRequestDto dto) {
         if (dto == null || dto.getUsername() == null || dto.getPassword() == null) {
             throw new IllegalArgumentException("username and password are required");
         }
-        UUID tableId = null;
         User user = userRepository.findByUsername(dto.getUsername())
                 .orElseThrow(() -> new ResourceNotFoundException("Invalid credentials"));
 
-        if (!passwordEncoder.matches(dto.getPassword(), user.getPasswordHash())) {
+        if (!passwordHasher.matches(dto.getPassword(), user.getPasswordHash())) {
             throw new ResourceNotFoundException("Invalid credentials");
         }
 
@@ -151,11 +171,18 @@ public class UserService implements IUserService {
             throw new ResourceNotFoundException("User account is blocked");
         }
 
+        // the BCrypt cost changed since this hash was made; replace it while the password is at hand
+        if (passwordHasher.needsRehash(user.getPasswordHash())) {
+            user.setPasswordHash(passwordHasher.encode(dto.getPassword()));
+            userRepository.save(user);
+        }
+
         boolean isUserRole = Optional.ofNullable(user.getRole())
                 .map(r -> r.getName().replace("ROLE_", "").equalsIgnoreCase("USER"))
                 .orElse(false);
 
         Integer tableNumber = null;
+        UUID tableId = null;
 
         if (isUserRole) {
             tableNumber = dto.getTableNumber();
@@ -176,35 +203,10 @@ public class UserService implements IUserService {
             if (!Objects.equals(table.getPinCode(), tablePin)) {
                 throw new IllegalArgumentException("Invalid table pin");
             }
-
-            user.setSessionTableNumber(tableNumber);
-            userRepository.save(user);
-
-            if (session != null) {
-                session.setAttribute("tableNumber", tableNumber);
-                session.setAttribute("tableId", table.getId());
-                logger.debug("login: set session.tableNumber={} sessionId={}", tableNumber, session.getId());
-            } else {
-                logger.debug("login: no HttpSession available, persisted sessionTableNumber for user={}", user.getUsername());
-            }
-        } else {
-            if (session != null) {
-                session.removeAttribute("tableNumber");
-                session.removeAttribute("tableId");
-                logger.debug("login: removed session.tableNumber sessionId={}", session.getId());
-            }
-            if (user.getSessionTableNumber() != null) {
-                user.setSessionTableNumber(null);
-                userRepository.save(user);
-            }
         }
 
-        List<String> rolesList = List.of(Optional.ofNullable(user.getRole()).map(Role::getName).orElse("ROLE_USER"));
-
-        String token = jwtUtils.generateToken(user.getUsername(), rolesList);
-
         return AuthResponseDto.builder()
-                .token(token)
+                .token(issueToken(user, tableNumber, tableId))
                 .username(user.getUsername())
                 .userId(user.getId())
                 .role(user.getRole() != null ? user.getRole().getName() : null)
@@ -213,6 +215,21 @@ public class UserService implements IUserService {
                 .build();
     }
 
+    /**
+     * The table a diner signed in at travels in the token, together with the account fields /me
+     * reports, so neither needs to be looked up again.
+     */
+    private String issueToken(User user, Integer tableNumber, UUID tableId) {
+        String role = Optional.ofNullable(user.getRole()).map(Role::getName).orElse("ROLE_USER");
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtPrincipal.USER_ID, user.getId());
+        claims.put(JwtPrincipal.ROLE, role);
+        claims.put(JwtPrincipal.FULL_NAME, user.getFullName());
+        claims.put(JwtPrincipal.TABLE_NUMBER, tableNumber);
+        claims.put(JwtPrincipal.TABLE_ID, tableId);
+        return jwtUtils.generateToken(user.getUsername(), List.of(role), claims);
+    }
+
     @Override
     public AuthResponseDto register(RegisterRequestDto req) {
         if (userRepository.findByUsername(req.getUsername()).isPresent()) {
@@ -221,7 +238,7 @@ public class UserService implements IUserService {
 
         User u = new User();
         u.setUsername(req.getUsername());
-        u.setPasswordHash(passwordEncoder.encode(req.getPassword()));
+        u.setPasswordHash(passwordHasher.encode(req.getPassword()));
         u.setFullName(req.getFullName());
 
         Role userRole = roleRepository.findByName("ROLE_USER").orElseGet(() -> {
@@ -236,11 +253,8 @@ public class UserService implements IUserService {
 
         User saved = userRepository.save(u);
 
-        List<String> rolesList = List.of(saved.getRole().getName());
-        String token = jwtUtils.generateToken(saved.getUsername(), rolesList);
-
         return AuthResponseDto.builder()
-                .token(token)
+                .token(issueToken(saved, null, null))
                 .username(saved.getUsername())
                 .userId(saved.getId())
                 .role(saved.getRole().getName())
@@ -248,7 +262,7 @@ public class UserService implements IUserService {
     }
 
     @Override
-    public Map<String, Object> me(Authentication authentication, HttpSession session) {
+    public Map<String, Object> me(Authentication authentication) {
         if (authentication == null || !authentication.isAuthenticated()
                 || "anonymousUser".equals(String.valueOf(authentication.getPrincipal()))) {
             throw new IllegalArgumentException("Unauthenticated");
@@ -256,21 +270,28 @@ public class UserService implements IUserService {
 
         Object principal = authentication.getPrincipal();
         Map<String, Object> dto = new LinkedHashMap<>();
-        String username = null;
-        String fullName = null;
 
-        if (principal instanceof UserDetails) {
-            UserDetails ud = (UserDetails) principal;
+        // tokens issued at login carry everything /me reports; blocked users' tokens are revoked
+        if (principal instanceof JwtPrincipal jwt && jwt.getUserId() != null) {
+            dto.put("username", jwt.getUsername());
+            dto.put("fullName", jwt.getFullName());
+            dto.put("authorities", authorityNames(jwt));
+            dto.put("userId", jwt.getUserId());
+            dto.put("role", jwt.getRole());
+            dto.put("blocked", false);
+            dto.put("tableNumber", jwt.getTableNumber());
+            dto.put("tableId", jwt.getTableId());
+            return dto;
+        }
+
+        String username = null;
+        if (principal instanceof UserDetails ud) {
             username = ud.getUsername();
             dto.put("username", username);
-            dto.put("fullName", userRepository.findByUsername(username).get().getFullName());
-            dto.put("authorities", ud.getAuthorities().stream()
-                    .map(GrantedAuthority::getAuthority)
-                    .collect(Collectors.toList()));
+            dto.put("authorities", authorityNames(ud));
         } else if (principal instanceof String) {
             username = (String) principal;
             dto.put("username", username);
-            dto.put("fullName", userRepository.findByUsername(username).get().getFullName());
         } else if (principal instanceof Map) {
             Map<String, Object> map = (Map<String, Object>) principal;
             dto.putAll(map);
@@ -279,76 +300,35 @@ public class UserService implements IUserService {
         }
 
         if (username != null) {
-            Optional<User> userOpt = userRepository.findByUsername(username);
-            userOpt.ifPresent(user -> dto.put("userId", user.getId()));
-            userOpt.ifPresent(user -> dto.put("role", user.getRole() != null ? user.getRole().getName() : null));
-            userOpt.ifPresent(user -> dto.put("blocked", user.getBlocked()));
-
-            if (session != null) {
-                logger.debug("/me sessionId={} attributes:", session.getId());
-                Enumeration<String> names = session.getAttributeNames();
-                while (names.hasMoreElements()) {
-                    String n = names.nextElement();
-                    logger.debug(" /me session[{}]={}", n, session.getAttribute(n));
-                }
-            } else {
-                logger.debug("/me: session is null");
-            }
-
-            Integer tableNumber = null;
-
-            if (session != null) {
-                Object attr = session.getAttribute("tableNumber");
-                if (attr instanceof Integer) {
-                    tableNumber = (Integer) attr;
-                } else if (attr instanceof Number) {
-                    tableNumber = ((Number) attr).intValue();
-                } else if (attr instanceof String) {
-                    try {
-                        tableNumber = Integer.valueOf((String) attr);
-                    } catch (NumberFormatException ignored) {
-                        logger.debug("/me: session.tableNumber is String but not numeric: {}", attr);
-                    }
-                } else if (attr != null) {
-                    logger.debug("/me: session.tableNumber present but of type {} value={}", attr.getClass(), attr);
-                }
-            }
-
-            if (tableNumber == null) {
-                tableNumber = userOpt.map(User::getSessionTableNumber).orElse(null);
-                logger.debug("/me: fallback to DB sessionTableNumber={}", tableNumber);
-            } else {
-                logger.debug("/me: using session tableNumber={}", tableNumber);
-            }
-
-            dto.put("tableNumber", tableNumber);
-
-            UUID tableId = null;
-            if (tableNumber != null) {
-                String code = "T" + tableNumber;
-                Optional<RestaurantTable> optTable = restaurantTableRepository.findByCode(code);
-                if (optTable.isPresent()) {
-                    tableId = optTable.get().getId();
-                } else {
-                    logger.debug("/me: no RestaurantTable found for code {}", code);
-                }
-            }
-            dto.put("tableId", tableId);
+            userRepository.findByUsername(username).ifPresent(user -> {
+                dto.put("fullName", user.getFullName());
+                dto.put("userId", user.getId());
+                dto.put("role", user.getRole() != null ? user.getRole().getName() : null);
+                dto.put("blocked", user.getBlocked());
+            });
+            dto.put("tableNumber", null);
+            dto.put("tableId", null);
         }
 
         return dto;
     }
 
+    private static List<String> authorityNames(UserDetails user) {
+        return user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public boolean verifyPassword(User user, String rawPassword) {
         if (user == null || rawPassword == null) return false;
-        return passwordEncoder.matches(rawPassword, user.getPasswordHash());
+        return passwordHasher.matches(rawPassword, user.getPasswordHash());
     }
 
     @Override
     public void setPassword(UUID userId, String newRawPassword) {
         User u = findById(userId);
-        u.setPasswordHash(passwordEncoder.encode(newRawPassword));
+        u.setPasswordHash(passwordHasher.encode(newRawPassword));
         userRepository.save(u);
     }
 
@@ -356,6 +336,8 @@ public class UserService implements IUserService {
     public User block(UUID userId, boolean blocked) {
         User u = findById(userId);
         u.setBlocked(blocked);
-        return userRepository.save(u);
+        User saved = userRepository.save(u);
+        if (blocked) tokenRevocations.revokeSubject(saved.getUsername());
+        return saved;
     }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package org.example.main.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FavoriteIngredientsMigrationTest {
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    FavoriteIngredientsMigration migration;
+
+    @Test
+    void run_withoutLegacyColumn_doesNothing() {
+        when(jdbcTemplate.queryForObject(FavoriteIngredientsMigration.LEGACY_COLUMN_SQL, Integer.class)).thenReturn(0);
+
+        migration.run(null);
+
+        verify(jdbcTemplate, never()).update(anyString());
+    }
+
+    @Test
+    void run_withLegacyColumn_backfillsJson() {
+        when(jdbcTemplate.queryForObject(FavoriteIngredientsMigration.LEGACY_COLUMN_SQL, Integer.class)).thenReturn(1);
+        when(jdbcTemplate.update(FavoriteIngredientsMigration.BACKFILL_SQL)).thenReturn(3);
+
+        migration.run(null);
+
+        verify(jdbcTemplate).update(FavoriteIngredientsMigration.BACKFILL_SQL);
+    }
+
+    @Test
+    void run_swallowsJdbcFailures() {
+        when(jdbcTemplate.queryForObject(FavoriteIngredientsMigration.LEGACY_COLUMN_SQL, Integer.class))
+                .thenThrow(new RuntimeException("db down"));
+
+        migration.run(null);
+
+        verify(jdbcTemplate, never()).update(anyString());
+    }
+}
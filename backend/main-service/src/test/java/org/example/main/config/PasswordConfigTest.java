@@ -11,7 +11,7 @@ class PasswordConfigTest {
     @Test
     void passwordEncoderBeanProvided() {
         PasswordConfig cfg = new PasswordConfig();
-        PasswordEncoder encoder = cfg.passwordEncoder();
+        PasswordEncoder encoder = cfg.passwordEncoder(4);
         assertThat(encoder).isInstanceOf(BCryptPasswordEncoder.class);
         String encoded = encoder.encode("password");
         assertThat(encoder.matches("password", encoded)).isTrue();
@@ -0,0 +1,82 @@
+package org.example.main.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new RateLimiter(new SimpleMeterRegistry(), null, List.of("GET /api/orders/**=2/60"), () -> 0L));
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String ip) {
+        MockHttpServletRequest req = new MockHttpServletRequest(method, path);
+        req.setRemoteAddr(ip);
+        return req;
+    }
+
+    @Test
+    void unlimitedRoute_passesThrough_withoutHeaders() throws Exception {
+        MockHttpServletRequest req = request("POST", "/api/orders", "10.0.0.1");
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilterInternal(req, resp, chain);
+
+        verify(chain).doFilter(req, resp);
+        assertThat(resp.getHeader("RateLimit-Limit")).isNull();
+    }
+
+    @Test
+    void limitedRoute_setsHeaders_andRejectsWith429WhenEmpty() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilterInternal(request("GET", "/api/orders", "10.0.0.1"), first, chain);
+        filter.doFilterInternal(request("GET", "/api/orders/active", "10.0.0.1"), new MockHttpServletResponse(), chain);
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilterInternal(request("GET", "/api/orders", "10.0.0.1"), rejected, chain);
+
+        assertThat(first.getHeader("RateLimit-Limit")).isEqualTo("2");
+        assertThat(first.getHeader("RateLimit-Remaining")).isEqualTo("1");
+        assertThat(first.getHeader("RateLimit-Reset")).isEqualTo("1");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("RateLimit-Remaining")).isEqualTo("0");
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(rejected.getContentAsString()).contains("too_many_requests");
+        verify(chain, times(2)).doFilter(any(), any());
+    }
+
+    @Test
+    void signedInClients_areLimitedByUser_notByIp() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "tablet-1", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        filter.doFilterInternal(request("GET", "/api/orders", "10.0.0.1"), new MockHttpServletResponse(), chain);
+        filter.doFilterInternal(request("GET", "/api/orders", "10.0.0.2"), new MockHttpServletResponse(), chain);
+        MockHttpServletResponse third = new MockHttpServletResponse();
+        filter.doFilterInternal(request("GET", "/api/orders", "10.0.0.3"), third, chain);
+        assertThat(third.getStatus()).isEqualTo(429);
+
+        SecurityContextHolder.clearContext();
+        MockHttpServletResponse anonymous = new MockHttpServletResponse();
+        filter.doFilterInternal(request("GET", "/api/orders", "10.0.0.3"), anonymous, chain);
+        assertThat(anonymous.getStatus()).isEqualTo(200);
+        assertThat(RateLimitFilter.clientKey(request("GET", "/", "10.0.0.9"))).isEqualTo("ip:10.0.0.9");
+    }
+}
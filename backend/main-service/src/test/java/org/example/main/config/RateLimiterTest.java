@@ -0,0 +1,164 @@
+package org.example.main.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RateLimiterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    private RateLimiter limiter(String... routes) {
+        return new RateLimiter(registry, null, List.of(routes), now::get);
+    }
+
+    @Test
+    void parseRoutes_readsMethodPatternAndLimits() {
+        List<RateLimiter.Route> routes = RateLimiter.parseRoutes(List.of(" get /api/orders/**=60/30", "/api/ai/**=10", ""));
+
+        assertThat(routes).containsExactly(
+                new RateLimiter.Route("GET", "/api/orders/**", 60, 30),
+                new RateLimiter.Route(null, "/api/ai/**", 10, 10));
+        assertThatThrownBy(() -> RateLimiter.parseRoutes(List.of("/api/x")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RateLimiter.parseRoutes(List.of("/api/x=0/5")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void match_usesFirstMatchingRoute_andIgnoresOthers() {
+        RateLimiter limiter = limiter("GET /api/orders/**=5/5", "/api/**=100/100");
+
+        assertThat(limiter.match("GET", "/api/orders/active").capacity()).isEqualTo(5);
+        assertThat(limiter.match("POST", "/api/orders").capacity()).isEqualTo(100);
+        assertThat(limiter(RateLimiter.DEFAULT_ROUTES.split(",")).match("GET", "/api/menu")).isNull();
+        assertThat(limiter(RateLimiter.DEFAULT_ROUTES.split(",")).match("POST", "/api/ai/recommendations")).isNotNull();
+    }
+
+    @Test
+    void bucket_allowsBurst_thenRejects_andRefillsContinuously() {
+        // 3 tokens, one more per second
+        RateLimiter limiter = limiter("/api/orders/**=3/60");
+        RateLimiter.Route route = limiter.match("GET", "/api/orders");
+
+        assertThat(limiter.tryAcquire(route, "ip:a").remaining()).isEqualTo(2);
+        assertThat(limiter.tryAcquire(route, "ip:a").remaining()).isEqualTo(1);
+        RateLimiter.Decision last = limiter.tryAcquire(route, "ip:a");
+        assertThat(last.allowed()).isTrue();
+        assertThat(last.remaining()).isZero();
+        assertThat(last.resetSeconds()).isEqualTo(3);
+
+        RateLimiter.Decision rejected = limiter.tryAcquire(route, "ip:a");
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.limit()).isEqualTo(3);
+        assertThat(rejected.retryAfterSeconds()).isEqualTo(1);
+        assertThat(limiter.tryAcquire(route, "ip:b").allowed()).isTrue();
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(limiter.tryAcquire(route, "ip:a").allowed()).isTrue();
+        assertThat(limiter.tryAcquire(route, "ip:a").allowed()).isFalse();
+        assertThat(registry.get("http.ratelimit.rejected").tag("route", "/api/orders/**").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void sweep_dropsOnlyRefilledBuckets() {
+        RateLimiter limiter = limiter("/api/orders/**=2/60");
+        RateLimiter.Route route = limiter.match("GET", "/api/orders");
+        limiter.tryAcquire(route, "ip:a");
+        limiter.tryAcquire(route, "ip:b");
+        limiter.tryAcquire(route, "ip:b");
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        limiter.sweep();
+        assertThat(limiter.trackedBuckets()).isEqualTo(1);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        limiter.sweep();
+        assertThat(limiter.trackedBuckets()).isZero();
+    }
+
+    @Test
+    void sweepRacingARequest_doesNotHandOutAnExtraToken() {
+        AtomicBoolean sweepOnNextTick = new AtomicBoolean();
+        RateLimiter[] ref = new RateLimiter[1];
+        // the sweep runs between the request reading its bucket and taking the token
+        RateLimiter limiter = new RateLimiter(registry, null, List.of("/api/orders/**=1/1"), () -> {
+            if (sweepOnNextTick.compareAndSet(true, false)) ref[0].sweep();
+            return now.get();
+        });
+        ref[0] = limiter;
+        RateLimiter.Route route = limiter.match("GET", "/api/orders");
+        assertThat(limiter.tryAcquire(route, "ip:a").allowed()).isTrue();
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        sweepOnNextTick.set(true);
+        assertThat(limiter.tryAcquire(route, "ip:a").allowed()).isTrue();
+
+        assertThat(limiter.tryAcquire(route, "ip:a").allowed()).isFalse();
+        assertThat(limiter.trackedBuckets()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentRequests_neverExceedCapacity() throws Exception {
+        RateLimiter limiter = limiter("/api/orders/**=50/1");
+        RateLimiter.Route route = limiter.match("GET", "/api/orders");
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<java.util.concurrent.Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 100; i++) {
+                    if (limiter.tryAcquire(route, "user:tablet").allowed()) allowed.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (var f : futures) f.get(10, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertThat(allowed.get()).isEqualTo(50);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redisMode_usesSharedBucket_andFallsBackToLocalOnFailure() {
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        RateLimiter limiter = new RateLimiter(registry, redis, List.of("/api/orders/**=3/60"), now::get);
+        RateLimiter.Route route = limiter.match("GET", "/api/orders");
+
+        when(redis.execute(any(RedisScript.class), eq(List.of("ratelimit:/api/orders/**|ip:a")), eq("1000"), eq("3000")))
+                .thenReturn(List.of(0L, 3000L));
+        RateLimiter.Decision shared = limiter.tryAcquire(route, "ip:a");
+        assertThat(shared.allowed()).isFalse();
+        assertThat(shared.remaining()).isZero();
+        assertThat(shared.retryAfterSeconds()).isEqualTo(1);
+        assertThat(limiter.trackedBuckets()).isZero();
+
+        when(redis.execute(any(RedisScript.class), anyList(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        RateLimiter.Decision local = limiter.tryAcquire(route, "ip:a");
+        assertThat(local.allowed()).isTrue();
+        assertThat(local.remaining()).isEqualTo(2);
+        assertThat(limiter.trackedBuckets()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.main.config;
+
+import org.example.main.service.table.ReservationConflicts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationSchemaMigrationTest {
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    ReservationSchemaMigration migration;
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2026, 10, 1, 18, 0, 0, 0, ZoneOffset.UTC);
+
+    @BeforeEach
+    void setUp() {
+        migration = new ReservationSchemaMigration(jdbcTemplate, false);
+    }
+
+    private static ReservationSchemaMigration.Booking booking(UUID table, int fromHour, int toHour) {
+        return new ReservationSchemaMigration.Booking(UUID.randomUUID(), table, T0.plusHours(fromHour), T0.plusHours(toHour));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void existingOverlaps(List<ReservationSchemaMigration.Booking> bookings) {
+        when(jdbcTemplate.query(eq(ReservationSchemaMigration.OVERLAPPING_SQL), any(RowMapper.class))).thenReturn(bookings);
+    }
+
+    @Test
+    void run_createsPartialRangeIndex_andOverlapConstraint() {
+        migration.run(null);
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute(ReservationSchemaMigration.ACTIVE_RANGE_INDEX_SQL);
+        inOrder.verify(jdbcTemplate).execute(ReservationSchemaMigration.BTREE_GIST_SQL);
+        inOrder.verify(jdbcTemplate).execute(ReservationSchemaMigration.PERIOD_COLUMN_SQL);
+        inOrder.verify(jdbcTemplate).execute(ReservationSchemaMigration.NO_OVERLAP_CONSTRAINT_SQL);
+        assertThat(ReservationSchemaMigration.NO_OVERLAP_CONSTRAINT_SQL)
+                .contains("EXCLUDE USING gist (table_id WITH =, period WITH &&) WHERE (NOT is_deleted)");
+        assertThat(ReservationSchemaMigration.ACTIVE_RANGE_INDEX_SQL).contains("IF NOT EXISTS").contains("WHERE is_deleted = false");
+    }
+
+    @Test
+    void run_withoutBtreeGist_failsStartup() {
+        doThrow(new RuntimeException("permission denied")).when(jdbcTemplate).execute(ReservationSchemaMigration.BTREE_GIST_SQL);
+
+        assertThatThrownBy(() -> migration.run(null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining(ReservationConflicts.OVERLAP_CONSTRAINT)
+                .hasRootCauseMessage("permission denied");
+        verify(jdbcTemplate, never()).execute(ReservationSchemaMigration.NO_OVERLAP_CONSTRAINT_SQL);
+    }
+
+    @Test
+    void run_rangeIndexFailure_isSwallowed() {
+        doThrow(new RuntimeException("permission denied")).when(jdbcTemplate).execute(ReservationSchemaMigration.ACTIVE_RANGE_INDEX_SQL);
+
+        assertThatCode(() -> migration.run(null)).doesNotThrowAnyException();
+        verify(jdbcTemplate).execute(ReservationSchemaMigration.NO_OVERLAP_CONSTRAINT_SQL);
+    }
+
+    @Test
+    void laterClashes_keepsTheEarliestBooking_andOnlyCancelsWhatStillOverlaps() {
+        UUID table = UUID.randomUUID();
+        var first = booking(table, 0, 2);
+        var second = booking(table, 1, 3);
+        var third = booking(table, 2, 4);
+        var otherTable = booking(UUID.randomUUID(), 0, 2);
+
+        // second clashes with first; third only clashed with second, which goes
+        assertThat(ReservationSchemaMigration.laterClashes(List.of(first, second, otherTable, third)))
+                .containsExactly(second.id());
+    }
+
+    @Test
+    void existingOverlaps_stopStartupAndNameTheReservations() {
+        UUID table = UUID.randomUUID();
+        var kept = booking(table, 0, 2);
+        var clash = booking(table, 1, 3);
+        existingOverlaps(List.of(kept, clash));
+
+        assertThatThrownBy(() -> migration.run(null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining(clash.id().toString())
+                .hasMessageNotContaining(kept.id().toString())
+                .hasMessageContaining("app.reservations.cancel-overlapping-on-startup");
+        verify(jdbcTemplate, never()).execute(ReservationSchemaMigration.NO_OVERLAP_CONSTRAINT_SQL);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void existingOverlaps_areCancelled_whenConfigured() {
+        migration = new ReservationSchemaMigration(jdbcTemplate, true);
+        UUID table = UUID.randomUUID();
+        var clash = booking(table, 1, 3);
+        existingOverlaps(List.of(booking(table, 0, 2), clash));
+
+        migration.run(null);
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).batchUpdate(eq(ReservationSchemaMigration.CANCEL_SQL),
+                argThat((List<Object[]> args) -> args.size() == 1 && args.get(0)[0].equals(clash.id())));
+        inOrder.verify(jdbcTemplate).execute(ReservationSchemaMigration.NO_OVERLAP_CONSTRAINT_SQL);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void overlapCheck_isSkipped_onceTheConstraintExists() {
+        when(jdbcTemplate.queryForObject(ReservationSchemaMigration.CONSTRAINT_EXISTS_SQL, Boolean.class,
+                ReservationConflicts.OVERLAP_CONSTRAINT)).thenReturn(true);
+
+        migration.run(null);
+
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class));
+    }
+}
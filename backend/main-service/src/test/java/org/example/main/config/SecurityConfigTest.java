@@ -2,6 +2,9 @@ package org.example.main.config;
 
 import org.example.main.security.JwtAuthenticationFilter;
 import org.example.main.security.JwtUtils;
+import org.example.main.security.KitchenCallbackAuthenticationFilter;
+import org.example.main.security.TokenRevocationList;
+import org.example.main.security.VerifiedTokenCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
@@ -92,7 +95,7 @@ class SecurityConfigTest {
         SecurityConfig cfg = new SecurityConfig();
 
         JwtUtils jwtUtils = mock(JwtUtils.class);
-        UserDetailsService uds = mock(UserDetailsService.class);
+        VerifiedTokenCache tokenCache = new VerifiedTokenCache(100);
         PasswordEncoder pe = mock(PasswordEncoder.class);
 
         HttpSecurity http = mock(HttpSecurity.class);
@@ -105,12 +108,14 @@ class SecurityConfigTest {
 
         
         when(http.addFilterBefore(any(Filter.class), eq(UsernamePasswordAuthenticationFilter.class))).thenReturn(http);
+        when(http.addFilterBefore(any(Filter.class), eq(JwtAuthenticationFilter.class))).thenReturn(http);
+        when(http.addFilterAfter(any(Filter.class), eq(JwtAuthenticationFilter.class))).thenReturn(http);
 
         
         DefaultSecurityFilterChain chain = mock(DefaultSecurityFilterChain.class);
         when(http.build()).thenReturn(chain);
 
-        SecurityFilterChain out = cfg.securityFilterChain(http, jwtUtils, uds, pe);
+        SecurityFilterChain out = cfg.securityFilterChain(http, jwtUtils, tokenCache, mock(TokenRevocationList.class), mock(RateLimiter.class), pe, "callback-secret");
         assertThat(out).isSameAs(chain);
 
         verify(http).cors(any());
@@ -118,6 +123,8 @@ class SecurityConfigTest {
         verify(http).sessionManagement(any());
         verify(http).authorizeHttpRequests(any());
         verify(http).addFilterBefore(any(Filter.class), eq(UsernamePasswordAuthenticationFilter.class));
+        verify(http).addFilterBefore(any(KitchenCallbackAuthenticationFilter.class), eq(JwtAuthenticationFilter.class));
+        verify(http).addFilterAfter(any(RateLimitFilter.class), eq(JwtAuthenticationFilter.class));
         verify(http).build();
     }
 
@@ -126,7 +133,7 @@ class SecurityConfigTest {
         SecurityConfig cfg = new SecurityConfig();
 
         JwtUtils jwtUtils = mock(JwtUtils.class);
-        UserDetailsService uds = mock(UserDetailsService.class);
+        VerifiedTokenCache tokenCache = new VerifiedTokenCache(100);
         PasswordEncoder pe = mock(PasswordEncoder.class);
 
         HttpSecurity http = mock(HttpSecurity.class);
@@ -135,10 +142,12 @@ class SecurityConfigTest {
         when(http.sessionManagement(any())).thenReturn(http);
         when(http.authorizeHttpRequests(any())).thenReturn(http);
         when(http.addFilterBefore(any(Filter.class), eq(UsernamePasswordAuthenticationFilter.class))).thenReturn(http);
+        when(http.addFilterBefore(any(Filter.class), eq(JwtAuthenticationFilter.class))).thenReturn(http);
+        when(http.addFilterAfter(any(Filter.class), eq(JwtAuthenticationFilter.class))).thenReturn(http);
 
         when(http.build()).thenThrow(new IllegalStateException("build-fail"));
 
-        assertThatThrownBy(() -> cfg.securityFilterChain(http, jwtUtils, uds, pe))
+        assertThatThrownBy(() -> cfg.securityFilterChain(http, jwtUtils, tokenCache, mock(TokenRevocationList.class), mock(RateLimiter.class), pe, "callback-secret"))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("build-fail");
 
@@ -150,7 +159,7 @@ class SecurityConfigTest {
         SecurityConfig cfg = new SecurityConfig();
 
         JwtUtils jwtUtils = mock(JwtUtils.class);
-        UserDetailsService uds = mock(UserDetailsService.class);
+        VerifiedTokenCache tokenCache = new VerifiedTokenCache(100);
         PasswordEncoder pe = mock(PasswordEncoder.class);
 
         HttpSecurity http = mock(HttpSecurity.class);
@@ -160,10 +169,12 @@ class SecurityConfigTest {
         when(http.authorizeHttpRequests(any())).thenReturn(http);
 
         when(http.addFilterBefore(any(Filter.class), eq(UsernamePasswordAuthenticationFilter.class))).thenReturn(http);
+        when(http.addFilterBefore(any(Filter.class), eq(JwtAuthenticationFilter.class))).thenReturn(http);
+        when(http.addFilterAfter(any(Filter.class), eq(JwtAuthenticationFilter.class))).thenReturn(http);
         DefaultSecurityFilterChain chain = mock(DefaultSecurityFilterChain.class);
         when(http.build()).thenReturn(chain);
 
-        SecurityFilterChain out = cfg.securityFilterChain(http, jwtUtils, uds, pe);
+        SecurityFilterChain out = cfg.securityFilterChain(http, jwtUtils, tokenCache, mock(TokenRevocationList.class), mock(RateLimiter.class), pe, "callback-secret");
         assertThat(out).isSameAs(chain);
 
         ArgumentCaptor<Filter> filterCaptor = ArgumentCaptor.forClass(Filter.class);
@@ -180,7 +191,7 @@ class SecurityConfigTest {
         SecurityConfig cfg = new SecurityConfig();
 
         JwtUtils jwtUtils = mock(JwtUtils.class);
-        UserDetailsService uds = mock(UserDetailsService.class);
+        VerifiedTokenCache tokenCache = new VerifiedTokenCache(100);
         PasswordEncoder pe = mock(PasswordEncoder.class);
 
         HttpSecurity http = mock(HttpSecurity.class);
@@ -192,11 +203,13 @@ class SecurityConfigTest {
         
         ArgumentCaptor<Filter> captor = ArgumentCaptor.forClass(Filter.class);
         when(http.addFilterBefore(captor.capture(), eq(UsernamePasswordAuthenticationFilter.class))).thenReturn(http);
+        when(http.addFilterBefore(any(Filter.class), eq(JwtAuthenticationFilter.class))).thenReturn(http);
+        when(http.addFilterAfter(any(Filter.class), eq(JwtAuthenticationFilter.class))).thenReturn(http);
 
         DefaultSecurityFilterChain chain = mock(DefaultSecurityFilterChain.class);
         when(http.build()).thenReturn(chain);
 
-        SecurityFilterChain out = cfg.securityFilterChain(http, jwtUtils, uds, pe);
+        SecurityFilterChain out = cfg.securityFilterChain(http, jwtUtils, tokenCache, mock(TokenRevocationList.class), mock(RateLimiter.class), pe, "callback-secret");
         assertThat(out).isSameAs(chain);
 
         Filter registered = captor.getValue();
@@ -208,7 +221,7 @@ class SecurityConfigTest {
     void passwordEncoder_isBCrypt_and_cors_configuration_values() {
         SecurityConfig cfg = new SecurityConfig();
 
-        PasswordEncoder encoder = cfg.passwordEncoder();
+        PasswordEncoder encoder = cfg.passwordEncoder(4);
         assertThat(encoder).isNotNull();
         assertThat(encoder).isInstanceOf(BCryptPasswordEncoder.class);
 
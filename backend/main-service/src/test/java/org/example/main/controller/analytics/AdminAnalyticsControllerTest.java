@@ -0,0 +1,37 @@
+package org.example.main.controller.analytics;
+
+import org.example.main.dto.response.analytics.LiveAnalyticsResponseDto;
+import org.example.main.service.analytics.LiveSalesAnalytics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminAnalyticsControllerTest {
+
+    @Mock
+    LiveSalesAnalytics liveSalesAnalytics;
+
+    @InjectMocks
+    AdminAnalyticsController controller;
+
+    @Test
+    void live_returnsInMemorySnapshot() {
+        LiveAnalyticsResponseDto dto = LiveAnalyticsResponseDto.builder().windows(List.of()).build();
+        when(liveSalesAnalytics.snapshot()).thenReturn(dto);
+
+        ResponseEntity<LiveAnalyticsResponseDto> resp = controller.live();
+
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(resp.getBody()).isSameAs(dto);
+    }
+}
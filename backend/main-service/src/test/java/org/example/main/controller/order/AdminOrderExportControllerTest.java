@@ -0,0 +1,87 @@
+package org.example.main.controller.order;
+
+import org.example.main.service.report.IOrderExportService;
+import org.example.main.service.report.OrderExportFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminOrderExportControllerTest {
+
+    private static final OffsetDateTime FROM = OffsetDateTime.of(2026, 2, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final OffsetDateTime TO = FROM.plusMonths(1);
+
+    @Mock
+    IOrderExportService orderExportService;
+
+    @InjectMocks
+    AdminOrderExportController controller;
+
+    private void stubExport(OrderExportFormat format, String payload) throws Exception {
+        when(orderExportService.export(any(), eq(FROM), eq(TO), eq(format))).thenAnswer(inv -> {
+            OutputStream out = inv.getArgument(0);
+            out.write(payload.getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+    }
+
+    @Test
+    void export_csv_streamsPlainBody() throws Exception {
+        stubExport(OrderExportFormat.CSV, "order_id\n");
+
+        ResponseEntity<StreamingResponseBody> resp = controller.export(FROM, TO, "csv", null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        resp.getBody().writeTo(out);
+
+        assertThat(resp.getHeaders().getContentType().toString()).startsWith("text/csv");
+        assertThat(resp.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION)).contains("orders_20260201T0000_20260301T0000.csv");
+        assertThat(resp.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("order_id\n");
+    }
+
+    @Test
+    void export_ndjson_withAcceptEncodingGzip_compressesBody() throws Exception {
+        stubExport(OrderExportFormat.NDJSON, "{}\n");
+
+        ResponseEntity<StreamingResponseBody> resp = controller.export(FROM, TO, "ndjson", "gzip, deflate, br");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        resp.getBody().writeTo(out);
+
+        assertThat(resp.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(resp.getHeaders().getContentType().toString()).isEqualTo("application/x-ndjson");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("{}\n");
+        }
+    }
+
+    @Test
+    void export_invalidRangeOrFormat_returnsBadRequest() {
+        assertThatThrownBy(() -> controller.export(TO, FROM, "csv", null))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> controller.export(FROM, TO, "xlsx", null))
+                .isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(orderExportService);
+    }
+}
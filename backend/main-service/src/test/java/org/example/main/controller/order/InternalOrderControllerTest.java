@@ -6,13 +6,17 @@ import org.example.main.feign.KitchenClient;
 import org.example.main.model.order.OrderEntity;
 import org.example.main.repository.order.OrderRepository;
 import org.example.main.service.order.OrderService;
+import org.example.main.dto.kitchen.KitchenReadyNotificationDto;
 import org.example.main.dto.kitchen.KitchenStatusDto;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -58,6 +62,39 @@ class InternalOrderControllerTest {
         verify(orderService).updateKitchenStatus(orderId, "READY", null);
     }
 
+    @Test
+    void kitchenReadyBatch_updatesEachOrder_andReportsOnlyRetryableFailures() {
+        UUID ok = UUID.randomUUID();
+        UUID gone = UUID.randomUUID();
+        UUID broken = UUID.randomUUID();
+        UUID kitchenOrderId = UUID.randomUUID();
+        lenient().doThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"))
+                .when(orderService).updateKitchenStatus(eq(gone), anyString(), any());
+        lenient().doThrow(new RuntimeException("db down"))
+                .when(orderService).updateKitchenStatus(eq(broken), anyString(), any());
+
+        ResponseEntity<Map<String, Object>> resp = ctrl.kitchenReadyBatch(List.of(
+                new KitchenReadyNotificationDto(ok, kitchenOrderId, null),
+                new KitchenReadyNotificationDto(gone, null, "READY"),
+                new KitchenReadyNotificationDto(broken, null, "READY")));
+
+        assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(resp.getBody()).containsEntry("updated", 1).containsEntry("failed", List.of(broken));
+        verify(orderService).updateKitchenStatus(ok, "READY", kitchenOrderId);
+    }
+
+    @Test
+    void kitchenReadyBatch_statusTheKitchenDoesNotReport_rejectsTheWholeBatch() {
+        UUID ok = UUID.randomUUID();
+
+        assertThatThrownBy(() -> ctrl.kitchenReadyBatch(List.of(
+                new KitchenReadyNotificationDto(ok, null, "ready"),
+                new KitchenReadyNotificationDto(UUID.randomUUID(), null, "COMPLETED"))))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        verifyNoInteractions(orderService);
+    }
+
     @Test
     void ping_returnsPong() {
         ResponseEntity<String> resp = ctrl.ping();
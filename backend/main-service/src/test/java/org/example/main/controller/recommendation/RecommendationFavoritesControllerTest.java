@@ -1,19 +1,34 @@
 package org.example.main.controller.recommendation;
 
+import org.example.main.dto.response.recommendation.FavoriteIngredientCountResponseDto;
+import org.example.main.dto.response.recommendation.FavoriteRecommendationPageResponseDto;
 import org.example.main.dto.response.recommendation.FavoriteRecommendationResponseDto;
 import org.example.main.model.recommendation.FavoriteRecommendation;
+import org.example.main.model.user.User;
 import org.example.main.repository.recommendation.FavoriteRecommendationRepository;
+import org.example.main.repository.user.UserRepository;
+import org.example.main.security.JwtPrincipal;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,61 +37,115 @@ class RecommendationFavoritesControllerTest {
     @Mock
     FavoriteRecommendationRepository repository;
 
+    @Mock
+    UserRepository userRepository;
+
     @InjectMocks
     RecommendationFavoritesController controller;
 
-    @Test
-    void listFavorites_withIngredients_returnsDtoList() {
-        FavoriteRecommendation ent = FavoriteRecommendation.builder()
+    private final UUID userId = UUID.randomUUID();
+    private final Authentication auth = new UsernamePasswordAuthenticationToken("alice", null, List.of());
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(userId);
+        user.setUsername("alice");
+        lenient().when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+    }
+
+    private FavoriteRecommendation fav(OffsetDateTime at) {
+        return FavoriteRecommendation.builder()
                 .id(UUID.randomUUID())
-                .menuItemId(UUID.randomUUID())
                 .menuItemName("Dish")
-                .description("Tasty")
-                .ingredients("tomato,cheese")
-                .calories(200)
-                .protein(10)
-                .fats(5)
-                .carbs(30)
-                .createdBy(UUID.randomUUID())
-                .createdAt(OffsetDateTime.now())
+                .ingredients(List.of("tomato", "cheese"))
+                .createdBy(userId)
+                .createdAt(at)
                 .build();
+    }
 
-        when(repository.findAll()).thenReturn(List.of(ent));
+    @Test
+    void listFavorites_firstPage_queriesCurrentUserNewestFirst() {
+        FavoriteRecommendation ent = fav(OffsetDateTime.now());
+        when(repository.findByCreatedBy(eq(userId), any(Pageable.class))).thenReturn(List.of(ent));
 
-        ResponseEntity<List<FavoriteRecommendationResponseDto>> resp = controller.listFavorites(null);
+        ResponseEntity<FavoriteRecommendationPageResponseDto> resp = controller.listFavorites(null, null, auth);
 
         assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
-        List<FavoriteRecommendationResponseDto> body = resp.getBody();
-        assertThat(body).hasSize(1);
-        FavoriteRecommendationResponseDto dto = body.get(0);
-        assertThat(dto.getMenuItemName()).isEqualTo("Dish");
-        assertThat(dto.getIngredients()).containsExactly("tomato", "cheese");
-        verify(repository).findAll();
+        FavoriteRecommendationPageResponseDto body = resp.getBody();
+        assertThat(body.getItems()).hasSize(1);
+        assertThat(body.getItems().get(0).getIngredients()).containsExactly("tomato", "cheese");
+        assertThat(body.getNextCursor()).isNull();
+
+        ArgumentCaptor<Pageable> page = ArgumentCaptor.forClass(Pageable.class);
+        verify(repository).findByCreatedBy(eq(userId), page.capture());
+        assertThat(page.getValue().getPageSize()).isEqualTo(RecommendationFavoritesController.DEFAULT_PAGE_SIZE + 1);
+        assertThat(page.getValue().getSort().getOrderFor("createdAt").getDirection()).isEqualTo(Sort.Direction.DESC);
+        verify(repository, never()).findAll();
     }
 
     @Test
-    void listFavorites_withNullIngredients_producesNullIngredientsInDto() {
-        FavoriteRecommendation ent = FavoriteRecommendation.builder()
-                .id(UUID.randomUUID())
-                .menuItemName("Plain")
-                .ingredients(null)
-                .createdAt(OffsetDateTime.now())
-                .build();
+    void listFavorites_jwtPrincipal_usesUserIdClaim_withoutUserLookup() {
+        UUID claimedId = UUID.randomUUID();
+        JwtPrincipal principal = new JwtPrincipal("bob", List.of(), claimedId, "ROLE_USER", "Bob", null, null);
+        Authentication jwtAuth = new UsernamePasswordAuthenticationToken(principal, null, List.of());
+        when(repository.findByCreatedBy(eq(claimedId), any(Pageable.class))).thenReturn(List.of());
+
+        controller.listFavorites(null, null, jwtAuth);
 
-        when(repository.findAll()).thenReturn(List.of(ent));
+        verify(repository).findByCreatedBy(eq(claimedId), any(Pageable.class));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void listFavorites_fullPage_returnsCursorThatResumesAfterLastItem() {
+        OffsetDateTime base = OffsetDateTime.now();
+        List<FavoriteRecommendation> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) rows.add(fav(base.minusMinutes(i)));
+        when(repository.findByCreatedBy(eq(userId), any(Pageable.class))).thenReturn(rows);
 
-        ResponseEntity<List<FavoriteRecommendationResponseDto>> resp = controller.listFavorites(Boolean.TRUE);
+        FavoriteRecommendationPageResponseDto first = controller.listFavorites(null, 2, auth).getBody();
 
-        assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
-        List<FavoriteRecommendationResponseDto> body = resp.getBody();
-        assertThat(body).hasSize(1);
-        FavoriteRecommendationResponseDto dto = body.get(0);
-        assertThat(dto.getIngredients()).isNull();
-        verify(repository).findAll();
+        assertThat(first.getItems()).hasSize(2);
+        assertThat(first.getNextCursor()).isNotNull();
+
+        FavoriteRecommendation last = rows.get(1);
+        when(repository.findByCreatedByBefore(eq(userId), eq(last.getCreatedAt()), eq(last.getId()), any(Pageable.class)))
+                .thenReturn(List.of(rows.get(2)));
+
+        FavoriteRecommendationPageResponseDto second = controller.listFavorites(first.getNextCursor(), 2, auth).getBody();
+
+        assertThat(second.getItems()).extracting(FavoriteRecommendationResponseDto::getId).containsExactly(rows.get(2).getId());
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void listFavorites_invalidCursor_isBadRequest() {
+        assertThatThrownBy(() -> controller.listFavorites("%%not-a-cursor", null, auth))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    @Test
+    void listFavorites_withoutAuthentication_isUnauthorized() {
+        assertThatThrownBy(() -> controller.listFavorites(null, null, null))
+                .isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(repository);
     }
 
     @Test
-    void addFavorite_withIngredients_savesAndReturnsDto() {
+    void ingredientCounts_mapsRows() {
+        when(repository.countIngredientsByCreatedBy(userId, RecommendationFavoritesController.DEFAULT_PAGE_SIZE))
+                .thenReturn(List.<Object[]>of(new Object[]{"tomato", 3L}, new Object[]{"basil", 1}));
+
+        List<FavoriteIngredientCountResponseDto> out = controller.ingredientCounts(null, auth).getBody();
+
+        assertThat(out).extracting(FavoriteIngredientCountResponseDto::getIngredient).containsExactly("tomato", "basil");
+        assertThat(out).extracting(FavoriteIngredientCountResponseDto::getCount).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void addFavorite_withIngredients_savesListAndOwner() {
         FavoriteRecommendationResponseDto req = FavoriteRecommendationResponseDto.builder()
                 .menuItemId(UUID.randomUUID())
                 .menuItemName("New Dish")
@@ -95,19 +164,20 @@ class RecommendationFavoritesControllerTest {
             return arg;
         });
 
-        ResponseEntity<FavoriteRecommendationResponseDto> resp = controller.addFavorite(req);
+        ResponseEntity<FavoriteRecommendationResponseDto> resp = controller.addFavorite(req, auth);
 
         assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
         FavoriteRecommendationResponseDto out = resp.getBody();
         assertThat(out).isNotNull();
         assertThat(out.getMenuItemName()).isEqualTo("New Dish");
         assertThat(out.getIngredients()).containsExactly("a", "b");
+        assertThat(out.getCreatedBy()).isEqualTo(userId);
 
-        // verify repository.save received an entity whose ingredients string matches join
         ArgumentCaptor<FavoriteRecommendation> cap = ArgumentCaptor.forClass(FavoriteRecommendation.class);
         verify(repository).save(cap.capture());
         FavoriteRecommendation saved = cap.getValue();
-        assertThat(saved.getIngredients()).isEqualTo("a,b");
+        assertThat(saved.getIngredients()).containsExactly("a", "b");
+        assertThat(saved.getCreatedBy()).isEqualTo(userId);
         assertThat(saved.getCreatedAt()).isNotNull();
     }
 
@@ -125,7 +195,7 @@ class RecommendationFavoritesControllerTest {
             return arg;
         });
 
-        ResponseEntity<FavoriteRecommendationResponseDto> resp = controller.addFavorite(req);
+        ResponseEntity<FavoriteRecommendationResponseDto> resp = controller.addFavorite(req, auth);
 
         assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
         FavoriteRecommendationResponseDto out = resp.getBody();
@@ -137,27 +207,31 @@ class RecommendationFavoritesControllerTest {
     }
 
     @Test
-    void deleteFavorite_notFound_returns404() {
+    void deleteFavorite_notOwnedOrMissing_returns404() {
         UUID id = UUID.randomUUID();
-        when(repository.existsById(id)).thenReturn(false);
+        when(repository.deleteByIdAndCreatedBy(id, userId)).thenReturn(0);
 
-        ResponseEntity<?> resp = controller.deleteFavorite(id);
+        ResponseEntity<?> resp = controller.deleteFavorite(id, auth);
 
         assertThat(resp.getStatusCode().value()).isEqualTo(404);
-        verify(repository).existsById(id);
         verify(repository, never()).deleteById(any());
     }
 
     @Test
-    void deleteFavorite_found_deletesAndReturnsNoContent() {
+    void deleteFavorite_owned_deletesAndReturnsNoContent() {
         UUID id = UUID.randomUUID();
-        when(repository.existsById(id)).thenReturn(true);
-        doNothing().when(repository).deleteById(id);
+        when(repository.deleteByIdAndCreatedBy(id, userId)).thenReturn(1);
 
-        ResponseEntity<?> resp = controller.deleteFavorite(id);
+        ResponseEntity<?> resp = controller.deleteFavorite(id, auth);
 
         assertThat(resp.getStatusCode().value()).isEqualTo(204);
-        verify(repository).existsById(id);
-        verify(repository).deleteById(id);
+        verify(repository).deleteByIdAndCreatedBy(id, userId);
+    }
+
+    @Test
+    void deleteFavorite_withoutAuthentication_isUnauthorized() {
+        assertThatThrownBy(() -> controller.deleteFavorite(UUID.randomUUID(), null))
+                .isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(repository);
     }
-}
\ No newline at end of file
+}
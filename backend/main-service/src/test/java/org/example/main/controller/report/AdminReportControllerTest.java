@@ -0,0 +1,69 @@
+package org.example.main.controller.report;
+
+import org.example.main.service.report.IRecommendationReportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminReportControllerTest {
+
+    @Mock
+    IRecommendationReportService recommendationReportService;
+
+    @InjectMocks
+    AdminReportController controller;
+
+    @Test
+    void downloadRecommendations_plain_streamsCsv() throws Exception {
+        OffsetDateTime since = OffsetDateTime.now().minusDays(1);
+        when(recommendationReportService.writeCsv(any(), eq(since))).thenAnswer(inv -> {
+            OutputStream out = inv.getArgument(0);
+            out.write("id\n".getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        });
+
+        ResponseEntity<StreamingResponseBody> resp = controller.downloadRecommendations(since, false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        resp.getBody().writeTo(out);
+
+        assertThat(resp.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION)).contains(".csv\"");
+        assertThat(resp.getHeaders().getContentType().toString()).startsWith("text/csv");
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("id\n");
+    }
+
+    @Test
+    void downloadRecommendations_gzip_wrapsStream() throws Exception {
+        when(recommendationReportService.writeCsv(any(), isNull())).thenAnswer(inv -> {
+            OutputStream out = inv.getArgument(0);
+            out.write("id\n".getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        });
+
+        ResponseEntity<StreamingResponseBody> resp = controller.downloadRecommendations(null, true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        resp.getBody().writeTo(out);
+
+        assertThat(resp.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION)).contains(".csv.gz\"");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("id\n");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.main.controller.report;
+
+import org.example.main.dto.response.report.SalesSummaryResponseDto;
+import org.example.main.dto.response.report.TopItemResponseDto;
+import org.example.main.service.report.ISalesRollupService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminSalesControllerTest {
+
+    @Mock
+    ISalesRollupService salesRollupService;
+
+    @InjectMocks
+    AdminSalesController controller;
+
+    private final LocalDate from = LocalDate.of(2026, 10, 1);
+    private final LocalDate to = LocalDate.of(2026, 10, 18);
+
+    @Test
+    void summary_delegates() {
+        SalesSummaryResponseDto dto = SalesSummaryResponseDto.builder().orderCount(5).revenue(BigDecimal.TEN).build();
+        when(salesRollupService.summary(from, to)).thenReturn(dto);
+
+        ResponseEntity<SalesSummaryResponseDto> resp = controller.summary(from, to);
+
+        assertThat(resp.getBody()).isSameAs(dto);
+    }
+
+    @Test
+    void topItems_delegatesWithLimit() {
+        List<TopItemResponseDto> items = List.of(TopItemResponseDto.builder().menuItemName("Steak").quantity(3).build());
+        when(salesRollupService.topItems(from, to, 3)).thenReturn(items);
+
+        assertThat(controller.topItems(from, to, 3).getBody()).isEqualTo(items);
+    }
+
+    @Test
+    void rebuild_returnsNoContent() {
+        assertThat(controller.rebuild(from, to).getStatusCode().value()).isEqualTo(204);
+        verify(salesRollupService).rebuild(from, to);
+    }
+}
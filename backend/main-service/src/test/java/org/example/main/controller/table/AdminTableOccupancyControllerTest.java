@@ -0,0 +1,60 @@
+package org.example.main.controller.table;
+
+import org.example.main.dto.response.table.TableOccupancyResponseDto;
+import org.example.main.dto.response.table.TableOpenOrdersResponseDto;
+import org.example.main.model.table.RestaurantTable;
+import org.example.main.repository.table.RestaurantTableRepository;
+import org.example.main.service.order.OpenOrderCounter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminTableOccupancyControllerTest {
+
+    @Mock
+    OpenOrderCounter openOrderCounter;
+
+    @Mock
+    RestaurantTableRepository tableRepository;
+
+    @InjectMocks
+    AdminTableOccupancyController controller;
+
+    @Test
+    void openOrders_joinsCountsWithTableLabels_sortedByNumber() {
+        UUID t1 = UUID.randomUUID();
+        UUID t2 = UUID.randomUUID();
+        when(openOrderCounter.snapshot()).thenReturn(Map.of(t1, 2L, t2, 1L));
+        RestaurantTable a = new RestaurantTable(); a.setId(t1); a.setTableNumber(7); a.setCode("T7");
+        RestaurantTable b = new RestaurantTable(); b.setId(t2); b.setTableNumber(3); b.setCode("T3");
+        when(tableRepository.findAllById(any())).thenReturn(List.of(a, b));
+
+        TableOccupancyResponseDto body = controller.openOrders().getBody();
+
+        assertThat(body.getTables()).extracting(TableOpenOrdersResponseDto::getTableNumber).containsExactly(3, 7);
+        assertThat(body.getOpenOrders()).isEqualTo(3L);
+        assertThat(body.getActiveTables()).isEqualTo(2);
+    }
+
+    @Test
+    void openOrders_empty_skipsTableLookup() {
+        when(openOrderCounter.snapshot()).thenReturn(Map.of());
+
+        TableOccupancyResponseDto body = controller.openOrders().getBody();
+
+        assertThat(body.getOpenOrders()).isZero();
+        assertThat(body.getTables()).isEmpty();
+        verifyNoInteractions(tableRepository);
+    }
+}
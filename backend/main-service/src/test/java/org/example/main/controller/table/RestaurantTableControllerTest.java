@@ -2,10 +2,13 @@ package org.example.main.controller.table;
 
 import org.example.main.dto.request.table.OccupyRequest;
 import org.example.main.dto.request.table.ReservationRequestDto;
+import org.example.main.dto.response.table.TableAvailabilityResponseDto;
+import org.example.main.dto.response.table.TableStateResponseDto;
 import org.example.main.model.table.RestaurantTable;
 import org.example.main.model.table.TableReservationEntity;
 import org.example.main.model.enums.TableStatus;
 import org.example.main.service.table.RestaurantTableService;
+import org.example.main.service.table.TableStateStream;
 import org.example.main.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,6 +16,7 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.net.URI;
 import java.time.OffsetDateTime;
@@ -28,23 +32,33 @@ class RestaurantTableControllerTest {
     @Mock
     RestaurantTableService service;
 
+    @Mock
+    TableStateStream stateStream;
+
     @InjectMocks
     RestaurantTableController controller;
 
     @Test
-    void getTables_returnsListFromService() {
-        RestaurantTable t1 = new RestaurantTable();
-        t1.setId(UUID.randomUUID());
-        RestaurantTable t2 = new RestaurantTable();
-        t2.setId(UUID.randomUUID());
+    void getTables_returnsLiveStatesFromService() {
+        TableStateResponseDto t1 = TableStateResponseDto.builder().id(UUID.randomUUID()).tableNumber(1).build();
+        TableStateResponseDto t2 = TableStateResponseDto.builder().id(UUID.randomUUID()).tableNumber(2).build();
 
-        when(service.findAll()).thenReturn(List.of(t1, t2));
+        when(service.findAllStates()).thenReturn(List.of(t1, t2));
 
-        ResponseEntity<List<RestaurantTable>> resp = controller.getTables();
+        ResponseEntity<List<TableStateResponseDto>> resp = controller.getTables();
 
         assertThat(resp.getStatusCodeValue()).isEqualTo(200);
         assertThat(resp.getBody()).containsExactly(t1, t2);
-        verify(service).findAll();
+        verify(service).findAllStates();
+        verify(service, never()).findAll();
+    }
+
+    @Test
+    void streamTables_subscribesToStateStream() {
+        SseEmitter emitter = new SseEmitter();
+        when(stateStream.subscribe()).thenReturn(emitter);
+
+        assertThat(controller.streamTables()).isSameAs(emitter);
     }
 
     @Test
@@ -235,4 +249,18 @@ class RestaurantTableControllerTest {
         assertThat(resp.getStatusCodeValue()).isEqualTo(200);
         verify(service).occupyTable(42, 15);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAvailability_returnsServiceResult() {
+        OffsetDateTime from = OffsetDateTime.now().plusDays(1);
+        OffsetDateTime to = from.plusHours(2);
+        TableAvailabilityResponseDto row = TableAvailabilityResponseDto.builder()
+                .tableId(UUID.randomUUID()).seats(6).available(true).build();
+        when(service.findAvailability(6, from, to)).thenReturn(List.of(row));
+
+        ResponseEntity<List<TableAvailabilityResponseDto>> resp = controller.getAvailability(6, from, to);
+
+        assertThat(resp.getStatusCodeValue()).isEqualTo(200);
+        assertThat(resp.getBody()).containsExactly(row);
+    }
+}
@@ -2,15 +2,19 @@ package org.example.main.controller.table;
 
 import org.example.main.dto.request.table.CancelReservationRequestDto;
 import org.example.main.dto.request.table.ReservationRequestDto;
+import org.example.main.dto.response.table.ReservationCalendarResponseDto;
 import org.example.main.dto.response.table.TableReservationResponseDto;
 import org.example.main.mapper.table.ReservationMapper;
 import org.example.main.model.table.TableReservationEntity;
+import org.example.main.service.table.CalendarView;
 import org.example.main.service.table.ITableReservationService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
@@ -21,6 +25,8 @@ import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
 @ExtendWith(MockitoExtension.class)
@@ -205,4 +211,30 @@ class TableReservationControllerTest {
                 .isInstanceOf(DateTimeParseException.class);
         verifyNoInteractions(reservationService, mapper);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCalendar_parsesViewAndDelegates() {
+        ReservationCalendarResponseDto cal = ReservationCalendarResponseDto.builder().view("MONTH").build();
+        when(reservationService.calendar(LocalDate.of(2026, 2, 17), CalendarView.MONTH)).thenReturn(cal);
+
+        ResponseEntity<ReservationCalendarResponseDto> resp = controller.getCalendar(LocalDate.of(2026, 2, 17), "month");
+
+        assertThat(resp.getBody()).isSameAs(cal);
+    }
+
+    @Test
+    void getCalendar_malformedDate_isBadRequest() throws Exception {
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        mvc.perform(get("/api/reservations/calendar").param("date", "17/02/2026"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(reservationService);
+    }
+
+    @Test
+    void getCalendar_unknownView_isBadRequest() {
+        assertThatThrownBy(() -> controller.getCalendar(LocalDate.of(2026, 2, 17), "year"))
+                .isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(reservationService);
+    }
+}
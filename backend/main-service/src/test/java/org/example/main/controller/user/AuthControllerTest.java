@@ -1,10 +1,12 @@
 package org.example.main.controller.user;
 
-import jakarta.servlet.http.HttpSession;
 import org.example.main.dto.request.user.LoginRequestDto;
 import org.example.main.dto.request.user.RegisterRequestDto;
 import org.example.main.dto.response.user.AuthResponseDto;
 import org.example.main.security.JwtUtils;
+import org.example.main.exception.ResourceNotFoundException;
+import org.example.main.security.LoginThrottle;
+import org.example.main.security.TokenRevocationList;
 import org.example.main.service.user.IUserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,13 +15,18 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.quality.Strictness;
 import org.mockito.junit.jupiter.MockitoSettings;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -33,6 +40,12 @@ class AuthControllerTest {
     @Mock
     private JwtUtils jwtUtils;
 
+    @Mock
+    private TokenRevocationList tokenRevocations;
+
+    @Mock
+    private LoginThrottle loginThrottle;
+
     @InjectMocks
     private AuthController authController;
 
@@ -60,13 +73,12 @@ class AuthControllerTest {
 
         
         doAnswer(invocation -> respDto)
-                .when(userService).login(any(LoginRequestDto.class), any());
+                .when(userService).login(any(LoginRequestDto.class));
 
-        HttpSession session = mock(HttpSession.class);
 
-        ResponseEntity<AuthResponseDto> resp = authController.login(dto, session);
+        ResponseEntity<AuthResponseDto> resp = authController.login(dto, new MockHttpServletRequest());
 
-        verify(userService, times(1)).login(any(LoginRequestDto.class), any());
+        verify(userService, times(1)).login(any(LoginRequestDto.class));
 
         assertThat(resp).isNotNull();
         String setCookie = resp.getHeaders().getFirst("Set-Cookie");
@@ -78,15 +90,50 @@ class AuthControllerTest {
         assertThat(resp.getBody()).isEqualTo(respDto);
     }
 
+    @Test
+    void login_throttledBeforeHashing_and_failuresAreRecorded() {
+        LoginRequestDto dto = LoginRequestDto.builder().username("alice@test.com").password("wrong").build();
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.setRemoteAddr("10.0.0.7");
+
+        when(userService.login(any(LoginRequestDto.class))).thenThrow(new ResourceNotFoundException("Invalid credentials"));
+        assertThatThrownBy(() -> authController.login(dto, req))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(loginThrottle).checkAttempt("10.0.0.7", "alice@test.com");
+        verify(loginThrottle).recordFailure("alice@test.com");
+
+        reset(userService);
+        doThrow(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS))
+                .when(loginThrottle).checkAttempt("10.0.0.7", "alice@test.com");
+        assertThatThrownBy(() -> authController.login(dto, req))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+        verifyNoInteractions(userService);
+    }
+
     @Test
     void logout_clearsCookie() {
-        ResponseEntity<Void> resp = authController.logout();
+        ResponseEntity<Void> resp = authController.logout(new MockHttpServletRequest());
 
         assertThat(resp).isNotNull();
         String setCookie = resp.getHeaders().getFirst("Set-Cookie");
         assertThat(setCookie).isNotNull();
         
         assertThat(setCookie).contains("access_token=").contains("Max-Age=0").contains("HttpOnly");
+        verifyNoInteractions(tokenRevocations);
+    }
+
+    @Test
+    void logout_revokesPresentedToken() {
+        JwtUtils real = new JwtUtils("logout-test-secret-logout-test-secret-0123", 60_000);
+        String token = real.generateToken("alice@test.com", List.of("ROLE_USER"));
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        when(jwtUtils.getTokenFromRequest(req)).thenReturn(token);
+        when(jwtUtils.parseClaims(token)).thenReturn(real.parseClaims(token));
+
+        authController.logout(req);
+
+        verify(tokenRevocations).revokeToken(eq(real.parseClaims(token).getId()), anyLong());
     }
 
     @Test
@@ -105,7 +152,7 @@ class AuthControllerTest {
 
         when(userService.register(reg)).thenReturn(respDto);
 
-        ResponseEntity<?> r = authController.register(reg);
+        ResponseEntity<?> r = authController.register(reg, new MockHttpServletRequest());
         assertThat(r.getStatusCode().is2xxSuccessful()).isTrue();
         assertThat(r.getBody()).isEqualTo(respDto);
     }
@@ -113,16 +160,15 @@ class AuthControllerTest {
     @Test
     void me_returnsOk_whenAuthenticated() {
         Authentication auth = mock(Authentication.class);
-        HttpSession session = mock(HttpSession.class);
 
         Map<String, Object> dto = Map.of(
                 "username", "alice@test.com",
                 "userId", UUID.randomUUID()
         );
 
-        when(userService.me(auth, session)).thenReturn(dto);
+        when(userService.me(auth)).thenReturn(dto);
 
-        ResponseEntity<?> resp = authController.me(auth, session);
+        ResponseEntity<?> resp = authController.me(auth);
 
         assertThat(resp).isNotNull();
         assertThat(resp.getStatusCodeValue()).isEqualTo(200);
@@ -136,11 +182,10 @@ class AuthControllerTest {
     @Test
     void me_returns401_whenUnauthenticated() {
         Authentication auth = mock(Authentication.class);
-        HttpSession session = mock(HttpSession.class);
 
-        when(userService.me(auth, session)).thenThrow(new IllegalArgumentException("Unauthenticated"));
+        when(userService.me(auth)).thenThrow(new IllegalArgumentException("Unauthenticated"));
 
-        ResponseEntity<?> resp = authController.me(auth, session);
+        ResponseEntity<?> resp = authController.me(auth);
 
         assertThat(resp).isNotNull();
         assertThat(resp.getStatusCodeValue()).isEqualTo(401);
@@ -153,11 +198,10 @@ class AuthControllerTest {
     @Test
     void me_returns500_whenServiceThrowsUnexpected() {
         Authentication auth = mock(Authentication.class);
-        HttpSession session = mock(HttpSession.class);
 
-        when(userService.me(auth, session)).thenThrow(new RuntimeException("boom"));
+        when(userService.me(auth)).thenThrow(new RuntimeException("boom"));
 
-        ResponseEntity<?> resp = authController.me(auth, session);
+        ResponseEntity<?> resp = authController.me(auth);
 
         assertThat(resp).isNotNull();
         assertThat(resp.getStatusCodeValue()).isEqualTo(500);
@@ -32,14 +32,21 @@ class UserProfileControllerTest {
     @Test
     void me_returnsUserInfo_mapFromService() {
         Authentication auth = mock(Authentication.class);
-        Map<String, Object> returned = Map.of("username", "bob", "userId", UUID.randomUUID());
-        when(userService.me(eq(auth), isNull())).thenReturn(returned);
+        UUID uid = UUID.randomUUID();
+        Map<String, Object> returned = Map.of("username", "bob", "fullName", "Bob", "userId", uid);
+        when(userService.me(auth)).thenReturn(returned);
+
+        User stored = new User();
+        stored.setId(uid);
+        stored.setUsername("bobby");
+        stored.setFullName("Bob Renamed");
+        when(userService.findById(uid)).thenReturn(stored);
 
         ResponseEntity<?> resp = controller.me(auth);
 
         assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
-        assertThat(resp.getBody()).isEqualTo(returned);
-        verify(userService).me(eq(auth), isNull());
+        assertThat(resp.getBody()).isEqualTo(Map.of("username", "bobby", "fullName", "Bob Renamed", "userId", uid));
+        verify(userService).me(auth);
     }
 
     @Test
@@ -47,7 +54,7 @@ class UserProfileControllerTest {
         Authentication auth = mock(Authentication.class);
         UUID uid = UUID.randomUUID();
         Map<String, Object> meMap = Map.of("username", "bob", "userId", uid);
-        when(userService.me(eq(auth), isNull())).thenReturn(meMap);
+        when(userService.me(auth)).thenReturn(meMap);
 
         User updated = new User();
         updated.setId(uid);
@@ -77,7 +84,7 @@ class UserProfileControllerTest {
         Authentication auth = mock(Authentication.class);
         UUID uid = UUID.randomUUID();
         Map<String, Object> meMap = Map.of("username", "bob", "userId", uid);
-        when(userService.me(eq(auth), isNull())).thenReturn(meMap);
+        when(userService.me(auth)).thenReturn(meMap);
 
         User u = new User();
         u.setId(uid);
@@ -101,7 +108,7 @@ class UserProfileControllerTest {
         Authentication auth = mock(Authentication.class);
         UUID uid = UUID.randomUUID();
         Map<String, Object> meMap = Map.of("username", "bob", "userId", uid);
-        when(userService.me(eq(auth), isNull())).thenReturn(meMap);
+        when(userService.me(auth)).thenReturn(meMap);
 
         User u = new User();
         u.setId(uid);
@@ -0,0 +1,156 @@
+package org.example.main.integration;
+
+import org.example.main.model.table.TableReservationEntity;
+import org.example.main.repository.table.TableReservationRepository;
+import org.example.main.service.table.ITableReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Concurrent bookings against a real PostgreSQL, where the table_reservations_no_overlap exclusion
+ * constraint is the only thing standing between two overlapping inserts. Skipped without Docker.
+ */
+@SpringBootTest(properties = {
+        "jwt.secret=0123456789abcdefghijklmnopqrstuv"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class TableReservationConcurrencyIntegrationTest {
+
+    @Container
+    static final GenericContainer<?> POSTGRES = new GenericContainer<>("postgres:16-alpine")
+            .withEnv("POSTGRES_DB", "main_app_db")
+            .withEnv("POSTGRES_USER", "postgres")
+            .withEnv("POSTGRES_PASSWORD", "postgres")
+            .withExposedPorts(5432)
+            .waitingFor(Wait.forLogMessage(".*database system is ready to accept connections.*", 2)
+                    .withStartupTimeout(Duration.ofSeconds(60)));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () ->
+                "jdbc:postgresql://" + POSTGRES.getHost() + ":" + POSTGRES.getMappedPort(5432) + "/main_app_db");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> "20");
+    }
+
+    @Autowired
+    ITableReservationService reservationService;
+
+    @Autowired
+    TableReservationRepository reservationRepository;
+
+    @AfterEach
+    void cleanUp() {
+        reservationRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentBookingsOfSameSlot_exactlyOneWins() throws Exception {
+        int threads = 24;
+        UUID tableId = UUID.randomUUID();
+        OffsetDateTime from = OffsetDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+        Result result = race(threads, i -> reservationService.reserveTable(
+                // every window overlaps [from + 1h, from + 2h)
+                tableId, from.plusMinutes(i % 4 * 15L), from.plusHours(2), UUID.randomUUID(), UUID.randomUUID()));
+
+        assertThat(result.booked).hasValue(1);
+        assertThat(result.conflicts).hasValue(threads - 1);
+        assertThat(result.unexpected).isEmpty();
+        assertThat(reservationRepository.findByTableIdAndDeletedFalse(tableId)).hasSize(1);
+    }
+
+    @Test
+    void adjacentSlotsAndOtherTables_doNotConflict() throws Exception {
+        int threads = 16;
+        OffsetDateTime from = OffsetDateTime.now().plusDays(2).truncatedTo(ChronoUnit.HOURS);
+        UUID tableA = UUID.randomUUID();
+        UUID tableB = UUID.randomUUID();
+
+        Result result = race(threads, i -> reservationService.reserveTable(
+                // half-open windows back to back on two tables: none overlap
+                i % 2 == 0 ? tableA : tableB, from.plusHours(i / 2), from.plusHours(i / 2 + 1),
+                UUID.randomUUID(), UUID.randomUUID()));
+
+        assertThat(result.booked).hasValue(threads);
+        assertThat(result.unexpected).isEmpty();
+    }
+
+    @Test
+    void cancelledReservation_freesTheSlot() {
+        UUID tableId = UUID.randomUUID();
+        OffsetDateTime from = OffsetDateTime.now().plusDays(3);
+        OffsetDateTime to = from.plusHours(2);
+
+        TableReservationEntity first = reservationService.reserveTable(tableId, from, to, UUID.randomUUID(), UUID.randomUUID());
+        assertThatThrownBy(() -> reservationService.reserveTable(tableId, from, to, UUID.randomUUID(), UUID.randomUUID()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        reservationService.cancelReservation(first.getId(), UUID.randomUUID());
+
+        assertThat(reservationService.reserveTable(tableId, from, to, UUID.randomUUID(), UUID.randomUUID()).getId())
+                .isNotEqualTo(first.getId());
+    }
+
+    private interface Booking {
+        void book(int i);
+    }
+
+    private record Result(AtomicInteger booked, AtomicInteger conflicts, List<Throwable> unexpected) {}
+
+    private static Result race(int threads, Booking booking) throws Exception {
+        Result result = new Result(new AtomicInteger(), new AtomicInteger(), new ArrayList<>());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int i = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    booking.book(i);
+                    result.booked.incrementAndGet();
+                } catch (ResponseStatusException ex) {
+                    if (ex.getStatusCode() == HttpStatus.CONFLICT) result.conflicts.incrementAndGet();
+                    else synchronized (result.unexpected) { result.unexpected.add(ex); }
+                } catch (Exception ex) {
+                    synchronized (result.unexpected) { result.unexpected.add(ex); }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+        return result;
+    }
+}
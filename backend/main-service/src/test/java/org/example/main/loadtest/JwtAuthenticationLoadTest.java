@@ -0,0 +1,85 @@
+package org.example.main.loadtest;
+
+import jakarta.servlet.FilterChain;
+import org.example.main.repository.user.TokenRevocationRepository;
+import org.example.main.repository.user.UserRepository;
+import org.example.main.security.JwtAuthenticationFilter;
+import org.example.main.security.JwtUtils;
+import org.example.main.security.TokenRevocationList;
+import org.example.main.security.VerifiedTokenCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Per-request cost of JwtAuthenticationFilter, with and without the verified-token cache.
+ *
+ * Warms up, then times the filter over a small pool of tokens and reports ns/op. Scale it up with e.g.
+ * -Dloadtest.jwt.warmup=200000 -Dloadtest.jwt.iterations=2000000 -Dloadtest.jwt.tokens=64
+ */
+class JwtAuthenticationLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationLoadTest.class);
+    private static final String SECRET = "load-test-secret-load-test-secret-0123456789";
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void cachedTokens_authenticateFasterThanFullVerification() throws Exception {
+        int warmup = Integer.getInteger("loadtest.jwt.warmup", 20_000);
+        int iterations = Integer.getInteger("loadtest.jwt.iterations", 50_000);
+        int distinctTokens = Integer.getInteger("loadtest.jwt.tokens", 16);
+
+        JwtUtils jwtUtils = new JwtUtils(SECRET, 3_600_000);
+        List<MockHttpServletRequest> requests = IntStream.range(0, distinctTokens)
+                .mapToObj(i -> {
+                    MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/orders");
+                    req.addHeader("Authorization", "Bearer " + jwtUtils.generateToken("user" + i, List.of("ROLE_USER")));
+                    return req;
+                })
+                .toList();
+
+        TokenRevocationList revocations = new TokenRevocationList(
+                mock(TokenRevocationRepository.class), mock(UserRepository.class), jwtUtils, null, false);
+        JwtAuthenticationFilter uncached = new JwtAuthenticationFilter(jwtUtils, new VerifiedTokenCache(0), revocations);
+        JwtAuthenticationFilter cached = new JwtAuthenticationFilter(jwtUtils, new VerifiedTokenCache(1_000), revocations);
+
+        long verifyNs = nanosPerOp(uncached, requests, warmup, iterations);
+        long cachedNs = nanosPerOp(cached, requests, warmup, iterations);
+
+        log.info("jwt auth: tokens={} iterations={} fullVerify={}ns/op cached={}ns/op",
+                distinctTokens, iterations, verifyNs, cachedNs);
+
+        assertThat(cachedNs).isLessThan(verifyNs);
+    }
+
+    private static long nanosPerOp(JwtAuthenticationFilter filter, List<MockHttpServletRequest> requests,
+                                   int warmup, int iterations) throws Exception {
+        FilterChain chain = (req, resp) -> { };
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        for (int i = 0; i < warmup; i++) {
+            filter.doFilter(requests.get(i % requests.size()), response, chain);
+        }
+        long t0 = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            filter.doFilter(requests.get(i % requests.size()), response, chain);
+        }
+        long elapsed = System.nanoTime() - t0;
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        return elapsed / iterations;
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.main.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.main.dto.request.recommendation.MealRecommendationRequestDto;
+import org.example.main.dto.response.recommendation.MealRecommendationResponseDto;
+import org.example.main.exception.LocalModelException;
+import org.example.main.service.recommendation.LocalModelRecommendationService;
+import org.example.main.service.recommendation.MealRecommendationService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Recommendation traffic against the Ollama simulator.
+ *
+ * Runs a small smoke load by default. Scale it up with e.g.
+ * -Dloadtest.requests=5000 -Dloadtest.concurrency=64 -Dloadtest.prompts=200 -Dloadtest.tps=40 -Dloadtest.ttftMs=300
+ */
+class MealRecommendationLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MealRecommendationLoadTest.class);
+
+    private LocalModelRecommendationService modelService(OllamaSimulator sim, ObjectMapper om) {
+        return new LocalModelRecommendationService("http", "llama3", "ollama", 1000,
+                WebClient.builder(), sim.baseUrl(), 10_000, om);
+    }
+
+    @Test
+    void httpBackend_consumesSimulatedStream() throws Exception {
+        ObjectMapper om = new ObjectMapper();
+        try (OllamaSimulator sim = OllamaSimulator.start(OllamaSimulator.settings().timeToFirstToken(Duration.ZERO))) {
+            MealRecommendationService svc = new MealRecommendationService(modelService(sim, om), om, null);
+
+            List<MealRecommendationResponseDto> out = svc.recommend(new MealRecommendationRequestDto("high protein")).block(Duration.ofSeconds(10));
+
+            assertThat(out).extracting(MealRecommendationResponseDto::getMenuItemName)
+                    .containsExactly("Grilled Chicken Breast", "Caesar Salad");
+            assertThat(sim.requestCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void httpBackend_errorsAndMalformedOutput_areSurfaced() throws Exception {
+        ObjectMapper om = new ObjectMapper();
+        try (OllamaSimulator failing = OllamaSimulator.start(OllamaSimulator.settings().errorRate(1.0));
+             OllamaSimulator garbled = OllamaSimulator.start(OllamaSimulator.settings().malformedRate(1.0))) {
+
+            MealRecommendationService failingSvc = new MealRecommendationService(modelService(failing, om), om, null);
+            assertThatThrownBy(() -> failingSvc.recommend(new MealRecommendationRequestDto("x")).block(Duration.ofSeconds(10)))
+                    .isInstanceOf(LocalModelException.class);
+
+            MealRecommendationService garbledSvc = new MealRecommendationService(modelService(garbled, om), om, null);
+            assertThat(garbledSvc.recommend(new MealRecommendationRequestDto("x")).block(Duration.ofSeconds(10))).isEmpty();
+            assertThat(garbled.malformedCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void concurrentRecommendations_reportLatencyCacheAndThroughput() throws Exception {
+        int requests = Integer.getInteger("loadtest.requests", 300);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+        int distinctPrompts = Integer.getInteger("loadtest.prompts", 25);
+        int tokensPerSecond = Integer.getInteger("loadtest.tps", 4000);
+        long ttftMs = Long.getLong("loadtest.ttftMs", 10);
+
+        OllamaSimulator.Settings settings = OllamaSimulator.settings()
+                .timeToFirstToken(Duration.ofMillis(ttftMs))
+                .tokensPerSecond(tokensPerSecond)
+                .errorRate(0.05)
+                .malformedRate(0.05);
+
+        ObjectMapper om = new ObjectMapper();
+        try (OllamaSimulator sim = OllamaSimulator.start(settings)) {
+            RecommendationLoadHarness.InMemoryRedis cache = new RecommendationLoadHarness.InMemoryRedis();
+            MealRecommendationService svc = new MealRecommendationService(modelService(sim, om), om, cache);
+
+            List<String> prompts = IntStream.range(0, distinctPrompts)
+                    .mapToObj(i -> "dinner idea #" + i)
+                    .collect(Collectors.toList());
+
+            RecommendationLoadHarness.Report report = RecommendationLoadHarness.run(
+                    svc, cache, prompts, concurrency, requests, Duration.ofSeconds(30));
+
+            log.info("recommendation load: {} modelCalls={} modelFailures={} malformed={}",
+                    report, sim.requestCount(), sim.failureCount(), sim.malformedCount());
+
+            assertThat(report.requests()).isEqualTo(requests);
+            assertThat(report.p50()).isLessThanOrEqualTo(report.p95());
+            assertThat(report.p95()).isLessThanOrEqualTo(report.p99());
+            assertThat(report.throughputPerSecond()).isPositive();
+            assertThat(report.cacheHitRate()).isGreaterThan(0.0);
+            assertThat(sim.requestCount()).isLessThan(requests);
+            assertThat(report.errors()).isEqualTo(sim.failureCount());
+        }
+    }
+
+    @Test
+    void percentile_picksNearestRank() {
+        long[] sorted = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        assertThat(RecommendationLoadHarness.percentile(sorted, 50)).isEqualTo(5);
+        assertThat(RecommendationLoadHarness.percentile(sorted, 95)).isEqualTo(10);
+        assertThat(RecommendationLoadHarness.percentile(new long[0], 99)).isZero();
+        assertThat(OllamaSimulator.tokenize("abcdefghij", 4)).containsExactly("abcd", "efgh", "ij");
+    }
+}
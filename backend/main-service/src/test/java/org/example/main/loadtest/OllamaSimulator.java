@@ -0,0 +1,194 @@
+package org.example.main.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test-only stand-in for a local Ollama server.
+ *
+ * Serves POST /api/generate as newline-delimited JSON chunks ({"response": "...", "done": false} ... {"done": true}),
+ * which is what LocalModelRecommendationService.generateViaHttp consumes. Latency and failure behaviour are
+ * configurable so recommendation traffic can be load-tested without a real model.
+ */
+public final class OllamaSimulator implements AutoCloseable {
+
+    static final String DEFAULT_COMPLETION = "[{\"menuItemName\":\"Grilled Chicken Breast\","
+            + "\"description\":\"Lean grilled chicken with herbs and lemon.\","
+            + "\"calories\":350,\"protein\":42,\"fats\":10,\"carbs\":5,"
+            + "\"ingredients\":[\"chicken breast\",\"lemon\",\"thyme\"]},"
+            + "{\"menuItemName\":\"Caesar Salad\","
+            + "\"description\":\"Romaine, parmesan and croutons.\","
+            + "\"calories\":280,\"protein\":8,\"fats\":18,\"carbs\":12,"
+            + "\"ingredients\":[\"romaine\",\"parmesan\",\"croutons\"]}]";
+
+    private static final String MALFORMED_COMPLETION =
+            "Sure! Here are a few ideas: grilled chicken, a caesar salad and [{\"menuItemName\": \"Lemonade\", ";
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong malformed = new AtomicLong();
+
+    private OllamaSimulator(Settings settings) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "ollama-sim");
+            t.setDaemon(true);
+            return t;
+        });
+        this.server.createContext("/api/generate", this::handleGenerate);
+        this.server.setExecutor(executor);
+    }
+
+    public static OllamaSimulator start(Settings settings) throws IOException {
+        OllamaSimulator sim = new OllamaSimulator(settings);
+        sim.server.start();
+        return sim;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    public long failureCount() {
+        return failures.get();
+    }
+
+    public long malformedCount() {
+        return malformed.get();
+    }
+
+    private void handleGenerate(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            exchange.getRequestBody().readAllBytes();
+            requests.incrementAndGet();
+
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            sleep(settings.timeToFirstToken);
+
+            if (rnd.nextDouble() < settings.errorRate) {
+                failures.incrementAndGet();
+                byte[] body = "{\"error\":\"simulated model failure\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(500, body.length);
+                exchange.getResponseBody().write(body);
+                return;
+            }
+
+            String completion = settings.completion;
+            if (rnd.nextDouble() < settings.malformedRate) {
+                malformed.incrementAndGet();
+                completion = MALFORMED_COMPLETION;
+            }
+
+            exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+
+            long tokenDelayNanos = settings.tokensPerSecond <= 0 ? 0 : 1_000_000_000L / settings.tokensPerSecond;
+            List<String> tokens = tokenize(completion, settings.charsPerToken);
+            for (String token : tokens) {
+                writeChunk(out, token, false);
+                sleepNanos(tokenDelayNanos);
+            }
+            writeChunk(out, "", true);
+        } catch (IOException ex) {
+            // client went away mid-stream; nothing to clean up
+        }
+    }
+
+    private void writeChunk(OutputStream out, String token, boolean done) throws IOException {
+        Map<String, Object> chunk = new LinkedHashMap<>();
+        chunk.put("model", settings.model);
+        chunk.put("created_at", Instant.now().toString());
+        chunk.put("response", token);
+        chunk.put("done", done);
+        out.write(objectMapper.writeValueAsBytes(chunk));
+        out.write('\n');
+        out.flush();
+    }
+
+    static List<String> tokenize(String text, int charsPerToken) {
+        int size = Math.max(1, charsPerToken);
+        List<String> tokens = new ArrayList<>((text.length() / size) + 1);
+        for (int i = 0; i < text.length(); i += size) {
+            tokens.add(text.substring(i, Math.min(text.length(), i + size)));
+        }
+        return tokens;
+    }
+
+    private static void sleep(Duration d) {
+        if (d != null && !d.isZero() && !d.isNegative()) sleepNanos(d.toNanos());
+    }
+
+    private static void sleepNanos(long nanos) {
+        if (nanos <= 0) return;
+        try {
+            Thread.sleep(nanos / 1_000_000L, (int) (nanos % 1_000_000L));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public static Settings settings() {
+        return new Settings();
+    }
+
+    /**
+     * Knobs for the simulated model. Defaults are fast enough for unit-test use.
+     */
+    public static final class Settings {
+        private String model = "llama3";
+        private String completion = DEFAULT_COMPLETION;
+        private Duration timeToFirstToken = Duration.ofMillis(20);
+        private int tokensPerSecond = 2000;
+        private int charsPerToken = 4;
+        private double errorRate = 0.0;
+        private double malformedRate = 0.0;
+
+        private Settings() {}
+
+        public Settings model(String model) { this.model = model; return this; }
+        public Settings completion(String completion) { this.completion = completion; return this; }
+        public Settings timeToFirstToken(Duration ttft) { this.timeToFirstToken = ttft; return this; }
+        public Settings tokensPerSecond(int tps) { this.tokensPerSecond = tps; return this; }
+        public Settings charsPerToken(int chars) { this.charsPerToken = chars; return this; }
+        public Settings errorRate(double rate) { this.errorRate = rate; return this; }
+        public Settings malformedRate(double rate) { this.malformedRate = rate; return this; }
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.main.loadtest;
+
+import org.example.main.dto.request.recommendation.MealRecommendationRequestDto;
+import org.example.main.dto.response.recommendation.MealRecommendationResponseDto;
+import org.example.main.service.recommendation.MealRecommendationService;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives concurrent recommendation traffic through MealRecommendationService and collects
+ * latency percentiles, cache hit rate and throughput.
+ */
+public final class RecommendationLoadHarness {
+
+    private RecommendationLoadHarness() {}
+
+    public static Report run(MealRecommendationService service,
+                             InMemoryRedis cache,
+                             List<String> prompts,
+                             int concurrency,
+                             int totalRequests,
+                             Duration requestTimeout) throws InterruptedException {
+        long[] latencies = new long[totalRequests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong empty = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        long startedAt = System.nanoTime();
+        for (int w = 0; w < concurrency; w++) {
+            pool.execute(() -> {
+                try {
+                    int i;
+                    while ((i = next.getAndIncrement()) < totalRequests) {
+                        MealRecommendationRequestDto req = new MealRecommendationRequestDto(prompts.get(i % prompts.size()));
+                        long t0 = System.nanoTime();
+                        try {
+                            List<MealRecommendationResponseDto> result = service.recommend(req).block(requestTimeout);
+                            if (result == null || result.isEmpty()) empty.incrementAndGet();
+                        } catch (Exception ex) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - t0;
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - startedAt;
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+
+        Arrays.sort(latencies);
+        return new Report(
+                totalRequests,
+                errors.get(),
+                empty.get(),
+                Duration.ofNanos(percentile(latencies, 50)),
+                Duration.ofNanos(percentile(latencies, 95)),
+                Duration.ofNanos(percentile(latencies, 99)),
+                cache == null ? 0.0 : cache.hitRate(),
+                totalRequests / (elapsed / 1_000_000_000.0),
+                Duration.ofNanos(elapsed));
+    }
+
+    static long percentile(long[] sorted, int p) {
+        if (sorted.length == 0) return 0;
+        int idx = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+    }
+
+    public record Report(int requests, long errors, long emptyResults,
+                         Duration p50, Duration p95, Duration p99,
+                         double cacheHitRate, double throughputPerSecond, Duration elapsed) {
+        @Override
+        public String toString() {
+            return String.format(
+                    "requests=%d errors=%d empty=%d p50=%dms p95=%dms p99=%dms cacheHitRate=%.2f throughput=%.1f/s elapsed=%dms",
+                    requests, errors, emptyResults, p50.toMillis(), p95.toMillis(), p99.toMillis(),
+                    cacheHitRate, throughputPerSecond, elapsed.toMillis());
+        }
+    }
+
+    /**
+     * StringRedisTemplate backed by a ConcurrentHashMap so the service's cache path is exercised
+     * without a Redis server. Only the value operations the service uses are supported.
+     */
+    public static final class InMemoryRedis extends StringRedisTemplate {
+        private final Map<String, String> store = new ConcurrentHashMap<>();
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong lookups = new AtomicLong();
+        private final ValueOperations<String, String> ops;
+
+        @SuppressWarnings("unchecked")
+        public InMemoryRedis() {
+            this.ops = (ValueOperations<String, String>) Proxy.newProxyInstance(
+                    ValueOperations.class.getClassLoader(),
+                    new Class<?>[]{ValueOperations.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "get" -> {
+                            lookups.incrementAndGet();
+                            String v = store.get((String) args[0]);
+                            if (v != null) hits.incrementAndGet();
+                            yield v;
+                        }
+                        case "set" -> {
+                            store.put((String) args[0], (String) args[1]);
+                            yield null;
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+
+        @Override
+        public ValueOperations<String, String> opsForValue() {
+            return ops;
+        }
+
+        public double hitRate() {
+            long l = lookups.get();
+            return l == 0 ? 0.0 : (double) hits.get() / l;
+        }
+    }
+}
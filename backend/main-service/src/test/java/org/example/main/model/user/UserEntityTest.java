@@ -8,7 +8,7 @@ import static org.assertj.core.api.Assertions.*;
 class UserEntityTest {
 
     @Test
-    void user_fields_and_sessionTableNumber() {
+    void user_fields() {
         User u = new User();
         u.setUsername("alice");
         u.setPasswordHash("pw");
@@ -17,7 +17,6 @@ class UserEntityTest {
         Role role = new Role();
         role.setName("ADMIN");
         u.setRole(role);
-        u.setSessionTableNumber(12);
 
         assertThat(u.getUsername()).isEqualTo("alice");
         assertThat(u.getPasswordHash()).isEqualTo("pw");
@@ -25,6 +24,5 @@ class UserEntityTest {
         // assert role name directly
         assertThat(u.getRole()).isNotNull();
         assertThat(u.getRole().getName()).isEqualTo("ADMIN");
-        assertThat(u.getSessionTableNumber()).isEqualTo(12);
     }
 }
\ No newline at end of file
@@ -1,15 +1,19 @@
 package org.example.main.scheduler;
 
-import org.example.main.model.menu.MenuItem;
-import org.example.main.model.order.OrderEntity;
-import org.example.main.model.order.OrderItem;
 import org.example.main.model.table.RestaurantTable;
-import org.example.main.model.recommendation.FavoriteRecommendation;
 import org.example.main.model.enums.OrderStatus;
-import org.example.main.repository.menu.MenuItemRepository;
 import org.example.main.repository.order.OrderRepository;
 import org.example.main.repository.table.RestaurantTableRepository;
-import org.example.main.repository.recommendation.FavoriteRecommendationRepository;
+import org.example.main.dto.response.report.SalesSummaryResponseDto;
+import org.example.main.dto.response.report.TopItemResponseDto;
+import org.example.main.model.enums.JobExecutionStatus;
+import org.example.main.model.job.JobExecution;
+import org.example.main.service.job.IJobLeaseService;
+import org.example.main.service.job.JobLease;
+import org.example.main.service.report.ExportedReport;
+import org.example.main.service.report.IRecommendationReportService;
+import org.example.main.service.order.OpenOrderCounter;
+import org.example.main.service.report.ISalesRollupService;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
@@ -22,6 +26,9 @@ import java.time.*;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,59 +41,51 @@ class AppSchedulerTest {
     RestaurantTableRepository tableRepository;
 
     @Mock
-    MenuItemRepository menuItemRepository;
+    IRecommendationReportService recommendationReportService;
 
     @Mock
-    FavoriteRecommendationRepository favoriteRepository;
+    ISalesRollupService salesRollupService;
 
-    @InjectMocks
-    AppScheduler scheduler;
+    @Mock
+    OpenOrderCounter openOrderCounter;
+
+    @Mock
+    IJobLeaseService jobLeaseService;
 
-    private static final Path REPORT_DIR = Paths.get("src/main/resources/reports");
+    AppScheduler scheduler;
 
     @BeforeEach
-    void beforeEach() throws IOException {
-        
-        Files.createDirectories(REPORT_DIR);
+    void setUp() {
+        ClusterJobRunner jobRunner = new ClusterJobRunner(jobLeaseService, "node-a");
+        scheduler = new AppScheduler(orderRepository, tableRepository, recommendationReportService,
+                salesRollupService, openOrderCounter, jobRunner, 300_000L);
+        lenient().when(jobLeaseService.tryAcquire(anyString(), eq("node-a"), any()))
+                .thenAnswer(inv -> Optional.of(new JobLease(inv.getArgument(0), "node-a", 1L)));
+        lenient().when(jobLeaseService.isHeld(any())).thenReturn(true);
     }
 
-    @AfterEach
-    void afterEach() throws IOException {
-        
-        if (Files.exists(REPORT_DIR)) {
-            try (var s = Files.list(REPORT_DIR)) {
-                s.forEach(p -> {
-                    try { Files.deleteIfExists(p); } catch (IOException ignored) {}
-                });
-            }
-        }
+    private static OrderRepository.TableOrderCount count(UUID tableId, long n) {
+        return new OrderRepository.TableOrderCount() {
+            public UUID getTableId() { return tableId; }
+            public Long getOrderCount() { return n; }
+        };
     }
 
     @Test
     void periodicJob_noActiveOrders_logsAndReturnsWhenEmpty() {
-        
-        when(orderRepository.findByStatusIn(anyList())).thenReturn(List.of());
+        when(orderRepository.countByTableAndStatusIn(anyCollection())).thenReturn(List.of());
 
-        
         scheduler.periodicJob();
 
-        verify(orderRepository).findByStatusIn(anyList());
-        
+        verify(openOrderCounter).reconcile(Map.of());
         verifyNoInteractions(tableRepository);
     }
 
     @Test
-    void periodicJob_withActiveOrders_groupsByTableAndLogs() {
+    void periodicJob_queriesOnlyActiveStatuses_andReconcilesCounter() {
         UUID tableId = UUID.randomUUID();
-        OrderEntity o1 = new OrderEntity();
-        o1.setId(UUID.randomUUID());
-        o1.setTableId(tableId);
-        o1.setStatus(OrderStatus.NEW);
-
-        
-        when(orderRepository.findByStatusIn(anyList())).thenReturn(List.of(o1));
+        when(orderRepository.countByTableAndStatusIn(anyCollection())).thenReturn(List.of(count(tableId, 2)));
 
-        
         RestaurantTable rt = new RestaurantTable();
         rt.setId(tableId);
         rt.setCode("T42");
@@ -100,129 +99,103 @@ class AppSchedulerTest {
 
         scheduler.periodicJob();
 
-        verify(orderRepository).findByStatusIn(anyList());
-        
+        ArgumentCaptor<Collection<OrderStatus>> statuses = ArgumentCaptor.forClass(Collection.class);
+        verify(orderRepository).countByTableAndStatusIn(statuses.capture());
+        assertThat(statuses.getValue()).containsExactlyInAnyOrder(OrderStatus.NEW, OrderStatus.PROCESSING, OrderStatus.READY);
+        verify(openOrderCounter).reconcile(Map.of(tableId, 2L));
+        verify(orderRepository, never()).findByStatusIn(any());
         verify(tableRepository).findAllById(any());
+
+        ArgumentCaptor<JobExecution> execution = ArgumentCaptor.forClass(JobExecution.class);
+        verify(jobLeaseService).recordExecution(execution.capture());
+        assertThat(execution.getValue().getJobName()).isEqualTo(AppScheduler.PERIODIC_JOB);
+        assertThat(execution.getValue().getRowsProcessed()).isEqualTo(1);
+        verify(jobLeaseService).release(any(), eq(Duration.ofMillis(270_000L)));
     }
 
     @Test
-    void dailyReportJob_noOrders_logsAndHandlesZeroDivision() {
-        
-        when(orderRepository.findWithItemsByCreatedAtBetween(any(), any())).thenReturn(List.of());
+    void periodicJob_leaseHeldByAnotherReplica_stillReconcilesLocalCounter() {
+        UUID tableId = UUID.randomUUID();
+        when(orderRepository.countByTableAndStatusIn(anyCollection())).thenReturn(List.of(count(tableId, 1)));
+        when(jobLeaseService.tryAcquire(eq(AppScheduler.PERIODIC_JOB), eq("node-a"), any())).thenReturn(Optional.empty());
 
-        
-        scheduler.dailyReportJob();
+        scheduler.periodicJob();
 
-        verify(orderRepository).findWithItemsByCreatedAtBetween(any(), any());
+        verify(openOrderCounter).reconcile(Map.of(tableId, 1L));
+        verifyNoInteractions(tableRepository);
+        verify(jobLeaseService, never()).recordExecution(any());
     }
 
     @Test
-    void dailyReportJob_withOrders_aggregatesAndLogs_topItems() {
-        
-        MenuItem m1 = new MenuItem();
-        m1.setId(UUID.randomUUID());
-        m1.setName("A");
-        m1.setPrice(BigDecimal.valueOf(2.50));
-
-        MenuItem m2 = new MenuItem();
-        m2.setId(UUID.randomUUID());
-        m2.setName("B");
-        
-        m2.setPrice(null);
-
-        OrderItem oi1 = new OrderItem();
-        oi1.setId(UUID.randomUUID());
-        oi1.setMenuItem(m1);
-        oi1.setQuantity(3);
-
-        OrderItem oi2 = new OrderItem();
-        oi2.setId(UUID.randomUUID());
-        oi2.setMenuItem(m2);
-        oi2.setQuantity(2);
-
-        OrderEntity order = new OrderEntity();
-        order.setId(UUID.randomUUID());
-        order.setItems(List.of(oi1, oi2));
-        order.setCreatedAt(OffsetDateTime.now());
-
-        
-        when(orderRepository.findWithItemsByCreatedAtBetween(any(), any())).thenReturn(List.of(order));
-
-        
-        scheduler.dailyReportJob();
+    void periodicJob_countFailure_skipsReconcileAndLease() {
+        when(orderRepository.countByTableAndStatusIn(anyCollection())).thenThrow(new RuntimeException("db down"));
 
-        verify(orderRepository).findWithItemsByCreatedAtBetween(any(), any());
+        assertThatCode(() -> scheduler.periodicJob()).doesNotThrowAnyException();
+
+        verifyNoInteractions(openOrderCounter, jobLeaseService);
     }
 
     @Test
-    void dailyReportJob_itemTotal_handlesException_and_continues() {
-        
-        MenuItem mBad = new MenuItem() {
-            @Override
-            public BigDecimal getPrice() {
-                throw new RuntimeException("boom");
-            }
-        };
-        mBad.setId(UUID.randomUUID());
-        mBad.setName("BadPrice");
+    void dailyReportJob_rebuildsYesterdayInTheReportZone_andReadsRollup() {
+        // UTC+14, so the report date is usually ahead of the JVM's
+        ZoneId reportZone = ZoneId.of("Pacific/Kiritimati");
+        when(salesRollupService.zone()).thenReturn(reportZone);
+        LocalDate yesterday = LocalDate.now(reportZone).minusDays(1);
+        when(salesRollupService.summary(yesterday, yesterday)).thenReturn(SalesSummaryResponseDto.builder()
+                .from(yesterday).to(yesterday)
+                .orderCount(2).revenue(new BigDecimal("30.00")).averageTicket(new BigDecimal("15.00"))
+                .days(List.of())
+                .build());
+        when(salesRollupService.topItems(yesterday, yesterday, 5)).thenReturn(List.of(
+                TopItemResponseDto.builder().menuItemName("Steak").quantity(3).revenue(new BigDecimal("30.00")).build()));
 
-        OrderItem oi = new OrderItem();
-        oi.setId(UUID.randomUUID());
-        oi.setMenuItem(mBad);
-        oi.setQuantity(1);
+        scheduler.dailyReportJob();
 
-        OrderEntity order = new OrderEntity();
-        order.setId(UUID.randomUUID());
-        order.setItems(List.of(oi));
+        InOrder inOrder = inOrder(salesRollupService);
+        inOrder.verify(salesRollupService).rebuild(yesterday, yesterday);
+        inOrder.verify(salesRollupService).summary(yesterday, yesterday);
+        verifyNoInteractions(orderRepository);
+    }
 
-        when(orderRepository.findWithItemsByCreatedAtBetween(any(), any())).thenReturn(List.of(order));
+    @Test
+    void dailyReportJob_failure_isLoggedNotThrown() {
+        when(salesRollupService.zone()).thenReturn(ZoneId.of("UTC"));
+        doThrow(new RuntimeException("db down")).when(salesRollupService).rebuild(any(), any());
 
-        
-        scheduler.dailyReportJob();
+        assertThatCode(() -> scheduler.dailyReportJob()).doesNotThrowAnyException();
 
-        verify(orderRepository).findWithItemsByCreatedAtBetween(any(), any());
+        verify(salesRollupService, never()).summary(any(), any());
+        ArgumentCaptor<JobExecution> execution = ArgumentCaptor.forClass(JobExecution.class);
+        verify(jobLeaseService).recordExecution(execution.capture());
+        assertThat(execution.getValue().getStatus()).isEqualTo(JobExecutionStatus.FAILED);
+        assertThat(execution.getValue().getError()).contains("db down");
     }
 
     @Test
-    void dailyRecommendationsReport_emptySkipsAndDoesNotCreateFile() throws Exception {
-        when(favoriteRepository.findAll()).thenReturn(List.of());
+    void dailyRecommendationsReport_delegatesToIncrementalExport() throws Exception {
+        when(jobLeaseService.tryAcquire(eq(AppScheduler.DAILY_RECOMMENDATIONS_JOB), eq("node-a"), any()))
+                .thenReturn(Optional.of(new JobLease(AppScheduler.DAILY_RECOMMENDATIONS_JOB, "node-a", 7L)));
+        when(recommendationReportService.exportIncremental(7L))
+                .thenReturn(Optional.of(new ExportedReport(Paths.get("reports/x.csv.gz"), 12)));
 
         scheduler.dailyRecommendationsReport();
 
-        
-        try (var s = Files.list(REPORT_DIR)) {
-            assertThat(s.findAny()).isEmpty();
-        }
+        // the lease's fencing token guards the watermark write
+        verify(recommendationReportService).exportIncremental(7L);
+        ArgumentCaptor<JobExecution> execution = ArgumentCaptor.forClass(JobExecution.class);
+        verify(jobLeaseService).recordExecution(execution.capture());
+        assertThat(execution.getValue().getRowsProcessed()).isEqualTo(12);
     }
 
     @Test
-    void dailyRecommendationsReport_writesCsvFile_forFavorites() throws Exception {
-        FavoriteRecommendation fav = new FavoriteRecommendation();
-        fav.setId(UUID.randomUUID());
-        fav.setMenuItemId(UUID.randomUUID());
-        fav.setMenuItemName("DishX");
-        fav.setDescription("Yummy");
-        fav.setIngredients("a,b");
-        fav.setCalories(123);
-        fav.setProtein(4);
-        fav.setFats(5);
-        fav.setCarbs(6);
-        fav.setCreatedBy(UUID.randomUUID());
-        fav.setCreatedAt(OffsetDateTime.now());
-
-        when(favoriteRepository.findAll()).thenReturn(List.of(fav));
-
-        
+    void dailyRecommendationsReport_nothingNew_andFailures_areSwallowed() throws Exception {
+        when(recommendationReportService.exportIncremental(anyLong()))
+                .thenReturn(Optional.empty())
+                .thenThrow(new IOException("disk full"));
+
         scheduler.dailyRecommendationsReport();
+        assertThatCode(() -> scheduler.dailyRecommendationsReport()).doesNotThrowAnyException();
 
-        
-        String expectedPrefix = "daily_ai_recommendations_";
-        try (var s = Files.list(REPORT_DIR)) {
-            Optional<Path> anyFile = s.filter(p -> p.getFileName().toString().startsWith(expectedPrefix)).findFirst();
-            assertThat(anyFile).isPresent();
-            String content = Files.readString(anyFile.get());
-            assertThat(content).contains("menu_item_name");
-            assertThat(content).contains("DishX");
-        }
+        verify(recommendationReportService, times(2)).exportIncremental(anyLong());
     }
-}
\ No newline at end of file
+}
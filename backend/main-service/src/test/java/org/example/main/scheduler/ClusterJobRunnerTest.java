@@ -0,0 +1,137 @@
+package org.example.main.scheduler;
+
+import org.example.main.model.enums.JobExecutionStatus;
+import org.example.main.model.job.JobExecution;
+import org.example.main.service.job.IJobLeaseService;
+import org.example.main.service.job.JobLease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterJobRunnerTest {
+
+    private static final Duration AT_MOST = Duration.ofMinutes(10);
+    private static final Duration AT_LEAST = Duration.ofMinutes(1);
+
+    @Mock
+    IJobLeaseService jobLeaseService;
+
+    ClusterJobRunner runner;
+
+    final JobLease lease = new JobLease("job", "node-a", 7L);
+
+    @BeforeEach
+    void setUp() {
+        runner = new ClusterJobRunner(jobLeaseService, "node-a");
+    }
+
+    private JobExecution recorded() {
+        ArgumentCaptor<JobExecution> captor = ArgumentCaptor.forClass(JobExecution.class);
+        verify(jobLeaseService).recordExecution(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void leaseWon_runsJob_recordsHistory_thenReleases() {
+        when(jobLeaseService.tryAcquire("job", "node-a", AT_MOST)).thenReturn(Optional.of(lease));
+        when(jobLeaseService.isHeld(lease)).thenReturn(true);
+
+        AtomicReference<JobLease> seen = new AtomicReference<>();
+        boolean ran = runner.runExclusively("job", AT_MOST, AT_LEAST, held -> {
+            seen.set(held);
+            return 42L;
+        });
+
+        assertThat(ran).isTrue();
+        assertThat(seen.get()).isEqualTo(lease);
+        JobExecution exec = recorded();
+        assertThat(exec.getStatus()).isEqualTo(JobExecutionStatus.SUCCEEDED);
+        assertThat(exec.getRowsProcessed()).isEqualTo(42);
+        assertThat(exec.getFencingToken()).isEqualTo(7L);
+        assertThat(exec.getOwner()).isEqualTo("node-a");
+        assertThat(exec.getDurationMs()).isNotNegative();
+        InOrder inOrder = inOrder(jobLeaseService);
+        inOrder.verify(jobLeaseService).recordExecution(any());
+        inOrder.verify(jobLeaseService).release(lease, AT_LEAST);
+    }
+
+    @Test
+    void leaseHeldElsewhere_skipsJob() {
+        when(jobLeaseService.tryAcquire(any(), any(), any())).thenReturn(Optional.empty());
+        AtomicInteger calls = new AtomicInteger();
+
+        boolean ran = runner.runExclusively("job", AT_MOST, AT_LEAST, held -> calls.incrementAndGet());
+
+        assertThat(ran).isFalse();
+        assertThat(calls).hasValue(0);
+        verify(jobLeaseService, never()).recordExecution(any());
+        verify(jobLeaseService, never()).release(any(), any());
+    }
+
+    @Test
+    void jobFailure_isRecordedAndLeaseReleased_notThrown() {
+        when(jobLeaseService.tryAcquire(any(), any(), any())).thenReturn(Optional.of(lease));
+
+        boolean ran = runner.runExclusively("job", AT_MOST, AT_LEAST, held -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertThat(ran).isTrue();
+        JobExecution exec = recorded();
+        assertThat(exec.getStatus()).isEqualTo(JobExecutionStatus.FAILED);
+        assertThat(exec.getError()).isEqualTo("IllegalStateException: boom");
+        verify(jobLeaseService).release(lease, AT_LEAST);
+        verify(jobLeaseService, never()).isHeld(any());
+    }
+
+    @Test
+    void leaseExpiredDuringRun_isRecordedAsLeaseLost() {
+        when(jobLeaseService.tryAcquire(any(), any(), any())).thenReturn(Optional.of(lease));
+        when(jobLeaseService.isHeld(lease)).thenReturn(false);
+
+        runner.runExclusively("job", AT_MOST, AT_LEAST, held -> 1L);
+
+        assertThat(recorded().getStatus()).isEqualTo(JobExecutionStatus.LEASE_LOST);
+    }
+
+    @Test
+    void acquireError_skipsRun() {
+        when(jobLeaseService.tryAcquire(any(), any(), any())).thenThrow(new RuntimeException("db down"));
+
+        assertThat(runner.runExclusively("job", AT_MOST, AT_LEAST, held -> 1L)).isFalse();
+        verify(jobLeaseService, never()).recordExecution(any());
+    }
+
+    @Test
+    void historyWriteFailure_doesNotPropagate() {
+        when(jobLeaseService.tryAcquire(any(), any(), any())).thenReturn(Optional.of(lease));
+        when(jobLeaseService.isHeld(lease)).thenReturn(true);
+        doThrow(new RuntimeException("db down")).when(jobLeaseService).recordExecution(any());
+
+        assertThatCode(() -> runner.runExclusively("job", AT_MOST, AT_LEAST, held -> 1L)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void blankNodeId_fallsBackToRuntimeName() {
+        ClusterJobRunner generated = new ClusterJobRunner(jobLeaseService, " ");
+
+        assertThat(generated.getNodeId()).contains("@").contains("/");
+        assertThat(runner.getNodeId()).isEqualTo("node-a");
+        verifyNoInteractions(jobLeaseService);
+    }
+}
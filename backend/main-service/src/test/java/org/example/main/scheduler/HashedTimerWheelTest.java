@@ -0,0 +1,77 @@
+package org.example.main.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HashedTimerWheelTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final HashedTimerWheel<String> wheel = new HashedTimerWheel<>(Duration.ofSeconds(1), 8, now::get);
+
+    @Test
+    void advance_returnsOnlyDueKeys() {
+        wheel.schedule("a", now.get() + 2_000);
+        wheel.schedule("b", now.get() + 5_000);
+
+        now.addAndGet(2_000);
+        assertThat(wheel.advance()).containsExactly("a");
+
+        now.addAndGet(3_000);
+        assertThat(wheel.advance()).containsExactly("b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void pastDeadline_firesOnNextAdvance() {
+        wheel.schedule("late", now.get() - 60_000);
+
+        now.addAndGet(1_000);
+        assertThat(wheel.advance()).containsExactly("late");
+    }
+
+    @Test
+    void reschedule_movesDeadline_andStaleEntryIsIgnored() {
+        wheel.schedule("t", now.get() + 2_000);
+        wheel.schedule("t", now.get() + 4_000);
+
+        now.addAndGet(2_000);
+        assertThat(wheel.advance()).isEmpty();
+        now.addAndGet(2_000);
+        assertThat(wheel.advance()).containsExactly("t");
+    }
+
+    @Test
+    void deadlineBeyondOneRevolution_waitsForItsRound() {
+        wheel.schedule("far", now.get() + 20_000);
+
+        for (int i = 0; i < 19; i++) {
+            now.addAndGet(1_000);
+            assertThat(wheel.advance()).isEmpty();
+        }
+        now.addAndGet(1_000);
+        assertThat(wheel.advance()).containsExactly("far");
+    }
+
+    @Test
+    void cancel_removesKey() {
+        wheel.schedule("x", now.get() + 1_000);
+        assertThat(wheel.cancel("x")).isTrue();
+
+        now.addAndGet(5_000);
+        assertThat(wheel.advance()).isEmpty();
+        assertThat(wheel.cancel("x")).isFalse();
+    }
+
+    @Test
+    void longPause_catchesUpWithOnePass() {
+        wheel.schedule("a", now.get() + 1_000);
+        wheel.schedule("b", now.get() + 3_000);
+
+        now.addAndGet(60_000);
+        assertThat(wheel.advance()).containsExactlyInAnyOrder("a", "b");
+    }
+}
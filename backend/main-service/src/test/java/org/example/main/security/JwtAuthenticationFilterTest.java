@@ -4,20 +4,33 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
+import io.jsonwebtoken.MalformedJwtException;
+import org.example.main.repository.user.TokenRevocationRepository;
+import org.example.main.repository.user.UserRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class JwtAuthenticationFilterTest {
 
+    private static final String SECRET = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa";
+
     @AfterEach
     void cleanup() {
         
@@ -27,8 +40,7 @@ class JwtAuthenticationFilterTest {
     @Test
     void skipsInternalPath_and_delegatesToChain() throws Exception {
         JwtUtils ju = mock(JwtUtils.class);
-        UserDetailsService uds = mock(UserDetailsService.class);
-        JwtAuthenticationFilter f = new JwtAuthenticationFilter(ju, uds);
+        JwtAuthenticationFilter f = new JwtAuthenticationFilter(ju, new VerifiedTokenCache(100), noRevocations());
 
         HttpServletRequest req = mock(HttpServletRequest.class);
         HttpServletResponse resp = mock(HttpServletResponse.class);
@@ -45,8 +57,7 @@ class JwtAuthenticationFilterTest {
     @Test
     void noToken_proceedsChain_and_noAuthSet() throws Exception {
         JwtUtils ju = mock(JwtUtils.class);
-        UserDetailsService uds = mock(UserDetailsService.class);
-        JwtAuthenticationFilter f = new JwtAuthenticationFilter(ju, uds);
+        JwtAuthenticationFilter f = new JwtAuthenticationFilter(ju, new VerifiedTokenCache(100), noRevocations());
 
         HttpServletRequest req = mock(HttpServletRequest.class);
         HttpServletResponse resp = mock(HttpServletResponse.class);
@@ -65,8 +76,7 @@ class JwtAuthenticationFilterTest {
     @Test
     void invalidToken_resultsInUnauthorizedResponse_and_noChain() throws Exception {
         JwtUtils ju = mock(JwtUtils.class);
-        UserDetailsService uds = mock(UserDetailsService.class);
-        JwtAuthenticationFilter f = new JwtAuthenticationFilter(ju, uds);
+        JwtAuthenticationFilter f = new JwtAuthenticationFilter(ju, new VerifiedTokenCache(100), noRevocations());
 
         HttpServletRequest req = mock(HttpServletRequest.class);
         HttpServletResponse resp = mock(HttpServletResponse.class);
@@ -74,7 +84,7 @@ class JwtAuthenticationFilterTest {
 
         when(req.getRequestURI()).thenReturn("/api/protected/resource");
         when(ju.getTokenFromRequest(req)).thenReturn("bad-token");
-        when(ju.validateToken("bad-token")).thenReturn(false);
+        when(ju.parseClaims("bad-token")).thenThrow(new MalformedJwtException("bad"));
 
         StringWriter sw = new StringWriter();
         PrintWriter pw = new PrintWriter(sw);
@@ -92,8 +102,7 @@ class JwtAuthenticationFilterTest {
     @Test
     void exceptionDuringProcessing_triggersUnauthorized_and_invalidatesSession() throws Exception {
         JwtUtils ju = mock(JwtUtils.class);
-        UserDetailsService uds = mock(UserDetailsService.class);
-        JwtAuthenticationFilter f = new JwtAuthenticationFilter(ju, uds);
+        JwtAuthenticationFilter f = new JwtAuthenticationFilter(ju, new VerifiedTokenCache(100), noRevocations());
 
         HttpServletRequest req = mock(HttpServletRequest.class);
         HttpServletResponse resp = mock(HttpServletResponse.class);
@@ -118,31 +127,122 @@ class JwtAuthenticationFilterTest {
     }
 
     @Test
-    void successfulAuthentication_setsSecurityContext_and_callsChain() throws Exception {
-        JwtUtils ju = mock(JwtUtils.class);
-        UserDetailsService uds = mock(UserDetailsService.class);
-        JwtAuthenticationFilter f = new JwtAuthenticationFilter(ju, uds);
+    void successfulAuthentication_buildsPrincipalFromClaims_withoutUserLookup() throws Exception {
+        JwtUtils ju = new JwtUtils(SECRET, 60_000);
+        JwtAuthenticationFilter f = new JwtAuthenticationFilter(ju, new VerifiedTokenCache(100), noRevocations());
+        String token = ju.generateToken("user1", List.of("ROLE_ADMIN", "employee"));
 
-        HttpServletRequest req = mock(HttpServletRequest.class);
-        HttpServletResponse resp = mock(HttpServletResponse.class);
+        MockHttpServletRequest req = bearer(token);
         FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse resp = new MockHttpServletResponse();
 
-        when(req.getRequestURI()).thenReturn("/api/protected/resource");
-        when(ju.getTokenFromRequest(req)).thenReturn("good-token");
-        when(ju.validateToken("good-token")).thenReturn(true);
-        when(ju.getUsernameFromToken("good-token")).thenReturn("user1");
+        f.doFilterInternal(req, resp, chain);
 
-        UserDetails ud = mock(UserDetails.class);
-        when(uds.loadUserByUsername("user1")).thenReturn(ud);
+        verify(chain).doFilter(req, resp);
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(auth.getPrincipal()).isInstanceOfSatisfying(UserDetails.class,
+                u -> assertThat(u.getUsername()).isEqualTo("user1"));
+        assertThat(auth.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_ADMIN", "ROLE_EMPLOYEE");
+        assertThat(auth.getDetails()).isNotNull();
+    }
 
-        org.springframework.security.authentication.UsernamePasswordAuthenticationToken auth =
-                new org.springframework.security.authentication.UsernamePasswordAuthenticationToken("user1", null);
-        when(ju.buildAuthentication(ud, req)).thenReturn(auth);
+    @Test
+    void userAndTableClaims_areExposedOnThePrincipal() throws Exception {
+        JwtUtils ju = new JwtUtils(SECRET, 60_000);
+        JwtAuthenticationFilter f = new JwtAuthenticationFilter(ju, new VerifiedTokenCache(100), noRevocations());
+        UUID userId = UUID.randomUUID();
+        UUID tableId = UUID.randomUUID();
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtPrincipal.USER_ID, userId);
+        claims.put(JwtPrincipal.ROLE, "ROLE_USER");
+        claims.put(JwtPrincipal.FULL_NAME, "Guest");
+        claims.put(JwtPrincipal.TABLE_NUMBER, 7);
+        claims.put(JwtPrincipal.TABLE_ID, tableId);
+        claims.put("ignored", null);
+        String token = ju.generateToken("guest", List.of("ROLE_USER"), claims);
+
+        f.doFilterInternal(bearer(token), new MockHttpServletResponse(), mock(FilterChain.class));
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(auth.getPrincipal()).isInstanceOfSatisfying(JwtPrincipal.class, p -> {
+            assertThat(p.getUsername()).isEqualTo("guest");
+            assertThat(p.getUserId()).isEqualTo(userId);
+            assertThat(p.getRole()).isEqualTo("ROLE_USER");
+            assertThat(p.getFullName()).isEqualTo("Guest");
+            assertThat(p.getTableNumber()).isEqualTo(7);
+            assertThat(p.getTableId()).isEqualTo(tableId);
+        });
+    }
 
-        f.doFilterInternal(req, resp, chain);
+    @Test
+    void repeatedToken_isVerifiedOnce_andServedFromCache() throws Exception {
+        JwtUtils ju = spy(new JwtUtils(SECRET, 60_000));
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        JwtAuthenticationFilter f = new JwtAuthenticationFilter(ju, cache, noRevocations());
+        String token = ju.generateToken("user1", List.of("ROLE_USER"));
+
+        for (int i = 0; i < 3; i++) {
+            SecurityContextHolder.clearContext();
+            f.doFilterInternal(bearer(token), new MockHttpServletResponse(), mock(FilterChain.class));
+            assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("user1");
+        }
+
+        verify(ju, times(1)).parseClaims(token);
+        assertThat(cache.size()).isEqualTo(1);
+    }
 
-        verify(chain).doFilter(req, resp);
-        assertThat(org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication())
-                .isSameAs(auth);
+    @Test
+    void tamperedToken_isRejected_andNotCached() throws Exception {
+        JwtUtils ju = new JwtUtils(SECRET, 60_000);
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        JwtAuthenticationFilter f = new JwtAuthenticationFilter(ju, cache, noRevocations());
+        String token = new JwtUtils(SECRET.replace('a', 'b'), 60_000).generateToken("mallory", List.of("ROLE_ADMIN"));
+
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+        FilterChain chain = mock(FilterChain.class);
+        f.doFilterInternal(bearer(token), resp, chain);
+
+        assertThat(resp.getStatus()).isEqualTo(HttpServletResponse.SC_UNAUTHORIZED);
+        verifyNoInteractions(chain);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void revokedSubjectOrToken_isRejected_evenWhenCached() throws Exception {
+        JwtUtils ju = new JwtUtils(SECRET, 60_000);
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        TokenRevocationList revocations = noRevocations();
+        JwtAuthenticationFilter f = new JwtAuthenticationFilter(ju, cache, revocations);
+        String blockedUsersToken = ju.generateToken("blocked", List.of("ROLE_USER"));
+        String loggedOutToken = ju.generateToken("other", List.of("ROLE_USER"));
+
+        f.doFilterInternal(bearer(blockedUsersToken), new MockHttpServletResponse(), mock(FilterChain.class));
+        assertThat(cache.size()).isEqualTo(1);
+
+        revocations.revokeSubject("blocked");
+        revocations.revokeToken(ju.parseClaims(loggedOutToken).getId(), System.currentTimeMillis() + 60_000);
+
+        for (String token : List.of(blockedUsersToken, loggedOutToken)) {
+            SecurityContextHolder.clearContext();
+            MockHttpServletResponse resp = new MockHttpServletResponse();
+            FilterChain chain = mock(FilterChain.class);
+            f.doFilterInternal(bearer(token), resp, chain);
+
+            assertThat(resp.getStatus()).isEqualTo(HttpServletResponse.SC_UNAUTHORIZED);
+            assertThat(resp.getHeader("X-Auth-Error")).isEqualTo("token_revoked");
+            verifyNoInteractions(chain);
+        }
+    }
+
+    private static TokenRevocationList noRevocations() {
+        return new TokenRevocationList(mock(TokenRevocationRepository.class), mock(UserRepository.class),
+                null, 60_000, Clock.systemUTC());
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/orders");
+        req.addHeader("Authorization", "Bearer " + token);
+        return req;
     }
 }
@@ -1,19 +1,17 @@
 package org.example.main.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.security.core.userdetails.UserDetails;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.util.Date;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
@@ -34,16 +32,33 @@ class JwtUtilsTest {
     }
 
     @Test
-    void generate_validate_and_getUsername_work() {
+    void generate_and_parseClaims_roundTrip() {
         JwtUtils ju = new JwtUtils(SECRET, 3600000);
         String token = ju.generateToken("alice", List.of("ADMIN", "USER"));
 
         assertThat(token).isNotBlank();
-        assertThat(ju.validateToken(token)).isTrue();
-        assertThat(ju.getUsernameFromToken(token)).isEqualTo("alice");
+        Claims claims = ju.parseClaims(token);
+        assertThat(claims.getSubject()).isEqualTo("alice");
+        assertThat(claims.getId()).isNotBlank();
+        assertThat(claims.getExpiration()).isAfter(claims.getIssuedAt());
         assertThat(ju.getJwtExpirationMs()).isGreaterThan(0);
     }
 
+    @Test
+    void issuedAtMillis_prefersTheExactClaim_andFallsBackToIat() {
+        JwtUtils ju = new JwtUtils(SECRET, 3600000);
+        long before = System.currentTimeMillis();
+        Claims claims = ju.parseClaims(ju.generateToken("alice"));
+        assertThat(JwtUtils.issuedAtMillis(claims)).isBetween(before, System.currentTimeMillis());
+
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        Claims iatOnly = ju.parseClaims(Jwts.builder().setSubject("bob")
+                .setIssuedAt(new Date(1_700_000_000_900L)).signWith(key).compact());
+        assertThat(JwtUtils.issuedAtMillis(iatOnly)).isEqualTo(1_700_000_000_000L);
+        Claims noIat = ju.parseClaims(Jwts.builder().setSubject("carol").signWith(key).compact());
+        assertThat(JwtUtils.issuedAtMillis(noIat)).isZero();
+    }
+
     @Test
     void getTokenFromRequest_prefersCookie_thenParameter() {
         JwtUtils ju = new JwtUtils(SECRET, 3600000);
@@ -64,20 +79,13 @@ class JwtUtilsTest {
     }
 
     @Test
-    void buildAuthentication_usesRolesFromToken_and_fallsBackToUserAuthorities() {
+    void principalFromClaims_readsRolesAsListOrCommaSeparatedString() {
         JwtUtils ju = new JwtUtils(SECRET, 3600000);
 
-        String tokenWithRoles = ju.generateToken("bob", List.of("ROLE_A", "ROLE_B"));
-
-        HttpServletRequest reqWithCookie = mock(HttpServletRequest.class);
-        when(reqWithCookie.getCookies()).thenReturn(new Cookie[]{ new Cookie("access_token", tokenWithRoles) });
-
-        UserDetails ud = User.withUsername("bob").password("x").authorities(new SimpleGrantedAuthority("ROLE_FALLBACK")).build();
-
-        Authentication auth = ju.buildAuthentication(ud, reqWithCookie);
-        assertThat(auth).isNotNull();
-        assertThat(auth.getName()).isEqualTo("bob");
-        assertThat(auth.getAuthorities()).extracting(a -> a.getAuthority()).contains("ROLE_A", "ROLE_B");
+        Claims listRoles = ju.parseClaims(ju.generateToken("bob", List.of("ROLE_A", "ROLE_B")));
+        JwtPrincipal bob = JwtPrincipal.from(listRoles, JwtUtils.authoritiesFrom(listRoles));
+        assertThat(bob.getUsername()).isEqualTo("bob");
+        assertThat(bob.getAuthorities()).extracting(a -> a.getAuthority()).containsExactlyInAnyOrder("ROLE_A", "ROLE_B");
 
         Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
         String tokenWithRolesString = Jwts.builder()
@@ -85,23 +93,25 @@ class JwtUtilsTest {
                 .claim("roles", "ROLE_X,ROLE_Y")
                 .signWith(key)
                 .compact();
+        Claims stringRoles = ju.parseClaims(tokenWithRolesString);
+        assertThat(JwtUtils.authoritiesFrom(stringRoles)).extracting(a -> a.getAuthority())
+                .containsExactly("ROLE_X", "ROLE_Y");
 
-        HttpServletRequest req2 = mock(HttpServletRequest.class);
-        when(req2.getCookies()).thenReturn(new Cookie[]{ new Cookie("access_token", tokenWithRolesString) });
-
-        UserDetails ud2 = User.withUsername("carol").password("x").authorities(new SimpleGrantedAuthority("ROLE_FALLBACK2")).build();
-        Authentication auth2 = ju.buildAuthentication(ud2, req2);
-        assertThat(auth2).isNotNull();
-        assertThat(auth2.getName()).isEqualTo("carol");
-        assertThat(auth2.getAuthorities()).extracting(a -> a.getAuthority()).contains("ROLE_X", "ROLE_Y");
-
-        HttpServletRequest reqNull = mock(HttpServletRequest.class);
-        when(reqNull.getCookies()).thenReturn(null);
-        UserDetails ud3 = User.withUsername("dan").password("x").authorities(new SimpleGrantedAuthority("ROLE_ONLY")).build();
-        Authentication auth3 = ju.buildAuthentication(ud3, reqNull);
-        assertThat(auth3).isNotNull();
-        assertThat(auth3.getAuthorities()).extracting(a -> a.getAuthority()).contains("ROLE_ONLY");
+        Claims noRoles = ju.parseClaims(ju.generateToken("dan"));
+        assertThat(JwtUtils.authoritiesFrom(noRoles)).isEmpty();
     }
-}
 
+    @Test
+    void parseClaims_reusesParser_and_authoritiesFrom_normalizesRoleNames() {
+        JwtUtils ju = new JwtUtils(SECRET, 3600000);
+        String token = ju.generateToken("erin", List.of("admin", "ROLE_USER", " "));
 
+        var claims = ju.parseClaims(token);
+        assertThat(claims.getSubject()).isEqualTo("erin");
+        assertThat(JwtUtils.authoritiesFrom(claims)).extracting(a -> a.getAuthority())
+                .containsExactly("ROLE_ADMIN", "ROLE_USER");
+        assertThat(ju.parseClaims(token).getSubject()).isEqualTo("erin");
+
+        assertThatThrownBy(() -> ju.parseClaims(token + "x")).isInstanceOf(io.jsonwebtoken.JwtException.class);
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.main.security;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class KitchenCallbackAuthenticationFilterTest {
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static MockHttpServletRequest callback(String path, String secret) {
+        MockHttpServletRequest req = new MockHttpServletRequest("POST", path);
+        if (secret != null) req.addHeader(KitchenCallbackAuthenticationFilter.HEADER, secret);
+        return req;
+    }
+
+    @Test
+    void matchingSecret_authenticatesBothCallbackRoutes() throws Exception {
+        KitchenCallbackAuthenticationFilter f = new KitchenCallbackAuthenticationFilter("s3cret");
+
+        for (String path : new String[]{"/api/internal/orders/3f1c/kitchen-ready", "/api/internal/orders/kitchen-ready"}) {
+            SecurityContextHolder.clearContext();
+            FilterChain chain = mock(FilterChain.class);
+            MockHttpServletRequest req = callback(path, "s3cret");
+
+            f.doFilter(req, new MockHttpServletResponse(), chain);
+
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            assertThat(auth).isNotNull();
+            assertThat(auth.getAuthorities()).extracting(a -> a.getAuthority())
+                    .containsExactly(KitchenCallbackAuthenticationFilter.ROLE);
+            verify(chain).doFilter(eq(req), any());
+        }
+    }
+
+    @Test
+    void missingOrWrongSecret_leavesTheRequestUnauthenticated() throws Exception {
+        KitchenCallbackAuthenticationFilter f = new KitchenCallbackAuthenticationFilter("s3cret");
+
+        for (String presented : new String[]{null, "", "wrong"}) {
+            FilterChain chain = mock(FilterChain.class);
+            f.doFilter(callback("/api/internal/orders/kitchen-ready", presented), new MockHttpServletResponse(), chain);
+
+            assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+            verify(chain).doFilter(any(), any());
+        }
+    }
+
+    @Test
+    void withoutConfiguredSecret_nothingIsAuthenticated() throws Exception {
+        KitchenCallbackAuthenticationFilter f = new KitchenCallbackAuthenticationFilter("  ");
+
+        f.doFilter(callback("/api/internal/orders/kitchen-ready", ""), new MockHttpServletResponse(), mock(FilterChain.class));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void otherRoutes_areIgnored() throws Exception {
+        KitchenCallbackAuthenticationFilter f = new KitchenCallbackAuthenticationFilter("s3cret");
+
+        f.doFilter(callback("/api/internal/orders/abc/status", "s3cret"), new MockHttpServletResponse(), mock(FilterChain.class));
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", "/api/internal/orders/kitchen-ready");
+        get.addHeader(KitchenCallbackAuthenticationFilter.HEADER, "s3cret");
+        f.doFilter(get, new MockHttpServletResponse(), mock(FilterChain.class));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+}
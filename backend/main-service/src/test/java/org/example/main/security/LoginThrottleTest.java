@@ -0,0 +1,96 @@
+package org.example.main.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    private LoginThrottle throttle() {
+        // 3 attempts per IP, 2 failures per username, both refilling at 60/min (one per second)
+        return new LoginThrottle(registry, 3, 60, 2, 60, now::get);
+    }
+
+    private static void assertTooMany(Runnable attempt) {
+        assertThatThrownBy(attempt::run)
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+    }
+
+    @Test
+    void perIpBucket_limitsAttempts_andRefillsOverTime() {
+        LoginThrottle throttle = throttle();
+        for (int i = 0; i < 3; i++) throttle.checkAttempt("10.0.0.1", "u" + i);
+
+        assertTooMany(() -> throttle.checkAttempt("10.0.0.1", "someone"));
+        throttle.checkAttempt("10.0.0.2", "someone");
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        throttle.checkAttempt("10.0.0.1", "someone");
+        assertThat(registry.get("auth.login.throttled").tag("by", "ip").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void usernameBucket_countsOnlyFailures_caseInsensitively() {
+        LoginThrottle throttle = throttle();
+        for (int i = 0; i < 10; i++) {
+            throttle.checkAttempt(null, "shared");
+        }
+
+        throttle.recordFailure("Alice");
+        throttle.recordFailure("alice ");
+
+        assertTooMany(() -> throttle.checkAttempt("10.0.0.3", "ALICE"));
+        throttle.checkAttempt("10.0.0.3", "shared");
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        throttle.checkAttempt("10.0.0.3", "alice");
+        assertThat(registry.get("auth.login.throttled").tag("by", "username").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void sweep_dropsBucketsThatHaveFullyRefilled() {
+        LoginThrottle throttle = throttle();
+        throttle.checkAttempt("10.0.0.1", null);
+        throttle.recordFailure("alice");
+        assertThat(throttle.trackedBuckets()).isEqualTo(2);
+
+        throttle.sweep();
+        assertThat(throttle.trackedBuckets()).isEqualTo(2);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        throttle.sweep();
+        assertThat(throttle.trackedBuckets()).isZero();
+    }
+
+    @Test
+    void sweepRacingAFailure_doesNotLoseTheFailure() {
+        AtomicBoolean sweepOnNextTick = new AtomicBoolean();
+        LoginThrottle[] ref = new LoginThrottle[1];
+        // the sweep runs between the failure fetching its bucket and taking the token
+        LoginThrottle throttle = new LoginThrottle(registry, 3, 60, 2, 60, () -> {
+            if (sweepOnNextTick.compareAndSet(true, false)) ref[0].sweep();
+            return now.get();
+        });
+        ref[0] = throttle;
+        throttle.recordFailure("alice");
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        sweepOnNextTick.set(true);
+        throttle.recordFailure("alice");
+        throttle.recordFailure("alice");
+
+        assertTooMany(() -> throttle.checkAttempt(null, "alice"));
+        assertThat(throttle.trackedBuckets()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.main.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ThreadPoolExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) executor.shutdownNow();
+    }
+
+    private PasswordHasher hasher(PasswordEncoder encoder, int strength, int threads, int queue, long waitMs) {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queue));
+        return new PasswordHasher(encoder, registry, strength, executor, waitMs);
+    }
+
+    @Test
+    void encodesAndMatchesOffTheCallingThread_andRecordsTimings() {
+        PasswordHasher hasher = hasher(new BCryptPasswordEncoder(4), 4, 1, 4, 5_000);
+
+        String hash = hasher.encode("secret");
+
+        assertThat(hasher.matches("secret", hash)).isTrue();
+        assertThat(hasher.matches("other", hash)).isFalse();
+        assertThat(hasher.matches(null, hash)).isFalse();
+        assertThat(registry.get("auth.password.hash").tag("op", "encode").timer().count()).isEqualTo(1);
+        assertThat(registry.get("auth.password.hash").tag("op", "matches").timer().count()).isEqualTo(2);
+        assertThat(registry.get("auth.password.queue.wait").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void needsRehash_whenBcryptCostDiffersFromConfigured() {
+        PasswordHasher hasher = hasher(new BCryptPasswordEncoder(5), 5, 1, 1, 5_000);
+
+        assertThat(hasher.needsRehash(new BCryptPasswordEncoder(4).encode("x"))).isTrue();
+        assertThat(hasher.needsRehash(new BCryptPasswordEncoder(5).encode("x"))).isFalse();
+        assertThat(hasher.needsRehash(new BCryptPasswordEncoder(6).encode("x"))).isTrue();
+        assertThat(hasher.needsRehash(null)).isFalse();
+    }
+
+    @Test
+    void fullQueue_isShedWith503() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch busy = new CountDownLatch(1);
+        PasswordEncoder slow = mock(PasswordEncoder.class);
+        when(slow.encode(any())).thenAnswer(inv -> {
+            busy.countDown();
+            release.await();
+            return "h";
+        });
+        PasswordHasher hasher = hasher(slow, 10, 1, 1, 5_000);
+
+        Thread first = new Thread(() -> hasher.encode("a"));
+        Thread queued = new Thread(() -> hasher.encode("b"));
+        first.start();
+        assertThat(busy.await(5, TimeUnit.SECONDS)).isTrue();
+        queued.start();
+        while (executor.getQueue().isEmpty()) Thread.onSpinWait();
+
+        assertThatThrownBy(() -> hasher.encode("c"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(registry.get("auth.password.rejected").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("auth.password.queue.depth").gauge().value()).isEqualTo(1.0);
+
+        release.countDown();
+        first.join(5_000);
+        queued.join(5_000);
+    }
+
+    @Test
+    void waitingLongerThanTimeout_isShedWith503() {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = mock(PasswordEncoder.class);
+        when(slow.matches(any(), any())).thenAnswer(inv -> release.await(5, TimeUnit.SECONDS));
+        PasswordHasher hasher = hasher(slow, 10, 1, 1, 50);
+
+        assertThatThrownBy(() -> hasher.matches("pw", "hash"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        release.countDown();
+    }
+
+    @Test
+    void encoderFailures_propagateUnchanged() {
+        PasswordEncoder broken = mock(PasswordEncoder.class);
+        when(broken.encode(any())).thenThrow(new IllegalArgumentException("bad input"));
+        PasswordHasher hasher = hasher(broken, 10, 1, 1, 5_000);
+
+        assertThatThrownBy(() -> hasher.encode("x"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("bad input");
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.main.security;
+
+import org.example.main.model.user.TokenRevocation;
+import org.example.main.repository.user.TokenRevocationRepository;
+import org.example.main.repository.user.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationListTest {
+
+    private static final long LIFETIME = 3_600_000L;
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+
+    @Mock
+    TokenRevocationRepository repository;
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    StringRedisTemplate redis;
+
+    private TokenRevocationList list(Instant now, StringRedisTemplate redisTemplate) {
+        return new TokenRevocationList(repository, userRepository, redisTemplate, LIFETIME, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static OffsetDateTime at(Instant i) {
+        return i.atOffset(ZoneOffset.UTC);
+    }
+
+    @Test
+    void revokeSubject_revokesTokensIssuedUpToNow_persists_and_broadcasts() {
+        TokenRevocationList list = list(NOW, redis);
+
+        list.revokeSubject("alice");
+
+        assertThat(list.isRevoked("alice", "jti-1", NOW.toEpochMilli() - 1_000)).isTrue();
+        assertThat(list.isRevoked("alice", "jti-2", NOW.toEpochMilli())).isTrue();
+        assertThat(list.isRevoked("alice", "jti-3", NOW.toEpochMilli() + 1_000)).isFalse();
+        assertThat(list.isRevoked("bob", "jti-1", 0)).isFalse();
+
+        ArgumentCaptor<TokenRevocation> saved = ArgumentCaptor.forClass(TokenRevocation.class);
+        verify(repository).save(saved.capture());
+        assertThat(saved.getValue().getSubject()).isEqualTo("alice");
+        assertThat(saved.getValue().getExpiresAt()).isEqualTo(at(NOW.plusMillis(LIFETIME)));
+        verify(redis).convertAndSend(TokenRevocationList.CHANNEL, "S:" + NOW.toEpochMilli() + ":alice");
+    }
+
+    @Test
+    void tokenIssuedEarlierInTheSameSecond_isRevoked_andOneIssuedAfterTheCutoffIsNot() {
+        Instant revokedAt = NOW.plusMillis(700);
+        TokenRevocationList list = list(revokedAt, null);
+
+        list.revokeSubject("alice");
+
+        assertThat(list.isRevoked("alice", null, NOW.plusMillis(100).toEpochMilli())).isTrue();
+        // a token with only the second-precision iat reads as 12:00:00.000
+        assertThat(list.isRevoked("alice", null, NOW.toEpochMilli())).isTrue();
+        assertThat(list.isRevoked("alice", null, NOW.plusMillis(900).toEpochMilli())).isFalse();
+    }
+
+    @Test
+    void revokeToken_matchesOnlyThatJti_andIgnoresAlreadyExpiredTokens() {
+        TokenRevocationList list = list(NOW, null);
+
+        list.revokeToken("jti-1", NOW.toEpochMilli() + 60_000);
+        list.revokeToken("jti-old", NOW.toEpochMilli() - 1);
+
+        assertThat(list.isRevoked("alice", "jti-1", NOW.toEpochMilli())).isTrue();
+        assertThat(list.isRevoked("alice", "jti-2", NOW.toEpochMilli())).isFalse();
+        assertThat(list.isRevoked("alice", "jti-old", NOW.toEpochMilli())).isFalse();
+        verify(repository, times(1)).save(any());
+    }
+
+    @Test
+    void insideTransaction_appliesOnlyAfterCommit() {
+        TokenRevocationList list = list(NOW, redis);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            list.revokeSubject("alice");
+            assertThat(list.isRevoked("alice", null, 0)).isFalse();
+            verifyNoInteractions(redis);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(list.isRevoked("alice", null, 0)).isTrue();
+            verify(redis).convertAndSend(eq(TokenRevocationList.CHANNEL), any(String.class));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void start_bootstrapsFromTable_andBlockedUsers() {
+        when(repository.findByExpiresAtAfter(at(NOW))).thenReturn(List.of(
+                TokenRevocation.builder().subject("carol").revokedAt(at(NOW.minusSeconds(600)))
+                        .expiresAt(at(NOW.plusSeconds(3000))).build(),
+                TokenRevocation.builder().tokenId("jti-9").revokedAt(at(NOW.minusSeconds(60)))
+                        .expiresAt(at(NOW.plusSeconds(120))).build()));
+        when(userRepository.findBlockedUsernames()).thenReturn(List.of("dave"));
+
+        TokenRevocationList list = list(NOW, null);
+        list.start();
+
+        assertThat(list.isRevoked("carol", null, NOW.minusSeconds(700).toEpochMilli())).isTrue();
+        assertThat(list.isRevoked("carol", null, NOW.minusSeconds(500).toEpochMilli())).isFalse();
+        assertThat(list.isRevoked("x", "jti-9", 0)).isTrue();
+        assertThat(list.isRevoked("dave", null, NOW.toEpochMilli())).isTrue();
+        verify(repository).deleteExpired(at(NOW));
+    }
+
+    @Test
+    void start_survivesDatabaseFailure() {
+        when(repository.findByExpiresAtAfter(any())).thenThrow(new IllegalStateException("db down"));
+
+        TokenRevocationList list = list(NOW, null);
+        assertThatCode(list::start).doesNotThrowAnyException();
+        assertThat(list.size()).isZero();
+    }
+
+    @Test
+    void messagesFromOtherReplicas_areApplied_andMalformedOnesIgnored() {
+        TokenRevocationList list = list(NOW, null);
+
+        list.handle("S:" + NOW.toEpochMilli() + ":user:with:colons");
+        list.handle("T:" + (NOW.toEpochMilli() + 5_000) + ":jti-5");
+        list.handle("S:not-a-number:alice");
+        list.handle("X:1:whatever");
+        list.handle("garbage");
+
+        assertThat(list.isRevoked("user:with:colons", null, NOW.toEpochMilli())).isTrue();
+        assertThat(list.isRevoked("bob", "jti-5", NOW.toEpochMilli())).isTrue();
+        assertThat(list.isRevoked("alice", null, 0)).isFalse();
+        assertThat(list.size()).isEqualTo(2);
+    }
+
+    @Test
+    void prune_dropsEntriesOnceTheirTokensHaveExpired() {
+        MutableClock clock = new MutableClock(NOW);
+        TokenRevocationList list = new TokenRevocationList(repository, userRepository, null, LIFETIME, clock);
+        list.handle("S:" + NOW.toEpochMilli() + ":alice");
+        list.handle("T:" + (NOW.toEpochMilli() + 1_000) + ":jti-1");
+        assertThat(list.size()).isEqualTo(2);
+
+        clock.now = NOW.plusMillis(1_000);
+        list.prune();
+        assertThat(list.size()).isEqualTo(1);
+        assertThat(list.isRevoked("alice", null, 0)).isTrue();
+
+        clock.now = NOW.plusMillis(LIFETIME);
+        list.prune();
+        assertThat(list.size()).isZero();
+
+        // a stale broadcast for tokens that have all expired is not re-added
+        list.handle("S:" + NOW.toEpochMilli() + ":alice");
+        assertThat(list.size()).isZero();
+    }
+
+    @Test
+    void broadcastFailure_doesNotFailTheRevocation() {
+        doThrow(new IllegalStateException("redis down")).when(redis).convertAndSend(any(String.class), any(Object.class));
+        TokenRevocationList list = list(NOW, redis);
+
+        list.revokeSubject("alice");
+
+        assertThat(list.isRevoked("alice", null, 0)).isTrue();
+    }
+
+    private static final class MutableClock extends Clock {
+        Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.main.security;
+
+import org.example.main.security.VerifiedTokenCache.VerifiedToken;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    private VerifiedToken token(String subject, long expiresAt) {
+        JwtPrincipal principal = new JwtPrincipal(subject, List.of(new SimpleGrantedAuthority("ROLE_USER")),
+                null, null, null, null, null);
+        return new VerifiedToken(principal, null, 0L, expiresAt);
+    }
+
+    @Test
+    void returnsEntryUntilExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, now::get);
+        cache.put("t1", token("alice", 2_000));
+
+        assertThat(cache.get("t1").principal().getUsername()).isEqualTo("alice");
+        assertThat(cache.get("other")).isNull();
+
+        now.set(2_000);
+        assertThat(cache.get("t1")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void doesNotStoreExpiredOrUnboundedTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, now::get);
+        cache.put("expired", token("a", 999));
+        cache.put("noexp", token("b", 0));
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void whenFull_dropsExpiredFirst_thenTrimsToStayBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, now::get);
+        for (int i = 0; i < 5; i++) cache.put("short" + i, token("s", 1_500));
+        for (int i = 0; i < 5; i++) cache.put("long" + i, token("l", 10_000));
+
+        now.set(1_600);
+        cache.put("fresh", token("f", 10_000));
+        assertThat(cache.size()).isEqualTo(6);
+        assertThat(cache.get("long0")).isNotNull();
+
+        for (int i = 0; i < 50; i++) cache.put("more" + i, token("m", 10_000));
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+        assertThat(cache.get("more49")).isNotNull();
+    }
+
+    @Test
+    void zeroSize_disablesCaching() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0, now::get);
+        cache.put("t", token("a", 5_000));
+
+        assertThat(cache.get("t")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void keysAreHashes_notRawTokens() {
+        assertThat(VerifiedTokenCache.hash("header.payload.sig"))
+                .isEqualTo(VerifiedTokenCache.hash("header.payload.sig"))
+                .isNotEqualTo(VerifiedTokenCache.hash("header.payload.sih"))
+                .doesNotContain("payload");
+    }
+}
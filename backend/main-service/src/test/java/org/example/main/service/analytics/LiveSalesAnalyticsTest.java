@@ -0,0 +1,215 @@
+package org.example.main.service.analytics;
+
+import org.example.main.dto.response.analytics.LiveAnalyticsResponseDto;
+import org.example.main.dto.response.analytics.SalesWindowResponseDto;
+import org.example.main.dto.response.report.TopItemResponseDto;
+import org.example.main.event.OrderItemsAddedEvent;
+import org.example.main.model.order.OrderItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LiveSalesAnalyticsTest {
+
+    private static final Instant START = Instant.parse("2026-03-01T12:00:30Z");
+
+    private MutableClock clock;
+    private LiveSalesAnalytics analytics;
+
+    private final UUID burger = UUID.randomUUID();
+    private final UUID salad = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START);
+        analytics = new LiveSalesAnalytics(clock);
+    }
+
+    private static OrderItem line(UUID menuItemId, String name, int qty, String price) {
+        OrderItem oi = new OrderItem();
+        oi.setMenuItemId(menuItemId);
+        oi.setMenuItemName(name);
+        oi.setQuantity(qty);
+        oi.setPrice(new BigDecimal(price));
+        return oi;
+    }
+
+    private SalesWindowResponseDto window(LiveAnalyticsResponseDto dto, int minutes) {
+        return dto.getWindows().stream().filter(w -> w.getMinutes() == minutes).findFirst().orElseThrow();
+    }
+
+    @Test
+    void snapshot_empty_returnsZeroesForAllWindows() {
+        LiveAnalyticsResponseDto dto = analytics.snapshot();
+
+        assertThat(dto.getWindows()).extracting(SalesWindowResponseDto::getMinutes).containsExactly(15, 60, 240);
+        assertThat(dto.getWindows()).allSatisfy(w -> {
+            assertThat(w.getOrders()).isZero();
+            assertThat(w.getRevenue()).isEqualByComparingTo("0");
+            assertThat(w.getTopItems()).isEmpty();
+        });
+        assertThat(dto.getOrdersPerMinuteSeries()).hasSize(15).containsOnly(0L);
+    }
+
+    @Test
+    void recordOrder_countsOrdersRevenueAndItemsPerWindow() {
+        analytics.recordOrder(List.of(line(burger, "Burger", 2, "9.50"), line(salad, "Salad", 1, "7.25")));
+        clock.advance(Duration.ofMinutes(30));
+        analytics.recordOrder(List.of(line(salad, "Salad", 3, "7.25")));
+
+        LiveAnalyticsResponseDto dto = analytics.snapshot();
+
+        SalesWindowResponseDto last15 = window(dto, 15);
+        assertThat(last15.getOrders()).isEqualTo(1);
+        assertThat(last15.getRevenue()).isEqualByComparingTo("21.75");
+        assertThat(last15.getTopItems()).extracting(TopItemResponseDto::getMenuItemId).containsExactly(salad);
+
+        SalesWindowResponseDto last60 = window(dto, 60);
+        assertThat(last60.getOrders()).isEqualTo(2);
+        assertThat(last60.getRevenue()).isEqualByComparingTo("48.00");
+        assertThat(last60.getOrdersPerMinute()).isEqualByComparingTo("0.03");
+        assertThat(last60.getTopItems()).extracting(TopItemResponseDto::getMenuItemId).containsExactly(salad, burger);
+        assertThat(last60.getTopItems().get(0).getQuantity()).isEqualTo(4);
+        assertThat(last60.getTopItems().get(0).getRevenue()).isEqualByComparingTo("29.00");
+        assertThat(last60.getTopItems().get(1).getMenuItemName()).isEqualTo("Burger");
+
+        assertThat(dto.getOrdersPerMinuteSeries().get(14)).isEqualTo(1L);
+        assertThat(dto.getRevenuePerMinuteSeries().get(14)).isEqualByComparingTo("21.75");
+    }
+
+    @Test
+    void oldMinutes_fallOutOfWindowsAndRing() {
+        analytics.recordOrder(List.of(line(burger, "Burger", 1, "10.00")));
+
+        clock.advance(Duration.ofMinutes(241));
+        assertThat(window(analytics.snapshot(), 240).getOrders()).isZero();
+
+        clock.advance(Duration.ofMinutes(LiveSalesAnalytics.RING_MINUTES));
+        analytics.recordOrder(List.of(line(salad, "Salad", 1, "5.00")));
+        SalesWindowResponseDto last240 = window(analytics.snapshot(), 240);
+        assertThat(last240.getOrders()).isEqualTo(1);
+        assertThat(last240.getTopItems()).extracting(TopItemResponseDto::getMenuItemId).containsExactly(salad);
+    }
+
+    @Test
+    void topItems_cappedAtTen_orderedByQuantity() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            analytics.recordOrder(List.of(line(id, "item" + i, i + 1, "1.00")));
+        }
+
+        List<TopItemResponseDto> top = window(analytics.snapshot(), 15).getTopItems();
+
+        assertThat(top).hasSize(LiveSalesAnalytics.TOP_ITEMS);
+        assertThat(top.get(0).getMenuItemId()).isEqualTo(ids.get(14));
+        assertThat(top).extracting(TopItemResponseDto::getQuantity).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+    }
+
+    @Test
+    void recordOrder_ignoresEmptyAndUnknownLines() {
+        analytics.recordOrder(List.of());
+        analytics.recordOrder(List.of(line(null, "Custom", 1, "3.00"), line(burger, "Burger", 0, "9.00")));
+
+        SalesWindowResponseDto last15 = window(analytics.snapshot(), 15);
+        assertThat(last15.getOrders()).isEqualTo(1);
+        assertThat(last15.getRevenue()).isEqualByComparingTo("3.00");
+        assertThat(last15.getTopItems()).isEmpty();
+    }
+
+    @Test
+    void itemsAppendedToOpenOrder_addQuantityButNotOrders() {
+        UUID orderId = UUID.randomUUID();
+        analytics.onOrderItemsAdded(new OrderItemsAddedEvent(orderId, true, List.of(line(burger, "Burger", 1, "9.50"))));
+        analytics.onOrderItemsAdded(new OrderItemsAddedEvent(orderId, false, List.of(line(burger, "Burger", 2, "9.50"))));
+
+        SalesWindowResponseDto last15 = window(analytics.snapshot(), 15);
+        assertThat(last15.getOrders()).isEqualTo(1);
+        assertThat(last15.getRevenue()).isEqualByComparingTo("28.50");
+        assertThat(last15.getTopItems()).singleElement()
+                .satisfies(t -> assertThat(t.getQuantity()).isEqualTo(3));
+    }
+
+    @Test
+    void concurrentRecorders_doNotLoseCounts() throws Exception {
+        int threads = 8;
+        int perThread = 2_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        analytics.recordOrder(List.of(line(burger, "Burger", 1, "2.00")));
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        SalesWindowResponseDto last15 = window(analytics.snapshot(), 15);
+        assertThat(last15.getOrders()).isEqualTo((long) threads * perThread);
+        assertThat(last15.getTopItems().get(0).getQuantity()).isEqualTo((long) threads * perThread);
+    }
+
+    @Test
+    void spaceSavingSketch_keepsHeavyHittersWithinCapacity() {
+        SpaceSavingSketch<String> sketch = new SpaceSavingSketch<>(3);
+        sketch.offer("a", 50);
+        sketch.offer("b", 30);
+        for (int i = 0; i < 20; i++) sketch.offer("noise" + i, 1);
+
+        List<SpaceSavingSketch.Entry<String>> top = sketch.top(2);
+
+        assertThat(top).extracting(e -> e.key).containsExactly("a", "b");
+        assertThat(sketch.top(10)).hasSize(3);
+    }
+
+    static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.main.service.job;
+
+import org.example.main.model.job.JobExecution;
+import org.example.main.repository.job.JobExecutionRepository;
+import org.example.main.repository.job.ScheduledJobLeaseRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobLeaseServiceTest {
+
+    @Mock
+    ScheduledJobLeaseRepository leaseRepository;
+
+    @Mock
+    JobExecutionRepository executionRepository;
+
+    @InjectMocks
+    JobLeaseService service;
+
+    @Test
+    void tryAcquire_returnsLeaseWithFencingToken() {
+        when(leaseRepository.tryAcquire("job", "node-a", 60_000L)).thenReturn(List.of(3L));
+
+        Optional<JobLease> lease = service.tryAcquire("job", "node-a", Duration.ofMinutes(1));
+
+        assertThat(lease).contains(new JobLease("job", "node-a", 3L));
+    }
+
+    @Test
+    void tryAcquire_heldElsewhere_returnsEmpty() {
+        when(leaseRepository.tryAcquire("job", "node-b", 60_000L)).thenReturn(List.of());
+
+        assertThat(service.tryAcquire("job", "node-b", Duration.ofMinutes(1))).isEmpty();
+    }
+
+    @Test
+    void releaseAndIsHeld_matchOnOwnerAndToken() {
+        JobLease lease = new JobLease("job", "node-a", 3L);
+        when(leaseRepository.countValid("job", "node-a", 3L)).thenReturn(1L);
+
+        service.release(lease, Duration.ofSeconds(30));
+
+        verify(leaseRepository).release("job", "node-a", 3L, 30_000L);
+        assertThat(service.isHeld(lease)).isTrue();
+    }
+
+    @Test
+    void recordExecution_saves() {
+        JobExecution exec = JobExecution.builder().jobName("job").build();
+
+        service.recordExecution(exec);
+
+        verify(executionRepository).save(exec);
+    }
+}
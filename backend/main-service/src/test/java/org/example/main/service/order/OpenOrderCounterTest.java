@@ -0,0 +1,61 @@
+package org.example.main.service.order;
+
+import org.example.main.event.OrderStatusChangedEvent;
+import org.example.main.model.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OpenOrderCounterTest {
+
+    private final OpenOrderCounter counter = new OpenOrderCounter();
+    private final UUID table = UUID.randomUUID();
+
+    private void change(OrderStatus from, OrderStatus to) {
+        counter.onOrderStatusChanged(new OrderStatusChangedEvent(UUID.randomUUID(), table, from, to));
+    }
+
+    @Test
+    void lifecycleEvents_adjustCountOnlyWhenActivenessChanges() {
+        change(null, OrderStatus.NEW);
+        change(null, OrderStatus.NEW);
+        change(OrderStatus.NEW, OrderStatus.PROCESSING);
+        assertThat(counter.openOrders(table)).isEqualTo(2);
+
+        change(OrderStatus.READY, OrderStatus.COMPLETED);
+        change(OrderStatus.COMPLETED, OrderStatus.PAID);
+        assertThat(counter.openOrders(table)).isEqualTo(1);
+
+        change(OrderStatus.NEW, OrderStatus.CANCELLED);
+        assertThat(counter.openOrders(table)).isZero();
+        assertThat(counter.snapshot()).doesNotContainKey(table);
+    }
+
+    @Test
+    void decrementBelowZero_andOrdersWithoutTable_areIgnored() {
+        change(OrderStatus.NEW, OrderStatus.CANCELLED);
+        counter.onOrderStatusChanged(new OrderStatusChangedEvent(UUID.randomUUID(), null, null, OrderStatus.NEW));
+
+        assertThat(counter.snapshot()).isEmpty();
+    }
+
+    @Test
+    void reconcile_replacesCounts_andReportsDrift() {
+        UUID other = UUID.randomUUID();
+        change(null, OrderStatus.NEW);
+        change(null, OrderStatus.NEW);
+        counter.onOrderStatusChanged(new OrderStatusChangedEvent(UUID.randomUUID(), other, null, OrderStatus.NEW));
+
+        int drift = counter.reconcile(Map.of(table, 2L, UUID.randomUUID(), 1L));
+
+        assertThat(drift).isEqualTo(2);
+        assertThat(counter.openOrders(table)).isEqualTo(2);
+        assertThat(counter.openOrders(other)).isZero();
+        assertThat(counter.snapshot()).hasSize(2);
+        assertThat(counter.getLastReconciledAt()).isNotNull();
+        assertThat(counter.reconcile(counter.snapshot())).isZero();
+    }
+}
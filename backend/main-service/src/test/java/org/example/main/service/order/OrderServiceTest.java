@@ -3,6 +3,9 @@ package org.example.main.service.order;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import feign.FeignException;
 import org.example.main.dto.kitchen.KitchenInfoDto;
+import org.example.main.event.OrderItemsAddedEvent;
+import org.example.main.event.OrderPlacedEvent;
+import org.example.main.event.OrderStatusChangedEvent;
 import org.example.main.dto.request.order.OrderRequestDto;
 import org.example.main.dto.request.order.OrderRequestDto.OrderItemRequest;
 import org.example.main.dto.response.order.OrderDetailsResponseDto;
@@ -24,13 +27,14 @@ import org.example.main.repository.order.OrderItemRepository;
 import org.example.main.repository.order.OrderRepository;
 import org.example.main.repository.role.RoleRepository;
 import org.example.main.repository.user.UserRepository;
-import org.example.main.service.table.RestaurantTableService;
+import org.example.main.service.report.ISalesRollupService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 
 import org.mockito.MockedStatic;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.server.ResponseStatusException;
 import org.testcontainers.shaded.com.fasterxml.jackson.core.JsonProcessingException;
 
@@ -50,8 +54,9 @@ class OrderServiceTest {
     @Mock MenuItemRepository menuItemRepository;
     @Mock UserRepository userRepository;
     @Mock KitchenClient kitchenClient;
-    @Mock RestaurantTableService restaurantTableService;
     @Mock RoleRepository roleRepository;
+    @Mock ISalesRollupService salesRollupService;
+    @Mock ApplicationEventPublisher eventPublisher;
 
     @InjectMocks OrderService orderService;
 
@@ -149,6 +154,15 @@ class OrderServiceTest {
         assertThat(resp).isNotNull();
         assertThat(resp.getOrderId()).isEqualTo(existing.getId());
         verify(orderRepository, atLeastOnce()).save(any());
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, atLeastOnce()).publishEvent(events.capture());
+        // appended lines are not a new order
+        assertThat(events.getAllValues()).filteredOn(OrderItemsAddedEvent.class::isInstance).singleElement()
+                .isInstanceOfSatisfying(OrderItemsAddedEvent.class, e -> {
+                    assertThat(e.isNewOrder()).isFalse();
+                    assertThat(e.getItems()).extracting(OrderItem::getQuantity).containsExactly(2);
+                });
+        assertThat(events.getAllValues()).noneMatch(OrderPlacedEvent.class::isInstance);
     }
 
     @Test
@@ -180,7 +194,18 @@ class OrderServiceTest {
         OrderResponseDto r = orderService.createOrder(req);
         assertThat(r).isNotNull();
         assertThat(r.getOrderId()).isNotNull();
-        verify(restaurantTableService).occupyTable(eq(5), anyInt());
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, atLeastOnce()).publishEvent(events.capture());
+        assertThat(events.getAllValues()).filteredOn(OrderPlacedEvent.class::isInstance).singleElement()
+                .isInstanceOfSatisfying(OrderPlacedEvent.class, e -> {
+                    assertThat(e.getOrderId()).isNotNull();
+                    assertThat(e.getTableNumber()).isEqualTo(5);
+                });
+        assertThat(events.getAllValues()).filteredOn(OrderItemsAddedEvent.class::isInstance).singleElement()
+                .isInstanceOfSatisfying(OrderItemsAddedEvent.class, e -> {
+                    assertThat(e.isNewOrder()).isTrue();
+                    assertThat(e.getItems()).hasSize(1);
+                });
     }
 
     @Test
@@ -548,6 +573,37 @@ class OrderServiceTest {
         assertThat(o.getStatus()).isEqualTo(OrderStatus.PROCESSING);
     }
 
+    @Test
+    void updateOrderStatus_completed_recordsSalesRollup() {
+        UUID id = UUID.randomUUID();
+        OrderEntity o = new OrderEntity(); o.setId(id); o.setStatus(OrderStatus.PROCESSING);
+        OrderItem served = new OrderItem(); served.setStatus(OrderItemStatus.SERVED);
+        o.setItems(new ArrayList<>(List.of(served)));
+        when(orderRepository.findById(id)).thenReturn(Optional.of(o));
+
+        orderService.updateOrderStatus(id, OrderStatus.COMPLETED);
+
+        InOrder inOrder = inOrder(salesRollupService, orderRepository);
+        inOrder.verify(salesRollupService).recordCompletedOrder(o);
+        inOrder.verify(orderRepository).save(o);
+    }
+
+    @Test
+    void cancelOrder_publishesStatusChangeForTable() {
+        UUID id = UUID.randomUUID();
+        UUID tableId = UUID.randomUUID();
+        OrderEntity o = new OrderEntity(); o.setId(id); o.setTableId(tableId); o.setStatus(OrderStatus.NEW);
+        when(orderRepository.findById(id)).thenReturn(Optional.of(o));
+
+        orderService.cancelOrder(id);
+
+        ArgumentCaptor<OrderStatusChangedEvent> ev = ArgumentCaptor.forClass(OrderStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(ev.capture());
+        assertThat(ev.getValue().getTableId()).isEqualTo(tableId);
+        assertThat(ev.getValue().getPreviousStatus()).isEqualTo(OrderStatus.NEW);
+        assertThat(ev.getValue().becameInactive()).isTrue();
+    }
+
     
 
     @Test
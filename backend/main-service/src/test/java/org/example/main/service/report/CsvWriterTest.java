@@ -0,0 +1,28 @@
+package org.example.main.service.report;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CsvWriterTest {
+
+    @Test
+    void writeRow_quotesOnlyWhenNeeded_andDoublesEmbeddedQuotes() throws Exception {
+        StringWriter sw = new StringWriter();
+        CsvWriter csv = new CsvWriter(sw);
+
+        csv.writeRow("plain", null, 42, "a,b", "say \"hi\"", "line1\nline2");
+
+        assertThat(sw.toString())
+                .isEqualTo("plain,,42,\"a,b\",\"say \"\"hi\"\"\",\"line1\nline2\"\r\n");
+    }
+
+    @Test
+    void needsQuoting_detectsSpecialCharacters() {
+        assertThat(CsvWriter.needsQuoting("abc")).isFalse();
+        assertThat(CsvWriter.needsQuoting("a\rb")).isTrue();
+        assertThat(CsvWriter.needsQuoting("\"")).isTrue();
+    }
+}
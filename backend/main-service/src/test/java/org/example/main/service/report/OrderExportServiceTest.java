@@ -0,0 +1,152 @@
+package org.example.main.service.report;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExportServiceTest {
+
+    private static final OffsetDateTime FROM = OffsetDateTime.of(2026, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final OffsetDateTime TO = FROM.plusDays(31);
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    ResultSet rs;
+
+    OrderExportService service;
+
+    final UUID orderId = UUID.randomUUID();
+    final UUID itemId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        service = new OrderExportService(jdbcTemplate);
+    }
+
+    private void stubRow() throws Exception {
+        lenient().when(rs.getObject("order_id", UUID.class)).thenReturn(orderId);
+        lenient().when(rs.getObject("created_at", OffsetDateTime.class)).thenReturn(FROM.plusHours(12));
+        lenient().when(rs.getInt("status")).thenReturn(4);
+        lenient().when(rs.getObject("table_number")).thenReturn(7);
+        lenient().when(rs.getBigDecimal("total_amount")).thenReturn(new BigDecimal("19.00"));
+        lenient().when(rs.getObject("item_id", UUID.class)).thenReturn(itemId);
+        lenient().when(rs.getString("menu_item_name")).thenReturn("Burger, \"double\"");
+        lenient().when(rs.getObject("quantity")).thenReturn(2);
+        lenient().when(rs.getBigDecimal("price")).thenReturn(new BigDecimal("9.50"));
+        lenient().when(rs.getString("item_status")).thenReturn("SERVED");
+    }
+
+    private void feedRows(int count) {
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (int i = 0; i < count; i++) handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void export_csv_writesHeaderAndOneRowPerLine() throws Exception {
+        stubRow();
+        feedRows(2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = service.export(out, FROM, TO, OrderExportFormat.CSV);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r?\n");
+        assertThat(rows).isEqualTo(2);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("order_id,created_at,status");
+        assertThat(lines[1]).startsWith(orderId + ",").contains(",PAID,7,").contains("\"Burger, \"\"double\"\"\"");
+    }
+
+    @Test
+    void export_ndjson_writesOneObjectPerLine() throws Exception {
+        stubRow();
+        feedRows(3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = service.export(out, FROM, TO, OrderExportFormat.NDJSON);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(3);
+        assertThat(lines).hasSize(3);
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertThat(first.get("order_id").asText()).isEqualTo(orderId.toString());
+        assertThat(first.get("status").asText()).isEqualTo("PAID");
+        assertThat(first.get("quantity").asInt()).isEqualTo(2);
+        assertThat(first.get("price").decimalValue()).isEqualByComparingTo("9.50");
+        assertThat(first.get("customer_id").isNull()).isTrue();
+    }
+
+    @Test
+    void export_usesForwardOnlyCursorWithFetchSize() throws Exception {
+        feedRows(0);
+        service.export(new ByteArrayOutputStream(), FROM, TO, OrderExportFormat.CSV);
+
+        ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).query(creator.capture(), any(RowCallbackHandler.class));
+        Connection con = mock(Connection.class);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        when(con.prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY))).thenReturn(ps);
+
+        creator.getValue().createPreparedStatement(con);
+
+        verify(ps).setFetchSize(OrderExportService.FETCH_SIZE);
+        verify(ps).setObject(1, FROM);
+        verify(ps).setObject(2, TO);
+    }
+
+    @Test
+    void export_writeFailure_surfacesIOException() throws Exception {
+        stubRow();
+        feedRows(100_000);
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThatThrownBy(() -> service.export(broken, FROM, TO, OrderExportFormat.CSV))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Broken pipe");
+    }
+
+    @Test
+    void fromParam_acceptsKnownFormatsCaseInsensitively() {
+        assertThat(OrderExportFormat.fromParam("NDJSON")).isEqualTo(OrderExportFormat.NDJSON);
+        assertThat(OrderExportFormat.fromParam(null)).isEqualTo(OrderExportFormat.CSV);
+        assertThatThrownBy(() -> OrderExportFormat.fromParam("xml"))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.main.service.report;
+
+import jakarta.persistence.EntityManager;
+import org.example.main.exception.StaleFencingTokenException;
+import org.example.main.model.recommendation.FavoriteRecommendation;
+import org.example.main.model.report.ReportWatermark;
+import org.example.main.repository.recommendation.FavoriteRecommendationRepository;
+import org.example.main.repository.report.ReportWatermarkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecommendationReportServiceTest {
+
+    @Mock
+    FavoriteRecommendationRepository favoriteRepository;
+
+    @Mock
+    ReportWatermarkRepository watermarkRepository;
+
+    @Mock
+    EntityManager entityManager;
+
+    @TempDir
+    Path dir;
+
+    RecommendationReportService service;
+
+    private final OffsetDateTime t1 = OffsetDateTime.of(2026, 10, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+    private final OffsetDateTime t2 = t1.plusHours(1);
+
+    @BeforeEach
+    void setUp() {
+        service = new RecommendationReportService(favoriteRepository, watermarkRepository, entityManager, dir.toString(), true);
+    }
+
+    private FavoriteRecommendation fav(String name, OffsetDateTime at) {
+        return FavoriteRecommendation.builder()
+                .id(UUID.randomUUID())
+                .menuItemName(name)
+                .description("Line one, \"quoted\"\nline two")
+                .ingredients(List.of("a", "b"))
+                .calories(100)
+                .createdAt(at)
+                .build();
+    }
+
+    @Test
+    void writeCsv_streamsEscapedRows_andDetachesEach() throws Exception {
+        FavoriteRecommendation a = fav("Soup", t1);
+        FavoriteRecommendation b = fav("Stew", t2);
+        when(favoriteRepository.streamCreatedAfter(any())).thenReturn(Stream.of(a, b));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = service.writeCsv(out, null);
+
+        assertThat(rows).isEqualTo(2);
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(csv).startsWith("id,menu_item_id,menu_item_name,description,ingredients,");
+        assertThat(csv).contains("\"Line one, \"\"quoted\"\"\nline two\"");
+        assertThat(csv).contains(",\"a,b\",");
+        verify(entityManager).detach(a);
+        verify(entityManager).detach(b);
+    }
+
+    @Test
+    void exportIncremental_writesGzipAndAdvancesWatermark() throws Exception {
+        FavoriteRecommendation soup = fav("Soup", t1);
+        FavoriteRecommendation stew = fav("Stew", t2);
+        when(watermarkRepository.findById(RecommendationReportService.WATERMARK)).thenReturn(Optional.empty());
+        when(favoriteRepository.streamAfter(any(), any())).thenReturn(Stream.of(soup, stew));
+        when(watermarkRepository.upsert(RecommendationReportService.WATERMARK, t2, stew.getId(), 3L)).thenReturn(1);
+
+        Optional<ExportedReport> report = service.exportIncremental(3L);
+
+        assertThat(report).isPresent();
+        assertThat(report.get().rows()).isEqualTo(2);
+        assertThat(report.get().path().getFileName().toString()).endsWith(".csv.gz");
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(report.get().path()))) {
+            String csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(csv).contains("Soup").contains("Stew");
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files.filter(p -> p.toString().endsWith(".part"))).isEmpty();
+        }
+    }
+
+    @Test
+    void exportIncremental_continuesFromStoredCursor_andKeepsItWhenNothingIsNew() throws Exception {
+        UUID lastId = UUID.randomUUID();
+        when(watermarkRepository.findById(RecommendationReportService.WATERMARK)).thenReturn(Optional.of(
+                ReportWatermark.builder().reportName(RecommendationReportService.WATERMARK)
+                        .lastCreatedAt(t2).lastId(lastId).updatedAt(t2).build()));
+        when(favoriteRepository.streamAfter(t2, lastId)).thenReturn(Stream.empty());
+
+        assertThat(service.exportIncremental(3L)).isEmpty();
+
+        verify(watermarkRepository, never()).upsert(any(), any(), any(), anyLong());
+        assertThat(dir.toFile().list()).isEmpty();
+    }
+
+    @Test
+    void exportIncremental_staleFencingToken_publishesNothing() {
+        when(watermarkRepository.findById(any())).thenReturn(Optional.empty());
+        when(favoriteRepository.streamAfter(any(), any())).thenReturn(Stream.of(fav("Soup", t1)));
+        when(watermarkRepository.upsert(any(), any(), any(), eq(3L))).thenReturn(0);
+
+        assertThatThrownBy(() -> service.exportIncremental(3L)).isInstanceOf(StaleFencingTokenException.class);
+
+        assertThat(dir.toFile().list()).isEmpty();
+    }
+
+    @Test
+    void exportIncremental_failureLeavesNoPartialFileOrWatermark() {
+        when(watermarkRepository.findById(any())).thenReturn(Optional.empty());
+        when(favoriteRepository.streamAfter(any(), any())).thenThrow(new IllegalStateException("db gone"));
+
+        assertThatThrownBy(() -> service.exportIncremental(3L)).isInstanceOf(IllegalStateException.class);
+
+        verify(watermarkRepository, never()).upsert(any(), any(), any(), anyLong());
+        assertThat(dir.toFile().list()).isEmpty();
+    }
+}
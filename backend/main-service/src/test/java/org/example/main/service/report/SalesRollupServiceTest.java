@@ -0,0 +1,187 @@
+package org.example.main.service.report;
+
+import org.example.main.dto.response.report.SalesSummaryResponseDto;
+import org.example.main.dto.response.report.TopItemResponseDto;
+import org.example.main.model.enums.OrderItemStatus;
+import org.example.main.model.enums.OrderStatus;
+import org.example.main.model.menu.MenuItem;
+import org.example.main.model.order.OrderEntity;
+import org.example.main.model.order.OrderItem;
+import org.example.main.model.report.DailyItemSales;
+import org.example.main.model.report.DailySales;
+import org.example.main.repository.order.OrderRepository;
+import org.example.main.repository.report.DailyItemSalesRepository;
+import org.example.main.repository.report.DailySalesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesRollupServiceTest {
+
+    @Mock
+    DailySalesRepository dailySalesRepository;
+
+    @Mock
+    DailyItemSalesRepository dailyItemSalesRepository;
+
+    @Mock
+    OrderRepository orderRepository;
+
+    SalesRollupService service;
+
+    private final LocalDate day = LocalDate.of(2026, 10, 18);
+
+    @BeforeEach
+    void setUp() {
+        service = new SalesRollupService(dailySalesRepository, dailyItemSalesRepository, orderRepository, "UTC");
+    }
+
+    private OrderItem item(UUID menuItemId, String name, String price, int qty, OrderItemStatus status) {
+        OrderItem oi = new OrderItem();
+        if (menuItemId != null) {
+            MenuItem mi = new MenuItem();
+            mi.setId(menuItemId);
+            mi.setPrice(new BigDecimal("999.00")); // current menu price must be ignored
+            oi.setMenuItem(mi);
+        }
+        oi.setMenuItemName(name);
+        oi.setPrice(new BigDecimal(price));
+        oi.setQuantity(qty);
+        oi.setStatus(status);
+        return oi;
+    }
+
+    private OrderEntity order(OrderStatus status, OrderItem... items) {
+        OrderEntity o = new OrderEntity();
+        o.setId(UUID.randomUUID());
+        o.setStatus(status);
+        o.setCreatedAt(OffsetDateTime.of(2026, 10, 18, 23, 30, 0, 0, ZoneOffset.UTC));
+        o.setItems(List.of(items));
+        return o;
+    }
+
+    @Test
+    void recordCompletedOrder_usesPriceSnapshot_groupsByMenuItem_andSkipsCancelledItems() {
+        UUID steak = UUID.randomUUID();
+        OrderEntity o = order(OrderStatus.COMPLETED,
+                item(steak, "Steak", "10.00", 1, OrderItemStatus.SERVED),
+                item(steak, "Steak", "10.00", 2, OrderItemStatus.SERVED),
+                item(null, "Custom", "3.50", 1, OrderItemStatus.SERVED),
+                item(UUID.randomUUID(), "Cola", "2.00", 1, OrderItemStatus.CANCELLED));
+        when(orderRepository.claimSalesRecording(eq(o.getId()), any())).thenReturn(1);
+
+        service.recordCompletedOrder(o);
+
+        verify(dailySalesRepository).upsertAdd(day, 1, new BigDecimal("33.50"));
+        verify(dailyItemSalesRepository).upsertAdd(day, steak, "Steak", 3, new BigDecimal("30.00"));
+        verify(dailyItemSalesRepository).upsertAdd(day, DailyItemSales.UNKNOWN_MENU_ITEM, "Custom", 1, new BigDecimal("3.50"));
+        verifyNoMoreInteractions(dailyItemSalesRepository);
+        assertThat(o.getSalesRecordedAt()).isNotNull();
+    }
+
+    @Test
+    void recordCompletedOrder_ignoresOpenOrAlreadyRecordedOrders() {
+        service.recordCompletedOrder(order(OrderStatus.PROCESSING));
+        OrderEntity recorded = order(OrderStatus.PAID);
+        recorded.setSalesRecordedAt(OffsetDateTime.now());
+        service.recordCompletedOrder(recorded);
+        service.recordCompletedOrder(null);
+
+        verifyNoInteractions(dailySalesRepository, dailyItemSalesRepository, orderRepository);
+    }
+
+    @Test
+    void recordCompletedOrder_addsNothing_whenAnotherTransactionClaimedTheOrderFirst() {
+        OrderEntity o = order(OrderStatus.COMPLETED, item(UUID.randomUUID(), "Steak", "10.00", 1, OrderItemStatus.SERVED));
+        when(orderRepository.claimSalesRecording(eq(o.getId()), any())).thenReturn(0);
+
+        service.recordCompletedOrder(o);
+
+        verifyNoInteractions(dailySalesRepository, dailyItemSalesRepository);
+        assertThat(o.getSalesRecordedAt()).isNotNull();
+    }
+
+    @Test
+    void rebuild_replacesRangeFromSqlAggregation_andMarksOrders() {
+        service.rebuild(day, day);
+
+        List<Integer> sold = List.of(OrderStatus.COMPLETED.ordinal(), OrderStatus.PAID.ordinal());
+        OffsetDateTime fromTs = OffsetDateTime.of(2026, 10, 18, 0, 0, 0, 0, ZoneOffset.UTC);
+        OffsetDateTime toTs = fromTs.plusDays(1);
+        var inOrder = inOrder(dailyItemSalesRepository, dailySalesRepository, orderRepository);
+        inOrder.verify(dailyItemSalesRepository).deleteBySalesDateBetween(day, day);
+        inOrder.verify(dailySalesRepository).deleteBySalesDateBetween(day, day);
+        inOrder.verify(dailySalesRepository).rebuildFromOrders(eq("UTC"), eq(sold), argThat(fromTs::isEqual), argThat(toTs::isEqual));
+        inOrder.verify(dailyItemSalesRepository).rebuildFromOrders(eq("UTC"), eq(sold), any(), any());
+        inOrder.verify(orderRepository).markSalesRecorded(eq(sold), any(), any(), any());
+    }
+
+    @Test
+    void summary_computesAverageTicket() {
+        DailySalesRepository.Totals totals = mock(DailySalesRepository.Totals.class);
+        when(totals.getOrderCount()).thenReturn(3L);
+        when(totals.getRevenue()).thenReturn(new BigDecimal("100.00"));
+        when(dailySalesRepository.sumBetween(day.minusDays(6), day)).thenReturn(totals);
+        when(dailySalesRepository.findBySalesDateBetweenOrderBySalesDate(day.minusDays(6), day))
+                .thenReturn(List.of(new DailySales(day, 3, new BigDecimal("100.00"))));
+
+        SalesSummaryResponseDto out = service.summary(day.minusDays(6), day);
+
+        assertThat(out.getOrderCount()).isEqualTo(3);
+        assertThat(out.getAverageTicket()).isEqualByComparingTo("33.33");
+        assertThat(out.getDays()).singleElement().satisfies(d -> assertThat(d.getDate()).isEqualTo(day));
+    }
+
+    @Test
+    void summary_noSales_returnsZeros() {
+        DailySalesRepository.Totals totals = mock(DailySalesRepository.Totals.class);
+        when(totals.getOrderCount()).thenReturn(0L);
+        when(totals.getRevenue()).thenReturn(BigDecimal.ZERO);
+        when(dailySalesRepository.sumBetween(day, day)).thenReturn(totals);
+
+        SalesSummaryResponseDto out = service.summary(day, day);
+
+        assertThat(out.getAverageTicket()).isEqualByComparingTo("0");
+        assertThat(out.getDays()).isEmpty();
+    }
+
+    @Test
+    void topItems_mapsUnknownMenuItemToNull_andClampsLimit() {
+        DailyItemSalesRepository.ItemTotals t = mock(DailyItemSalesRepository.ItemTotals.class);
+        when(t.getMenuItemId()).thenReturn(DailyItemSales.UNKNOWN_MENU_ITEM);
+        when(t.getMenuItemName()).thenReturn("Custom");
+        when(t.getQuantity()).thenReturn(4L);
+        when(t.getRevenue()).thenReturn(new BigDecimal("14.00"));
+        when(dailyItemSalesRepository.findTopItems(eq(day), eq(day), argThat((Pageable p) -> p.getPageSize() == 100)))
+                .thenReturn(List.of(t));
+
+        List<TopItemResponseDto> out = service.topItems(day, day, 1000);
+
+        assertThat(out).singleElement().satisfies(i -> {
+            assertThat(i.getMenuItemId()).isNull();
+            assertThat(i.getQuantity()).isEqualTo(4);
+        });
+    }
+
+    @Test
+    void invalidRange_isBadRequest() {
+        assertThatThrownBy(() -> service.summary(day, day.minusDays(1))).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> service.topItems(null, day, 5)).isInstanceOf(ResponseStatusException.class);
+    }
+}
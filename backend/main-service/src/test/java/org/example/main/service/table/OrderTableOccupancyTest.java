@@ -0,0 +1,97 @@
+package org.example.main.service.table;
+
+import org.example.main.event.OrderPlacedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderTableOccupancyTest {
+
+    @Mock
+    RestaurantTableService tableService;
+
+    @Mock
+    ScheduledExecutorService executor;
+
+    OrderTableOccupancy occupancy;
+
+    @BeforeEach
+    void setUp() {
+        occupancy = new OrderTableOccupancy(tableService, 500, 60, executor);
+    }
+
+    @Test
+    void ordersAtSameTableWithinWindow_occupyOnce() {
+        occupancy.onOrderPlaced(placed(4));
+        occupancy.onOrderPlaced(placed(4));
+        occupancy.onOrderPlaced(placed(9));
+
+        ArgumentCaptor<Runnable> tasks = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor, times(2)).schedule(tasks.capture(), eq(500L), eq(TimeUnit.MILLISECONDS));
+        assertThat(occupancy.pending()).isEqualTo(2);
+        verifyNoInteractions(tableService);
+
+        tasks.getAllValues().forEach(Runnable::run);
+
+        verify(tableService).occupyTable(4, 60);
+        verify(tableService).occupyTable(9, 60);
+        assertThat(occupancy.pending()).isZero();
+    }
+
+    @Test
+    void orderAfterWindowClosed_opensNewWindow() {
+        occupancy.onOrderPlaced(placed(4));
+        occupancy.occupy(4);
+        occupancy.onOrderPlaced(placed(4));
+
+        verify(executor, times(2)).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    void orderWithoutTable_isIgnored() {
+        occupancy.onOrderPlaced(placed(null));
+
+        verifyNoInteractions(executor, tableService);
+    }
+
+    @Test
+    void occupyFailure_isLoggedNotThrown() {
+        doThrow(new IllegalStateException("db down")).when(tableService).occupyTable(anyInt(), anyInt());
+
+        assertThatCode(() -> occupancy.occupy(4)).doesNotThrowAnyException();
+        assertThat(occupancy.pending()).isZero();
+    }
+
+    @Test
+    void stop_flushesTablesStillInTheirWindow_beforeShuttingDown() {
+        occupancy.onOrderPlaced(placed(4));
+        occupancy.onOrderPlaced(placed(9));
+
+        occupancy.stop();
+
+        InOrder inOrder = inOrder(tableService, executor);
+        inOrder.verify(tableService).occupyTable(4, 60);
+        inOrder.verify(executor).shutdownNow();
+        verify(tableService).occupyTable(9, 60);
+        assertThat(occupancy.pending()).isZero();
+    }
+
+    private static OrderPlacedEvent placed(Integer tableNumber) {
+        return new OrderPlacedEvent(UUID.randomUUID(), UUID.randomUUID(), tableNumber, OffsetDateTime.now());
+    }
+}
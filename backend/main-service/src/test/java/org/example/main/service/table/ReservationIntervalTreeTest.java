@@ -0,0 +1,99 @@
+package org.example.main.service.table;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReservationIntervalTreeTest {
+
+    @Test
+    void overlaps_usesHalfOpenRanges() {
+        ReservationIntervalTree tree = new ReservationIntervalTree();
+        tree.put(UUID.randomUUID(), 100, 200);
+
+        assertThat(tree.overlaps(150, 160)).isTrue();
+        assertThat(tree.overlaps(50, 101)).isTrue();
+        assertThat(tree.overlaps(199, 300)).isTrue();
+        assertThat(tree.overlaps(200, 300)).isFalse();
+        assertThat(tree.overlaps(0, 100)).isFalse();
+    }
+
+    @Test
+    void put_sameId_replacesInterval_and_remove_dropsIt() {
+        ReservationIntervalTree tree = new ReservationIntervalTree();
+        UUID id = UUID.randomUUID();
+        tree.put(id, 100, 200);
+        tree.put(id, 300, 400);
+
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.overlaps(100, 200)).isFalse();
+        assertThat(tree.overlaps(300, 400)).isTrue();
+
+        assertThat(tree.remove(id)).isTrue();
+        assertThat(tree.remove(id)).isFalse();
+        assertThat(tree.overlaps(0, 1000)).isFalse();
+    }
+
+    @Test
+    void overlapping_returnsAllHitsOrderedByStart() {
+        ReservationIntervalTree tree = new ReservationIntervalTree();
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        tree.put(c, 500, 600);
+        tree.put(a, 0, 1000);
+        tree.put(b, 200, 300);
+
+        assertThat(tree.overlapping(250, 550)).extracting(ReservationIntervalTree.Interval::id)
+                .containsExactly(a, b, c);
+        assertThat(tree.overlapping(1000, 2000)).isEmpty();
+    }
+
+    @Test
+    void nextFree_skipsOverChainedReservations() {
+        ReservationIntervalTree tree = new ReservationIntervalTree();
+        tree.put(UUID.randomUUID(), 100, 200);
+        tree.put(UUID.randomUUID(), 200, 250);
+        tree.put(UUID.randomUUID(), 280, 400);
+
+        // the 30-wide gap at 250 is too short for 50
+        assertThat(tree.nextFree(120, 50, 10_000)).isEqualTo(400);
+        assertThat(tree.nextFree(120, 30, 10_000)).isEqualTo(250);
+        assertThat(tree.nextFree(0, 100, 10_000)).isEqualTo(0);
+        assertThat(tree.nextFree(120, 50, 300)).isEqualTo(-1);
+    }
+
+    @Test
+    void randomized_matchesLinearScan() {
+        Random rnd = new Random(42);
+        ReservationIntervalTree tree = new ReservationIntervalTree();
+        List<ReservationIntervalTree.Interval> all = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long start = rnd.nextInt(10_000);
+            ReservationIntervalTree.Interval iv = new ReservationIntervalTree.Interval(UUID.randomUUID(), start, start + 1 + rnd.nextInt(200));
+            all.add(iv);
+            tree.put(iv.id(), iv.start(), iv.end());
+        }
+        for (int i = 0; i < 100; i++) {
+            ReservationIntervalTree.Interval gone = all.remove(rnd.nextInt(all.size()));
+            tree.remove(gone.id());
+        }
+
+        for (int q = 0; q < 300; q++) {
+            long from = rnd.nextInt(10_500);
+            long to = from + 1 + rnd.nextInt(300);
+            List<UUID> expected = all.stream()
+                    .filter(iv -> iv.start() < to && iv.end() > from)
+                    .map(ReservationIntervalTree.Interval::id)
+                    .toList();
+            assertThat(tree.overlapping(from, to)).extracting(ReservationIntervalTree.Interval::id)
+                    .containsExactlyInAnyOrderElementsOf(expected);
+            assertThat(tree.overlaps(from, to)).isEqualTo(!expected.isEmpty());
+        }
+    }
+}
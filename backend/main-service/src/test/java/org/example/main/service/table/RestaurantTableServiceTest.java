@@ -1,5 +1,8 @@
 package org.example.main.service.table;
 
+import org.example.main.event.RestaurantTableChangedEvent;
+import org.example.main.event.TableReservationChangedEvent;
+import org.example.main.event.TableStateChangedEvent;
 import org.example.main.exception.ResourceNotFoundException;
 import org.example.main.model.table.RestaurantTable;
 import org.example.main.model.table.TableReservationEntity;
@@ -14,6 +17,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.quality.Strictness;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.MockedStatic;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -33,12 +37,30 @@ class RestaurantTableServiceTest {
     @Mock
     TableReservationRepository reservationRepository;
 
+    @Mock
+    TableOccupancyExpiry occupancyExpiry;
+
+    @Mock
+    TableAvailabilityIndex availabilityIndex;
+
+    @Mock
+    TableNumberAllocator numberAllocator;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     RestaurantTableService service;
 
     @BeforeEach
     void setup() {
+        when(numberAllocator.claim(anyInt())).thenReturn(true);
+    }
 
+    private static DataIntegrityViolationException duplicateKey(String column, String value) {
+        return new DataIntegrityViolationException("could not execute statement", new java.sql.SQLException(
+                "ERROR: duplicate key value violates unique constraint \"uk_restaurant_tables\"\n"
+                        + "  Detail: Key (" + column + ")=(" + value + ") already exists.", "23505"));
     }
 
     @Test
@@ -51,6 +73,15 @@ class RestaurantTableServiceTest {
         verify(tableRepository).findAll();
     }
 
+    @Test
+    void findAllStates_isServedFromBoard() {
+        when(availabilityIndex.states()).thenReturn(List.of());
+
+        assertThat(service.findAllStates()).isEmpty();
+        verify(availabilityIndex).states();
+        verifyNoInteractions(tableRepository);
+    }
+
     @Test
     void findById_found_and_notFound() {
         UUID id = UUID.randomUUID();
@@ -79,9 +110,7 @@ class RestaurantTableServiceTest {
         in.setSeats(null);
         in.setPinCode(null);
 
-        when(tableRepository.findByTableNumber(7)).thenReturn(Optional.empty());
-        when(tableRepository.findByCode("T7")).thenReturn(Optional.empty());
-        when(tableRepository.save(any(RestaurantTable.class))).thenAnswer(inv -> {
+        when(tableRepository.saveAndFlush(any(RestaurantTable.class))).thenAnswer(inv -> {
             RestaurantTable r = inv.getArgument(0);
             r.setId(UUID.randomUUID());
             return r;
@@ -94,14 +123,72 @@ class RestaurantTableServiceTest {
         assertThat(out.getPinCode()).isNotNull();
         assertThat(out.getStatus()).isEqualTo(TableStatus.AVAILABLE);
 
-        verify(tableRepository).save(any(RestaurantTable.class));
+        verify(numberAllocator).claim(7);
+        verify(tableRepository).saveAndFlush(any(RestaurantTable.class));
+        verify(tableRepository, never()).findByTableNumber(any());
+        verify(tableRepository, never()).findByCode(any());
+        // the index picks the table up after commit
+        verify(availabilityIndex, never()).upsertTable(any());
+        ArgumentCaptor<RestaurantTableChangedEvent> event = ArgumentCaptor.forClass(RestaurantTableChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getTable()).isSameAs(out);
+    }
+
+    @Test
+    void create_withoutNumberOrCode_takesLowestFreeNumber() {
+        when(numberAllocator.allocate()).thenReturn(6);
+        when(tableRepository.saveAndFlush(any(RestaurantTable.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        RestaurantTable out = service.create(new RestaurantTable());
+
+        assertThat(out.getTableNumber()).isEqualTo(6);
+        assertThat(out.getCode()).isEqualTo("T6");
+        verify(numberAllocator, never()).claim(anyInt());
+    }
+
+    @Test
+    void create_numberTakenElsewhere_keepsNumberMarkedUsed() {
+        when(numberAllocator.allocate()).thenReturn(3);
+        when(tableRepository.saveAndFlush(any(RestaurantTable.class))).thenThrow(duplicateKey("table_number", "3"));
+
+        assertThatThrownBy(() -> service.create(new RestaurantTable()))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Table number already exists: 3");
+        verify(numberAllocator, never()).release(any());
+        verify(numberAllocator).invalidate();
+    }
+
+    @Test
+    void create_autoNumberTakenByAnotherReplica_reloadsAndTakesTheNextOne() {
+        when(numberAllocator.allocate()).thenReturn(3, 4);
+        when(tableRepository.existsByTableNumber(3)).thenReturn(true);
+        when(tableRepository.saveAndFlush(any(RestaurantTable.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        RestaurantTable out = service.create(new RestaurantTable());
+
+        assertThat(out.getTableNumber()).isEqualTo(4);
+        assertThat(out.getCode()).isEqualTo("T4");
+        verify(numberAllocator).invalidate();
+        verify(numberAllocator, never()).release(any());
+    }
+
+    @Test
+    void create_autoNumbersKeepCollidingAcrossReplicas_isConflict() {
+        when(numberAllocator.allocate()).thenReturn(3);
+        when(tableRepository.existsByTableNumber(3)).thenReturn(true);
+
+        assertThatThrownBy(() -> service.create(new RestaurantTable()))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("No available table numbers");
+        verify(numberAllocator, times(RestaurantTableService.NUMBER_ALLOCATION_ATTEMPTS)).allocate();
+        verify(tableRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void create_conflict_on_tableNumber() {
         RestaurantTable in = new RestaurantTable();
         in.setTableNumber(5);
-        when(tableRepository.findByTableNumber(5)).thenReturn(Optional.of(new RestaurantTable()));
+        when(numberAllocator.claim(5)).thenReturn(false);
 
         assertThatThrownBy(() -> service.create(in))
                 .isInstanceOf(ResponseStatusException.class)
@@ -112,11 +199,14 @@ class RestaurantTableServiceTest {
     void create_conflict_on_code() {
         RestaurantTable in = new RestaurantTable();
         in.setCode("X1");
-        when(tableRepository.findByCode("X1")).thenReturn(Optional.of(new RestaurantTable()));
+        when(numberAllocator.allocate()).thenReturn(4);
+        when(tableRepository.saveAndFlush(any(RestaurantTable.class))).thenThrow(duplicateKey("code", "X1"));
 
         assertThatThrownBy(() -> service.create(in))
                 .isInstanceOf(ResponseStatusException.class)
-                .hasMessageContaining("Table code already exists");
+                .hasMessageContaining("Table code already exists: X1");
+        // the number was never used, so it goes back
+        verify(numberAllocator).release(4);
     }
 
     @Test
@@ -141,9 +231,7 @@ class RestaurantTableServiceTest {
     void create_save_throws_dataIntegrity_converted_to_conflict() {
         RestaurantTable in = new RestaurantTable();
         in.setTableNumber(99);
-        when(tableRepository.findByTableNumber(99)).thenReturn(Optional.empty());
-        when(tableRepository.findByCode(anyString())).thenReturn(Optional.empty());
-        when(tableRepository.save(any(RestaurantTable.class))).thenThrow(new DataIntegrityViolationException("dup"));
+        when(tableRepository.saveAndFlush(any(RestaurantTable.class))).thenThrow(new DataIntegrityViolationException("dup"));
 
         assertThatThrownBy(() -> service.create(in))
                 .isInstanceOf(ResponseStatusException.class)
@@ -161,9 +249,7 @@ class RestaurantTableServiceTest {
         existing.setPinCode(null);
 
         when(tableRepository.findById(id)).thenReturn(Optional.of(existing));
-        when(tableRepository.findByCode("T10")).thenReturn(Optional.empty());
-        when(tableRepository.findByTableNumber(10)).thenReturn(Optional.empty());
-        when(tableRepository.save(any(RestaurantTable.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(tableRepository.saveAndFlush(any(RestaurantTable.class))).thenAnswer(inv -> inv.getArgument(0));
 
         RestaurantTable changes = new RestaurantTable();
         changes.setCode(" t10 ");
@@ -175,6 +261,8 @@ class RestaurantTableServiceTest {
         assertThat(res.getTableNumber()).isEqualTo(10);
         assertThat(res.getSeats()).isEqualTo(6);
         assertThat(res.getPinCode()).isEqualTo("0099");
+        verify(numberAllocator).claim(10);
+        verify(numberAllocator).release(1);
     }
 
     @Test
@@ -183,10 +271,7 @@ class RestaurantTableServiceTest {
         RestaurantTable existing = new RestaurantTable();
         existing.setId(id);
         when(tableRepository.findById(id)).thenReturn(Optional.of(existing));
-
-        RestaurantTable other = new RestaurantTable();
-        other.setId(UUID.randomUUID());
-        when(tableRepository.findByCode("C1")).thenReturn(Optional.of(other));
+        when(tableRepository.saveAndFlush(any(RestaurantTable.class))).thenThrow(duplicateKey("code", "C1"));
 
         RestaurantTable changes = new RestaurantTable();
         changes.setCode("c1");
@@ -203,10 +288,7 @@ class RestaurantTableServiceTest {
         existing.setId(id);
         existing.setTableNumber(2);
         when(tableRepository.findById(id)).thenReturn(Optional.of(existing));
-
-        RestaurantTable other = new RestaurantTable();
-        other.setId(UUID.randomUUID());
-        when(tableRepository.findByTableNumber(99)).thenReturn(Optional.of(other));
+        when(numberAllocator.claim(99)).thenReturn(false);
 
         RestaurantTable changes = new RestaurantTable();
         changes.setTableNumber(99);
@@ -245,7 +327,7 @@ class RestaurantTableServiceTest {
         RestaurantTable existing = new RestaurantTable();
         existing.setId(id);
         when(tableRepository.findById(id)).thenReturn(Optional.of(existing));
-        when(tableRepository.save(any(RestaurantTable.class))).thenThrow(new DataIntegrityViolationException("x"));
+        when(tableRepository.saveAndFlush(any(RestaurantTable.class))).thenThrow(new DataIntegrityViolationException("x"));
 
         RestaurantTable changes = new RestaurantTable();
         changes.setSeats(5);
@@ -334,6 +416,49 @@ class RestaurantTableServiceTest {
         assertThat(existing.getOccupiedUntil()).isNotNull();
     }
 
+    @Test
+    void occupyTable_publishesStateChange_forExpiryAfterCommit() {
+        Integer tn = 4;
+        RestaurantTable existing = new RestaurantTable();
+        existing.setId(UUID.randomUUID());
+        existing.setTableNumber(tn);
+        existing.setStatus(TableStatus.AVAILABLE);
+        when(tableRepository.findByTableNumber(tn)).thenReturn(Optional.of(existing));
+        when(tableRepository.save(any(RestaurantTable.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.occupyTable(tn, 60);
+
+        // nothing in memory changes before commit
+        verifyNoInteractions(occupancyExpiry);
+        ArgumentCaptor<TableStateChangedEvent> event = ArgumentCaptor.forClass(TableStateChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getTableId()).isEqualTo(existing.getId());
+        assertThat(event.getValue().getOccupiedUntil()).isEqualTo(existing.getOccupiedUntil());
+        assertThat(event.getValue().getPreviousStatus()).isEqualTo(TableStatus.AVAILABLE);
+        assertThat(event.getValue().getNewStatus()).isEqualTo(TableStatus.OCCUPIED);
+        assertThat(event.getValue().getTableNumber()).isEqualTo(tn);
+    }
+
+    @Test
+    void occupyTable_neverShortensLongerOccupancy() {
+        Integer tn = 5;
+        OffsetDateTime later = OffsetDateTime.now().plusHours(3);
+        RestaurantTable existing = new RestaurantTable();
+        existing.setId(UUID.randomUUID());
+        existing.setTableNumber(tn);
+        existing.setStatus(TableStatus.OCCUPIED);
+        existing.setOccupiedUntil(later);
+        when(tableRepository.findByTableNumber(tn)).thenReturn(Optional.of(existing));
+        when(tableRepository.save(any(RestaurantTable.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.occupyTable(tn, 30);
+
+        assertThat(existing.getOccupiedUntil()).isEqualTo(later);
+        ArgumentCaptor<TableStateChangedEvent> event = ArgumentCaptor.forClass(TableStateChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getOccupiedUntil()).isEqualTo(later);
+    }
+
     @Test
     void occupyTable_byCode_setsTableNumberIfMissing() {
         Integer tn = 7;
@@ -371,6 +496,7 @@ class RestaurantTableServiceTest {
         assertThat(saved.getCode()).isEqualTo(code);
         assertThat(saved.getTableNumber()).isEqualTo(tn);
         assertThat(saved.getStatus()).isEqualTo(TableStatus.OCCUPIED);
+        verify(numberAllocator).markUsed(tn);
     }
 
     @Test
@@ -424,15 +550,9 @@ class RestaurantTableServiceTest {
         OffsetDateTime from = OffsetDateTime.now().plusHours(1);
         OffsetDateTime to = from.plusHours(2);
 
-        TableReservationEntity conflict = TableReservationEntity.builder()
-                .id(UUID.randomUUID())
-                .tableId(tid)
-                .startTime(from.minusMinutes(10))
-                .endTime(to.plusMinutes(10))
-                .build();
-
-        when(reservationRepository.findByTableIdAndEndTimeAfterAndStartTimeBefore(tid, from, to))
-                .thenReturn(List.of(conflict));
+        when(reservationRepository.saveAndFlush(any(TableReservationEntity.class)))
+                .thenThrow(new DataIntegrityViolationException(
+                        "could not execute statement; constraint [" + ReservationConflicts.OVERLAP_CONSTRAINT + "]"));
 
         assertThatThrownBy(() -> service.reserveTable(tid, from, to, UUID.randomUUID(), UUID.randomUUID()))
                 .isInstanceOf(ResponseStatusException.class)
@@ -445,9 +565,7 @@ class RestaurantTableServiceTest {
         OffsetDateTime from = OffsetDateTime.now().plusDays(1);
         OffsetDateTime to = from.plusHours(2);
 
-        when(reservationRepository.findByTableIdAndEndTimeAfterAndStartTimeBefore(tid, from, to))
-                .thenReturn(List.of());
-        when(reservationRepository.save(any(TableReservationEntity.class))).thenAnswer(inv -> {
+        when(reservationRepository.saveAndFlush(any(TableReservationEntity.class))).thenAnswer(inv -> {
             TableReservationEntity e = inv.getArgument(0);
             e.setId(UUID.randomUUID());
             return e;
@@ -455,7 +573,55 @@ class RestaurantTableServiceTest {
 
         TableReservationEntity out = service.reserveTable(tid, from, to, UUID.randomUUID(), UUID.randomUUID());
         assertThat(out.getId()).isNotNull();
-        verify(reservationRepository).save(any(TableReservationEntity.class));
+        verify(reservationRepository).saveAndFlush(any(TableReservationEntity.class));
+        verifyNoMoreInteractions(reservationRepository);
+
+        ArgumentCaptor<TableReservationChangedEvent> event = ArgumentCaptor.forClass(TableReservationChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getReservationId()).isEqualTo(out.getId());
+        assertThat(event.getValue().getTableId()).isEqualTo(tid);
+        assertThat(event.getValue().isActive()).isTrue();
+    }
+
+    @Test
+    void findAvailability_validatesWindowAndSeats_thenAsksIndex() {
+        OffsetDateTime from = OffsetDateTime.now().plusDays(1);
+        OffsetDateTime to = from.plusHours(2);
+
+        assertThatThrownBy(() -> service.findAvailability(2, from, from))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Invalid availability window");
+        assertThatThrownBy(() -> service.findAvailability(2, null, to))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> service.findAvailability(0, from, to))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("seats must be at least 1");
+        verifyNoInteractions(availabilityIndex);
+
+        service.findAvailability(6, from, to);
+        service.findAvailability(null, from, to);
+        verify(availabilityIndex).search(6, from, to);
+        verify(availabilityIndex).search(1, from, to);
+    }
+
+    @Test
+    void delete_publishesTableRemovalForAfterCommit() {
+        UUID id = UUID.randomUUID();
+        RestaurantTable t = new RestaurantTable();
+        t.setId(id);
+        t.setStatus(TableStatus.AVAILABLE);
+        when(tableRepository.findById(id)).thenReturn(Optional.of(t));
+        when(reservationRepository.findByTableId(id)).thenReturn(List.of());
+
+        t.setTableNumber(12);
+        service.delete(id);
+
+        verify(availabilityIndex, never()).removeTable(any());
+        ArgumentCaptor<RestaurantTableChangedEvent> event = ArgumentCaptor.forClass(RestaurantTableChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getTableId()).isEqualTo(id);
+        assertThat(event.getValue().isDeleted()).isTrue();
+        verify(numberAllocator).release(12);
     }
 
     @Test
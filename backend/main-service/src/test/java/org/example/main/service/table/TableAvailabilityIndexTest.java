@@ -0,0 +1,267 @@
+package org.example.main.service.table;
+
+import org.example.main.dto.response.table.TableAvailabilityResponseDto;
+import org.example.main.dto.response.table.TableStateResponseDto;
+import org.example.main.event.RestaurantTableChangedEvent;
+import org.example.main.event.TableReservationChangedEvent;
+import org.example.main.event.TableStateChangedEvent;
+import org.example.main.model.enums.TableStatus;
+import org.example.main.model.table.RestaurantTable;
+import org.example.main.model.table.TableReservationEntity;
+import org.example.main.repository.table.RestaurantTableRepository;
+import org.example.main.repository.table.TableReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TableAvailabilityIndexTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2025, 6, 10, 12, 0, 0, 0, ZoneOffset.UTC);
+    private static final OffsetDateTime SEVEN_PM = NOW.withHour(19);
+
+    @Mock
+    RestaurantTableRepository tableRepository;
+
+    @Mock
+    TableReservationRepository reservationRepository;
+
+    TableAvailabilityIndex index;
+
+    RestaurantTable small;
+    RestaurantTable large;
+
+    @BeforeEach
+    void setUp() {
+        index = new TableAvailabilityIndex(tableRepository, reservationRepository,
+                Clock.fixed(NOW.toInstant(), ZoneOffset.UTC));
+        small = table(1, 2);
+        large = table(2, 6);
+    }
+
+    @Test
+    void search_filtersBySeats_andPutsFreeTablesFirst() {
+        RestaurantTable larger = table(3, 8);
+        loadWith(List.of(larger, small, large),
+                List.of(reservation(large, SEVEN_PM, SEVEN_PM.plusHours(2))));
+
+        List<TableAvailabilityResponseDto> result = index.search(6, SEVEN_PM, SEVEN_PM.plusHours(2));
+
+        assertThat(result).extracting(TableAvailabilityResponseDto::getTableNumber).containsExactly(3, 2);
+        assertThat(result.get(0).isAvailable()).isTrue();
+        assertThat(result.get(0).getNextFreeFrom()).isNull();
+        assertThat(result.get(1).isAvailable()).isFalse();
+        assertThat(result.get(1).getNextFreeFrom()).isEqualTo(SEVEN_PM.plusHours(2));
+        assertThat(result.get(1).getNextFreeTo()).isEqualTo(SEVEN_PM.plusHours(4));
+    }
+
+    @Test
+    void search_nextFreeSlot_skipsBackToBackReservations() {
+        loadWith(List.of(large), List.of(
+                reservation(large, SEVEN_PM, SEVEN_PM.plusHours(1)),
+                reservation(large, SEVEN_PM.plusHours(1), SEVEN_PM.plusHours(2)),
+                reservation(large, SEVEN_PM.plusMinutes(150), SEVEN_PM.plusHours(4))));
+
+        TableAvailabilityResponseDto row = index.search(1, SEVEN_PM.plusMinutes(30), SEVEN_PM.plusMinutes(90)).get(0);
+
+        // the 30 minute gap at 21:00 is too short for an hour
+        assertThat(row.isAvailable()).isFalse();
+        assertThat(row.getNextFreeFrom()).isEqualTo(SEVEN_PM.plusHours(4));
+    }
+
+    @Test
+    void search_loadsLazily_whenCalledBeforeStartup() {
+        loadWith(List.of(small), List.of());
+
+        assertThat(index.search(1, SEVEN_PM, SEVEN_PM.plusHours(1))).hasSize(1);
+        assertThat(index.search(1, SEVEN_PM, SEVEN_PM.plusHours(1))).hasSize(1);
+        verify(tableRepository, times(1)).findAll();
+        verify(reservationRepository).findByDeletedFalseAndEndTimeAfter(NOW);
+    }
+
+    @Test
+    void reservationEvents_addAndRemoveIntervals() {
+        loadWith(List.of(large), List.of());
+        index.rebuild();
+        UUID reservationId = UUID.randomUUID();
+
+        index.onReservationChanged(new TableReservationChangedEvent(
+                reservationId, large.getId(), SEVEN_PM, SEVEN_PM.plusHours(2), true));
+        assertThat(index.search(1, SEVEN_PM, SEVEN_PM.plusHours(1)).get(0).isAvailable()).isFalse();
+        assertThat(index.reservationCount(large.getId())).isEqualTo(1);
+
+        index.onReservationChanged(new TableReservationChangedEvent(
+                reservationId, large.getId(), SEVEN_PM, SEVEN_PM.plusHours(2), false));
+        assertThat(index.search(1, SEVEN_PM, SEVEN_PM.plusHours(1)).get(0).isAvailable()).isTrue();
+        assertThat(index.reservationCount(large.getId())).isZero();
+    }
+
+    @Test
+    void reservationEvent_forUnknownTable_loadsTheTableOnce() {
+        loadWith(List.of(), List.of());
+        index.rebuild();
+        when(tableRepository.findById(large.getId())).thenReturn(Optional.of(large));
+
+        index.onReservationChanged(new TableReservationChangedEvent(
+                UUID.randomUUID(), large.getId(), SEVEN_PM, SEVEN_PM.plusHours(1), true));
+        index.onReservationChanged(new TableReservationChangedEvent(
+                UUID.randomUUID(), large.getId(), SEVEN_PM.plusHours(1), SEVEN_PM.plusHours(2), true));
+
+        assertThat(index.reservationCount(large.getId())).isEqualTo(2);
+        verify(tableRepository, times(1)).findById(large.getId());
+    }
+
+    @Test
+    void occupiedTable_isTakenUntilOccupancyEnds() {
+        loadWith(List.of(small), List.of());
+        index.rebuild();
+
+        index.onTableStateChanged(new TableStateChangedEvent(
+                small.getId(), 1, TableStatus.AVAILABLE, TableStatus.OCCUPIED, NOW.plusHours(1)));
+
+        TableAvailabilityResponseDto now = index.search(1, NOW, NOW.plusMinutes(30)).get(0);
+        assertThat(now.isAvailable()).isFalse();
+        assertThat(now.getStatus()).isEqualTo(TableStatus.OCCUPIED);
+        assertThat(now.getNextFreeFrom()).isEqualTo(NOW.plusHours(1));
+        assertThat(index.search(1, SEVEN_PM, SEVEN_PM.plusHours(1)).get(0).isAvailable()).isTrue();
+
+        index.onTableStateChanged(new TableStateChangedEvent(
+                small.getId(), 1, TableStatus.OCCUPIED, TableStatus.AVAILABLE, null));
+        assertThat(index.search(1, NOW, NOW.plusMinutes(30)).get(0).isAvailable()).isTrue();
+    }
+
+    @Test
+    void committedTableChanges_updateSeatsAndMembership() {
+        loadWith(List.of(small), List.of());
+        index.rebuild();
+
+        small.setSeats(6);
+        index.onTableChanged(new RestaurantTableChangedEvent(small.getId(), small));
+        assertThat(index.search(6, SEVEN_PM, SEVEN_PM.plusHours(1))).hasSize(1);
+
+        index.onTableChanged(new RestaurantTableChangedEvent(large.getId(), large));
+        assertThat(index.search(1, SEVEN_PM, SEVEN_PM.plusHours(1))).hasSize(2);
+
+        index.onTableChanged(new RestaurantTableChangedEvent(small.getId(), null));
+        assertThat(index.search(1, SEVEN_PM, SEVEN_PM.plusHours(1))).hasSize(1);
+        verify(tableRepository, never()).findById(any());
+    }
+
+    @Test
+    void rebuild_replacesView_andIgnoresReservationsOfUnknownTables() {
+        loadWith(List.of(small), List.of(reservation(large, SEVEN_PM, SEVEN_PM.plusHours(1))));
+
+        assertThat(index.rebuild()).isEqualTo(1);
+        assertThat(index.reservationCount(large.getId())).isZero();
+
+        when(tableRepository.findAll()).thenReturn(List.of(large));
+        index.rebuild();
+        assertThat(index.search(1, SEVEN_PM, SEVEN_PM.plusHours(1)))
+                .extracting(TableAvailabilityResponseDto::getTableId).containsExactly(large.getId());
+    }
+
+    @Test
+    void states_orderedByTableNumber_withCurrentOrNextReservation() {
+        TableReservationEntity running = reservation(small, NOW.minusMinutes(30), NOW.plusMinutes(30));
+        TableReservationEntity later = reservation(small, SEVEN_PM, SEVEN_PM.plusHours(1));
+        loadWith(List.of(large, small), List.of(later, running));
+
+        List<TableStateResponseDto> states = index.states();
+
+        assertThat(states).extracting(TableStateResponseDto::getTableNumber).containsExactly(1, 2);
+        TableStateResponseDto first = states.get(0);
+        assertThat(first.getId()).isEqualTo(small.getId());
+        assertThat(first.getPinCode()).isEqualTo("1234");
+        assertThat(first.getNextReservationId()).isEqualTo(running.getId());
+        assertThat(first.getNextReservationStart()).isEqualTo(NOW.minusMinutes(30));
+        assertThat(first.getNextReservationEnd()).isEqualTo(NOW.plusMinutes(30));
+        assertThat(states.get(1).getNextReservationId()).isNull();
+        assertThat(index.state(large.getId())).contains(states.get(1));
+        assertThat(index.state(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void listeners_getNewStateOnEveryChange_andNullOnRemoval() {
+        loadWith(List.of(small), List.of());
+        index.rebuild();
+        List<TableStateResponseDto> seen = new ArrayList<>();
+        index.addListener((id, state) -> seen.add(state));
+
+        index.onTableStateChanged(new TableStateChangedEvent(
+                small.getId(), 1, TableStatus.AVAILABLE, TableStatus.OCCUPIED, NOW.plusHours(1)));
+        UUID reservationId = UUID.randomUUID();
+        index.onReservationChanged(new TableReservationChangedEvent(
+                reservationId, small.getId(), SEVEN_PM, SEVEN_PM.plusHours(1), true));
+        index.removeTable(small.getId());
+        index.removeTable(small.getId());
+
+        assertThat(seen).hasSize(3);
+        assertThat(seen.get(0).getStatus()).isEqualTo(TableStatus.OCCUPIED);
+        assertThat(seen.get(0).getOccupiedUntil()).isEqualTo(NOW.plusHours(1));
+        assertThat(seen.get(1).getNextReservationId()).isEqualTo(reservationId);
+        assertThat(seen.get(2)).isNull();
+    }
+
+    @Test
+    void rebuild_notifiesOnlyTablesThatChanged() {
+        loadWith(List.of(small, large), List.of());
+        index.rebuild();
+        List<UUID> changed = new ArrayList<>();
+        index.addListener((id, state) -> changed.add(id));
+
+        RestaurantTable occupied = table(1, 2);
+        occupied.setId(small.getId());
+        occupied.setStatus(TableStatus.OCCUPIED);
+        occupied.setOccupiedUntil(NOW.plusHours(1));
+        when(tableRepository.findAll()).thenReturn(List.of(occupied));
+        index.rebuild();
+
+        assertThat(changed).containsExactlyInAnyOrder(small.getId(), large.getId());
+    }
+
+    @Test
+    void resync_swallowsFailures() {
+        when(tableRepository.findAll()).thenThrow(new IllegalStateException("db down"));
+        assertThatCode(() -> index.resync()).doesNotThrowAnyException();
+    }
+
+    private void loadWith(List<RestaurantTable> tables, List<TableReservationEntity> reservations) {
+        when(tableRepository.findAll()).thenReturn(tables);
+        lenient().when(reservationRepository.findByDeletedFalseAndEndTimeAfter(any())).thenReturn(reservations);
+    }
+
+    private static RestaurantTable table(int number, int seats) {
+        return RestaurantTable.builder()
+                .id(UUID.randomUUID())
+                .code("T" + number)
+                .tableNumber(number)
+                .seats(seats)
+                .currentOccupancy(0)
+                .status(TableStatus.AVAILABLE)
+                .pinCode("1234")
+                .build();
+    }
+
+    private static TableReservationEntity reservation(RestaurantTable t, OffsetDateTime from, OffsetDateTime to) {
+        return TableReservationEntity.builder()
+                .id(UUID.randomUUID())
+                .tableId(t.getId())
+                .startTime(from)
+                .endTime(to)
+                .build();
+    }
+}
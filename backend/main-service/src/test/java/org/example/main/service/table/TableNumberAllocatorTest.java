@@ -0,0 +1,122 @@
+package org.example.main.service.table;
+
+import org.example.main.repository.table.RestaurantTableRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TableNumberAllocatorTest {
+
+    @Mock
+    RestaurantTableRepository tableRepository;
+
+    @InjectMocks
+    TableNumberAllocator allocator;
+
+    @Test
+    void allocate_fillsLowestGapsFirst() {
+        when(tableRepository.findAllTableNumbers()).thenReturn(Arrays.asList(1, 2, 4, null, 70));
+
+        assertThat(allocator.allocate()).isEqualTo(3);
+        assertThat(allocator.allocate()).isEqualTo(5);
+
+        allocator.release(2);
+        assertThat(allocator.allocate()).isEqualTo(2);
+        verify(tableRepository, times(1)).findAllTableNumbers();
+    }
+
+    @Test
+    void allocate_crossesWordAndGroupBoundaries() {
+        // every number below 5000 is taken, so the answer sits two summary levels away
+        List<Integer> used = new ArrayList<>(IntStream.range(1, 5000).boxed().toList());
+        when(tableRepository.findAllTableNumbers()).thenReturn(used);
+
+        assertThat(allocator.allocate()).isEqualTo(5000);
+        assertThat(allocator.allocate()).isEqualTo(5001);
+
+        allocator.release(4097);
+        allocator.release(64);
+        assertThat(allocator.allocate()).isEqualTo(64);
+        assertThat(allocator.allocate()).isEqualTo(4097);
+    }
+
+    @Test
+    void claim_refusesTakenNumbers_andIgnoresOutOfRange() {
+        when(tableRepository.findAllTableNumbers()).thenReturn(List.of(7));
+
+        assertThat(allocator.claim(7)).isFalse();
+        assertThat(allocator.claim(8)).isTrue();
+        assertThat(allocator.claim(8)).isFalse();
+        assertThat(allocator.isUsed(8)).isTrue();
+
+        assertThat(allocator.claim(0)).isTrue();
+        assertThat(allocator.claim(TableNumberAllocator.MAX_TABLE_NUMBER + 1)).isTrue();
+        assertThat(allocator.isUsed(0)).isFalse();
+    }
+
+    @Test
+    void markUsed_isIdempotent_andNullSafe() {
+        when(tableRepository.findAllTableNumbers()).thenReturn(List.of());
+
+        allocator.markUsed(1);
+        allocator.markUsed(1);
+        allocator.markUsed(null);
+        allocator.release(null);
+
+        assertThat(allocator.allocate()).isEqualTo(2);
+    }
+
+    @Test
+    void allocate_throwsConflict_whenEveryNumberIsTaken() {
+        when(tableRepository.findAllTableNumbers())
+                .thenReturn(IntStream.rangeClosed(1, TableNumberAllocator.MAX_TABLE_NUMBER).boxed().toList());
+
+        assertThatThrownBy(() -> allocator.allocate())
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("No available table numbers");
+
+        allocator.release(TableNumberAllocator.MAX_TABLE_NUMBER);
+        assertThat(allocator.allocate()).isEqualTo(TableNumberAllocator.MAX_TABLE_NUMBER);
+    }
+
+    @Test
+    void load_resetsFromDatabase() {
+        when(tableRepository.findAllTableNumbers()).thenReturn(List.of(1), List.of());
+
+        assertThat(allocator.load()).isEqualTo(1);
+        assertThat(allocator.isUsed(1)).isTrue();
+        assertThat(allocator.load()).isZero();
+        assertThat(allocator.isUsed(1)).isFalse();
+    }
+
+    @Test
+    void invalidate_reloadsOnNextUse_withNumbersTakenElsewhere() {
+        when(tableRepository.findAllTableNumbers()).thenReturn(List.of(1), List.of(1, 2, 3));
+
+        assertThat(allocator.allocate()).isEqualTo(2);
+        allocator.invalidate();
+
+        assertThat(allocator.allocate()).isEqualTo(4);
+        verify(tableRepository, times(2)).findAllTableNumbers();
+    }
+
+    @Test
+    void resync_swallowsFailures_andKeepsTheLoadedState() {
+        when(tableRepository.findAllTableNumbers()).thenReturn(List.of(1)).thenThrow(new IllegalStateException("db down"));
+        allocator.load();
+
+        assertThatCode(() -> allocator.resync()).doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,158 @@
+package org.example.main.service.table;
+
+import org.example.main.event.RestaurantTableChangedEvent;
+import org.example.main.event.TableStateChangedEvent;
+import org.example.main.model.enums.TableStatus;
+import org.example.main.model.table.RestaurantTable;
+import org.example.main.repository.table.RestaurantTableRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TableOccupancyExpiryTest {
+
+    @Mock
+    RestaurantTableRepository tableRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    TableOccupancyExpiry expiry;
+
+    @BeforeEach
+    void setUp() {
+        expiry = new TableOccupancyExpiry(tableRepository, eventPublisher, 10);
+    }
+
+    private static RestaurantTableRepository.TableDeadline deadline(UUID id, Integer number, OffsetDateTime until) {
+        return new RestaurantTableRepository.TableDeadline() {
+            public UUID getId() { return id; }
+            public Integer getTableNumber() { return number; }
+            public OffsetDateTime getOccupiedUntil() { return until; }
+        };
+    }
+
+    @Test
+    void rebuild_loadsOccupiedTables_andReleasesExpiredOnes() throws Exception {
+        UUID expired = UUID.randomUUID();
+        UUID future = UUID.randomUUID();
+        when(tableRepository.findDeadlinesByStatus(TableStatus.OCCUPIED)).thenReturn(List.of(
+                deadline(expired, 1, OffsetDateTime.now().minusMinutes(5)),
+                deadline(future, 2, OffsetDateTime.now().plusHours(1))));
+        when(tableRepository.releaseExpired(anyCollection())).thenAnswer(inv -> {
+            Collection<UUID> ids = inv.getArgument(0);
+            assertThat(ids).containsExactly(expired);
+            return List.of(deadline(expired, 1, null));
+        });
+
+        assertThat(expiry.rebuild()).isEqualTo(2);
+        Thread.sleep(20);
+        int released = expiry.expireDue();
+
+        assertThat(released).isEqualTo(1);
+        assertThat(expiry.pending()).isEqualTo(1);
+        ArgumentCaptor<TableStateChangedEvent> event = ArgumentCaptor.forClass(TableStateChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getTableId()).isEqualTo(expired);
+        assertThat(event.getValue().getNewStatus()).isEqualTo(TableStatus.AVAILABLE);
+    }
+
+    @Test
+    void expireDue_releasesInBatches() throws Exception {
+        int count = TableOccupancyExpiry.BATCH_SIZE + 50;
+        for (int i = 0; i < count; i++) {
+            expiry.schedule(UUID.randomUUID(), OffsetDateTime.now().minusSeconds(1));
+        }
+        List<Integer> batchSizes = new ArrayList<>();
+        when(tableRepository.releaseExpired(anyCollection())).thenAnswer(inv -> {
+            Collection<UUID> ids = inv.getArgument(0);
+            batchSizes.add(ids.size());
+            return ids.stream().map(id -> deadline(id, null, null)).toList();
+        });
+
+        Thread.sleep(20);
+        assertThat(expiry.expireDue()).isEqualTo(count);
+
+        assertThat(batchSizes).containsExactly(TableOccupancyExpiry.BATCH_SIZE, 50);
+        verify(eventPublisher, times(count)).publishEvent(any(TableStateChangedEvent.class));
+    }
+
+    @Test
+    void tableExtendedElsewhere_isRescheduledFromStoredDeadline() throws Exception {
+        UUID id = UUID.randomUUID();
+        expiry.schedule(id, OffsetDateTime.now().minusSeconds(1));
+        RestaurantTable stored = new RestaurantTable();
+        stored.setId(id);
+        stored.setStatus(TableStatus.OCCUPIED);
+        stored.setOccupiedUntil(OffsetDateTime.now().plusMinutes(30));
+        when(tableRepository.releaseExpired(anyCollection())).thenReturn(List.of());
+        when(tableRepository.findAllById(List.of(id))).thenReturn(List.of(stored));
+
+        Thread.sleep(20);
+        assertThat(expiry.expireDue()).isZero();
+
+        assertThat(expiry.pending()).isEqualTo(1);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void releaseFailure_keepsTablesForRetry() throws Exception {
+        UUID id = UUID.randomUUID();
+        expiry.schedule(id, OffsetDateTime.now().minusSeconds(1));
+        when(tableRepository.releaseExpired(anyCollection())).thenThrow(new RuntimeException("db down"));
+
+        Thread.sleep(20);
+        assertThatThrownBy(() -> expiry.expireDue()).hasMessage("db down");
+
+        assertThat(expiry.pending()).isEqualTo(1);
+    }
+
+    @Test
+    void committedStateChanges_scheduleAndCancelTimers() {
+        UUID id = UUID.randomUUID();
+
+        expiry.onTableStateChanged(new TableStateChangedEvent(id, 3, TableStatus.AVAILABLE, TableStatus.OCCUPIED,
+                OffsetDateTime.now().plusMinutes(30)));
+        assertThat(expiry.pending()).isEqualTo(1);
+
+        expiry.onTableStateChanged(new TableStateChangedEvent(id, 3, TableStatus.OCCUPIED, TableStatus.AVAILABLE, null));
+        assertThat(expiry.pending()).isZero();
+    }
+
+    @Test
+    void deletedTable_cancelsItsTimer() {
+        UUID id = UUID.randomUUID();
+        expiry.schedule(id, OffsetDateTime.now().plusMinutes(30));
+
+        expiry.onTableChanged(new RestaurantTableChangedEvent(id, new RestaurantTable()));
+        assertThat(expiry.pending()).isEqualTo(1);
+
+        expiry.onTableChanged(new RestaurantTableChangedEvent(id, null));
+        assertThat(expiry.pending()).isZero();
+    }
+
+    @Test
+    void scheduleNullDeadline_cancels() {
+        UUID id = UUID.randomUUID();
+        expiry.schedule(id, OffsetDateTime.now().plusMinutes(1));
+        expiry.schedule(id, null);
+
+        assertThat(expiry.pending()).isZero();
+    }
+}
@@ -1,6 +1,11 @@
 package org.example.main.service.table;
 
+import org.example.main.dto.response.table.ReservationCalendarResponseDto;
+import org.example.main.dto.response.table.TableCalendarResponseDto;
+import org.example.main.dto.response.table.TableReservationResponseDto;
+import org.example.main.event.TableReservationChangedEvent;
 import org.example.main.exception.ResourceNotFoundException;
+import org.example.main.mapper.table.ReservationMapper;
 import org.example.main.model.table.TableReservationEntity;
 import org.example.main.model.enums.ReservationStatus;
 import org.example.main.repository.table.TableReservationRepository;
@@ -8,8 +13,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
@@ -19,6 +28,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 /**
@@ -30,6 +40,12 @@ class TableReservationServiceTest {
     @Mock
     TableReservationRepository reservationRepository;
 
+    @Spy
+    ReservationMapper reservationMapper = new ReservationMapper();
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     TableReservationService service;
 
@@ -60,27 +76,31 @@ class TableReservationServiceTest {
     }
 
     @Test
-    void reserveTable_conflict_whenOverlapping() {
+    void reserveTable_conflict_whenExclusionConstraintFires() {
         UUID tableId = UUID.randomUUID();
         OffsetDateTime from = OffsetDateTime.now().plusDays(1);
         OffsetDateTime to = from.plusHours(2);
 
-        TableReservationEntity conflict = TableReservationEntity.builder()
-                .id(UUID.randomUUID())
-                .tableId(tableId)
-                .startTime(from.minusMinutes(10))
-                .endTime(to.plusMinutes(10))
-                .build();
-
-        when(reservationRepository.findByTableIdAndEndTimeAfterAndStartTimeBefore(tableId, from, to))
-                .thenReturn(List.of(conflict));
+        when(reservationRepository.saveAndFlush(any(TableReservationEntity.class)))
+                .thenThrow(new DataIntegrityViolationException("insert failed",
+                        new SQLException("conflicting key value violates exclusion constraint", "23P01")));
 
         assertThatThrownBy(() -> service.reserveTable(tableId, from, to, UUID.randomUUID(), UUID.randomUUID()))
-                .isInstanceOf(ResponseStatusException.class)
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.CONFLICT))
                 .hasMessageContaining("Table already reserved for this time");
+    }
 
-        verify(reservationRepository).findByTableIdAndEndTimeAfterAndStartTimeBefore(tableId, from, to);
-        verify(reservationRepository, never()).save(any());
+    @Test
+    void reserveTable_otherIntegrityViolation_isNotMappedToConflict() {
+        UUID tableId = UUID.randomUUID();
+        OffsetDateTime from = OffsetDateTime.now().plusDays(1);
+        DataIntegrityViolationException notNull = new DataIntegrityViolationException("null value in column",
+                new SQLException("null value in column \"user_id\"", "23502"));
+        when(reservationRepository.saveAndFlush(any(TableReservationEntity.class))).thenThrow(notNull);
+
+        assertThatThrownBy(() -> service.reserveTable(tableId, from, from.plusHours(1), UUID.randomUUID(), null))
+                .isSameAs(notNull);
     }
 
     @Test
@@ -91,10 +111,7 @@ class TableReservationServiceTest {
         OffsetDateTime from = OffsetDateTime.now().plusDays(2);
         OffsetDateTime to = from.plusHours(3);
 
-        when(reservationRepository.findByTableIdAndEndTimeAfterAndStartTimeBefore(tableId, from, to))
-                .thenReturn(List.of());
-
-        when(reservationRepository.save(any(TableReservationEntity.class))).thenAnswer(inv -> {
+        when(reservationRepository.saveAndFlush(any(TableReservationEntity.class))).thenAnswer(inv -> {
             TableReservationEntity e = inv.getArgument(0);
             e.setId(UUID.randomUUID());
             return e;
@@ -110,8 +127,16 @@ class TableReservationServiceTest {
         assertThat(saved.getCreatedBy()).isEqualTo(requestedBy);
         assertThat(saved.getStatus()).isEqualTo(ReservationStatus.ACTIVE);
 
-        verify(reservationRepository).findByTableIdAndEndTimeAfterAndStartTimeBefore(tableId, from, to);
-        verify(reservationRepository).save(any(TableReservationEntity.class));
+        verify(reservationRepository).saveAndFlush(any(TableReservationEntity.class));
+        verifyNoMoreInteractions(reservationRepository);
+
+        ArgumentCaptor<TableReservationChangedEvent> event = ArgumentCaptor.forClass(TableReservationChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getReservationId()).isEqualTo(saved.getId());
+        assertThat(event.getValue().getTableId()).isEqualTo(tableId);
+        assertThat(event.getValue().getStartTime()).isEqualTo(from);
+        assertThat(event.getValue().getEndTime()).isEqualTo(to);
+        assertThat(event.getValue().isActive()).isTrue();
     }
 
     @Test
@@ -147,6 +172,11 @@ class TableReservationServiceTest {
 
         verify(reservationRepository).findById(rid);
         verify(reservationRepository).save(any(TableReservationEntity.class));
+
+        ArgumentCaptor<TableReservationChangedEvent> event = ArgumentCaptor.forClass(TableReservationChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getReservationId()).isEqualTo(rid);
+        assertThat(event.getValue().isActive()).isFalse();
     }
 
     @Test
@@ -170,58 +200,67 @@ class TableReservationServiceTest {
     }
 
     @Test
-    void findReservationsByDate_filters_and_sorts_correctly() {
+    void findReservationsByDate_queriesUtcDayRange() {
         LocalDate target = LocalDate.of(2025, 12, 12);
         ZoneId zone = ZoneOffset.UTC;
         OffsetDateTime dayStart = target.atStartOfDay(zone).toOffsetDateTime();
         OffsetDateTime dayEnd = target.plusDays(1).atStartOfDay(zone).toOffsetDateTime();
-
-        
-        TableReservationEntity r1 = TableReservationEntity.builder()
-                .id(UUID.randomUUID())
-                .startTime(null)
-                .endTime(null)
-                .build();
-
-        
-        TableReservationEntity r2 = TableReservationEntity.builder()
-                .id(UUID.randomUUID())
-                .startTime(dayStart.plusHours(2))
-                .endTime(null)
-                .build();
-
-        
-        TableReservationEntity r3 = TableReservationEntity.builder()
+        TableReservationEntity r = TableReservationEntity.builder()
                 .id(UUID.randomUUID())
                 .startTime(dayStart.minusHours(1))
                 .endTime(dayStart.plusHours(1))
                 .build();
+        when(reservationRepository.findActiveOverlapping(dayStart, dayEnd)).thenReturn(List.of(r));
 
-        
-        TableReservationEntity r4 = TableReservationEntity.builder()
-                .id(UUID.randomUUID())
-                .startTime(dayEnd.plusHours(1))
-                .endTime(dayEnd.plusHours(2))
-                .build();
+        List<TableReservationEntity> res = service.findReservationsByDate(target);
 
-        
-        TableReservationEntity r5 = TableReservationEntity.builder()
-                .id(UUID.randomUUID())
-                .startTime(dayStart)
-                .endTime(null)
-                .build();
+        assertThat(res).containsExactly(r);
+        verify(reservationRepository, never()).findAll();
+    }
 
-        
-        when(reservationRepository.findAll()).thenReturn(List.of(r1, r4, r2, r5, r3));
+    @Test
+    void findReservationsBetween_invalidRange_throws() {
+        OffsetDateTime now = OffsetDateTime.now();
 
-        List<TableReservationEntity> res = service.findReservationsByDate(target);
+        assertThatThrownBy(() -> service.findReservationsBetween(now, now))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Invalid reservation range");
+        verifyNoInteractions(reservationRepository);
+    }
 
-        
-        assertThat(res).hasSize(3);
-        assertThat(res.get(0)).isEqualTo(r3); 
-        assertThat(res.get(1)).isEqualTo(r5);
-        assertThat(res.get(2)).isEqualTo(r2);
+    @Test
+    void calendar_week_startsMonday_andGroupsByTable() {
+        UUID t1 = UUID.randomUUID();
+        UUID t2 = UUID.randomUUID();
+        OffsetDateTime monday = OffsetDateTime.of(2025, 12, 8, 0, 0, 0, 0, ZoneOffset.UTC);
+        TableReservationEntity a = TableReservationEntity.builder().id(UUID.randomUUID()).tableId(t1)
+                .startTime(monday.plusHours(18)).endTime(monday.plusHours(20)).build();
+        TableReservationEntity b = TableReservationEntity.builder().id(UUID.randomUUID()).tableId(t2)
+                .startTime(monday.plusDays(1)).endTime(monday.plusDays(1).plusHours(2)).build();
+        TableReservationEntity c = TableReservationEntity.builder().id(UUID.randomUUID()).tableId(t1)
+                .startTime(monday.plusDays(3)).endTime(monday.plusDays(3).plusHours(1)).build();
+        when(reservationRepository.findActiveOverlapping(monday, monday.plusWeeks(1))).thenReturn(List.of(a, b, c));
+
+        ReservationCalendarResponseDto cal = service.calendar(LocalDate.of(2025, 12, 12), CalendarView.WEEK);
+
+        assertThat(cal.getFrom()).isEqualTo(LocalDate.of(2025, 12, 8));
+        assertThat(cal.getTo()).isEqualTo(LocalDate.of(2025, 12, 15));
+        assertThat(cal.getReservationCount()).isEqualTo(3);
+        assertThat(cal.getTables()).extracting(TableCalendarResponseDto::getTableId).containsExactly(t1, t2);
+        assertThat(cal.getTables().get(0).getReservations()).extracting(TableReservationResponseDto::getId)
+                .containsExactly(a.getId(), c.getId());
+        verify(reservationRepository, times(1)).findActiveOverlapping(any(), any());
+    }
+
+    @Test
+    void calendar_month_coversWholeMonth() {
+        OffsetDateTime first = OffsetDateTime.of(2026, 2, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        when(reservationRepository.findActiveOverlapping(first, first.plusMonths(1))).thenReturn(List.of());
+
+        ReservationCalendarResponseDto cal = service.calendar(LocalDate.of(2026, 2, 17), CalendarView.MONTH);
 
-        verify(reservationRepository).findAll();
+        assertThat(cal.getView()).isEqualTo("MONTH");
+        assertThat(cal.getTo()).isEqualTo(LocalDate.of(2026, 3, 1));
+        assertThat(cal.getTables()).isEmpty();
     }
-}
\ No newline at end of file
+}
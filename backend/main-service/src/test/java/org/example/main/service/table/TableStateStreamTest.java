@@ -0,0 +1,108 @@
+package org.example.main.service.table;
+
+import org.example.main.dto.response.table.TableStateResponseDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TableStateStreamTest {
+
+    @Mock
+    TableAvailabilityIndex board;
+
+    TableStateStream stream;
+    BiConsumer<UUID, TableStateResponseDto> listener;
+    List<RecordingEmitter> emitters = new ArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void setUp() {
+        stream = new TableStateStream(board, 60_000, Runnable::run) {
+            @Override
+            SseEmitter newEmitter(long timeout) {
+                RecordingEmitter e = new RecordingEmitter();
+                emitters.add(e);
+                return e;
+            }
+        };
+        ArgumentCaptor<BiConsumer<UUID, TableStateResponseDto>> captor = ArgumentCaptor.forClass(BiConsumer.class);
+        verify(board).addListener(captor.capture());
+        listener = captor.getValue();
+    }
+
+    @Test
+    void subscribe_sendsSnapshotFirst_thenDeltas() {
+        TableStateResponseDto state = TableStateResponseDto.builder().id(UUID.randomUUID()).tableNumber(3).build();
+        when(board.states()).thenReturn(List.of(state));
+
+        stream.subscribe();
+        listener.accept(state.getId(), state);
+        listener.accept(state.getId(), null);
+
+        assertThat(stream.subscribers()).isEqualTo(1);
+        assertThat(emitters.get(0).sent).hasSize(3);
+        assertThat(emitters.get(0).text(0)).contains("event:snapshot");
+        assertThat(emitters.get(0).text(1)).contains("event:table");
+        assertThat(emitters.get(0).text(2)).contains("event:table-removed");
+    }
+
+    @Test
+    void failingSubscriber_isDropped() {
+        when(board.states()).thenReturn(List.of());
+        stream.subscribe();
+        stream.subscribe();
+        emitters.get(0).failing = true;
+
+        listener.accept(UUID.randomUUID(), TableStateResponseDto.builder().build());
+
+        assertThat(stream.subscribers()).isEqualTo(1);
+        assertThat(emitters.get(1).sent).hasSize(2);
+    }
+
+    @Test
+    void heartbeat_keepsSubscribersAlive() {
+        when(board.states()).thenReturn(List.of());
+        stream.subscribe();
+
+        stream.heartbeat();
+
+        assertThat(emitters.get(0).text(1)).contains(":keep-alive");
+    }
+
+    @Test
+    void changesWithoutSubscribers_areIgnored() {
+        listener.accept(UUID.randomUUID(), TableStateResponseDto.builder().build());
+        verify(board, never()).states();
+    }
+
+    static class RecordingEmitter extends SseEmitter {
+        final List<SseEventBuilder> sent = new ArrayList<>();
+        boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) throw new IOException("broken pipe");
+            sent.add(builder);
+        }
+
+        String text(int i) {
+            StringBuilder sb = new StringBuilder();
+            sent.get(i).build().forEach(d -> sb.append(d.getData()));
+            return sb.toString();
+        }
+    }
+}
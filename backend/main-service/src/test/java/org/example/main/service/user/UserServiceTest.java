@@ -1,6 +1,5 @@
 package org.example.main.service.user;
 
-import jakarta.servlet.http.HttpSession;
 import org.example.main.dto.request.user.LoginRequestDto;
 import org.example.main.dto.request.user.RegisterRequestDto;
 import org.example.main.dto.response.user.AuthResponseDto;
@@ -11,16 +10,19 @@ import org.example.main.model.user.User;
 import org.example.main.repository.table.RestaurantTableRepository;
 import org.example.main.repository.role.RoleRepository;
 import org.example.main.repository.user.UserRepository;
+import org.example.main.security.JwtPrincipal;
 import org.example.main.security.JwtUtils;
+import org.example.main.security.PasswordHasher;
+import org.example.main.security.TokenRevocationList;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.*;
 
@@ -43,7 +45,7 @@ class UserServiceTest {
     RoleRepository roleRepository;
 
     @Mock
-    PasswordEncoder passwordEncoder;
+    PasswordHasher passwordHasher;
 
     @Mock
     JwtUtils jwtUtils;
@@ -51,6 +53,9 @@ class UserServiceTest {
     @Mock
     RestaurantTableRepository restaurantTableRepository;
 
+    @Mock
+    TokenRevocationList tokenRevocations;
+
     @InjectMocks
     UserService userService;
 
@@ -105,24 +110,41 @@ class UserServiceTest {
     @Test
     void delete_notFound_throws() {
         UUID id = UUID.randomUUID();
-        when(userRepository.existsById(id)).thenReturn(false);
+        when(userRepository.findById(id)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> userService.delete(id))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("User not found");
+        verifyNoInteractions(tokenRevocations);
     }
 
     @Test
-    void delete_exists_deletes() {
+    void delete_exists_deletes_and_revokesTokens() {
         UUID id = UUID.randomUUID();
-        when(userRepository.existsById(id)).thenReturn(true);
+        User u = new User(); u.setId(id); u.setUsername("gone@test.com");
+        when(userRepository.findById(id)).thenReturn(Optional.of(u));
         userService.delete(id);
         verify(userRepository).deleteById(id);
+        verify(tokenRevocations).revokeSubject("gone@test.com");
+    }
+
+    @Test
+    void block_revokesTokens_unblock_doesNot() {
+        UUID id = UUID.randomUUID();
+        User u = new User(); u.setId(id); u.setUsername("bad@test.com");
+        when(userRepository.findById(id)).thenReturn(Optional.of(u));
+        when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        assertThat(userService.block(id, true).getBlocked()).isTrue();
+        verify(tokenRevocations).revokeSubject("bad@test.com");
+
+        assertThat(userService.block(id, false).getBlocked()).isFalse();
+        verifyNoMoreInteractions(tokenRevocations);
     }
 
     @Test
     void assignRole_existingRole_assigns() {
         UUID id = UUID.randomUUID();
-        User u = new User(); u.setId(id);
+        User u = new User(); u.setId(id); u.setUsername("promoted@test.com");
         Role current = new Role(); current.setName("ROLE_USER");
         u.setRole(current);
         when(userRepository.findById(id)).thenReturn(Optional.of(u));
@@ -136,6 +158,7 @@ class UserServiceTest {
         assertThat(out.getRole().getName()).isEqualTo("ROLE_ADMIN");
         verify(roleRepository).findByName("ROLE_ADMIN");
         verify(userRepository).save(any(User.class));
+        verify(tokenRevocations).revokeSubject("promoted@test.com");
     }
 
     @Test
@@ -159,13 +182,34 @@ class UserServiceTest {
     void me_unauthenticated_throws() {
         Authentication auth = mock(Authentication.class);
         when(auth.isAuthenticated()).thenReturn(false);
-        assertThatThrownBy(() -> userService.me(auth, null))
+        assertThatThrownBy(() -> userService.me(auth))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Unauthenticated");
     }
 
     @Test
-    void me_userdetails_and_session_and_tableResolution() {
+    void me_jwtPrincipal_isAnsweredFromClaims_withoutQueries() {
+        UUID userId = UUID.randomUUID();
+        UUID tableId = UUID.randomUUID();
+        JwtPrincipal principal = new JwtPrincipal("user@test.com", List.of(new SimpleGrantedAuthority("ROLE_USER")),
+                userId, "ROLE_USER", "Table Guest", 2, tableId);
+        Authentication auth = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        Map<String, Object> dto = userService.me(auth);
+
+        assertThat(dto).containsEntry("username", "user@test.com")
+                .containsEntry("fullName", "Table Guest")
+                .containsEntry("authorities", List.of("ROLE_USER"))
+                .containsEntry("userId", userId)
+                .containsEntry("role", "ROLE_USER")
+                .containsEntry("blocked", false)
+                .containsEntry("tableNumber", 2)
+                .containsEntry("tableId", tableId);
+        verifyNoInteractions(userRepository, restaurantTableRepository);
+    }
+
+    @Test
+    void me_userDetailsWithoutClaims_loadsUserOnce() {
         String username = "user@test.com";
 
         Authentication auth = mock(Authentication.class);
@@ -181,41 +225,25 @@ class UserServiceTest {
         User u = new User();
         u.setId(UUID.randomUUID());
         u.setUsername(username);
+        u.setFullName("Legacy");
         Role roleObj = new Role(); roleObj.setName("ROLE_USER");
         u.setRole(roleObj);
-        u.setSessionTableNumber(3);
 
         when(userRepository.findByUsername(username)).thenReturn(Optional.of(u));
 
-        HttpSession session = mock(HttpSession.class);
-        when(session.getId()).thenReturn("sess-1");
-        when(session.getAttribute("tableNumber")).thenReturn("2");
-        when(session.getAttributeNames()).thenReturn(Collections.enumeration(Collections.emptyList()));
-
-        RestaurantTable t = new RestaurantTable();
-        t.setId(UUID.randomUUID());
-        t.setCode("T2");
-
-        when(restaurantTableRepository.findByCode("T2")).thenReturn(Optional.of(t));
-
-        Map<String, Object> dto = userService.me(auth, session);
+        Map<String, Object> dto = userService.me(auth);
 
         assertThat(dto).containsEntry("username", username);
+        assertThat(dto).containsEntry("fullName", "Legacy");
         assertThat(dto).containsEntry("role", "ROLE_USER");
-
-        Object returnedUserId = dto.get("userId");
-        if (returnedUserId instanceof UUID) {
-            assertThat(returnedUserId).isEqualTo(u.getId());
-        } else {
-            assertThat(returnedUserId).isEqualTo(u.getId().toString());
-        }
-
-        assertThat(dto).containsEntry("tableNumber", 2);
-        assertThat(dto).containsKey("tableId");
+        assertThat(dto).containsEntry("userId", u.getId());
+        assertThat(dto).containsEntry("tableNumber", null);
+        verify(userRepository, times(1)).findByUsername(username);
+        verifyNoInteractions(restaurantTableRepository);
     }
 
     @Test
-    void login_nonUserRole_success_removesSessionAttrs_and_returnsAuth() {
+    void login_nonUserRole_success_returnsAuth_withoutWritingUser() {
         LoginRequestDto dto = new LoginRequestDto();
         dto.setUsername("admin");
         dto.setPassword("pw");
@@ -228,21 +256,19 @@ class UserServiceTest {
         u.setRole(role);
 
         when(userRepository.findByUsername("admin")).thenReturn(Optional.of(u));
-        when(passwordEncoder.matches("pw", "h")).thenReturn(true);
-        when(jwtUtils.generateToken(eq("admin"), anyList())).thenReturn("tok");
+        when(passwordHasher.matches("pw", "h")).thenReturn(true);
+        when(jwtUtils.generateToken(eq("admin"), anyList(), anyMap())).thenReturn("tok");
 
-        HttpSession session = mock(HttpSession.class);
-
-        AuthResponseDto resp = userService.login(dto, session);
+        AuthResponseDto resp = userService.login(dto);
         assertThat(resp.getToken()).isEqualTo("tok");
         assertThat(resp.getUsername()).isEqualTo("admin");
         assertThat(resp.getTableNumber()).isNull();
-        verify(session).removeAttribute("tableNumber");
-        verify(session).removeAttribute("tableId");
+        verify(userRepository, never()).save(any());
     }
 
     @Test
-    void login_userRole_requiresTableNumber_and_tablePin_and_setsSession() {
+    @SuppressWarnings("unchecked")
+    void login_userRole_signsTableIntoToken() {
         LoginRequestDto dto = new LoginRequestDto();
         dto.setUsername("user1");
         dto.setPassword("pw");
@@ -252,6 +278,7 @@ class UserServiceTest {
         User u = new User();
         u.setId(UUID.randomUUID());
         u.setUsername("user1");
+        u.setFullName("Guest One");
         u.setPasswordHash("h");
         Role rUser = new Role(); rUser.setName("ROLE_USER");
         u.setRole(rUser);
@@ -262,21 +289,24 @@ class UserServiceTest {
         table.setPinCode("1234");
 
         when(userRepository.findByUsername("user1")).thenReturn(Optional.of(u));
-        when(passwordEncoder.matches("pw", "h")).thenReturn(true);
+        when(passwordHasher.matches("pw", "h")).thenReturn(true);
         when(restaurantTableRepository.findByCode("T5")).thenReturn(Optional.of(table));
-        when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(jwtUtils.generateToken(eq("user1"), anyList())).thenReturn("tt");
+        when(jwtUtils.generateToken(eq("user1"), anyList(), anyMap())).thenReturn("tt");
 
-        HttpSession session = mock(HttpSession.class);
-        when(session.getId()).thenReturn("sess-42");
-
-        AuthResponseDto resp = userService.login(dto, session);
+        AuthResponseDto resp = userService.login(dto);
         assertThat(resp.getToken()).isEqualTo("tt");
         assertThat(resp.getTableNumber()).isEqualTo(5);
         assertThat(resp.getTableId()).isEqualTo(table.getId());
-        verify(session).setAttribute("tableNumber", 5);
-        verify(session).setAttribute("tableId", table.getId());
-        verify(userRepository, atLeastOnce()).save(any(User.class));
+
+        ArgumentCaptor<Map<String, Object>> claims = ArgumentCaptor.forClass(Map.class);
+        verify(jwtUtils).generateToken(eq("user1"), eq(List.of("ROLE_USER")), claims.capture());
+        assertThat(claims.getValue())
+                .containsEntry(JwtPrincipal.USER_ID, u.getId())
+                .containsEntry(JwtPrincipal.ROLE, "ROLE_USER")
+                .containsEntry(JwtPrincipal.FULL_NAME, "Guest One")
+                .containsEntry(JwtPrincipal.TABLE_NUMBER, 5)
+                .containsEntry(JwtPrincipal.TABLE_ID, table.getId());
+        verify(userRepository, never()).save(any());
     }
 
     @Test
@@ -293,9 +323,9 @@ class UserServiceTest {
         u.setRole(rUser);
 
         when(userRepository.findByUsername("user2")).thenReturn(Optional.of(u));
-        when(passwordEncoder.matches("pw", "h")).thenReturn(true);
+        when(passwordHasher.matches("pw", "h")).thenReturn(true);
 
-        assertThatThrownBy(() -> userService.login(dto, null))
+        assertThatThrownBy(() -> userService.login(dto))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("tableNumber required");
     }
@@ -320,14 +350,39 @@ class UserServiceTest {
         table.setPinCode("1717");
 
         when(userRepository.findByUsername("user3")).thenReturn(Optional.of(u));
-        when(passwordEncoder.matches("pw", "h")).thenReturn(true);
+        when(passwordHasher.matches("pw", "h")).thenReturn(true);
         when(restaurantTableRepository.findByCode("T7")).thenReturn(Optional.of(table));
 
-        assertThatThrownBy(() -> userService.login(dto, null))
+        assertThatThrownBy(() -> userService.login(dto))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Invalid table pin");
     }
 
+    @Test
+    void login_rehashesPassword_whenCostChanged() {
+        LoginRequestDto dto = new LoginRequestDto();
+        dto.setUsername("admin");
+        dto.setPassword("pw");
+
+        User u = new User();
+        u.setId(UUID.randomUUID());
+        u.setUsername("admin");
+        u.setPasswordHash("old-hash");
+        Role admin = new Role(); admin.setName("ROLE_ADMIN");
+        u.setRole(admin);
+
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(u));
+        when(passwordHasher.matches("pw", "old-hash")).thenReturn(true);
+        when(passwordHasher.needsRehash("old-hash")).thenReturn(true);
+        when(passwordHasher.encode("pw")).thenReturn("new-hash");
+        when(jwtUtils.generateToken(eq("admin"), anyList(), anyMap())).thenReturn("tok");
+
+        userService.login(dto);
+
+        assertThat(u.getPasswordHash()).isEqualTo("new-hash");
+        verify(userRepository).save(u);
+    }
+
     @Test
     void login_invalidCredentials_throws() {
         LoginRequestDto dto = new LoginRequestDto();
@@ -335,7 +390,7 @@ class UserServiceTest {
         dto.setPassword("x");
 
         when(userRepository.findByUsername("no")).thenReturn(Optional.empty());
-        assertThatThrownBy(() -> userService.login(dto, null))
+        assertThatThrownBy(() -> userService.login(dto))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Invalid credentials");
     }
@@ -348,7 +403,7 @@ class UserServiceTest {
         req.setFullName("Full");
 
         when(userRepository.findByUsername("ruser")).thenReturn(Optional.empty());
-        when(passwordEncoder.encode("pw")).thenReturn("h");
+        when(passwordHasher.encode("pw")).thenReturn("h");
         Role role = new Role(); role.setName("ROLE_USER");
         when(roleRepository.findByName("ROLE_USER")).thenReturn(Optional.of(role));
         when(userRepository.save(any(User.class))).thenAnswer(inv -> {
@@ -356,7 +411,7 @@ class UserServiceTest {
             uu.setId(UUID.randomUUID());
             return uu;
         });
-        when(jwtUtils.generateToken(eq("ruser"), anyList())).thenReturn("tok-r");
+        when(jwtUtils.generateToken(eq("ruser"), anyList(), anyMap())).thenReturn("tok-r");
 
         AuthResponseDto out = userService.register(req);
         assertThat(out.getUsername()).isEqualTo("ruser");
@@ -365,7 +420,7 @@ class UserServiceTest {
     }
 
     @Test
-    void me_principal_string_and_session_handling() {
+    void me_principal_string_loadsUser() {
         String username = "strUser";
         Authentication auth = mock(Authentication.class);
         when(auth.isAuthenticated()).thenReturn(true);
@@ -376,14 +431,10 @@ class UserServiceTest {
         u.setUsername(username);
         Role rUser = new Role(); rUser.setName("ROLE_USER");
         u.setRole(rUser);
-        u.setSessionTableNumber(4);
 
         when(userRepository.findByUsername(username)).thenReturn(Optional.of(u));
 
-        HttpSession session = mock(HttpSession.class);
-        when(session.getAttributeNames()).thenReturn(Collections.enumeration(Collections.emptyList()));
-
-        Map<String, Object> dto = userService.me(auth, session);
+        Map<String, Object> dto = userService.me(auth);
         assertThat(dto).containsEntry("username", username);
         assertThat(dto).containsEntry("role", "ROLE_USER");
         assertThat(dto).containsKey("userId");
@@ -404,7 +455,7 @@ class UserServiceTest {
         // DO NOT stub userRepository.findByUsername here — the service does not call it for Map principals,
         // so stubbing it would be unnecessary and lead to UnnecessaryStubbingException.
 
-        Map<String, Object> dto = userService.me(auth, null);
+        Map<String, Object> dto = userService.me(auth);
         assertThat(dto).containsEntry("username", "muser");
         assertThat(dto).containsEntry("extra", "x");
     }
@@ -428,7 +479,7 @@ class UserServiceTest {
 
         when(userRepository.findByUsername("uduser")).thenReturn(Optional.of(u));
 
-        Map<String, Object> dto = userService.me(auth, null);
+        Map<String, Object> dto = userService.me(auth);
         assertThat(dto).containsEntry("username", "uduser");
         assertThat(dto).containsKey("authorities");
         assertThat(dto).containsEntry("role", "ROLE_USER");
@@ -440,7 +491,7 @@ class UserServiceTest {
         u.setUsername("newu");
         u.setRole(null); // missing role
 
-        when(passwordEncoder.encode("raw")).thenReturn("encoded");
+        when(passwordHasher.encode("raw")).thenReturn("encoded");
         when(roleRepository.findByName("ROLE_USER")).thenReturn(Optional.empty());
         Role savedRole = new Role(); savedRole.setName("ROLE_USER");
         when(roleRepository.save(any(Role.class))).thenReturn(savedRole);
@@ -481,7 +532,7 @@ class UserServiceTest {
 
     @Test
     void login_nullDto_throwsIllegalArgument() {
-        assertThatThrownBy(() -> userService.login(null, null))
+        assertThatThrownBy(() -> userService.login(null))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("username and password are required");
     }
@@ -497,20 +548,19 @@ class UserServiceTest {
         u.setPasswordHash("hash");
 
         when(userRepository.findByUsername("bob")).thenReturn(Optional.of(u));
-        when(passwordEncoder.matches("pw", "hash")).thenReturn(false);
+        when(passwordHasher.matches("pw", "hash")).thenReturn(false);
 
-        assertThatThrownBy(() -> userService.login(dto, null))
+        assertThatThrownBy(() -> userService.login(dto))
                 .isInstanceOf(RuntimeException.class) // ResourceNotFoundException extends RuntimeException
                 .hasMessageContaining("Invalid credentials");
     }
 
     @Test
-    void login_userRole_withNullSession_persistsSessionTableNumber_and_returnsAuth() {
+    void login_userRole_returnsAuth_withoutPersistingSessionTable() {
         LoginRequestDto dto = new LoginRequestDto();
         dto.setUsername("u1");
         dto.setPassword("pw");
         dto.setTableNumber(9);
-        // corrected pin to match stubbed table pinCode("9999")
         dto.setTablePin("9999");
 
         User u = new User();
@@ -526,76 +576,15 @@ class UserServiceTest {
         table.setPinCode("9999");
 
         when(userRepository.findByUsername("u1")).thenReturn(Optional.of(u));
-        when(passwordEncoder.matches("pw", "h")).thenReturn(true);
+        when(passwordHasher.matches("pw", "h")).thenReturn(true);
         when(restaurantTableRepository.findByCode("T9")).thenReturn(Optional.of(table));
-        when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(jwtUtils.generateToken(eq("u1"), anyList())).thenReturn("jwt-xyz");
+        when(jwtUtils.generateToken(eq("u1"), anyList(), anyMap())).thenReturn("jwt-xyz");
 
-        // session is null — service should still persist sessionTableNumber on the user
-        AuthResponseDto resp = userService.login(dto, null);
+        AuthResponseDto resp = userService.login(dto);
 
         assertThat(resp.getToken()).isEqualTo("jwt-xyz");
         assertThat(resp.getTableNumber()).isEqualTo(9);
-        verify(userRepository).save(any(User.class));
-    }
-
-    @Test
-    void me_sessionTableNumber_asNumber_is_used_directly() {
-        String username = "numUser";
-        Authentication auth = mock(Authentication.class);
-        when(auth.isAuthenticated()).thenReturn(true);
-
-        UserDetails ud = mock(UserDetails.class);
-        when(ud.getUsername()).thenReturn(username);
-        when(auth.getPrincipal()).thenReturn(ud);
-        doReturn(List.of()).when(ud).getAuthorities(); // authorities empty
-
-        User u = new User();
-        u.setId(UUID.randomUUID());
-        u.setUsername(username);
-        Role rUser = new Role(); rUser.setName("ROLE_USER");
-        u.setRole(rUser);
-        u.setSessionTableNumber(null);
-
-        when(userRepository.findByUsername(username)).thenReturn(Optional.of(u));
-
-        HttpSession session = mock(HttpSession.class);
-        when(session.getAttributeNames()).thenReturn(Collections.enumeration(Collections.emptyList()));
-        when(session.getAttribute("tableNumber")).thenReturn(42);
-
-        Map<String, Object> dto = userService.me(auth, session);
-
-        assertThat(dto).containsEntry("tableNumber", 42);
-    }
-
-    @Test
-    void me_sessionTableNumber_string_nonNumeric_falls_back_to_db() {
-        String username = "strFail";
-        Authentication auth = mock(Authentication.class);
-        when(auth.isAuthenticated()).thenReturn(true);
-
-        UserDetails ud = mock(UserDetails.class);
-        when(ud.getUsername()).thenReturn(username);
-        doReturn(List.of()).when(ud).getAuthorities();
-        when(auth.getPrincipal()).thenReturn(ud);
-
-        User u = new User();
-        u.setId(UUID.randomUUID());
-        u.setUsername(username);
-        Role rUser = new Role(); rUser.setName("ROLE_USER");
-        u.setRole(rUser);
-        u.setSessionTableNumber(4);
-
-        when(userRepository.findByUsername(username)).thenReturn(Optional.of(u));
-
-        HttpSession session = mock(HttpSession.class);
-        when(session.getAttributeNames()).thenReturn(Collections.enumeration(Collections.emptyList()));
-        when(session.getAttribute("tableNumber")).thenReturn("not-a-number");
-
-        Map<String, Object> dto = userService.me(auth, session);
-
-        // should fallback to DB sessionTableNumber (4)
-        assertThat(dto).containsEntry("tableNumber", 4);
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -614,10 +603,10 @@ class UserServiceTest {
         User u = new User();
         u.setPasswordHash("encoded-hash");
 
-        when(passwordEncoder.matches("raw-pass", "encoded-hash")).thenReturn(true);
+        when(passwordHasher.matches("raw-pass", "encoded-hash")).thenReturn(true);
         boolean ok = userService.verifyPassword(u, "raw-pass");
         assertThat(ok).isTrue();
-        verify(passwordEncoder).matches("raw-pass", "encoded-hash");
+        verify(passwordHasher).matches("raw-pass", "encoded-hash");
     }
 
     @Test
@@ -628,7 +617,7 @@ class UserServiceTest {
         u.setPasswordHash("old-encoded");
 
         when(userRepository.findById(id)).thenReturn(Optional.of(u));
-        when(passwordEncoder.encode("newpass")).thenReturn("new-encoded");
+        when(passwordHasher.encode("newpass")).thenReturn("new-encoded");
 
         userService.setPassword(id, "newpass");
 
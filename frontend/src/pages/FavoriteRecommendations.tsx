@@ -5,10 +5,14 @@ import { toast } from 'sonner';
 import { listFavorites, FavoriteDto, removeFavorite } from '@/services/api/favorites';
 import { Loader2 } from 'lucide-react';
 
+const PAGE_SIZE = 20;
+
 const FavoriteRecommendations: React.FC = () => {
   const [favorites, setFavorites] = useState<FavoriteDto[]>([]);
   const [loading, setLoading] = useState(false);
   const [removing, setRemoving] = useState<string | null>(null);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   useEffect(() => {
     loadFavorites();
@@ -17,8 +21,9 @@ const FavoriteRecommendations: React.FC = () => {
   const loadFavorites = async () => {
     setLoading(true);
     try {
-      const favs = await listFavorites();
-      setFavorites(favs);
+      const page = await listFavorites({ limit: PAGE_SIZE });
+      setFavorites(page.items);
+      setNextCursor(page.nextCursor ?? null);
     } catch (err: any) {
       console.error('Failed to load favorites', err);
       toast.error('Failed to load favourites');
@@ -27,6 +32,21 @@ const FavoriteRecommendations: React.FC = () => {
     }
   };
 
+  const loadMore = async () => {
+    if (!nextCursor) return;
+    setLoadingMore(true);
+    try {
+      const page = await listFavorites({ cursor: nextCursor, limit: PAGE_SIZE });
+      setFavorites(prev => [...prev, ...page.items]);
+      setNextCursor(page.nextCursor ?? null);
+    } catch (err: any) {
+      console.error('Failed to load more favorites', err);
+      toast.error('Failed to load favourites');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleRemove = async (id?: string) => {
     if (!id) return;
     setRemoving(id);
@@ -75,6 +95,13 @@ const FavoriteRecommendations: React.FC = () => {
               </CardHeader>
             </Card>
           ))}
+          {nextCursor && (
+            <div className="flex justify-center">
+              <Button variant="outline" onClick={loadMore} disabled={loadingMore}>
+                {loadingMore ? <Loader2 className="h-4 w-4 animate-spin" /> : 'Load more'}
+              </Button>
+            </div>
+          )}
         </div>
       )}
     </div>
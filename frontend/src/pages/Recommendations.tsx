@@ -24,8 +24,15 @@ const Recommendations: React.FC = () => {
   const fetchFavorites = async () => {
     setFavLoading(true);
     try {
-      const favs = await listFavorites();
-      setFavorites(favs || []);
+      // every favourite is needed to mark recommendations, so walk all pages
+      const all: FavoriteDto[] = [];
+      let cursor: string | undefined;
+      do {
+        const page = await listFavorites({ cursor, limit: 100 });
+        all.push(...page.items);
+        cursor = page.nextCursor ?? undefined;
+      } while (cursor);
+      setFavorites(all);
     } catch (err: any) {
       console.error('Failed to load favorites', err);
       
@@ -11,7 +11,6 @@ export type AdminUser = {
   fullName?: string;
   role?: RoleShort;
   blocked?: boolean;
-  sessionTableNumber?: number | null;
 };
 
 export type RegisterPayload = {
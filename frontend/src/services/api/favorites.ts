@@ -25,9 +25,19 @@ export type FavoriteDto = {
   createdAt?: string;
 };
 
-export const listFavorites = async (): Promise<FavoriteDto[]> => {
-  const res = await api.get('recommendations/favorites');
-  return res.data || [];
+export type FavoritePage = {
+  items: FavoriteDto[];
+  nextCursor?: string | null;
+};
+
+export type FavoritePageParams = {
+  cursor?: string;
+  limit?: number;
+};
+
+export const listFavorites = async ({ cursor, limit }: FavoritePageParams = {}): Promise<FavoritePage> => {
+  const res = await api.get('recommendations/favorites', { params: { cursor, limit } });
+  return { items: res.data?.items || [], nextCursor: res.data?.nextCursor ?? null };
 };
 
 export const addFavorite = async (payload: FavoritePayload): Promise<FavoriteDto> => {
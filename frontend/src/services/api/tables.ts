@@ -11,6 +11,9 @@ export type TableDto = {
   pinCode?: string;
   tableNumber?: number | null;
   occupiedUntil?: string | null;
+  nextReservationId?: string | null;
+  nextReservationStart?: string | null;
+  nextReservationEnd?: string | null;
 };
 
 export const listTables = async (): Promise<TableDto[]> => {